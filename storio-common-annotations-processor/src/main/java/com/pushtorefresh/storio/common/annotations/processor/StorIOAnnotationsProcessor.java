@@ -1,6 +1,7 @@
 package com.pushtorefresh.storio.common.annotations.processor;
 
 import com.pushtorefresh.storio.common.annotations.processor.generate.Generator;
+import com.pushtorefresh.storio.common.annotations.processor.generate.PackageGenerator;
 import com.pushtorefresh.storio.common.annotations.processor.introspection.StorIOColumnMeta;
 import com.pushtorefresh.storio.common.annotations.processor.introspection.StorIOTypeMeta;
 
@@ -8,10 +9,13 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.Filer;
@@ -172,6 +176,12 @@ public abstract class StorIOAnnotationsProcessor
                 deleteResolverGenerator.generateJavaFile(typeMeta).writeTo(filer);
                 mappingGenerator.generateJavaFile(typeMeta).writeTo(filer);
             }
+
+            final PackageGenerator<TypeMeta> mappingsGenerator = createMappings();
+
+            for (Map.Entry<String, List<TypeMeta>> typesOfPackage : groupByPackage(annotatedClasses).entrySet()) {
+                mappingsGenerator.generateJavaFile(typesOfPackage.getKey(), typesOfPackage.getValue()).writeTo(filer);
+            }
         } catch (ProcessingException e) {
             messager.printMessage(ERROR, e.getMessage(), e.element());
         } catch (Exception e) {
@@ -181,6 +191,30 @@ public abstract class StorIOAnnotationsProcessor
         return true;
     }
 
+    /**
+     * Groups annotated types by their packages
+     *
+     * @param annotatedClasses map of annotated classes
+     * @return non-null map(packageName, types of package) sorted by names of packages
+     */
+    @NotNull
+    private Map<String, List<TypeMeta>> groupByPackage(@NotNull Map<TypeElement, TypeMeta> annotatedClasses) {
+        final Map<String, List<TypeMeta>> results = new TreeMap<String, List<TypeMeta>>();
+
+        for (TypeMeta typeMeta : annotatedClasses.values()) {
+            List<TypeMeta> typesOfPackage = results.get(typeMeta.packageName);
+
+            if (typesOfPackage == null) {
+                typesOfPackage = new ArrayList<TypeMeta>();
+                results.put(typeMeta.packageName, typesOfPackage);
+            }
+
+            typesOfPackage.add(typeMeta);
+        }
+
+        return results;
+    }
+
     /**
      * Processes annotated class
      *
@@ -227,4 +261,7 @@ public abstract class StorIOAnnotationsProcessor
 
     @NotNull
     protected abstract Generator<TypeMeta> createMapping();
+
+    @NotNull
+    protected abstract PackageGenerator<TypeMeta> createMappings();
 }
@@ -6,5 +6,7 @@ public class Common {
 
     public static final ClassName ANDROID_NON_NULL_ANNOTATION_CLASS_NAME = ClassName.get("android.support.annotation", "NonNull");
 
+    public static final ClassName ANDROID_NULLABLE_ANNOTATION_CLASS_NAME = ClassName.get("android.support.annotation", "Nullable");
+
     public static final String INDENT = "    "; // 4 spaces
 }
@@ -0,0 +1,17 @@
+package com.pushtorefresh.storio.common.annotations.processor.generate;
+
+import com.pushtorefresh.storio.common.annotations.processor.introspection.StorIOTypeMeta;
+import com.squareup.javapoet.JavaFile;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Generates one file for all annotated types of the package.
+ */
+public interface PackageGenerator<TypeMeta extends StorIOTypeMeta> {
+
+    @NotNull
+    JavaFile generateJavaFile(@NotNull String packageName, @NotNull List<TypeMeta> typeMetas);
+}
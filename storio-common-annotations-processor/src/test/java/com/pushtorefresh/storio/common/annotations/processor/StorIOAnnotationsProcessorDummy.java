@@ -1,6 +1,7 @@
 package com.pushtorefresh.storio.common.annotations.processor;
 
 import java.lang.annotation.Annotation;
+import java.util.List;
 import java.util.Map;
 
 import javax.annotation.processing.RoundEnvironment;
@@ -9,6 +10,7 @@ import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
 
 import com.pushtorefresh.storio.common.annotations.processor.generate.Generator;
+import com.pushtorefresh.storio.common.annotations.processor.generate.PackageGenerator;
 import com.pushtorefresh.storio.common.annotations.processor.introspection.StorIOColumnMeta;
 import com.pushtorefresh.storio.common.annotations.processor.introspection.StorIOTypeMeta;
 import com.squareup.javapoet.JavaFile;
@@ -107,4 +109,19 @@ public final class StorIOAnnotationsProcessorDummy
 		return mapping;
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	protected PackageGenerator<StorIOTypeMeta> createMappings() {
+		PackageGenerator mappings = new PackageGenerator<StorIOTypeMeta>() {
+
+			@Override
+			public JavaFile generateJavaFile(String packageName, List<StorIOTypeMeta> typeMetas) {
+				final TypeSpec mappings = TypeSpec.classBuilder("TEST").build();
+
+				return JavaFile.builder("TEST", mappings).build();
+			}
+		};
+		return mappings;
+	}
+
 }
@@ -4,6 +4,7 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import rx.Observable;
+import rx.Scheduler;
 
 /**
  * FOR INTERNAL USAGE ONLY.
@@ -21,6 +22,17 @@ public final class ChangesBus<T> {
                 : null;
     }
 
+    /**
+     * Creates bus that dispatches changes on one worker of passed scheduler:
+     * {@link #onNext(Object)} only adds changes to lock-free queue and returns,
+     * observers receive changes in the order they were sent.
+     *
+     * @param scheduler scheduler for dispatching of changes, RxJava should be in the ClassPath.
+     */
+    public ChangesBus(@NonNull Scheduler scheduler) {
+        rxChangesBus = new RxChangesBus<T>(scheduler);
+    }
+
     public void onNext(@NonNull T next) {
         if (rxChangesBus != null) {
             rxChangesBus.onNext(next);
@@ -33,4 +45,13 @@ public final class ChangesBus<T> {
                 ? rxChangesBus.asObservable()
                 : null;
     }
+
+    /**
+     * Releases worker of the scheduler if bus dispatches changes on it.
+     */
+    public void close() {
+        if (rxChangesBus != null) {
+            rxChangesBus.close();
+        }
+    }
 }
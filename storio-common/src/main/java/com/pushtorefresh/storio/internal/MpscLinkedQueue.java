@@ -0,0 +1,75 @@
+package com.pushtorefresh.storio.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * FOR INTERNAL USAGE ONLY.
+ * <p>
+ * Unbounded lock-free multi-producer single-consumer queue (Dmitry Vyukov's intrusive-less MPSC queue).
+ * <p>
+ * {@link #offer(Object)} can be called from any thread and costs one atomic swap,
+ * {@link #poll()} must be called by one thread at a time.
+ */
+final class MpscLinkedQueue<T> {
+
+    /**
+     * Last added node, producers swap it.
+     */
+    @NonNull
+    private final AtomicReference<Node<T>> producerNode;
+
+    /**
+     * Node before the first not consumed one, accessed only by consumer.
+     */
+    @NonNull
+    private Node<T> consumerNode;
+
+    MpscLinkedQueue() {
+        final Node<T> stub = new Node<T>(null);
+        producerNode = new AtomicReference<Node<T>>(stub);
+        consumerNode = stub;
+    }
+
+    void offer(@NonNull T value) {
+        final Node<T> node = new Node<T>(value);
+        final Node<T> previous = producerNode.getAndSet(node);
+
+        // Consumer sees the node only after this write, order of producers is already fixed by the swap
+        previous.next = node;
+    }
+
+    /**
+     * @return next value or {@code null} if queue is empty or next value is not linked yet.
+     */
+    @Nullable
+    T poll() {
+        final Node<T> next = consumerNode.next;
+
+        if (next == null) {
+            return null;
+        }
+
+        final T value = next.value;
+        // Let GC collect value, node becomes new stub
+        next.value = null;
+        consumerNode = next;
+
+        return value;
+    }
+
+    private static final class Node<T> {
+
+        @Nullable
+        T value;
+
+        @Nullable
+        volatile Node<T> next;
+
+        Node(@Nullable T value) {
+            this.value = value;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.pushtorefresh.storio.internal;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 import rx.Observable;
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.plugins.RxJavaPlugins;
 import rx.subjects.PublishSubject;
 import rx.subjects.Subject;
 
@@ -12,14 +18,106 @@ import rx.subjects.Subject;
 class RxChangesBus<T> {
 
     @NonNull
-    private final Subject<T, T> rxBus = PublishSubject.<T>create().toSerialized();
+    private final Subject<T, T> rxBus;
+
+    /**
+     * Queue of not dispatched changes, {@code null} if changes are dispatched on the thread that sent them.
+     */
+    @Nullable
+    private final MpscLinkedQueue<T> queue;
+
+    @Nullable
+    private final Scheduler.Worker worker;
+
+    /**
+     * Number of changes added to the queue but not seen by {@link #drain}.
+     */
+    @NonNull
+    private final AtomicInteger wip = new AtomicInteger();
+
+    @NonNull
+    private final Action0 drain = new Action0() {
+        @Override
+        public void call() {
+            drainQueue();
+        }
+    };
+
+    RxChangesBus() {
+        this(null);
+    }
+
+    /**
+     * @param scheduler if not {@code null} changes will be dispatched by one worker of the scheduler,
+     *                  otherwise they are dispatched on the thread that sent them.
+     */
+    RxChangesBus(@Nullable Scheduler scheduler) {
+        if (scheduler == null) {
+            rxBus = PublishSubject.<T>create().toSerialized();
+            queue = null;
+            worker = null;
+        } else {
+            // Only worker emits, so subject doesn't need serialization
+            rxBus = PublishSubject.create();
+            queue = new MpscLinkedQueue<T>();
+            worker = scheduler.createWorker();
+        }
+    }
 
     public void onNext(@NonNull T next) {
-        rxBus.onNext(next);
+        if (queue == null) {
+            rxBus.onNext(next);
+        } else {
+            queue.offer(next);
+
+            if (wip.getAndIncrement() == 0) {
+                //noinspection ConstantConditions
+                worker.schedule(drain);
+            }
+        }
     }
 
     @NonNull
     public Observable<T> asObservable() {
         return rxBus;
     }
+
+    /**
+     * Releases worker of the scheduler, changes sent after this call are not dispatched.
+     */
+    public void close() {
+        if (worker != null) {
+            worker.unsubscribe();
+        }
+    }
+
+    private void drainQueue() {
+        //noinspection ConstantConditions
+        final MpscLinkedQueue<T> queue = this.queue;
+        int missed = 1;
+
+        while (true) {
+            for (int i = 0; i < missed; i++) {
+                T next;
+
+                // Producer could increment wip before it linked node into the queue
+                while ((next = queue.poll()) == null) {
+                    Thread.yield();
+                }
+
+                try {
+                    rxBus.onNext(next);
+                } catch (Throwable throwable) {
+                    // Worker is shared by all observers, it should keep dispatching after failure of one of them
+                    RxJavaPlugins.getInstance().getErrorHandler().handleError(throwable);
+                }
+            }
+
+            missed = wip.addAndGet(-missed);
+
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
 }
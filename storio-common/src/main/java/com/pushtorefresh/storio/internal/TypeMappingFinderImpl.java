@@ -5,7 +5,9 @@ import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.TypeMappingFinder;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -20,6 +22,11 @@ public class TypeMappingFinderImpl implements TypeMappingFinder {
     private final Map<Class<?>, TypeMapping<?>> indirectTypesMappingCache
             = new ConcurrentHashMap<Class<?>, TypeMapping<?>>();
 
+    // Types without direct or indirect type mapping, so repeated misses don't walk through parent types again.
+    @NonNull
+    private final Set<Class<?>> typesWithoutTypeMapping
+            = Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+
     @SuppressWarnings("unchecked")
     @Nullable
     @Override
@@ -44,6 +51,10 @@ public class TypeMappingFinderImpl implements TypeMappingFinder {
             return directOrCachedMapping;
         }
 
+        if (typesWithoutTypeMapping.contains(type)) {
+            return null;
+        }
+
         // Okay, we don't have direct type mapping.
         // And we don't have cache for indirect type mapping.
 
@@ -85,6 +96,7 @@ public class TypeMappingFinderImpl implements TypeMappingFinder {
         }
 
         // No type mapping found.
+        typesWithoutTypeMapping.add(type);
         return null;
     }
 
@@ -112,6 +124,10 @@ public class TypeMappingFinderImpl implements TypeMappingFinder {
     @Override
     public void directTypeMapping(@Nullable Map<Class<?>, ? extends TypeMapping<?>> directTypeMapping) {
         this.directTypeMapping = directTypeMapping;
+
+        // Results of search depend on direct type mapping.
+        indirectTypesMappingCache.clear();
+        typesWithoutTypeMapping.clear();
     }
 
     @Nullable
@@ -0,0 +1,239 @@
+package com.pushtorefresh.storio.operations.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.operations.PreparedOperation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import rx.Observable;
+import rx.Producer;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.exceptions.Exceptions;
+import rx.functions.Action0;
+
+/**
+ * Required to avoid problems with ClassLoader when RxJava is not in ClassPath
+ * We can not use anonymous classes from RxJava directly in StorIO, ClassLoader won't be happy :(
+ * <p>
+ * Emits result of {@link PreparedOperation#executeAsBlocking()} after subscription
+ * and re-executes it after changes, but conflates them:
+ * changes that arrive while operation is executing collapse into one pending re-execution
+ * and operation is not executed until subscriber requests next result.
+ * <p>
+ * If {@link Scheduler} is passed, re-executions happen on one of its workers,
+ * so senders of changes don't wait for operation and bursts of changes are collapsed,
+ * otherwise operation is executed on the thread that sent changes
+ * and only changes sent concurrently are collapsed.
+ * <p>
+ * For internal usage only!
+ */
+public final class OnSubscribeConflatingReQuery<Result> implements Observable.OnSubscribe<Result> {
+
+    @NonNull
+    private final PreparedOperation<Result> preparedOperation;
+
+    @NonNull
+    private final Observable<?> changes;
+
+    @Nullable
+    private final Scheduler scheduler;
+
+    private OnSubscribeConflatingReQuery(@NonNull PreparedOperation<Result> preparedOperation,
+                                         @NonNull Observable<?> changes,
+                                         @Nullable Scheduler scheduler) {
+        this.preparedOperation = preparedOperation;
+        this.changes = changes;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Creates new instance of {@link OnSubscribeConflatingReQuery}
+     *
+     * @param preparedOperation non-null instance of {@link PreparedOperation} which will be used to provide result to subscribers
+     * @param changes           non-null {@link Observable} of changes, each emission marks result as outdated
+     * @param scheduler         nullable {@link Scheduler} to re-execute operation on
+     * @param <Result>          type of result of {@link PreparedOperation}
+     * @return new instance of {@link OnSubscribeConflatingReQuery}
+     */
+    @NonNull
+    public static <Result> Observable.OnSubscribe<Result> newInstance(@NonNull PreparedOperation<Result> preparedOperation,
+                                                                       @NonNull Observable<?> changes,
+                                                                       @Nullable Scheduler scheduler) {
+        return new OnSubscribeConflatingReQuery<Result>(preparedOperation, changes, scheduler);
+    }
+
+    @Override
+    public void call(Subscriber<? super Result> subscriber) {
+        final ReQueryProducer<Result> producer = new ReQueryProducer<Result>(
+                preparedOperation,
+                subscriber,
+                scheduler != null ? scheduler.createWorker() : null
+        );
+
+        producer.subscribeTo(changes);
+    }
+
+    // Extends AtomicLong to keep number of requested results without extra allocation
+    static final class ReQueryProducer<Result> extends AtomicLong implements Producer, Action0 {
+
+        @NonNull
+        private final PreparedOperation<Result> preparedOperation;
+
+        @NonNull
+        private final Subscriber<? super Result> child;
+
+        @Nullable
+        private final Scheduler.Worker worker;
+
+        @NonNull
+        private final AtomicInteger wip = new AtomicInteger();
+
+        // First result is pending right after subscription
+        private volatile boolean pending = true;
+
+        private volatile boolean changesCompleted;
+
+        @Nullable
+        private volatile Throwable changesError;
+
+        ReQueryProducer(@NonNull PreparedOperation<Result> preparedOperation,
+                        @NonNull Subscriber<? super Result> child,
+                        @Nullable Scheduler.Worker worker) {
+            this.preparedOperation = preparedOperation;
+            this.child = child;
+            this.worker = worker;
+        }
+
+        void subscribeTo(@NonNull Observable<?> changes) {
+            if (worker != null) {
+                child.add(worker);
+            }
+
+            final Subscriber<Object> changesSubscriber = new Subscriber<Object>() {
+                @Override
+                public void onCompleted() {
+                    changesCompleted = true;
+                    drain();
+                }
+
+                @Override
+                public void onError(Throwable e) {
+                    changesError = e;
+                    drain();
+                }
+
+                @Override
+                public void onNext(Object change) {
+                    pending = true;
+                    drain();
+                }
+            };
+
+            child.add(changesSubscriber);
+
+            // Subscribe to changes before first execution to not miss changes that happen during it
+            changes.unsafeSubscribe(changesSubscriber);
+
+            child.setProducer(this);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("n >= 0 required, n = " + n);
+            }
+
+            if (n > 0) {
+                addRequested(n);
+                drain();
+            }
+        }
+
+        /**
+         * Adds {@code n} to requested amount, capped at {@link Long#MAX_VALUE}.
+         */
+        private void addRequested(long n) {
+            for (; ; ) {
+                final long current = get();
+
+                if (current == Long.MAX_VALUE) {
+                    return;
+                }
+
+                long next = current + n;
+
+                if (next < 0) {
+                    next = Long.MAX_VALUE;
+                }
+
+                if (compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) {
+                if (worker != null) {
+                    worker.schedule(this);
+                } else {
+                    call();
+                }
+            }
+        }
+
+        @Override
+        public void call() {
+            int missed = 1;
+
+            for (; ; ) {
+                if (child.isUnsubscribed()) {
+                    return;
+                }
+
+                final Throwable error = changesError;
+
+                if (error != null) {
+                    child.onError(error);
+                    return;
+                }
+
+                if (pending && get() != 0) {
+                    // Operation executed after this point sees all changes sent before it
+                    pending = false;
+
+                    final Result result;
+
+                    try {
+                        result = preparedOperation.executeAsBlocking();
+                    } catch (Throwable t) {
+                        Exceptions.throwOrReport(t, child);
+                        return;
+                    }
+
+                    if (get() != Long.MAX_VALUE) {
+                        decrementAndGet();
+                    }
+
+                    child.onNext(result);
+                    continue;
+                }
+
+                if (changesCompleted && !pending) {
+                    child.onCompleted();
+                    return;
+                }
+
+                missed = wip.addAndGet(-missed);
+
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.util.Random;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 public class TypeMappingFinderImplTest {
@@ -117,6 +118,44 @@ public class TypeMappingFinderImplTest {
         verify(typeMappingFinder.directTypeMapping()).get(ClassEntity.class);
     }
 
+    @Test
+    public void missingTypeMappingShouldReturnFromCache() {
+        //noinspection unchecked
+        final TypeMapping<String> typeMapping = mock(TypeMapping.class);
+
+        Map<Class<?>, TypeMapping<?>> directTypeMapping = spy(new HashMap<Class<?>, TypeMapping<?>>(1));
+        directTypeMapping.put(String.class, typeMapping);
+
+        TypeMappingFinder typeMappingFinder = new TypeMappingFinderImpl();
+        typeMappingFinder.directTypeMapping(directTypeMapping);
+
+        assertThat(typeMappingFinder.findTypeMapping(DescendantClass.class)).isNull();
+
+        // The second call
+        assertThat(typeMappingFinder.findTypeMapping(DescendantClass.class)).isNull();
+
+        // Parent types should be checked only by the first call, the second returns miss from cache
+        verify(typeMappingFinder.directTypeMapping(), times(2)).get(DescendantClass.class);
+        verify(typeMappingFinder.directTypeMapping(), times(2)).get(ClassEntity.class);
+        verify(typeMappingFinder.directTypeMapping(), times(2)).get(InterfaceEntity.class);
+    }
+
+    @Test
+    public void cachesShouldBeClearedWhenDirectTypeMappingChanges() {
+        //noinspection unchecked
+        final TypeMapping<ClassEntity> typeMapping = mock(TypeMapping.class);
+
+        TypeMappingFinder typeMappingFinder = new TypeMappingFinderImpl();
+        typeMappingFinder.directTypeMapping(new HashMap<Class<?>, TypeMapping<?>>());
+
+        assertThat(typeMappingFinder.findTypeMapping(DescendantClass.class)).isNull();
+
+        typeMappingFinder.directTypeMapping(
+                Collections.<Class<?>, TypeMapping<?>>singletonMap(ClassEntity.class, typeMapping));
+
+        assertThat(typeMappingFinder.findTypeMapping(DescendantClass.class)).isSameAs(typeMapping);
+    }
+
     @Test
     public void typeMappingShouldWorkInCaseOfMoreConcreteTypeMapping() {
         //noinspection unchecked
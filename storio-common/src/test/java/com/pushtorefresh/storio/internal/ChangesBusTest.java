@@ -6,6 +6,7 @@ import java.util.List;
 
 import rx.Observable;
 import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
 
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -57,4 +58,31 @@ public class ChangesBusTest {
         testSubscriber.assertReceivedOnNext(messages);
         testSubscriber.assertNoTerminalEvent();
     }
+
+    @Test
+    public void onNextShouldSendMessagesToObserverOnScheduler() {
+        TestScheduler testScheduler = new TestScheduler();
+        ChangesBus<String> changesBus = new ChangesBus<String>(testScheduler);
+
+        TestSubscriber<String> testSubscriber = new TestSubscriber<String>();
+
+        Observable<String> observable = changesBus.asObservable();
+        assertThat(observable).isNotNull();
+
+        //noinspection ConstantConditions
+        observable.subscribe(testSubscriber);
+
+        List<String> messages = asList("Not", "right", "now");
+
+        for (String message: messages) {
+            changesBus.onNext(message);
+        }
+
+        testSubscriber.assertNoValues();
+
+        testScheduler.triggerActions();
+
+        testSubscriber.assertReceivedOnNext(messages);
+        testSubscriber.assertNoTerminalEvent();
+    }
 }
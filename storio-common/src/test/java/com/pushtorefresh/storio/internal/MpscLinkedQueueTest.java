@@ -0,0 +1,99 @@
+package com.pushtorefresh.storio.internal;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MpscLinkedQueueTest {
+
+    @Test
+    public void pollShouldReturnNullForEmptyQueue() {
+        MpscLinkedQueue<String> queue = new MpscLinkedQueue<String>();
+        assertThat(queue.poll()).isNull();
+    }
+
+    @Test
+    public void shouldBeFifo() {
+        MpscLinkedQueue<String> queue = new MpscLinkedQueue<String>();
+
+        queue.offer("1");
+        queue.offer("2");
+        queue.offer("3");
+
+        assertThat(queue.poll()).isEqualTo("1");
+        assertThat(queue.poll()).isEqualTo("2");
+
+        queue.offer("4");
+
+        assertThat(queue.poll()).isEqualTo("3");
+        assertThat(queue.poll()).isEqualTo("4");
+        assertThat(queue.poll()).isNull();
+    }
+
+    @Test
+    public void shouldKeepOrderOfEachProducer() throws InterruptedException {
+        final MpscLinkedQueue<int[]> queue = new MpscLinkedQueue<int[]>();
+        final int numberOfProducers = 8;
+        final int numberOfValuesPerProducer = 10000;
+
+        final CountDownLatch startAllProducers = new CountDownLatch(1);
+        final CountDownLatch allProducersFinished = new CountDownLatch(numberOfProducers);
+
+        for (int producer = 0; producer < numberOfProducers; producer++) {
+            final int producerId = producer;
+
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startAllProducers.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+
+                    for (int i = 0; i < numberOfValuesPerProducer; i++) {
+                        queue.offer(new int[]{producerId, i});
+                    }
+
+                    allProducersFinished.countDown();
+                }
+            }).start();
+        }
+
+        startAllProducers.countDown();
+
+        final int[] lastValueOfProducer = new int[numberOfProducers];
+        final List<String> errors = new ArrayList<String>();
+        int numberOfPolledValues = 0;
+
+        for (int i = 0; i < numberOfProducers; i++) {
+            lastValueOfProducer[i] = -1;
+        }
+
+        // Consume concurrently with producers
+        while (numberOfPolledValues < numberOfProducers * numberOfValuesPerProducer) {
+            final int[] value = queue.poll();
+
+            if (value == null) {
+                Thread.yield();
+                continue;
+            }
+
+            if (value[1] != lastValueOfProducer[value[0]] + 1) {
+                errors.add("producer = " + value[0] + ", value = " + value[1]);
+            }
+
+            lastValueOfProducer[value[0]] = value[1];
+            numberOfPolledValues++;
+        }
+
+        assertThat(allProducersFinished.await(20, SECONDS)).isTrue();
+        assertThat(errors).isEmpty();
+        assertThat(queue.poll()).isNull();
+    }
+}
@@ -2,11 +2,20 @@ package com.pushtorefresh.storio.internal;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import rx.functions.Action1;
 import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
 
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class RxChangesBusTest {
 
@@ -31,4 +40,156 @@ public class RxChangesBusTest {
         testSubscriber.assertNoErrors();
         testSubscriber.assertNoTerminalEvent();
     }
+
+    @Test
+    public void onNextShouldNotWaitForDispatchOnScheduler() {
+        TestScheduler testScheduler = new TestScheduler();
+        RxChangesBus<String> rxChangesBus = new RxChangesBus<String>(testScheduler);
+
+        TestSubscriber<String> testSubscriber = new TestSubscriber<String>();
+
+        rxChangesBus
+                .asObservable()
+                .subscribe(testSubscriber);
+
+        List<String> messages = asList("first", "second", "third");
+
+        for (String message : messages) {
+            rxChangesBus.onNext(message);
+        }
+
+        // Messages are only enqueued
+        testSubscriber.assertNoValues();
+
+        testScheduler.triggerActions();
+
+        testSubscriber.assertReceivedOnNext(messages);
+        testSubscriber.assertNoErrors();
+        testSubscriber.assertNoTerminalEvent();
+    }
+
+    @Test
+    public void shouldKeepDispatchingAfterObserverFailure() {
+        TestScheduler testScheduler = new TestScheduler();
+        RxChangesBus<String> rxChangesBus = new RxChangesBus<String>(testScheduler);
+
+        final List<String> receivedMessages = new ArrayList<String>();
+
+        rxChangesBus
+                .asObservable()
+                .unsafeSubscribe(new TestSubscriber<String>() {
+                    @Override
+                    public void onNext(String message) {
+                        receivedMessages.add(message);
+
+                        if ("crash".equals(message)) {
+                            throw new IllegalStateException("test exception");
+                        }
+                    }
+                });
+
+        rxChangesBus.onNext("crash");
+        rxChangesBus.onNext("after crash");
+
+        testScheduler.triggerActions();
+
+        assertThat(receivedMessages).containsExactly("crash", "after crash");
+    }
+
+    @Test
+    public void shouldDispatchMessagesOfConcurrentSendersInOrderOfEachSender() throws InterruptedException {
+        final ExecutorService dispatchExecutor = Executors.newSingleThreadExecutor();
+
+        try {
+            final RxChangesBus<Integer> rxChangesBus = new RxChangesBus<Integer>(Schedulers.from(dispatchExecutor));
+
+            final int numberOfSenders = 8;
+            final int numberOfMessagesPerSender = 5000;
+
+            final CountDownLatch allMessagesReceived = new CountDownLatch(numberOfSenders * numberOfMessagesPerSender);
+            final int[] lastMessageOfSender = new int[numberOfSenders];
+            final List<Integer> outOfOrderMessages = new ArrayList<Integer>();
+            final List<Thread> dispatchThreads = new ArrayList<Thread>();
+
+            for (int i = 0; i < numberOfSenders; i++) {
+                lastMessageOfSender[i] = -1;
+            }
+
+            rxChangesBus
+                    .asObservable()
+                    .subscribe(new Action1<Integer>() {
+                        @Override
+                        public void call(Integer message) {
+                            // Single consumer, no synchronization required
+                            final int sender = message / numberOfMessagesPerSender;
+                            final int value = message % numberOfMessagesPerSender;
+
+                            if (value != lastMessageOfSender[sender] + 1) {
+                                outOfOrderMessages.add(message);
+                            }
+
+                            lastMessageOfSender[sender] = value;
+
+                            if (!dispatchThreads.contains(Thread.currentThread())) {
+                                dispatchThreads.add(Thread.currentThread());
+                            }
+
+                            allMessagesReceived.countDown();
+                        }
+                    });
+
+            final CountDownLatch startAllSenders = new CountDownLatch(1);
+
+            for (int i = 0; i < numberOfSenders; i++) {
+                final int sender = i;
+
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            startAllSenders.await();
+                        } catch (InterruptedException e) {
+                            throw new RuntimeException(e);
+                        }
+
+                        for (int j = 0; j < numberOfMessagesPerSender; j++) {
+                            rxChangesBus.onNext(sender * numberOfMessagesPerSender + j);
+                        }
+                    }
+                }).start();
+            }
+
+            startAllSenders.countDown();
+
+            assertThat(allMessagesReceived.await(20, SECONDS)).isTrue();
+            assertThat(outOfOrderMessages).isEmpty();
+            assertThat(dispatchThreads).hasSize(1);
+        } finally {
+            dispatchExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void closeShouldUnsubscribeWorkerOfScheduler() {
+        TestScheduler testScheduler = new TestScheduler();
+        RxChangesBus<String> rxChangesBus = new RxChangesBus<String>(testScheduler);
+
+        TestSubscriber<String> testSubscriber = new TestSubscriber<String>();
+
+        rxChangesBus
+                .asObservable()
+                .subscribe(testSubscriber);
+
+        rxChangesBus.onNext("before close");
+        testScheduler.triggerActions();
+
+        rxChangesBus.close();
+
+        rxChangesBus.onNext("after close");
+        testScheduler.triggerActions();
+
+        testSubscriber.assertReceivedOnNext(asList("before close"));
+        testSubscriber.assertNoErrors();
+        testSubscriber.assertNoTerminalEvent();
+    }
 }
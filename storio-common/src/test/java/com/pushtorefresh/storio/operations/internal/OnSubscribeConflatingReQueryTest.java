@@ -0,0 +1,188 @@
+package com.pushtorefresh.storio.operations.internal;
+
+import com.pushtorefresh.storio.operations.PreparedOperation;
+
+import org.junit.Test;
+
+import rx.Observable;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OnSubscribeConflatingReQueryTest {
+
+    @Test
+    public void shouldExecuteAsBlockingAfterSubscription() {
+        //noinspection unchecked
+        final PreparedOperation<String> preparedOperation = mock(PreparedOperation.class);
+        when(preparedOperation.executeAsBlocking()).thenReturn("result");
+
+        final Observable<String> observable = Observable.create(OnSubscribeConflatingReQuery.newInstance(
+                preparedOperation,
+                PublishSubject.create(),
+                null
+        ));
+
+        verify(preparedOperation, never()).executeAsBlocking();
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>();
+        observable.subscribe(testSubscriber);
+
+        verify(preparedOperation).executeAsBlocking();
+        testSubscriber.assertValue("result");
+        testSubscriber.assertNoTerminalEvent();
+    }
+
+    @Test
+    public void shouldReExecuteAfterEachChangeWithoutScheduler() {
+        //noinspection unchecked
+        final PreparedOperation<String> preparedOperation = mock(PreparedOperation.class);
+        when(preparedOperation.executeAsBlocking()).thenReturn("1", "2", "3");
+
+        final PublishSubject<Object> changes = PublishSubject.create();
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>();
+
+        Observable
+                .create(OnSubscribeConflatingReQuery.newInstance(preparedOperation, changes, null))
+                .subscribe(testSubscriber);
+
+        changes.onNext("change");
+        changes.onNext("change");
+
+        verify(preparedOperation, times(3)).executeAsBlocking();
+        testSubscriber.assertValues("1", "2", "3");
+    }
+
+    @Test
+    public void shouldConflateBurstOfChangesOnScheduler() {
+        //noinspection unchecked
+        final PreparedOperation<String> preparedOperation = mock(PreparedOperation.class);
+        when(preparedOperation.executeAsBlocking()).thenReturn("first", "after burst");
+
+        final PublishSubject<Object> changes = PublishSubject.create();
+        final TestScheduler testScheduler = new TestScheduler();
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>();
+
+        Observable
+                .create(OnSubscribeConflatingReQuery.newInstance(preparedOperation, changes, testScheduler))
+                .subscribe(testSubscriber);
+
+        testScheduler.triggerActions();
+        testSubscriber.assertValue("first");
+
+        for (int i = 0; i < 1000; i++) {
+            changes.onNext("change");
+        }
+
+        // Sender of changes does not wait for re-query
+        verify(preparedOperation, times(1)).executeAsBlocking();
+
+        testScheduler.triggerActions();
+
+        verify(preparedOperation, times(2)).executeAsBlocking();
+        testSubscriber.assertValues("first", "after burst");
+    }
+
+    @Test
+    public void shouldNotExecuteUntilResultIsRequested() {
+        //noinspection unchecked
+        final PreparedOperation<String> preparedOperation = mock(PreparedOperation.class);
+        when(preparedOperation.executeAsBlocking()).thenReturn("1", "2");
+
+        final PublishSubject<Object> changes = PublishSubject.create();
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>(1);
+
+        Observable
+                .create(OnSubscribeConflatingReQuery.newInstance(preparedOperation, changes, null))
+                .subscribe(testSubscriber);
+
+        for (int i = 0; i < 10; i++) {
+            changes.onNext("change");
+        }
+
+        verify(preparedOperation, times(1)).executeAsBlocking();
+        testSubscriber.assertValue("1");
+
+        testSubscriber.requestMore(1);
+
+        verify(preparedOperation, times(2)).executeAsBlocking();
+        testSubscriber.assertValues("1", "2");
+
+        // Nothing changed since last result
+        testSubscriber.requestMore(1);
+
+        verify(preparedOperation, times(2)).executeAsBlocking();
+    }
+
+    @Test
+    public void shouldSendErrorOfOperationToSubscriber() {
+        //noinspection unchecked
+        final PreparedOperation<String> preparedOperation = mock(PreparedOperation.class);
+        final IllegalStateException exception = new IllegalStateException("test exception");
+        when(preparedOperation.executeAsBlocking()).thenThrow(exception);
+
+        final PublishSubject<Object> changes = PublishSubject.create();
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>();
+
+        Observable
+                .create(OnSubscribeConflatingReQuery.newInstance(preparedOperation, changes, null))
+                .subscribe(testSubscriber);
+
+        testSubscriber.assertError(exception);
+        testSubscriber.assertNoValues();
+        assertThat(changes.hasObservers()).isFalse();
+    }
+
+    @Test
+    public void shouldUnsubscribeFromChangesAfterUnsubscribe() {
+        //noinspection unchecked
+        final PreparedOperation<String> preparedOperation = mock(PreparedOperation.class);
+        when(preparedOperation.executeAsBlocking()).thenReturn("result");
+
+        final PublishSubject<Object> changes = PublishSubject.create();
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>();
+
+        Observable
+                .create(OnSubscribeConflatingReQuery.newInstance(preparedOperation, changes, null))
+                .subscribe(testSubscriber);
+
+        assertThat(changes.hasObservers()).isTrue();
+
+        testSubscriber.unsubscribe();
+
+        assertThat(changes.hasObservers()).isFalse();
+    }
+
+    @Test
+    public void shouldCompleteAfterChangesCompleted() {
+        //noinspection unchecked
+        final PreparedOperation<String> preparedOperation = mock(PreparedOperation.class);
+        when(preparedOperation.executeAsBlocking()).thenReturn("1", "2");
+
+        final PublishSubject<Object> changes = PublishSubject.create();
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>();
+
+        Observable
+                .create(OnSubscribeConflatingReQuery.newInstance(preparedOperation, changes, null))
+                .subscribe(testSubscriber);
+
+        changes.onNext("change");
+        changes.onCompleted();
+
+        testSubscriber.assertValues("1", "2");
+        testSubscriber.assertCompleted();
+    }
+}
@@ -4,12 +4,14 @@ import com.google.auto.service.AutoService;
 import com.pushtorefresh.storio.common.annotations.processor.ProcessingException;
 import com.pushtorefresh.storio.common.annotations.processor.StorIOAnnotationsProcessor;
 import com.pushtorefresh.storio.common.annotations.processor.generate.Generator;
+import com.pushtorefresh.storio.common.annotations.processor.generate.PackageGenerator;
 import com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType;
 import com.pushtorefresh.storio.contentresolver.annotations.StorIOContentResolverColumn;
 import com.pushtorefresh.storio.contentresolver.annotations.StorIOContentResolverType;
 import com.pushtorefresh.storio.contentresolver.annotations.processor.generate.DeleteResolverGenerator;
 import com.pushtorefresh.storio.contentresolver.annotations.processor.generate.GetResolverGenerator;
 import com.pushtorefresh.storio.contentresolver.annotations.processor.generate.MappingGenerator;
+import com.pushtorefresh.storio.contentresolver.annotations.processor.generate.MappingsGenerator;
 import com.pushtorefresh.storio.contentresolver.annotations.processor.generate.PutResolverGenerator;
 import com.pushtorefresh.storio.contentresolver.annotations.processor.introspection.StorIOContentResolverColumnMeta;
 import com.pushtorefresh.storio.contentresolver.annotations.processor.introspection.StorIOContentResolverTypeMeta;
@@ -316,4 +318,10 @@ public class StorIOContentResolverProcessor extends StorIOAnnotationsProcessor<S
     protected Generator<StorIOContentResolverTypeMeta> createMapping() {
         return new MappingGenerator();
     }
+
+    @NotNull
+    @Override
+    protected PackageGenerator<StorIOContentResolverTypeMeta> createMappings() {
+        return new MappingsGenerator();
+    }
 }
@@ -5,7 +5,9 @@ import com.pushtorefresh.storio.common.annotations.processor.generate.Generator;
 import com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType;
 import com.pushtorefresh.storio.contentresolver.annotations.processor.introspection.StorIOContentResolverColumnMeta;
 import com.pushtorefresh.storio.contentresolver.annotations.processor.introspection.StorIOContentResolverTypeMeta;
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
@@ -14,6 +16,9 @@ import com.squareup.javapoet.TypeSpec;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NON_NULL_ANNOTATION_CLASS_NAME;
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.INDENT;
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.BOOLEAN;
@@ -30,12 +35,18 @@ import static com.pushtorefresh.storio.common.annotations.processor.introspectio
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.SHORT;
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.SHORT_OBJECT;
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.STRING;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
 
 public class GetResolverGenerator implements Generator<StorIOContentResolverTypeMeta> {
 
     private static final String SUFFIX = "StorIOContentResolverGetResolver";
 
+    @NotNull
+    private static final ClassName CURSOR_CLASS_NAME = ClassName.get("android.database", "Cursor");
+
     @NotNull
     public static String generateName(@NotNull StorIOContentResolverTypeMeta storIOSQLiteTypeMeta) {
         return storIOSQLiteTypeMeta.simpleName + SUFFIX;
@@ -49,7 +60,11 @@ public class GetResolverGenerator implements Generator<StorIOContentResolverType
                 .addJavadoc("Generated resolver for Get Operation\n")
                 .addModifiers(PUBLIC)
                 .superclass(ParameterizedTypeName.get(ClassName.get("com.pushtorefresh.storio.contentresolver.operations.get", "DefaultGetResolver"), storIOContentResolverTypeClassName))
-                .addMethod(createMapFromCursorMethodSpec(storIOContentResolverTypeMeta, storIOContentResolverTypeClassName))
+                .addField(createProjectionFieldSpec(storIOContentResolverTypeMeta))
+                .addField(createProjectionOrdinalsFieldSpec(storIOContentResolverTypeMeta))
+                .addMethod(createMapFromCursorMethodSpec(storIOContentResolverTypeClassName))
+                .addMethod(createMapFromCursorWithColumnIndicesMethodSpec(storIOContentResolverTypeMeta, storIOContentResolverTypeClassName))
+                .addMethod(createColumnIndicesMethodSpec(storIOContentResolverTypeMeta))
                 .build();
 
         return JavaFile
@@ -59,21 +74,41 @@ public class GetResolverGenerator implements Generator<StorIOContentResolverType
     }
 
     @NotNull
-    private MethodSpec createMapFromCursorMethodSpec(@NotNull StorIOContentResolverTypeMeta storIOContentResolverTypeMeta, @NotNull ClassName storIOContentResolverTypeClassName) {
+    private MethodSpec createMapFromCursorMethodSpec(@NotNull ClassName storIOContentResolverTypeClassName) {
+        return MethodSpec.methodBuilder("mapFromCursor")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .addModifiers(PUBLIC)
+                .returns(storIOContentResolverTypeClassName)
+                .addParameter(ParameterSpec.builder(CURSOR_CLASS_NAME, "cursor")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addStatement("return mapFromCursor(cursor, columnIndices(cursor))")
+                .build();
+    }
+
+    @NotNull
+    private MethodSpec createMapFromCursorWithColumnIndicesMethodSpec(@NotNull StorIOContentResolverTypeMeta storIOContentResolverTypeMeta, @NotNull ClassName storIOContentResolverTypeClassName) {
         final MethodSpec.Builder builder = MethodSpec.methodBuilder("mapFromCursor")
                 .addJavadoc("{@inheritDoc}\n")
                 .addAnnotation(Override.class)
                 .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
                 .addModifiers(PUBLIC)
                 .returns(storIOContentResolverTypeClassName)
-                .addParameter(ParameterSpec.builder(ClassName.get("android.database", "Cursor"), "cursor")
+                .addParameter(ParameterSpec.builder(CURSOR_CLASS_NAME, "cursor")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addParameter(ParameterSpec.builder(ArrayTypeName.of(int.class), "columnIndices")
                         .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
                         .build())
                 .addStatement("$T object = new $T()", storIOContentResolverTypeClassName, storIOContentResolverTypeClassName)
                 .addCode("\n");
 
+        int index = 0;
+
         for (final StorIOContentResolverColumnMeta columnMeta : storIOContentResolverTypeMeta.columns.values()) {
-            final String columnIndex = "cursor.getColumnIndex(\"" + columnMeta.storIOColumn.name() + "\")";
+            final String columnIndex = "columnIndices[" + index++ + "]";
 
             final String getFromCursor;
 
@@ -116,4 +151,62 @@ public class GetResolverGenerator implements Generator<StorIOContentResolverType
                 .addStatement("return object")
                 .build();
     }
+
+    @NotNull
+    private FieldSpec createProjectionFieldSpec(@NotNull StorIOContentResolverTypeMeta storIOContentResolverTypeMeta) {
+        final List<String> projection = QueryGenerator.createProjection(storIOContentResolverTypeMeta);
+        final StringBuilder format = new StringBuilder("{");
+
+        for (int i = 0; i < projection.size(); i++) {
+            format.append(i > 0 ? ", $S" : "$S");
+        }
+
+        return FieldSpec.builder(ArrayTypeName.of(String.class), "PROJECTION", PUBLIC, STATIC, FINAL)
+                .addJavadoc("Columns mapped by this resolver, rows of query with this projection are mapped by ordinals of columns.\n")
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .initializer(format.append("}").toString(), projection.toArray())
+                .build();
+    }
+
+    @NotNull
+    private FieldSpec createProjectionOrdinalsFieldSpec(@NotNull StorIOContentResolverTypeMeta storIOContentResolverTypeMeta) {
+        final StringBuilder ordinals = new StringBuilder("{");
+
+        for (int i = 0; i < storIOContentResolverTypeMeta.columns.size(); i++) {
+            ordinals.append(i > 0 ? ", " : "").append(i);
+        }
+
+        return FieldSpec.builder(ArrayTypeName.of(int.class), "PROJECTION_ORDINALS", PRIVATE, STATIC, FINAL)
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .initializer(ordinals.append("}").toString())
+                .build();
+    }
+
+    @NotNull
+    private MethodSpec createColumnIndicesMethodSpec(@NotNull StorIOContentResolverTypeMeta storIOContentResolverTypeMeta) {
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder("columnIndices")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .addModifiers(PUBLIC)
+                .returns(ArrayTypeName.of(int.class))
+                .addParameter(ParameterSpec.builder(CURSOR_CLASS_NAME, "cursor")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .beginControlFlow("if ($T.equals(cursor.getColumnNames(), PROJECTION))", Arrays.class)
+                .addStatement("return PROJECTION_ORDINALS")
+                .endControlFlow()
+                .addCode("\n")
+                .addStatement("final int[] indices = new int[$L]", storIOContentResolverTypeMeta.columns.size());
+
+        int index = 0;
+
+        for (final StorIOContentResolverColumnMeta columnMeta : storIOContentResolverTypeMeta.columns.values()) {
+            builder.addStatement("indices[$L] = cursor.getColumnIndex($S)", index++, columnMeta.storIOColumn.name());
+        }
+
+        return builder
+                .addStatement("return indices")
+                .build();
+    }
 }
@@ -5,8 +5,10 @@ import com.pushtorefresh.storio.contentresolver.annotations.processor.introspect
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class QueryGenerator {
@@ -62,4 +64,18 @@ public class QueryGenerator {
             return result;
         }
     }
+
+    /**
+     * @return names of all columns of type in order of their mapping, example: ["email", "user_id"].
+     */
+    @NotNull
+    public static List<String> createProjection(@NotNull final StorIOContentResolverTypeMeta storIOContentResolverTypeMeta) {
+        final List<String> projection = new ArrayList<String>(storIOContentResolverTypeMeta.columns.size());
+
+        for (final StorIOContentResolverColumnMeta columnMeta : storIOContentResolverTypeMeta.columns.values()) {
+            projection.add(columnMeta.storIOColumn.name());
+        }
+
+        return projection;
+    }
 }
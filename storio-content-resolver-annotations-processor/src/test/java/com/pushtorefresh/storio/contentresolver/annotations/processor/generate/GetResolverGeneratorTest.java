@@ -28,6 +28,8 @@ public class GetResolverGeneratorTest {
                     "import android.support.annotation.NonNull;\n" +
                     "import com.pushtorefresh.storio.contentresolver.operations.get.DefaultGetResolver;\n" +
                     "import java.lang.Override;\n" +
+                    "import java.lang.String;\n" +
+                    "import java.util.Arrays;\n" +
                     "\n";
 
     @NotNull
@@ -38,17 +40,60 @@ public class GetResolverGeneratorTest {
                     "public class TestItemStorIOContentResolverGetResolver extends DefaultGetResolver<TestItem> {\n";
 
     @NotNull
-    private static final String PART_MAP_FROM_CURSOR_WITHOUT_NULL_CHECK =
+    private static final String PART_PROJECTION =
+            "    /**\n" +
+                    "     * Columns mapped by this resolver, rows of query with this projection are mapped by ordinals of columns.\n" +
+                    "     */\n" +
+                    "    @NonNull\n" +
+                    "    public static final String[] PROJECTION = {\"column1\", \"column2\"};\n" +
+                    "\n" +
+                    "    @NonNull\n" +
+                    "    private static final int[] PROJECTION_ORDINALS = {0, 1};\n" +
+                    "\n";
+
+    @NotNull
+    private static final String PART_MAP_FROM_CURSOR =
             "    /**\n" +
                     "     * {@inheritDoc}\n" +
                     "     */\n" +
                     "    @Override\n" +
                     "    @NonNull\n" +
                     "    public TestItem mapFromCursor(@NonNull Cursor cursor) {\n" +
+                    "        return mapFromCursor(cursor, columnIndices(cursor));\n" +
+                    "    }\n" +
+                    "\n";
+
+    @NotNull
+    private static final String PART_COLUMN_INDICES =
+            "\n" +
+                    "    /**\n" +
+                    "     * {@inheritDoc}\n" +
+                    "     */\n" +
+                    "    @Override\n" +
+                    "    @NonNull\n" +
+                    "    public int[] columnIndices(@NonNull Cursor cursor) {\n" +
+                    "        if (Arrays.equals(cursor.getColumnNames(), PROJECTION)) {\n" +
+                    "            return PROJECTION_ORDINALS;\n" +
+                    "        }\n" +
+                    "\n" +
+                    "        final int[] indices = new int[2];\n" +
+                    "        indices[0] = cursor.getColumnIndex(\"column1\");\n" +
+                    "        indices[1] = cursor.getColumnIndex(\"column2\");\n" +
+                    "        return indices;\n" +
+                    "    }\n";
+
+    @NotNull
+    private static final String PART_MAP_FROM_CURSOR_WITHOUT_NULL_CHECK =
+            "    /**\n" +
+                    "     * {@inheritDoc}\n" +
+                    "     */\n" +
+                    "    @Override\n" +
+                    "    @NonNull\n" +
+                    "    public TestItem mapFromCursor(@NonNull Cursor cursor, @NonNull int[] columnIndices) {\n" +
                     "        TestItem object = new TestItem();\n" +
                     "\n" +
-                    "        object.field1 = cursor.getInt(cursor.getColumnIndex(\"column1\")) == 1;\n" +
-                    "        object.field2 = cursor.getString(cursor.getColumnIndex(\"column2\"));\n" +
+                    "        object.field1 = cursor.getInt(columnIndices[0]) == 1;\n" +
+                    "        object.field2 = cursor.getString(columnIndices[1]);\n" +
                     "\n" +
                     "        return object;\n" +
                     "    }\n";
@@ -141,12 +186,12 @@ public class GetResolverGeneratorTest {
                         "     */\n" +
                         "    @Override\n" +
                         "    @NonNull\n" +
-                        "    public TestItem mapFromCursor(@NonNull Cursor cursor) {\n" +
+                        "    public TestItem mapFromCursor(@NonNull Cursor cursor, @NonNull int[] columnIndices) {\n" +
                         "        TestItem object = new TestItem();\n" +
                         "\n" +
-                        "        object.field1 = cursor.getInt(cursor.getColumnIndex(\"column1\")) == 1;\n" +
-                        "        if(!cursor.isNull(cursor.getColumnIndex(\"column2\"))) {\n" +
-                        "            object.field2 = cursor.getInt(cursor.getColumnIndex(\"column2\"));\n" +
+                        "        object.field1 = cursor.getInt(columnIndices[0]) == 1;\n" +
+                        "        if(!cursor.isNull(columnIndices[1])) {\n" +
+                        "            object.field2 = cursor.getInt(columnIndices[1]);\n" +
                         "        }\n" +
                         "\n" +
                         "        return object;\n" +
@@ -165,7 +210,10 @@ public class GetResolverGeneratorTest {
                 partPackage +
                         partImport +
                         partClass +
+                        PART_PROJECTION +
+                        PART_MAP_FROM_CURSOR +
                         partMapFromCursor +
+                        PART_COLUMN_INDICES +
                         "}\n");
     }
 }
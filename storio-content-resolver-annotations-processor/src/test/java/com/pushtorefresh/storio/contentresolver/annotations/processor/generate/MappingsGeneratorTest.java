@@ -0,0 +1,72 @@
+package com.pushtorefresh.storio.contentresolver.annotations.processor.generate;
+
+import com.pushtorefresh.storio.contentresolver.annotations.StorIOContentResolverType;
+import com.pushtorefresh.storio.contentresolver.annotations.processor.introspection.StorIOContentResolverTypeMeta;
+import com.squareup.javapoet.JavaFile;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class MappingsGeneratorTest {
+    @Test
+    public void generateJavaFile() throws IOException {
+        final StorIOContentResolverType storIOContentResolverType = mock(StorIOContentResolverType.class);
+
+        final StorIOContentResolverTypeMeta testItemMeta = new StorIOContentResolverTypeMeta(
+                "TestItem",
+                "com.test",
+                storIOContentResolverType
+        );
+
+        final StorIOContentResolverTypeMeta otherItemMeta = new StorIOContentResolverTypeMeta(
+                "OtherItem",
+                "com.test",
+                storIOContentResolverType
+        );
+
+        MappingsGenerator mappingsGenerator = new MappingsGenerator();
+        final JavaFile javaFile = mappingsGenerator.generateJavaFile("com.test", asList(testItemMeta, otherItemMeta));
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+
+        String result =
+                "package com.test;\n" +
+                "\n" +
+                "import android.support.annotation.NonNull;\n" +
+                "import com.pushtorefresh.storio.contentresolver.ContentResolverTypeMapping;\n" +
+                "import java.lang.Class;\n" +
+                "import java.lang.IllegalStateException;\n" +
+                "import java.util.HashMap;\n" +
+                "import java.util.Map;\n" +
+                "\n" +
+                "/**\n" +
+                " * Generated type mappings of all types of package annotated with StorIOContentResolverType,\n" +
+                " * they can be added to the builder of StorIOContentResolver with one call:\n" +
+                " * {@code addTypeMappings(StorIOContentResolverMappings.typeMappings())}\n" +
+                " */\n" +
+                "public final class StorIOContentResolverMappings {\n" +
+                "    private StorIOContentResolverMappings() {\n" +
+                "        throw new IllegalStateException(\"No instances please\");\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * @return new map of type mappings by their types.\n" +
+                "     */\n" +
+                "    @NonNull\n" +
+                "    public static Map<Class<?>, ContentResolverTypeMapping<?>> typeMappings() {\n" +
+                "        final Map<Class<?>, ContentResolverTypeMapping<?>> typeMappings = new HashMap<Class<?>, ContentResolverTypeMapping<?>>(2);\n" +
+                "        typeMappings.put(OtherItem.class, new OtherItemContentResolverTypeMapping());\n" +
+                "        typeMappings.put(TestItem.class, new TestItemContentResolverTypeMapping());\n" +
+                "        return typeMappings;\n" +
+                "    }\n" +
+                "}\n";
+
+        assertThat(out.toString()).isEqualTo(result);
+    }
+}
@@ -188,6 +188,26 @@ public class DefaultStorIOContentResolver extends StorIOContentResolver {
             return this;
         }
 
+        /**
+         * Adds {@link ContentResolverTypeMapping}s for types, for example all type mappings generated for a package:
+         * {@code addTypeMappings(StorIOContentResolverMappings.typeMappings())}.
+         *
+         * @param typeMappings map of type mappings by their types, type mapping of each type should be for this type.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder addTypeMappings(@NonNull Map<Class<?>, ? extends ContentResolverTypeMapping<?>> typeMappings) {
+            checkNotNull(typeMappings, "Please specify type mappings");
+
+            if (this.typeMapping == null) {
+                this.typeMapping = new HashMap<Class<?>, ContentResolverTypeMapping<?>>(typeMappings.size());
+            }
+
+            this.typeMapping.putAll(typeMappings);
+
+            return this;
+        }
+
         @NonNull
         public <T> CompleteBuilder contentObserverHandler(@NonNull Handler contentObserverHandler) {
             checkNotNull(contentObserverHandler, "contentObserverHandler should not be null");
@@ -2,6 +2,7 @@ package com.pushtorefresh.storio.contentresolver.operations.get;
 
 import android.database.Cursor;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.contentresolver.StorIOContentResolver;
 import com.pushtorefresh.storio.contentresolver.queries.Query;
@@ -21,6 +22,36 @@ public abstract class GetResolver<T> {
     @NonNull
     public abstract T mapFromCursor(@NonNull Cursor cursor);
 
+    /**
+     * Looks up indices of columns read by {@link #mapFromCursor(Cursor, int[])},
+     * Get Operations call it once per {@link Cursor} instead of looking columns up for each row.
+     * <p>
+     * Default implementation returns {@code null}, so rows are mapped by {@link #mapFromCursor(Cursor)}.
+     *
+     * @param cursor not closed {@link Cursor} that will be mapped.
+     * @return indices of columns or {@code null} if resolver does not map rows by indices.
+     */
+    @Nullable
+    public int[] columnIndices(@NonNull Cursor cursor) {
+        return null;
+    }
+
+    /**
+     * Same as {@link #mapFromCursor(Cursor)}, but with indices of columns
+     * returned by {@link #columnIndices(Cursor)} for the same {@link Cursor}.
+     * <p>
+     * Default implementation calls {@link #mapFromCursor(Cursor)}.
+     *
+     * @param cursor        not closed {@link Cursor} with already set position
+     *                      that should be parsed and converted to object of required type.
+     * @param columnIndices non-null indices of columns of passed {@link Cursor}.
+     * @return non-null object of required type with data parsed from passed {@link Cursor}.
+     */
+    @NonNull
+    public T mapFromCursor(@NonNull Cursor cursor, @NonNull int[] columnIndices) {
+        return mapFromCursor(cursor);
+    }
+
     /**
      * Performs Get Operation
      *
@@ -89,9 +89,12 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
                     return EMPTY_LIST; // it's immutable
                 } else {
                     final List<T> list = new ArrayList<T>(count);
+                    final int[] columnIndices = getResolver.columnIndices(cursor);
 
                     while (cursor.moveToNext()) {
-                        list.add(getResolver.mapFromCursor(cursor));
+                        list.add(columnIndices != null
+                                ? getResolver.mapFromCursor(cursor, columnIndices)
+                                : getResolver.mapFromCursor(cursor));
                     }
 
                     return unmodifiableList(list);
@@ -84,6 +84,19 @@ public class DefaultStorIOContentResolverTest {
         builder.addTypeMapping(Object.class, null);
     }
 
+    @Test
+    public void addTypeMappingsNullMappings() {
+        DefaultStorIOContentResolver.CompleteBuilder builder = DefaultStorIOContentResolver.builder()
+                .contentResolver(mock(ContentResolver.class));
+
+        expectedException.expect(NullPointerException.class);
+        expectedException.expectMessage("Please specify type mappings");
+        expectedException.expectCause(nullValue(Throwable.class));
+
+        //noinspection ConstantConditions
+        builder.addTypeMappings(null);
+    }
+
     @Test
     public void nullTypeMappingFinder() {
         DefaultStorIOContentResolver.CompleteBuilder builder = DefaultStorIOContentResolver.builder()
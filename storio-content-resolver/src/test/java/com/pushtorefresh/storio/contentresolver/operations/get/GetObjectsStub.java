@@ -140,6 +140,9 @@ class GetObjectsStub {
         // should be called same number of times as count of items in cursor + 1 (last -> false)
         verify(cursor, times(items.size() + 1)).moveToNext();
 
+        // should be called only once because of Performance!
+        verify(getResolver, times(items.isEmpty() ? 0 : 1)).columnIndices(cursor);
+
         // should be called same number of times as count of items in cursor
         verify(getResolver, times(items.size())).mapFromCursor(cursor);
 
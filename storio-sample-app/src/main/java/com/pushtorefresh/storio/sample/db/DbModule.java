@@ -4,11 +4,8 @@ import android.content.Context;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.support.annotation.NonNull;
 
-import com.pushtorefresh.storio.sample.db.entities.Tweet;
-import com.pushtorefresh.storio.sample.db.entities.TweetSQLiteTypeMapping;
+import com.pushtorefresh.storio.sample.db.entities.StorIOSQLiteMappings;
 import com.pushtorefresh.storio.sample.db.entities.TweetWithUser;
-import com.pushtorefresh.storio.sample.db.entities.User;
-import com.pushtorefresh.storio.sample.db.entities.UserSQLiteTypeMapping;
 import com.pushtorefresh.storio.sample.db.resolvers.TweetWithUserDeleteResolver;
 import com.pushtorefresh.storio.sample.db.resolvers.TweetWithUserGetResolver;
 import com.pushtorefresh.storio.sample.db.resolvers.TweetWithUserPutResolver;
@@ -35,8 +32,8 @@ public class DbModule {
     public StorIOSQLite provideStorIOSQLite(@NonNull SQLiteOpenHelper sqLiteOpenHelper) {
         return DefaultStorIOSQLite.builder()
                 .sqliteOpenHelper(sqLiteOpenHelper)
-                .addTypeMapping(Tweet.class, new TweetSQLiteTypeMapping())
-                .addTypeMapping(User.class, new UserSQLiteTypeMapping())
+                // Type mappings of all types of package annotated with @StorIOSQLiteType
+                .addTypeMappings(StorIOSQLiteMappings.typeMappings())
                 .addTypeMapping(TweetWithUser.class, SQLiteTypeMapping.<TweetWithUser>builder()
                         .putResolver(new TweetWithUserPutResolver())
                         .getResolver(new TweetWithUserGetResolver())
@@ -45,6 +45,9 @@ public final class UserWithTweetsGetResolver extends GetResolver<UserWithTweets>
         // Or, you can do manual low level requests here
         // BTW, if you profiled your app and found that such queries are not very fast
         // You can always add some optimized version for particular queries to improve the performance
+        // Note: it's one query per user, field marked with @StorIOSQLiteRelation
+        // is loaded for all users of Get Operation with one query
+        // and Observable of such Get Operation observes tweets table too
         final List<Tweet> tweetsOfTheUser = storIOSQLite
                 .get()
                 .listOfObjects(Tweet.class)
@@ -4,20 +4,25 @@ import com.google.auto.service.AutoService;
 import com.pushtorefresh.storio.common.annotations.processor.ProcessingException;
 import com.pushtorefresh.storio.common.annotations.processor.StorIOAnnotationsProcessor;
 import com.pushtorefresh.storio.common.annotations.processor.generate.Generator;
+import com.pushtorefresh.storio.common.annotations.processor.generate.PackageGenerator;
 import com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType;
 import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteColumn;
+import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteRelation;
 import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteType;
 import com.pushtorefresh.storio.sqlite.annotations.processor.generate.DeleteResolverGenerator;
 import com.pushtorefresh.storio.sqlite.annotations.processor.generate.GetResolverGenerator;
 import com.pushtorefresh.storio.sqlite.annotations.processor.generate.MappingGenerator;
+import com.pushtorefresh.storio.sqlite.annotations.processor.generate.MappingsGenerator;
 import com.pushtorefresh.storio.sqlite.annotations.processor.generate.PutResolverGenerator;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteColumnMeta;
+import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteRelationMeta;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteTypeMeta;
 
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.annotation.Annotation;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -25,8 +30,14 @@ import javax.annotation.processing.Processor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
 
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.type.TypeKind.DECLARED;
+
 /**
  * Annotation processor for StorIOSQLite
  * <p>
@@ -42,10 +53,11 @@ public class StorIOSQLiteProcessor extends StorIOAnnotationsProcessor<StorIOSQLi
     @NotNull
     @Override
     public Set<String> getSupportedAnnotationTypes() {
-        final Set<String> supportedAnnotations = new HashSet<String>(2);
+        final Set<String> supportedAnnotations = new HashSet<String>(3);
 
         supportedAnnotations.add(StorIOSQLiteType.class.getCanonicalName());
         supportedAnnotations.add(StorIOSQLiteColumn.class.getCanonicalName());
+        supportedAnnotations.add(StorIOSQLiteRelation.class.getCanonicalName());
 
         return supportedAnnotations;
     }
@@ -109,6 +121,106 @@ public class StorIOSQLiteProcessor extends StorIOAnnotationsProcessor<StorIOSQLi
                 throw new ProcessingException(annotatedFieldElement, "Column name already used in this class");
             }
         }
+
+        final Set<? extends Element> elementsAnnotatedWithStorIOSQLiteRelation
+                = roundEnvironment.getElementsAnnotatedWith(StorIOSQLiteRelation.class);
+
+        for (final Element annotatedFieldElement : elementsAnnotatedWithStorIOSQLiteRelation) {
+            final StorIOSQLiteTypeMeta storIOSQLiteTypeMeta = annotatedClasses.get(annotatedFieldElement.getEnclosingElement());
+
+            if (storIOSQLiteTypeMeta == null) {
+                throw new ProcessingException(annotatedFieldElement, "Field marked with "
+                        + StorIOSQLiteRelation.class.getSimpleName()
+                        + " annotation should be placed in class marked by "
+                        + StorIOSQLiteType.class.getSimpleName()
+                        + " annotation"
+                );
+            }
+
+            final StorIOSQLiteRelationMeta storIOSQLiteRelationMeta = processAnnotatedRelation(annotatedFieldElement);
+            storIOSQLiteTypeMeta.relations.put(storIOSQLiteRelationMeta.fieldName, storIOSQLiteRelationMeta);
+        }
+    }
+
+    /**
+     * Processes field annotated with {@link StorIOSQLiteRelation} and returns result of processing or throws exception
+     *
+     * @param annotatedField field that was annotated with {@link StorIOSQLiteRelation}
+     * @return non-null {@link StorIOSQLiteRelationMeta} with meta information about field
+     */
+    @NotNull
+    private StorIOSQLiteRelationMeta processAnnotatedRelation(@NotNull final Element annotatedField) {
+        if (annotatedField.getModifiers().contains(PRIVATE)) {
+            throw new ProcessingException(
+                    annotatedField,
+                    StorIOSQLiteRelation.class.getSimpleName() + " can not be applied to private field: " + annotatedField.getSimpleName()
+            );
+        }
+
+        if (annotatedField.getModifiers().contains(FINAL)) {
+            throw new ProcessingException(
+                    annotatedField,
+                    StorIOSQLiteRelation.class.getSimpleName() + " can not be applied to final field: " + annotatedField.getSimpleName()
+            );
+        }
+
+        if (annotatedField.getAnnotation(StorIOSQLiteColumn.class) != null) {
+            throw new ProcessingException(
+                    annotatedField,
+                    "Field can not be marked with both " + StorIOSQLiteColumn.class.getSimpleName()
+                            + " and " + StorIOSQLiteRelation.class.getSimpleName() + " annotations"
+            );
+        }
+
+        final StorIOSQLiteRelation storIOSQLiteRelation = annotatedField.getAnnotation(StorIOSQLiteRelation.class);
+
+        if (storIOSQLiteRelation.column() == null || storIOSQLiteRelation.column().length() == 0) {
+            throw new ProcessingException(annotatedField, "Column name of relation is null or empty");
+        }
+
+        if (storIOSQLiteRelation.relatedColumn() == null || storIOSQLiteRelation.relatedColumn().length() == 0) {
+            throw new ProcessingException(annotatedField, "Related column name of relation is null or empty");
+        }
+
+        TypeMirror relatedType = annotatedField.asType();
+        boolean toMany = false;
+
+        if (relatedType.getKind() == DECLARED) {
+            final DeclaredType declaredType = (DeclaredType) relatedType;
+            final Element typeElement = declaredType.asElement();
+
+            if (typeElement instanceof TypeElement
+                    && ((TypeElement) typeElement).getQualifiedName().contentEquals(List.class.getCanonicalName())
+                    && declaredType.getTypeArguments().size() == 1) {
+                relatedType = declaredType.getTypeArguments().get(0);
+                toMany = true;
+            }
+        }
+
+        final StorIOSQLiteType relatedStorIOSQLiteType = relatedType.getKind() == DECLARED
+                ? ((DeclaredType) relatedType).asElement().getAnnotation(StorIOSQLiteType.class)
+                : null;
+
+        if (relatedStorIOSQLiteType == null) {
+            throw new ProcessingException(annotatedField, "Type of field marked with "
+                    + StorIOSQLiteRelation.class.getSimpleName()
+                    + " annotation should be class marked with "
+                    + StorIOSQLiteType.class.getSimpleName()
+                    + " annotation or List of such class"
+            );
+        }
+
+        final TypeElement relatedClassElement = (TypeElement) ((DeclaredType) relatedType).asElement();
+
+        return new StorIOSQLiteRelationMeta(
+                annotatedField,
+                annotatedField.getSimpleName().toString(),
+                relatedClassElement.getSimpleName().toString(),
+                processingEnv.getElementUtils().getPackageOf(relatedClassElement).getQualifiedName().toString(),
+                relatedStorIOSQLiteType.table(),
+                toMany,
+                storIOSQLiteRelation
+        );
     }
 
     /**
@@ -185,6 +297,16 @@ public class StorIOSQLiteProcessor extends StorIOAnnotationsProcessor<StorIOSQLi
                                 + " annotation should have at least one KEY field marked with "
                                 + StorIOSQLiteColumn.class.getSimpleName() + " annotation");
             }
+
+            // check that relations reference columns of the class
+            for (final StorIOSQLiteRelationMeta relationMeta : annotatedClass.getValue().relations.values()) {
+                if (!annotatedClass.getValue().columns.containsKey(relationMeta.storIORelation.column())) {
+                    throw new ProcessingException(relationMeta.element,
+                            "Column of relation should be declared by field marked with "
+                                    + StorIOSQLiteColumn.class.getSimpleName()
+                                    + " annotation: " + relationMeta.storIORelation.column());
+                }
+            }
         }
     }
 
@@ -223,4 +345,10 @@ public class StorIOSQLiteProcessor extends StorIOAnnotationsProcessor<StorIOSQLi
     protected Generator<StorIOSQLiteTypeMeta> createMapping() {
         return new MappingGenerator();
     }
+
+    @NotNull
+    @Override
+    protected PackageGenerator<StorIOSQLiteTypeMeta> createMappings() {
+        return new MappingsGenerator();
+    }
 }
@@ -14,6 +14,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.Map;
 
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NON_NULL_ANNOTATION_CLASS_NAME;
+import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NULLABLE_ANNOTATION_CLASS_NAME;
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.INDENT;
 import static javax.lang.model.element.Modifier.PROTECTED;
 import static javax.lang.model.element.Modifier.PUBLIC;
@@ -31,12 +32,20 @@ public class DeleteResolverGenerator implements Generator<StorIOSQLiteTypeMeta>
     public JavaFile generateJavaFile(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
         final ClassName storIOSQLiteTypeClassName = ClassName.get(storIOSQLiteTypeMeta.packageName, storIOSQLiteTypeMeta.simpleName);
 
-        final TypeSpec deleteResolver = TypeSpec.classBuilder(generateName(storIOSQLiteTypeMeta))
+        final TypeSpec.Builder builder = TypeSpec.classBuilder(generateName(storIOSQLiteTypeMeta))
                 .addJavadoc("Generated resolver for Delete Operation\n")
                 .addModifiers(PUBLIC)
                 .superclass(ParameterizedTypeName.get(ClassName.get("com.pushtorefresh.storio.sqlite.operations.delete", "DefaultDeleteResolver"), storIOSQLiteTypeClassName))
-                .addMethod(createMapToDeleteQueryMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName))
-                .build();
+                .addMethod(createMapToDeleteQueryMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName));
+
+        final String keyColumn = QueryGenerator.singleKeyColumn(storIOSQLiteTypeMeta);
+
+        // Objects with single key can be deleted by "key IN (...)"
+        if (keyColumn != null) {
+            builder.addMethod(createKeyColumnMethodSpec(keyColumn));
+        }
+
+        final TypeSpec deleteResolver = builder.build();
 
         return JavaFile
                 .builder(storIOSQLiteTypeMeta.packageName, deleteResolver)
@@ -67,4 +76,16 @@ public class DeleteResolverGenerator implements Generator<StorIOSQLiteTypeMeta>
                         where.get(QueryGenerator.WHERE_ARGS))
                 .build();
     }
+
+    @NotNull
+    private MethodSpec createKeyColumnMethodSpec(@NotNull String keyColumn) {
+        return MethodSpec.methodBuilder("keyColumn")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NULLABLE_ANNOTATION_CLASS_NAME)
+                .addModifiers(PROTECTED)
+                .returns(String.class)
+                .addStatement("return $S", keyColumn)
+                .build();
+    }
 }
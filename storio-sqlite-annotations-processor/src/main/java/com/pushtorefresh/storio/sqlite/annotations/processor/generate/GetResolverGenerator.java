@@ -4,8 +4,11 @@ import com.pushtorefresh.storio.common.annotations.processor.ProcessingException
 import com.pushtorefresh.storio.common.annotations.processor.generate.Generator;
 import com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteColumnMeta;
+import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteRelationMeta;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteTypeMeta;
+import com.squareup.javapoet.ArrayTypeName;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
@@ -14,7 +17,17 @@ import com.squareup.javapoet.TypeSpec;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NON_NULL_ANNOTATION_CLASS_NAME;
+import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NULLABLE_ANNOTATION_CLASS_NAME;
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.INDENT;
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.BOOLEAN;
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.BOOLEAN_OBJECT;
@@ -30,12 +43,25 @@ import static com.pushtorefresh.storio.common.annotations.processor.introspectio
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.SHORT;
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.SHORT_OBJECT;
 import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.STRING;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PROTECTED;
 import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
 
 public class GetResolverGenerator implements Generator<StorIOSQLiteTypeMeta> {
 
     public static final String SUFFIX = "StorIOSQLiteGetResolver";
 
+    @NotNull
+    private static final ClassName CURSOR_CLASS_NAME = ClassName.get("android.database", "Cursor");
+
+    @NotNull
+    private static final ClassName STORIO_SQLITE_CLASS_NAME = ClassName.get("com.pushtorefresh.storio.sqlite", "StorIOSQLite");
+
+    @NotNull
+    private static final ClassName RELATED_OBJECTS_CLASS_NAME = ClassName.get("com.pushtorefresh.storio.sqlite.operations.get", "RelatedObjects");
+
     @NotNull
     public static String generateName(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
         return storIOSQLiteTypeMeta.simpleName + SUFFIX;
@@ -45,11 +71,35 @@ public class GetResolverGenerator implements Generator<StorIOSQLiteTypeMeta> {
     public JavaFile generateJavaFile(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
         final ClassName storIOSQLiteTypeClassName = ClassName.get(storIOSQLiteTypeMeta.packageName, storIOSQLiteTypeMeta.simpleName);
 
-        final TypeSpec getResolver = TypeSpec.classBuilder(generateName(storIOSQLiteTypeMeta))
+        final TypeSpec.Builder builder = TypeSpec.classBuilder(generateName(storIOSQLiteTypeMeta))
                 .addJavadoc("Generated resolver for Get Operation\n")
                 .addModifiers(PUBLIC)
                 .superclass(ParameterizedTypeName.get(ClassName.get("com.pushtorefresh.storio.sqlite.operations.get", "DefaultGetResolver"), storIOSQLiteTypeClassName))
-                .addMethod(createMapFromCursorMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName))
+                .addField(createProjectionFieldSpec(storIOSQLiteTypeMeta))
+                .addField(createProjectionOrdinalsFieldSpec(storIOSQLiteTypeMeta))
+                .addMethod(createMapFromCursorMethodSpec(storIOSQLiteTypeClassName))
+                .addMethod(createMapFromCursorWithColumnIndicesMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName))
+                .addMethod(createProjectionMethodSpec());
+
+        final String keyColumn = QueryGenerator.singleKeyColumn(storIOSQLiteTypeMeta);
+
+        // Objects with single key can be loaded by "key IN (...)"
+        if (keyColumn != null) {
+            builder
+                    .addMethod(createStringGetterMethodSpec("table", storIOSQLiteTypeMeta.storIOType.table()))
+                    .addMethod(createStringGetterMethodSpec("keyColumn", keyColumn));
+        }
+
+        // Related objects of all results are loaded with one query per relation
+        if (!storIOSQLiteTypeMeta.relations.isEmpty()) {
+            builder
+                    .addField(createRelatedTablesFieldSpec(storIOSQLiteTypeMeta))
+                    .addMethod(createRelatedTablesMethodSpec())
+                    .addMethod(createLoadRelationsMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName));
+        }
+
+        final TypeSpec getResolver = builder
+                .addMethod(createColumnIndicesMethodSpec(storIOSQLiteTypeMeta))
                 .build();
 
         return JavaFile
@@ -59,21 +109,41 @@ public class GetResolverGenerator implements Generator<StorIOSQLiteTypeMeta> {
     }
 
     @NotNull
-    private MethodSpec createMapFromCursorMethodSpec(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta, @NotNull ClassName storIOSQLiteTypeClassName) {
+    private MethodSpec createMapFromCursorMethodSpec(@NotNull ClassName storIOSQLiteTypeClassName) {
+        return MethodSpec.methodBuilder("mapFromCursor")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .addModifiers(PUBLIC)
+                .returns(storIOSQLiteTypeClassName)
+                .addParameter(ParameterSpec.builder(CURSOR_CLASS_NAME, "cursor")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addStatement("return mapFromCursor(cursor, columnIndices(cursor))")
+                .build();
+    }
+
+    @NotNull
+    private MethodSpec createMapFromCursorWithColumnIndicesMethodSpec(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta, @NotNull ClassName storIOSQLiteTypeClassName) {
         final MethodSpec.Builder builder = MethodSpec.methodBuilder("mapFromCursor")
                 .addJavadoc("{@inheritDoc}\n")
                 .addAnnotation(Override.class)
                 .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
                 .addModifiers(PUBLIC)
                 .returns(storIOSQLiteTypeClassName)
-                .addParameter(ParameterSpec.builder(ClassName.get("android.database", "Cursor"), "cursor")
+                .addParameter(ParameterSpec.builder(CURSOR_CLASS_NAME, "cursor")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addParameter(ParameterSpec.builder(ArrayTypeName.of(int.class), "columnIndices")
                         .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
                         .build())
                 .addStatement("$T object = new $T()", storIOSQLiteTypeClassName, storIOSQLiteTypeClassName)
                 .addCode("\n");
 
+        int index = 0;
+
         for (final StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
-            final String columnIndex = "cursor.getColumnIndex(\"" + columnMeta.storIOColumn.name() + "\")";
+            final String columnIndex = "columnIndices[" + index++ + "]";
 
             final String getFromCursor;
 
@@ -116,4 +186,193 @@ public class GetResolverGenerator implements Generator<StorIOSQLiteTypeMeta> {
                 .addStatement("return object")
                 .build();
     }
+
+    @NotNull
+    private FieldSpec createProjectionFieldSpec(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
+        final List<String> projection = QueryGenerator.createProjection(storIOSQLiteTypeMeta);
+        final StringBuilder format = new StringBuilder("{");
+
+        for (int i = 0; i < projection.size(); i++) {
+            format.append(i > 0 ? ", $S" : "$S");
+        }
+
+        return FieldSpec.builder(ArrayTypeName.of(String.class), "PROJECTION", PUBLIC, STATIC, FINAL)
+                .addJavadoc("Columns mapped by this resolver, rows of query with this projection are mapped by ordinals of columns.\n")
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .initializer(format.append("}").toString(), projection.toArray())
+                .build();
+    }
+
+    @NotNull
+    private FieldSpec createProjectionOrdinalsFieldSpec(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
+        final StringBuilder ordinals = new StringBuilder("{");
+
+        for (int i = 0; i < storIOSQLiteTypeMeta.columns.size(); i++) {
+            ordinals.append(i > 0 ? ", " : "").append(i);
+        }
+
+        return FieldSpec.builder(ArrayTypeName.of(int.class), "PROJECTION_ORDINALS", PRIVATE, STATIC, FINAL)
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .initializer(ordinals.append("}").toString())
+                .build();
+    }
+
+    @NotNull
+    private MethodSpec createProjectionMethodSpec() {
+        return MethodSpec.methodBuilder("projection")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NULLABLE_ANNOTATION_CLASS_NAME)
+                .addModifiers(PROTECTED)
+                .returns(ArrayTypeName.of(String.class))
+                .addStatement("return PROJECTION")
+                .build();
+    }
+
+    @NotNull
+    private MethodSpec createStringGetterMethodSpec(@NotNull String name, @NotNull String value) {
+        return MethodSpec.methodBuilder(name)
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NULLABLE_ANNOTATION_CLASS_NAME)
+                .addModifiers(PROTECTED)
+                .returns(String.class)
+                .addStatement("return $S", value)
+                .build();
+    }
+
+    @NotNull
+    private FieldSpec createRelatedTablesFieldSpec(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
+        final Set<String> relatedTables = new LinkedHashSet<String>();
+
+        for (final StorIOSQLiteRelationMeta relationMeta : storIOSQLiteTypeMeta.relations.values()) {
+            relatedTables.add(relationMeta.relatedTable);
+        }
+
+        final StringBuilder format = new StringBuilder("$T.unmodifiableSet(new $T<$T>($T.asList(");
+        final List<Object> args = new ArrayList<Object>(4 + relatedTables.size());
+        args.addAll(Arrays.<Object>asList(Collections.class, HashSet.class, String.class, Arrays.class));
+
+        for (final String relatedTable : relatedTables) {
+            format.append(args.size() > 4 ? ", $S" : "$S");
+            args.add(relatedTable);
+        }
+
+        return FieldSpec.builder(ParameterizedTypeName.get(Set.class, String.class), "RELATED_TABLES", PRIVATE, STATIC, FINAL)
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .initializer(format.append(")))").toString(), args.toArray())
+                .build();
+    }
+
+    @NotNull
+    private MethodSpec createRelatedTablesMethodSpec() {
+        return MethodSpec.methodBuilder("relatedTables")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .addModifiers(PUBLIC)
+                .returns(ParameterizedTypeName.get(Set.class, String.class))
+                .addStatement("return RELATED_TABLES")
+                .build();
+    }
+
+    @NotNull
+    private MethodSpec createLoadRelationsMethodSpec(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta, @NotNull ClassName storIOSQLiteTypeClassName) {
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder("loadRelations")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addModifiers(PUBLIC)
+                .addParameter(ParameterSpec.builder(STORIO_SQLITE_CLASS_NAME, "storIOSQLite")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addParameter(ParameterSpec.builder(ParameterizedTypeName.get(ClassName.get(List.class), storIOSQLiteTypeClassName), "objects")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build());
+
+        boolean first = true;
+
+        for (final StorIOSQLiteRelationMeta relationMeta : storIOSQLiteTypeMeta.relations.values()) {
+            final ClassName relatedClassName = ClassName.get(relationMeta.relatedPackageName, relationMeta.relatedSimpleName);
+            final ParameterizedTypeName relatedListTypeName = ParameterizedTypeName.get(ClassName.get(List.class), relatedClassName);
+            // Validated by processor: column of relation is declared by this type
+            final StorIOSQLiteColumnMeta columnMeta = storIOSQLiteTypeMeta.columns.get(relationMeta.storIORelation.column());
+            final String columnFieldName = columnMeta.fieldName;
+            final JavaType javaType = columnMeta.javaType;
+            // Null value of column does not reference any object, it should not be looked up as "null" key
+            final boolean nullable = javaType == null || javaType.isBoxedType() || javaType == STRING || javaType == BYTE_ARRAY;
+            final String valuesName = relationMeta.fieldName + "Values";
+            final String relatedName = relationMeta.fieldName + "Related";
+
+            if (!first) {
+                builder.addCode("\n");
+            }
+
+            first = false;
+
+            builder
+                    .addStatement("final $T<$T> $L = new $T<$T>(objects.size())", List.class, Object.class, valuesName, ArrayList.class, Object.class)
+                    .beginControlFlow("for ($T object : objects)", storIOSQLiteTypeClassName);
+
+            if (nullable) {
+                builder
+                        .beginControlFlow("if (object.$L != null)", columnFieldName)
+                        .addStatement("$L.add(object.$L)", valuesName, columnFieldName)
+                        .endControlFlow();
+            } else {
+                builder.addStatement("$L.add(object.$L)", valuesName, columnFieldName);
+            }
+
+            builder
+                    .endControlFlow()
+                    .addStatement("final $T<$T, $T> $L = $T.load(storIOSQLite, $T.class, $S, $S, $L)",
+                            Map.class, String.class, relatedListTypeName, relatedName, RELATED_OBJECTS_CLASS_NAME,
+                            relatedClassName, relationMeta.relatedTable, relationMeta.storIORelation.relatedColumn(), valuesName)
+                    .beginControlFlow("for ($T object : objects)", storIOSQLiteTypeClassName);
+
+            if (nullable) {
+                builder.addStatement("final $T related = object.$L != null ? $L.get($T.valueOf(object.$L)) : null",
+                        relatedListTypeName, columnFieldName, relatedName, String.class, columnFieldName);
+            } else {
+                builder.addStatement("final $T related = $L.get($T.valueOf(object.$L))", relatedListTypeName, relatedName, String.class, columnFieldName);
+            }
+
+            if (relationMeta.toMany) {
+                builder.addStatement("object.$L = related != null ? related : $T.<$T>emptyList()", relationMeta.fieldName, Collections.class, relatedClassName);
+            } else {
+                builder.addStatement("object.$L = related != null ? related.get(0) : null", relationMeta.fieldName);
+            }
+
+            builder.endControlFlow();
+        }
+
+        return builder.build();
+    }
+
+    @NotNull
+    private MethodSpec createColumnIndicesMethodSpec(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder("columnIndices")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .addModifiers(PUBLIC)
+                .returns(ArrayTypeName.of(int.class))
+                .addParameter(ParameterSpec.builder(CURSOR_CLASS_NAME, "cursor")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .beginControlFlow("if ($T.equals(cursor.getColumnNames(), PROJECTION))", Arrays.class)
+                .addStatement("return PROJECTION_ORDINALS")
+                .endControlFlow()
+                .addCode("\n")
+                .addStatement("final int[] indices = new int[$L]", storIOSQLiteTypeMeta.columns.size());
+
+        int index = 0;
+
+        for (final StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
+            builder.addStatement("indices[$L] = cursor.getColumnIndex($S)", index++, columnMeta.storIOColumn.name());
+        }
+
+        return builder
+                .addStatement("return indices")
+                .build();
+    }
 }
@@ -0,0 +1,98 @@
+package com.pushtorefresh.storio.sqlite.annotations.processor.generate;
+
+import com.pushtorefresh.storio.common.annotations.processor.generate.PackageGenerator;
+import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteTypeMeta;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NON_NULL_ANNOTATION_CLASS_NAME;
+import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.INDENT;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+public class MappingsGenerator implements PackageGenerator<StorIOSQLiteTypeMeta> {
+
+    public static final String SIMPLE_NAME = "StorIOSQLiteMappings";
+
+    @NotNull
+    @Override
+    public JavaFile generateJavaFile(@NotNull String packageName, @NotNull List<StorIOSQLiteTypeMeta> typeMetas) {
+        final TypeSpec mappings = TypeSpec.classBuilder(SIMPLE_NAME)
+                .addJavadoc("Generated type mappings of all types of package annotated with StorIOSQLiteType,\n"
+                        + "they can be added to the builder of StorIOSQLite with one call:\n"
+                        + "{@code addTypeMappings($L.typeMappings())}\n", SIMPLE_NAME)
+                .addModifiers(PUBLIC, FINAL)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(PRIVATE)
+                        .addStatement("throw new $T($S)", IllegalStateException.class, "No instances please")
+                        .build())
+                .addMethod(createTypeMappingsMethodSpec(packageName, typeMetas))
+                .build();
+
+        return JavaFile
+                .builder(packageName, mappings)
+                .indent(INDENT)
+                .build();
+    }
+
+    @NotNull
+    private MethodSpec createTypeMappingsMethodSpec(@NotNull String packageName, @NotNull List<StorIOSQLiteTypeMeta> typeMetas) {
+        final TypeName anyType = WildcardTypeName.subtypeOf(Object.class);
+        final TypeName classTypeName = ParameterizedTypeName.get(ClassName.get(Class.class), anyType);
+        final TypeName typeMappingTypeName = ParameterizedTypeName.get(
+                ClassName.get("com.pushtorefresh.storio.sqlite", MappingGenerator.SUFFIX), anyType);
+
+        final TypeName typeMappingsTypeName = ParameterizedTypeName.get(
+                ClassName.get(Map.class), classTypeName, typeMappingTypeName);
+        final TypeName typeMappingsImplTypeName = ParameterizedTypeName.get(
+                ClassName.get(HashMap.class), classTypeName, typeMappingTypeName);
+
+        final MethodSpec.Builder builder = MethodSpec.methodBuilder("typeMappings")
+                .addJavadoc("@return new map of type mappings by their types.\n")
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .addModifiers(PUBLIC, STATIC)
+                .returns(typeMappingsTypeName)
+                .addStatement("final $T typeMappings = new $T($L)",
+                        typeMappingsTypeName, typeMappingsImplTypeName, typeMetas.size());
+
+        for (StorIOSQLiteTypeMeta typeMeta : sortedBySimpleName(typeMetas)) {
+            builder.addStatement("typeMappings.put($T.class, new $T())",
+                    ClassName.get(packageName, typeMeta.simpleName),
+                    ClassName.get(packageName, typeMeta.simpleName + MappingGenerator.SUFFIX));
+        }
+
+        return builder
+                .addStatement("return typeMappings")
+                .build();
+    }
+
+    @NotNull
+    private static List<StorIOSQLiteTypeMeta> sortedBySimpleName(@NotNull List<StorIOSQLiteTypeMeta> typeMetas) {
+        final List<StorIOSQLiteTypeMeta> sorted = new ArrayList<StorIOSQLiteTypeMeta>(typeMetas);
+
+        Collections.sort(sorted, new Comparator<StorIOSQLiteTypeMeta>() {
+            @Override
+            public int compare(StorIOSQLiteTypeMeta lhs, StorIOSQLiteTypeMeta rhs) {
+                return lhs.simpleName.compareTo(rhs.simpleName);
+            }
+        });
+
+        return sorted;
+    }
+}
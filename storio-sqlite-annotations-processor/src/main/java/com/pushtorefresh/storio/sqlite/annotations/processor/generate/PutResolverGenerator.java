@@ -1,9 +1,12 @@
 package com.pushtorefresh.storio.sqlite.annotations.processor.generate;
 
 import com.pushtorefresh.storio.common.annotations.processor.generate.Generator;
+import com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType;
+import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteType;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteColumnMeta;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteTypeMeta;
 import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
@@ -12,17 +15,41 @@ import com.squareup.javapoet.TypeSpec;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NON_NULL_ANNOTATION_CLASS_NAME;
+import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.ANDROID_NULLABLE_ANNOTATION_CLASS_NAME;
 import static com.pushtorefresh.storio.common.annotations.processor.generate.Common.INDENT;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.BOOLEAN;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.BOOLEAN_OBJECT;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.BYTE_ARRAY;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.DOUBLE;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.DOUBLE_OBJECT;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.FLOAT;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.FLOAT_OBJECT;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.INTEGER;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.INTEGER_OBJECT;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.LONG;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.LONG_OBJECT;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.SHORT;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.SHORT_OBJECT;
+import static com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType.STRING;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PROTECTED;
 import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
 
 public class PutResolverGenerator implements Generator<StorIOSQLiteTypeMeta> {
 
     public static final String SUFFIX = "StorIOSQLitePutResolver";
 
+    @NotNull
+    private static final ClassName STATEMENT_BINDER_CLASS_NAME = ClassName.get("com.pushtorefresh.storio.sqlite", "StatementBinder");
+
     @NotNull
     public static String generateName(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
         return storIOSQLiteTypeMeta.simpleName + SUFFIX;
@@ -32,17 +59,28 @@ public class PutResolverGenerator implements Generator<StorIOSQLiteTypeMeta> {
     public JavaFile generateJavaFile(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
         final ClassName storIOSQLiteTypeClassName = ClassName.get(storIOSQLiteTypeMeta.packageName, storIOSQLiteTypeMeta.simpleName);
 
-        final TypeSpec putResolver = TypeSpec.classBuilder(generateName(storIOSQLiteTypeMeta))
+        final TypeSpec.Builder putResolver = TypeSpec.classBuilder(generateName(storIOSQLiteTypeMeta))
                 .addJavadoc("Generated resolver for Put Operation\n")
                 .addModifiers(PUBLIC)
                 .superclass(ParameterizedTypeName.get(ClassName.get("com.pushtorefresh.storio.sqlite.operations.put", "DefaultPutResolver"), storIOSQLiteTypeClassName))
                 .addMethod(createMapToInsertQueryMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName))
                 .addMethod(createMapToUpdateQueryMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName))
-                .addMethod(createMapToContentValuesMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName))
-                .build();
+                .addMethod(createMapToContentValuesMethodSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName));
+
+        if (canBindStatement(storIOSQLiteTypeMeta)) {
+            putResolver
+                    .addField(createStatementBinderFieldSpec(storIOSQLiteTypeMeta, storIOSQLiteTypeClassName))
+                    .addMethod(createStatementBinderMethodSpec(storIOSQLiteTypeClassName));
+        }
+
+        final StorIOSQLiteType.PutStrategy putStrategy = storIOSQLiteTypeMeta.storIOType.putStrategy();
+
+        if (putStrategy != null && putStrategy != StorIOSQLiteType.PutStrategy.DEFAULT) {
+            putResolver.addMethod(createPutStrategyMethodSpec(putStrategy));
+        }
 
         return JavaFile
-                .builder(storIOSQLiteTypeMeta.packageName, putResolver)
+                .builder(storIOSQLiteTypeMeta.packageName, putResolver.build())
                 .indent(INDENT)
                 .build();
     }
@@ -123,4 +161,134 @@ public class PutResolverGenerator implements Generator<StorIOSQLiteTypeMeta> {
                 .addStatement("return contentValues")
                 .build();
     }
+
+    /**
+     * Statement is compiled for fixed set of columns, so it can not be bound if
+     * set of columns depends on values of object or if type of some field is unknown.
+     */
+    private static boolean canBindStatement(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
+        for (StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
+            if (columnMeta.javaType == null || columnMeta.storIOColumn.ignoreNull()) {
+                return false;
+            }
+        }
+
+        return !storIOSQLiteTypeMeta.columns.isEmpty();
+    }
+
+    @NotNull
+    private FieldSpec createStatementBinderFieldSpec(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta, @NotNull ClassName storIOSQLiteTypeClassName) {
+        final ParameterizedTypeName statementBinderTypeName = ParameterizedTypeName.get(STATEMENT_BINDER_CLASS_NAME, storIOSQLiteTypeClassName);
+        final ParameterizedTypeName listOfStringsTypeName = ParameterizedTypeName.get(List.class, String.class);
+
+        final StringBuilder columns = new StringBuilder();
+
+        for (StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
+            columns.append(columns.length() > 0 ? ", " : "").append('"').append(columnMeta.storIOColumn.name()).append('"');
+        }
+
+        final MethodSpec.Builder bind = MethodSpec.methodBuilder("bind")
+                .addAnnotation(Override.class)
+                .addModifiers(PUBLIC)
+                .addParameter(ParameterSpec.builder(ClassName.get("android.database.sqlite", "SQLiteStatement"), "statement")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build())
+                .addParameter(ParameterSpec.builder(storIOSQLiteTypeClassName, "object")
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .build());
+
+        int index = 1;
+
+        for (StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
+            addBindStatement(bind, columnMeta, index++);
+        }
+
+        final TypeSpec statementBinder = TypeSpec.anonymousClassBuilder("")
+                .addSuperinterface(statementBinderTypeName)
+                .addField(FieldSpec.builder(listOfStringsTypeName, "columns", PRIVATE, FINAL)
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .initializer("$T.unmodifiableList($T.asList($L))", Collections.class, Arrays.class, columns)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("columns")
+                        .addAnnotation(Override.class)
+                        .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                        .addModifiers(PUBLIC)
+                        .returns(listOfStringsTypeName)
+                        .addStatement("return columns")
+                        .build())
+                .addMethod(bind.build())
+                .build();
+
+        return FieldSpec.builder(statementBinderTypeName, "STATEMENT_BINDER", PRIVATE, STATIC, FINAL)
+                .addJavadoc("Binds fields of object directly into compiled statement instead of {@link ContentValues}.\n")
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .initializer("$L", statementBinder)
+                .build();
+    }
+
+    private static void addBindStatement(@NotNull MethodSpec.Builder builder, @NotNull StorIOSQLiteColumnMeta columnMeta, int index) {
+        final String field = "object." + columnMeta.fieldName;
+        final JavaType javaType = columnMeta.javaType;
+
+        final String bind;
+
+        if (javaType == BOOLEAN || javaType == BOOLEAN_OBJECT) {
+            bind = "bindLong(" + index + ", " + field + " ? 1 : 0)";
+        } else if (javaType == SHORT || javaType == SHORT_OBJECT
+                || javaType == INTEGER || javaType == INTEGER_OBJECT
+                || javaType == LONG || javaType == LONG_OBJECT) {
+            bind = "bindLong(" + index + ", " + field + ")";
+        } else if (javaType == FLOAT || javaType == FLOAT_OBJECT
+                || javaType == DOUBLE || javaType == DOUBLE_OBJECT) {
+            bind = "bindDouble(" + index + ", " + field + ")";
+        } else if (javaType == STRING) {
+            bind = "bindString(" + index + ", " + field + ")";
+        } else if (javaType == BYTE_ARRAY) {
+            bind = "bindBlob(" + index + ", " + field + ")";
+        } else {
+            throw new IllegalArgumentException("Unsupported type: " + javaType);
+        }
+
+        // Primitives can not be null, other fields are bound as NULL same as ContentValues does
+        final boolean nullable = javaType.isBoxedType() || javaType == STRING || javaType == BYTE_ARRAY;
+
+        if (nullable) {
+            builder.beginControlFlow("if($L != null)", field);
+        }
+
+        builder.addStatement("statement.$L", bind);
+
+        if (nullable) {
+            builder
+                    .nextControlFlow("else")
+                    .addStatement("statement.bindNull($L)", index)
+                    .endControlFlow();
+        }
+    }
+
+    @NotNull
+    private MethodSpec createStatementBinderMethodSpec(@NotNull ClassName storIOSQLiteTypeClassName) {
+        return MethodSpec.methodBuilder("statementBinder")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NULLABLE_ANNOTATION_CLASS_NAME)
+                .addModifiers(PROTECTED)
+                .returns(ParameterizedTypeName.get(STATEMENT_BINDER_CLASS_NAME, storIOSQLiteTypeClassName))
+                .addStatement("return STATEMENT_BINDER")
+                .build();
+    }
+
+    @NotNull
+    private MethodSpec createPutStrategyMethodSpec(@NotNull StorIOSQLiteType.PutStrategy putStrategy) {
+        final ClassName putStrategyClassName = ClassName.get("com.pushtorefresh.storio.sqlite.operations.put", "PutStrategy");
+
+        return MethodSpec.methodBuilder("putStrategy")
+                .addJavadoc("{@inheritDoc}\n")
+                .addAnnotation(Override.class)
+                .addAnnotation(ANDROID_NON_NULL_ANNOTATION_CLASS_NAME)
+                .addModifiers(PROTECTED)
+                .returns(putStrategyClassName)
+                .addStatement("return $T.$L", putStrategyClassName, putStrategy.name())
+                .build();
+    }
 }
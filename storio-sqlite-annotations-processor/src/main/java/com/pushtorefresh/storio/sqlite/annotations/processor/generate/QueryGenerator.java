@@ -4,9 +4,12 @@ import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorI
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteTypeMeta;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class QueryGenerator {
@@ -60,4 +63,38 @@ public class QueryGenerator {
             return result;
         }
     }
+
+    /**
+     * @return names of all columns of type in order of their mapping, example: ["email", "user_id"].
+     */
+    @NotNull
+    public static List<String> createProjection(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
+        final List<String> projection = new ArrayList<String>(storIOSQLiteTypeMeta.columns.size());
+
+        for (final StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
+            projection.add(columnMeta.storIOColumn.name());
+        }
+
+        return projection;
+    }
+
+    /**
+     * @return name of the key column if type has exactly one key column, {@code null} otherwise.
+     */
+    @Nullable
+    public static String singleKeyColumn(@NotNull StorIOSQLiteTypeMeta storIOSQLiteTypeMeta) {
+        String keyColumn = null;
+
+        for (final StorIOSQLiteColumnMeta columnMeta : storIOSQLiteTypeMeta.columns.values()) {
+            if (columnMeta.storIOColumn.key()) {
+                if (keyColumn != null) {
+                    return null;
+                }
+
+                keyColumn = columnMeta.storIOColumn.name();
+            }
+        }
+
+        return keyColumn;
+    }
 }
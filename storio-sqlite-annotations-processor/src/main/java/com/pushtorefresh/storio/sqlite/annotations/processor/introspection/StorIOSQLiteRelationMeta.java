@@ -0,0 +1,92 @@
+package com.pushtorefresh.storio.sqlite.annotations.processor.introspection;
+
+import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteRelation;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.lang.model.element.Element;
+
+public class StorIOSQLiteRelationMeta {
+
+    @NotNull
+    public final Element element;
+
+    @NotNull
+    public final String fieldName;
+
+    @NotNull
+    public final String relatedSimpleName;
+
+    @NotNull
+    public final String relatedPackageName;
+
+    @NotNull
+    public final String relatedTable;
+
+    /**
+     * {@code true} for field of type {@code java.util.List} of related class, {@code false} for field of related class
+     */
+    public final boolean toMany;
+
+    @NotNull
+    public final StorIOSQLiteRelation storIORelation;
+
+    public StorIOSQLiteRelationMeta(
+            @NotNull Element element,
+            @NotNull String fieldName,
+            @NotNull String relatedSimpleName,
+            @NotNull String relatedPackageName,
+            @NotNull String relatedTable,
+            boolean toMany,
+            @NotNull StorIOSQLiteRelation storIORelation) {
+        this.element = element;
+        this.fieldName = fieldName;
+        this.relatedSimpleName = relatedSimpleName;
+        this.relatedPackageName = relatedPackageName;
+        this.relatedTable = relatedTable;
+        this.toMany = toMany;
+        this.storIORelation = storIORelation;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        StorIOSQLiteRelationMeta that = (StorIOSQLiteRelationMeta) o;
+
+        if (toMany != that.toMany) return false;
+        if (!element.equals(that.element)) return false;
+        if (!fieldName.equals(that.fieldName)) return false;
+        if (!relatedSimpleName.equals(that.relatedSimpleName)) return false;
+        if (!relatedPackageName.equals(that.relatedPackageName)) return false;
+        if (!relatedTable.equals(that.relatedTable)) return false;
+        return storIORelation.equals(that.storIORelation);
+
+    }
+
+    @Override
+    public int hashCode() {
+        int result = element.hashCode();
+        result = 31 * result + fieldName.hashCode();
+        result = 31 * result + relatedSimpleName.hashCode();
+        result = 31 * result + relatedPackageName.hashCode();
+        result = 31 * result + relatedTable.hashCode();
+        result = 31 * result + (toMany ? 1 : 0);
+        result = 31 * result + storIORelation.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "StorIOSQLiteRelationMeta{" +
+                "element=" + element +
+                ", fieldName='" + fieldName + '\'' +
+                ", relatedSimpleName='" + relatedSimpleName + '\'' +
+                ", relatedPackageName='" + relatedPackageName + '\'' +
+                ", relatedTable='" + relatedTable + '\'' +
+                ", toMany=" + toMany +
+                ", storIORelation=" + storIORelation +
+                '}';
+    }
+}
@@ -5,12 +5,35 @@ import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteType;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class StorIOSQLiteTypeMeta extends StorIOTypeMeta<StorIOSQLiteType, StorIOSQLiteColumnMeta> {
 
+    /**
+     * Relations by names of fields, yep, this is MODIFIABLE Map, please use it carefully
+     */
+    @NotNull
+    public final Map<String, StorIOSQLiteRelationMeta> relations = new LinkedHashMap<String, StorIOSQLiteRelationMeta>();
+
     public StorIOSQLiteTypeMeta(
             @NotNull String simpleName,
             @NotNull String packageName,
             @NotNull StorIOSQLiteType storIOType) {
         super(simpleName, packageName, storIOType);
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o)) return false;
+
+        StorIOSQLiteTypeMeta that = (StorIOSQLiteTypeMeta) o;
+
+        return relations.equals(that.relations);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + relations.hashCode();
+    }
+}
@@ -83,4 +83,71 @@ public class DeleteResolverGeneratorTest {
                 "    }\n" +
                 "}\n");
     }
+
+    @Test
+    public void keyColumnShouldBeGeneratedForSingleKey() throws IOException {
+        final StorIOSQLiteType storIOSQLiteType = mock(StorIOSQLiteType.class);
+
+        when(storIOSQLiteType.table()).thenReturn("test_table");
+
+        final StorIOSQLiteTypeMeta storIOSQLiteTypeMeta = new StorIOSQLiteTypeMeta(
+                "TestItem",
+                "com.test",
+                storIOSQLiteType
+        );
+
+        final StorIOSQLiteColumn storIOSQLiteColumn = mock(StorIOSQLiteColumn.class);
+        when(storIOSQLiteColumn.name()).thenReturn("column1");
+        when(storIOSQLiteColumn.key()).thenReturn(true);
+
+        //noinspection ConstantConditions
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta = new StorIOSQLiteColumnMeta(
+                null,
+                null,
+                "field1",
+                null,
+                storIOSQLiteColumn
+        );
+        storIOSQLiteTypeMeta.columns.put("column1", storIOSQLiteColumnMeta);
+
+        final JavaFile javaFile = new DeleteResolverGenerator().generateJavaFile(storIOSQLiteTypeMeta);
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+        assertThat(out.toString()).isEqualTo("package com.test;\n" +
+                "\n" +
+                "import android.support.annotation.NonNull;\n" +
+                "import android.support.annotation.Nullable;\n" +
+                "import com.pushtorefresh.storio.sqlite.operations.delete.DefaultDeleteResolver;\n" +
+                "import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;\n" +
+                "import java.lang.Override;\n" +
+                "import java.lang.String;\n" +
+                "\n" +
+                "/**\n" +
+                " * Generated resolver for Delete Operation\n" +
+                " */\n" +
+                "public class TestItemStorIOSQLiteDeleteResolver extends DefaultDeleteResolver<TestItem> {\n" +
+                "    /**\n" +
+                "     * {@inheritDoc}\n" +
+                "     */\n" +
+                "    @Override\n" +
+                "    @NonNull\n" +
+                "    protected DeleteQuery mapToDeleteQuery(@NonNull TestItem object) {\n" +
+                "        return DeleteQuery.builder()\n" +
+                "            .table(\"test_table\")\n" +
+                "            .where(\"column1 = ?\")\n" +
+                "            .whereArgs(object.field1)\n" +
+                "            .build();\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * {@inheritDoc}\n" +
+                "     */\n" +
+                "    @Override\n" +
+                "    @Nullable\n" +
+                "    protected String keyColumn() {\n" +
+                "        return \"column1\";\n" +
+                "    }\n" +
+                "}\n");
+    }
 }
@@ -1,8 +1,10 @@
 package com.pushtorefresh.storio.sqlite.annotations.processor.generate;
 
 import com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType;
+import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteRelation;
 import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteType;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteColumnMeta;
+import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteRelationMeta;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteTypeMeta;
 import com.squareup.javapoet.JavaFile;
 
@@ -28,8 +30,11 @@ public class GetResolverGeneratorTest {
     private static final String PART_IMPORT =
             "import android.database.Cursor;\n" +
                     "import android.support.annotation.NonNull;\n" +
+                    "import android.support.annotation.Nullable;\n" +
                     "import com.pushtorefresh.storio.sqlite.operations.get.DefaultGetResolver;\n" +
                     "import java.lang.Override;\n" +
+                    "import java.lang.String;\n" +
+                    "import java.util.Arrays;\n" +
                     "\n";
 
     @NotNull
@@ -40,17 +45,90 @@ public class GetResolverGeneratorTest {
                     "public class TestItemStorIOSQLiteGetResolver extends DefaultGetResolver<TestItem> {\n";
 
     @NotNull
-    private static final String PART_MAP_FROM_CURSOR_WITHOUT_NULL_CHECK =
+    private static final String PART_PROJECTION =
+            "    /**\n" +
+                    "     * Columns mapped by this resolver, rows of query with this projection are mapped by ordinals of columns.\n" +
+                    "     */\n" +
+                    "    @NonNull\n" +
+                    "    public static final String[] PROJECTION = {\"column1\", \"column2\"};\n" +
+                    "\n" +
+                    "    @NonNull\n" +
+                    "    private static final int[] PROJECTION_ORDINALS = {0, 1};\n" +
+                    "\n";
+
+    @NotNull
+    private static final String PART_MAP_FROM_CURSOR =
             "    /**\n" +
                     "     * {@inheritDoc}\n" +
                     "     */\n" +
                     "    @Override\n" +
                     "    @NonNull\n" +
                     "    public TestItem mapFromCursor(@NonNull Cursor cursor) {\n" +
+                    "        return mapFromCursor(cursor, columnIndices(cursor));\n" +
+                    "    }\n" +
+                    "\n";
+
+    @NotNull
+    private static final String PART_PROJECTION_TABLE_AND_KEY_COLUMN =
+            "\n" +
+                    "    /**\n" +
+                    "     * {@inheritDoc}\n" +
+                    "     */\n" +
+                    "    @Override\n" +
+                    "    @Nullable\n" +
+                    "    protected String[] projection() {\n" +
+                    "        return PROJECTION;\n" +
+                    "    }\n" +
+                    "\n" +
+                    "    /**\n" +
+                    "     * {@inheritDoc}\n" +
+                    "     */\n" +
+                    "    @Override\n" +
+                    "    @Nullable\n" +
+                    "    protected String table() {\n" +
+                    "        return \"test_table\";\n" +
+                    "    }\n" +
+                    "\n" +
+                    "    /**\n" +
+                    "     * {@inheritDoc}\n" +
+                    "     */\n" +
+                    "    @Override\n" +
+                    "    @Nullable\n" +
+                    "    protected String keyColumn() {\n" +
+                    "        return \"column1\";\n" +
+                    "    }\n";
+
+    @NotNull
+    private static final String PART_COLUMN_INDICES =
+            "\n" +
+                    "    /**\n" +
+                    "     * {@inheritDoc}\n" +
+                    "     */\n" +
+                    "    @Override\n" +
+                    "    @NonNull\n" +
+                    "    public int[] columnIndices(@NonNull Cursor cursor) {\n" +
+                    "        if (Arrays.equals(cursor.getColumnNames(), PROJECTION)) {\n" +
+                    "            return PROJECTION_ORDINALS;\n" +
+                    "        }\n" +
+                    "\n" +
+                    "        final int[] indices = new int[2];\n" +
+                    "        indices[0] = cursor.getColumnIndex(\"column1\");\n" +
+                    "        indices[1] = cursor.getColumnIndex(\"column2\");\n" +
+                    "        return indices;\n" +
+                    "    }\n";
+
+    @NotNull
+    private static final String PART_MAP_FROM_CURSOR_WITHOUT_NULL_CHECK =
+            "    /**\n" +
+                    "     * {@inheritDoc}\n" +
+                    "     */\n" +
+                    "    @Override\n" +
+                    "    @NonNull\n" +
+                    "    public TestItem mapFromCursor(@NonNull Cursor cursor, @NonNull int[] columnIndices) {\n" +
                     "        TestItem object = new TestItem();\n" +
                     "\n" +
-                    "        object.field1 = cursor.getInt(cursor.getColumnIndex(\"column1\")) == 1;\n" +
-                    "        object.field2 = cursor.getString(cursor.getColumnIndex(\"column2\"));\n" +
+                    "        object.field1 = cursor.getInt(columnIndices[0]) == 1;\n" +
+                    "        object.field2 = cursor.getString(columnIndices[1]);\n" +
                     "\n" +
                     "        return object;\n" +
                     "    }\n";
@@ -146,12 +224,12 @@ public class GetResolverGeneratorTest {
                         "     */\n" +
                         "    @Override\n" +
                         "    @NonNull\n" +
-                        "    public TestItem mapFromCursor(@NonNull Cursor cursor) {\n" +
+                        "    public TestItem mapFromCursor(@NonNull Cursor cursor, @NonNull int[] columnIndices) {\n" +
                         "        TestItem object = new TestItem();\n" +
                         "\n" +
-                        "        object.field1 = cursor.getInt(cursor.getColumnIndex(\"column1\")) == 1;\n" +
-                        "        if(!cursor.isNull(cursor.getColumnIndex(\"column2\"))) {\n" +
-                        "            object.field2 = cursor.getInt(cursor.getColumnIndex(\"column2\"));\n" +
+                        "        object.field1 = cursor.getInt(columnIndices[0]) == 1;\n" +
+                        "        if(!cursor.isNull(columnIndices[1])) {\n" +
+                        "            object.field2 = cursor.getInt(columnIndices[1]);\n" +
                         "        }\n" +
                         "\n" +
                         "        return object;\n" +
@@ -159,6 +237,98 @@ public class GetResolverGeneratorTest {
         );
     }
 
+    @Test
+    public void relationsShouldBeLoadedWithOneQueryPerRelation() throws IOException {
+        final StorIOSQLiteType storIOSQLiteType = mock(StorIOSQLiteType.class);
+
+        when(storIOSQLiteType.table()).thenReturn("test_table");
+
+        final StorIOSQLiteTypeMeta storIOSQLiteTypeMeta = new StorIOSQLiteTypeMeta(
+                "TestItem",
+                "com.test",
+                storIOSQLiteType
+        );
+
+        storIOSQLiteTypeMeta.columns.put("column1", createColumnMetaMock(
+                createElementMock(TypeKind.LONG),
+                "column1",
+                "field1",
+                true,           // key
+                false,
+                JavaType.LONG
+        ));
+
+        storIOSQLiteTypeMeta.columns.put("column2", createColumnMetaMock(
+                createElementMock(TypeKind.LONG),
+                "column2",
+                "field2",
+                false,
+                false,
+                JavaType.LONG_OBJECT     // nullable foreign key
+        ));
+
+        final StorIOSQLiteRelation ownerRelation = mock(StorIOSQLiteRelation.class);
+        when(ownerRelation.column()).thenReturn("column2");
+        when(ownerRelation.relatedColumn()).thenReturn("_id");
+
+        final StorIOSQLiteRelation childrenRelation = mock(StorIOSQLiteRelation.class);
+        when(childrenRelation.column()).thenReturn("column1");
+        when(childrenRelation.relatedColumn()).thenReturn("parent_id");
+
+        //noinspection ConstantConditions
+        storIOSQLiteTypeMeta.relations.put("owner", new StorIOSQLiteRelationMeta(
+                null, "owner", "Owner", "com.test", "owners", false, ownerRelation));
+        //noinspection ConstantConditions
+        storIOSQLiteTypeMeta.relations.put("children", new StorIOSQLiteRelationMeta(
+                null, "children", "Child", "com.test", "children", true, childrenRelation));
+
+        final JavaFile javaFile = new GetResolverGenerator().generateJavaFile(storIOSQLiteTypeMeta);
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+        assertThat(out.toString()).contains("" +
+                "    @NonNull\n" +
+                "    private static final Set<String> RELATED_TABLES = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(\"owners\", \"children\")));\n");
+
+        assertThat(out.toString()).contains("" +
+                "    /**\n" +
+                "     * {@inheritDoc}\n" +
+                "     */\n" +
+                "    @Override\n" +
+                "    @NonNull\n" +
+                "    public Set<String> relatedTables() {\n" +
+                "        return RELATED_TABLES;\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * {@inheritDoc}\n" +
+                "     */\n" +
+                "    @Override\n" +
+                "    public void loadRelations(@NonNull StorIOSQLite storIOSQLite, @NonNull List<TestItem> objects) {\n" +
+                "        final List<Object> ownerValues = new ArrayList<Object>(objects.size());\n" +
+                "        for (TestItem object : objects) {\n" +
+                "            if (object.field2 != null) {\n" +
+                "                ownerValues.add(object.field2);\n" +
+                "            }\n" +
+                "        }\n" +
+                "        final Map<String, List<Owner>> ownerRelated = RelatedObjects.load(storIOSQLite, Owner.class, \"owners\", \"_id\", ownerValues);\n" +
+                "        for (TestItem object : objects) {\n" +
+                "            final List<Owner> related = object.field2 != null ? ownerRelated.get(String.valueOf(object.field2)) : null;\n" +
+                "            object.owner = related != null ? related.get(0) : null;\n" +
+                "        }\n" +
+                "\n" +
+                "        final List<Object> childrenValues = new ArrayList<Object>(objects.size());\n" +
+                "        for (TestItem object : objects) {\n" +
+                "            childrenValues.add(object.field1);\n" +
+                "        }\n" +
+                "        final Map<String, List<Child>> childrenRelated = RelatedObjects.load(storIOSQLite, Child.class, \"children\", \"parent_id\", childrenValues);\n" +
+                "        for (TestItem object : objects) {\n" +
+                "            final List<Child> related = childrenRelated.get(String.valueOf(object.field1));\n" +
+                "            object.children = related != null ? related : Collections.<Child>emptyList();\n" +
+                "        }\n" +
+                "    }\n");
+    }
+
     private void checkFile(
             @NotNull String actualFile,
             @NotNull String partPackage,
@@ -170,7 +340,11 @@ public class GetResolverGeneratorTest {
                 partPackage +
                         partImport +
                         partClass +
+                        PART_PROJECTION +
+                        PART_MAP_FROM_CURSOR +
                         partMapFromCursor +
+                        PART_PROJECTION_TABLE_AND_KEY_COLUMN +
+                        PART_COLUMN_INDICES +
                         "}\n");
     }
 }
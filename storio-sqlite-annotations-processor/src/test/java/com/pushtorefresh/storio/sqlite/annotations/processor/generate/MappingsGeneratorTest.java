@@ -0,0 +1,72 @@
+package com.pushtorefresh.storio.sqlite.annotations.processor.generate;
+
+import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteType;
+import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteTypeMeta;
+import com.squareup.javapoet.JavaFile;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class MappingsGeneratorTest {
+    @Test
+    public void generateJavaFile() throws IOException {
+        final StorIOSQLiteType storIOSQLiteType = mock(StorIOSQLiteType.class);
+
+        final StorIOSQLiteTypeMeta testItemMeta = new StorIOSQLiteTypeMeta(
+                "TestItem",
+                "com.test",
+                storIOSQLiteType
+        );
+
+        final StorIOSQLiteTypeMeta otherItemMeta = new StorIOSQLiteTypeMeta(
+                "OtherItem",
+                "com.test",
+                storIOSQLiteType
+        );
+
+        MappingsGenerator mappingsGenerator = new MappingsGenerator();
+        final JavaFile javaFile = mappingsGenerator.generateJavaFile("com.test", asList(testItemMeta, otherItemMeta));
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+
+        String result =
+                "package com.test;\n" +
+                "\n" +
+                "import android.support.annotation.NonNull;\n" +
+                "import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;\n" +
+                "import java.lang.Class;\n" +
+                "import java.lang.IllegalStateException;\n" +
+                "import java.util.HashMap;\n" +
+                "import java.util.Map;\n" +
+                "\n" +
+                "/**\n" +
+                " * Generated type mappings of all types of package annotated with StorIOSQLiteType,\n" +
+                " * they can be added to the builder of StorIOSQLite with one call:\n" +
+                " * {@code addTypeMappings(StorIOSQLiteMappings.typeMappings())}\n" +
+                " */\n" +
+                "public final class StorIOSQLiteMappings {\n" +
+                "    private StorIOSQLiteMappings() {\n" +
+                "        throw new IllegalStateException(\"No instances please\");\n" +
+                "    }\n" +
+                "\n" +
+                "    /**\n" +
+                "     * @return new map of type mappings by their types.\n" +
+                "     */\n" +
+                "    @NonNull\n" +
+                "    public static Map<Class<?>, SQLiteTypeMapping<?>> typeMappings() {\n" +
+                "        final Map<Class<?>, SQLiteTypeMapping<?>> typeMappings = new HashMap<Class<?>, SQLiteTypeMapping<?>>(2);\n" +
+                "        typeMappings.put(OtherItem.class, new OtherItemSQLiteTypeMapping());\n" +
+                "        typeMappings.put(TestItem.class, new TestItemSQLiteTypeMapping());\n" +
+                "        return typeMappings;\n" +
+                "    }\n" +
+                "}\n";
+
+        assertThat(out.toString()).isEqualTo(result);
+    }
+}
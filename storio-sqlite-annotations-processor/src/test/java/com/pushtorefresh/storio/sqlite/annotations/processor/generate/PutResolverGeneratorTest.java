@@ -1,5 +1,6 @@
 package com.pushtorefresh.storio.sqlite.annotations.processor.generate;
 
+import com.pushtorefresh.storio.common.annotations.processor.introspection.JavaType;
 import com.pushtorefresh.storio.sqlite.annotations.StorIOSQLiteType;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteColumnMeta;
 import com.pushtorefresh.storio.sqlite.annotations.processor.introspection.StorIOSQLiteTypeMeta;
@@ -182,6 +183,150 @@ public class PutResolverGeneratorTest {
                         "    }\n");
     }
 
+    @Test
+    public void putStrategyShouldBeGeneratedIfSpecified() throws IOException {
+        final StorIOSQLiteType storIOSQLiteType = mock(StorIOSQLiteType.class);
+
+        when(storIOSQLiteType.table()).thenReturn("test_table");
+        when(storIOSQLiteType.putStrategy()).thenReturn(StorIOSQLiteType.PutStrategy.UPDATE_THEN_INSERT);
+
+        final StorIOSQLiteTypeMeta storIOSQLiteTypeMeta = new StorIOSQLiteTypeMeta("TestItem", "com.test", storIOSQLiteType);
+
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta1 = createColumnMetaMock(
+                createElementMock(NONE),
+                "column1",
+                "column1Field",
+                true,           // key
+                false,
+                null);
+        storIOSQLiteTypeMeta.columns.put("column1", storIOSQLiteColumnMeta1);
+
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta2 = createColumnMetaMock(
+                createElementMock(NONE),
+                "column2",
+                "column2Field",
+                false,
+                false,
+                null);
+        storIOSQLiteTypeMeta.columns.put("column2", storIOSQLiteColumnMeta2);
+
+        final PutResolverGenerator putResolverGenerator = new PutResolverGenerator();
+        final JavaFile javaFile = putResolverGenerator.generateJavaFile(storIOSQLiteTypeMeta);
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+        checkFile(out.toString(),
+                PART_PACKAGE,
+                "import android.content.ContentValues;\n" +
+                        "import android.support.annotation.NonNull;\n" +
+                        "import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;\n" +
+                        "import com.pushtorefresh.storio.sqlite.operations.put.PutStrategy;\n" +
+                        "import com.pushtorefresh.storio.sqlite.queries.InsertQuery;\n" +
+                        "import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;\n" +
+                        "import java.lang.Override;\n" +
+                        "\n",
+                PART_CLASS,
+                PART_MAP_TO_INSERT_QUERY,
+                PART_MAP_TO_UPDATE_QUERY,
+                PART_MAP_TO_CONTENT_VALUES_WITHOUT_NULL_CHECK +
+                        "\n" +
+                        "    /**\n" +
+                        "     * {@inheritDoc}\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @NonNull\n" +
+                        "    protected PutStrategy putStrategy() {\n" +
+                        "        return PutStrategy.UPDATE_THEN_INSERT;\n" +
+                        "    }\n");
+    }
+
+    @Test
+    public void statementBinderShouldBeGeneratedIfTypesOfFieldsAreKnown() throws IOException {
+        final StorIOSQLiteType storIOSQLiteType = mock(StorIOSQLiteType.class);
+
+        when(storIOSQLiteType.table()).thenReturn("test_table");
+
+        final StorIOSQLiteTypeMeta storIOSQLiteTypeMeta = new StorIOSQLiteTypeMeta("TestItem", "com.test", storIOSQLiteType);
+
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta1 = createColumnMetaMock(
+                createElementMock(TypeKind.LONG),
+                "column1",
+                "column1Field",
+                true,           // key
+                false,
+                JavaType.LONG);
+        storIOSQLiteTypeMeta.columns.put("column1", storIOSQLiteColumnMeta1);
+
+        final StorIOSQLiteColumnMeta storIOSQLiteColumnMeta2 = createColumnMetaMock(
+                createElementMock(NONE),
+                "column2",
+                "column2Field",
+                false,
+                false,
+                JavaType.STRING);
+        storIOSQLiteTypeMeta.columns.put("column2", storIOSQLiteColumnMeta2);
+
+        final PutResolverGenerator putResolverGenerator = new PutResolverGenerator();
+        final JavaFile javaFile = putResolverGenerator.generateJavaFile(storIOSQLiteTypeMeta);
+        final StringBuilder out = new StringBuilder();
+        javaFile.writeTo(out);
+
+        checkFile(out.toString(),
+                PART_PACKAGE,
+                "import android.content.ContentValues;\n" +
+                        "import android.database.sqlite.SQLiteStatement;\n" +
+                        "import android.support.annotation.NonNull;\n" +
+                        "import android.support.annotation.Nullable;\n" +
+                        "import com.pushtorefresh.storio.sqlite.StatementBinder;\n" +
+                        "import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;\n" +
+                        "import com.pushtorefresh.storio.sqlite.queries.InsertQuery;\n" +
+                        "import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;\n" +
+                        "import java.lang.Override;\n" +
+                        "import java.lang.String;\n" +
+                        "import java.util.Arrays;\n" +
+                        "import java.util.Collections;\n" +
+                        "import java.util.List;\n" +
+                        "\n",
+                PART_CLASS +
+                        "    /**\n" +
+                        "     * Binds fields of object directly into compiled statement instead of {@link ContentValues}.\n" +
+                        "     */\n" +
+                        "    @NonNull\n" +
+                        "    private static final StatementBinder<TestItem> STATEMENT_BINDER = new StatementBinder<TestItem>() {\n" +
+                        "        @NonNull\n" +
+                        "        private final List<String> columns = Collections.unmodifiableList(Arrays.asList(\"column1\", \"column2\"));\n" +
+                        "\n" +
+                        "        @Override\n" +
+                        "        @NonNull\n" +
+                        "        public List<String> columns() {\n" +
+                        "            return columns;\n" +
+                        "        }\n" +
+                        "\n" +
+                        "        @Override\n" +
+                        "        public void bind(@NonNull SQLiteStatement statement, @NonNull TestItem object) {\n" +
+                        "            statement.bindLong(1, object.column1Field);\n" +
+                        "            if(object.column2Field != null) {\n" +
+                        "                statement.bindString(2, object.column2Field);\n" +
+                        "            } else {\n" +
+                        "                statement.bindNull(2);\n" +
+                        "            }\n" +
+                        "        }\n" +
+                        "    };\n" +
+                        "\n",
+                PART_MAP_TO_INSERT_QUERY,
+                PART_MAP_TO_UPDATE_QUERY,
+                PART_MAP_TO_CONTENT_VALUES_WITHOUT_NULL_CHECK +
+                        "\n" +
+                        "    /**\n" +
+                        "     * {@inheritDoc}\n" +
+                        "     */\n" +
+                        "    @Override\n" +
+                        "    @Nullable\n" +
+                        "    protected StatementBinder<TestItem> statementBinder() {\n" +
+                        "        return STATEMENT_BINDER;\n" +
+                        "    }\n");
+    }
+
     @NotNull
     private static Element createElementMock(@NotNull TypeKind typeKind) {
         final Element objectElement = mock(Element.class);
@@ -0,0 +1,36 @@
+package com.pushtorefresh.storio.sqlite.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Annotation for marking field of some class as relation to objects of another class
+ * marked with {@link StorIOSQLiteType}
+ * <p>
+ * Field of type of related class is "to-one" relation, field of type {@code java.util.List}
+ * of related class is "to-many" relation.
+ * Related objects of all results of Get Operation are loaded with one query per relation,
+ * they are not stored by Put Operation
+ */
+@Target(FIELD)
+@Retention(RUNTIME) // we allow users to write reflection based code to work with annotation
+public @interface StorIOSQLiteRelation {
+
+    /**
+     * Required: specifies name of column of this class which value references related objects,
+     * it should be declared by field marked with {@link StorIOSQLiteColumn}
+     *
+     * @return non-null column name
+     */
+    String column();
+
+    /**
+     * Required: specifies name of column of related class which value is matched with value of {@link #column()}
+     *
+     * @return non-null column name
+     */
+    String relatedColumn();
+}
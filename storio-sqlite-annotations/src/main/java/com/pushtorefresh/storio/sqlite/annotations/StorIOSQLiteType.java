@@ -19,4 +19,38 @@ public @interface StorIOSQLiteType {
      * @return table name
      */
     String table();
+
+    /**
+     * Optional: specifies how generated put resolver chooses between insert and update
+     *
+     * @return put strategy, {@link PutStrategy#DEFAULT} keeps default strategy of the put resolver
+     */
+    PutStrategy putStrategy() default PutStrategy.DEFAULT;
+
+    /**
+     * Mirrors {@code com.pushtorefresh.storio.sqlite.operations.put.PutStrategy}
+     * which is not available for annotations
+     */
+    enum PutStrategy {
+
+        /**
+         * Generated put resolver uses default strategy of {@code DefaultPutResolver}
+         */
+        DEFAULT,
+
+        /**
+         * Query existing rows, then update or insert
+         */
+        SELECT_THEN_WRITE,
+
+        /**
+         * Update, then insert if no rows were updated
+         */
+        UPDATE_THEN_INSERT,
+
+        /**
+         * Single {@code INSERT OR REPLACE} statement
+         */
+        INSERT_OR_REPLACE
+    }
 }
@@ -0,0 +1,122 @@
+package com.pushtorefresh.storio.sqlite.benchmark;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.support.annotation.NonNull;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.impl.DefaultStorIOSQLite;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import rx.Subscriber;
+import rx.subscriptions.CompositeSubscription;
+
+/**
+ * Measures cost of {@link StorIOSQLite.LowLevel#notifyAboutChanges(Changes)}
+ * as number of subscribers of other tables grows.
+ * <p>
+ * Results are printed to logcat with tag {@value #TAG}, cost per notification
+ * should stay flat as number of subscribers grows.
+ * <p>
+ * Run with {@code ./gradlew :storio-sqlite:connectedAndroidTest} on a real device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ChangesDispatchBenchmark {
+
+    private static final String TAG = "StorIOBenchmark";
+
+    private static final int[] NUMBERS_OF_SUBSCRIBERS = {1, 10, 100, 1000};
+
+    private static final int NUMBER_OF_WARM_UP_NOTIFICATIONS = 10000;
+
+    private static final int NUMBER_OF_NOTIFICATIONS = 100000;
+
+    @Test
+    public void dispatchCost() {
+        for (int numberOfSubscribers : NUMBERS_OF_SUBSCRIBERS) {
+            run(numberOfSubscribers);
+        }
+    }
+
+    private static void run(int numberOfSubscribers) {
+        final StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(new InMemoryOpenHelper())
+                .build();
+
+        final CompositeSubscription subscriptions = new CompositeSubscription();
+        final CountingSubscriber observerOfChangedTable = new CountingSubscriber();
+
+        subscriptions.add(storIOSQLite
+                .observeChangesInTable("changed_table")
+                .subscribe(observerOfChangedTable));
+
+        // Live queries of other tables should not affect cost of the notification
+        for (int i = 0; i < numberOfSubscribers; i++) {
+            subscriptions.add(storIOSQLite
+                    .observeChangesInTable("table_" + i)
+                    .subscribe(new CountingSubscriber()));
+        }
+
+        final Changes changes = Changes.newInstance("changed_table");
+
+        for (int i = 0; i < NUMBER_OF_WARM_UP_NOTIFICATIONS; i++) {
+            storIOSQLite.lowLevel().notifyAboutChanges(changes);
+        }
+
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < NUMBER_OF_NOTIFICATIONS; i++) {
+            storIOSQLite.lowLevel().notifyAboutChanges(changes);
+        }
+
+        final long nanosPerNotification = (System.nanoTime() - start) / NUMBER_OF_NOTIFICATIONS;
+
+        subscriptions.unsubscribe();
+
+        Log.i(TAG, "subscribers of other tables = " + numberOfSubscribers
+                + ", ns per notification = " + nanosPerNotification
+                + ", received = " + observerOfChangedTable.count);
+    }
+
+    private static class CountingSubscriber extends Subscriber<Changes> {
+
+        int count;
+
+        @Override
+        public void onCompleted() {
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            throw new AssertionError(e);
+        }
+
+        @Override
+        public void onNext(Changes changes) {
+            count++;
+        }
+    }
+
+    private static class InMemoryOpenHelper extends SQLiteOpenHelper {
+
+        InMemoryOpenHelper() {
+            super(InstrumentationRegistry.getTargetContext(), null, null, 1);
+        }
+
+        @Override
+        public void onCreate(@NonNull SQLiteDatabase db) {
+            // no impl
+        }
+
+        @Override
+        public void onUpgrade(@NonNull SQLiteDatabase db, int oldVersion, int newVersion) {
+            // no impl
+        }
+    }
+}
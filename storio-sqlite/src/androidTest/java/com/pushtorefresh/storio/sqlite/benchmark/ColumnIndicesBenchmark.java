@@ -0,0 +1,254 @@
+package com.pushtorefresh.storio.sqlite.benchmark;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.impl.DefaultStorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.get.DefaultGetResolver;
+import com.pushtorefresh.storio.sqlite.operations.get.GetResolver;
+import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares {@link GetResolver GetResolvers} in form generated by annotation processors:
+ * with lookup of column indices for each row and with column indices cached per cursor.
+ * Table has {@value #NUMBER_OF_COLUMNS} columns and {@value #NUMBER_OF_ROWS} rows.
+ * <p>
+ * Results are printed to logcat with tag {@value #TAG}, compare
+ * "lookup per row" and "cached per cursor" lines.
+ * <p>
+ * Run with {@code ./gradlew :storio-sqlite:connectedAndroidTest} on a real device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ColumnIndicesBenchmark {
+
+    private static final String TAG = "StorIOBenchmark";
+
+    private static final String DB_NAME = "column_indices_benchmark.db";
+
+    private static final String TABLE = "items";
+
+    private static final int NUMBER_OF_COLUMNS = 20;
+
+    private static final int NUMBER_OF_ROWS = 10000;
+
+    private static final int NUMBER_OF_RUNS = 20;
+
+    @NonNull
+    private static final String[] COLUMNS = new String[NUMBER_OF_COLUMNS];
+
+    static {
+        for (int i = 0; i < NUMBER_OF_COLUMNS; i++) {
+            COLUMNS[i] = "column_" + i;
+        }
+    }
+
+    @NonNull
+    private Context context;
+
+    @NonNull
+    private StorIOSQLite storIOSQLite;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getTargetContext();
+        context.deleteDatabase(DB_NAME);
+
+        storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(new BenchmarkOpenHelper(context))
+                .build();
+
+        insertRows(storIOSQLite, NUMBER_OF_ROWS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        storIOSQLite.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void mapListOfObjects() {
+        final GetResolver<long[]> lookupPerRowGetResolver = new LookupPerRowGetResolver();
+        final GetResolver<long[]> cachedPerCursorGetResolver = new CachedPerCursorGetResolver();
+
+        final long[] lookupPerRowLatencies = new long[NUMBER_OF_RUNS];
+        final long[] cachedPerCursorLatencies = new long[NUMBER_OF_RUNS];
+
+        for (int i = 0; i < NUMBER_OF_RUNS; i++) {
+            long start = System.nanoTime();
+            final List<long[]> lookupPerRowResult = get(lookupPerRowGetResolver);
+            lookupPerRowLatencies[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            final List<long[]> cachedPerCursorResult = get(cachedPerCursorGetResolver);
+            cachedPerCursorLatencies[i] = System.nanoTime() - start;
+
+            assertEquals(NUMBER_OF_ROWS, lookupPerRowResult.size());
+            assertEquals(NUMBER_OF_ROWS, cachedPerCursorResult.size());
+
+            for (int row = 0; row < NUMBER_OF_ROWS; row++) {
+                assertEquals(Arrays.toString(lookupPerRowResult.get(row)), Arrays.toString(cachedPerCursorResult.get(row)));
+            }
+        }
+
+        report("lookup per row", lookupPerRowLatencies);
+        report("cached per cursor", cachedPerCursorLatencies);
+    }
+
+    @NonNull
+    private List<long[]> get(@NonNull GetResolver<long[]> getResolver) {
+        return storIOSQLite
+                .get()
+                .listOfObjects(long[].class)
+                .withQuery(Query.builder().table(TABLE).build())
+                .withGetResolver(getResolver)
+                .prepare()
+                .executeAsBlocking();
+    }
+
+    private static void insertRows(@NonNull StorIOSQLite storIOSQLite, int count) {
+        final InsertQuery insertQuery = InsertQuery.builder().table(TABLE).build();
+        final ContentValues contentValues = new ContentValues(NUMBER_OF_COLUMNS);
+
+        storIOSQLite.lowLevel().beginTransaction();
+
+        try {
+            for (int i = 0; i < count; i++) {
+                for (int column = 0; column < NUMBER_OF_COLUMNS; column++) {
+                    contentValues.put(COLUMNS[column], (long) i * NUMBER_OF_COLUMNS + column);
+                }
+
+                storIOSQLite.lowLevel().insert(insertQuery, contentValues);
+            }
+
+            storIOSQLite.lowLevel().setTransactionSuccessful();
+        } finally {
+            storIOSQLite.lowLevel().endTransaction();
+        }
+    }
+
+    private static void report(@NonNull String name, @NonNull long[] latencies) {
+        Arrays.sort(latencies);
+
+        Log.i(TAG, name
+                + ": runs = " + latencies.length
+                + ", median = " + toMillis(latencies[latencies.length / 2]) + " ms"
+                + ", max = " + toMillis(latencies[latencies.length - 1]) + " ms");
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000d;
+    }
+
+    // Same as previously generated resolvers: cursor.getColumnIndex() for each field of each row
+    private static class LookupPerRowGetResolver extends DefaultGetResolver<long[]> {
+
+        @NonNull
+        @Override
+        public long[] mapFromCursor(@NonNull Cursor cursor) {
+            final long[] object = new long[NUMBER_OF_COLUMNS];
+
+            for (int i = 0; i < NUMBER_OF_COLUMNS; i++) {
+                object[i] = cursor.getLong(cursor.getColumnIndex(COLUMNS[i]));
+            }
+
+            return object;
+        }
+    }
+
+    // Same as currently generated resolvers: column indices are looked up once per cursor
+    private static class CachedPerCursorGetResolver extends DefaultGetResolver<long[]> {
+
+        @Nullable
+        private volatile ColumnIndices lastColumnIndices;
+
+        @NonNull
+        @Override
+        public long[] mapFromCursor(@NonNull Cursor cursor) {
+            final int[] columnIndices = columnIndices(cursor);
+            final long[] object = new long[NUMBER_OF_COLUMNS];
+
+            for (int i = 0; i < NUMBER_OF_COLUMNS; i++) {
+                object[i] = cursor.getLong(columnIndices[i]);
+            }
+
+            return object;
+        }
+
+        @NonNull
+        private int[] columnIndices(@NonNull Cursor cursor) {
+            ColumnIndices columnIndices = lastColumnIndices;
+
+            if (columnIndices == null || columnIndices.cursor.get() != cursor) {
+                final int[] indices = new int[NUMBER_OF_COLUMNS];
+
+                for (int i = 0; i < NUMBER_OF_COLUMNS; i++) {
+                    indices[i] = cursor.getColumnIndex(COLUMNS[i]);
+                }
+
+                columnIndices = new ColumnIndices(cursor, indices);
+                lastColumnIndices = columnIndices;
+            }
+
+            return columnIndices.indices;
+        }
+
+        private static final class ColumnIndices {
+
+            @NonNull
+            final WeakReference<Cursor> cursor;
+
+            @NonNull
+            final int[] indices;
+
+            ColumnIndices(@NonNull Cursor cursor, @NonNull int[] indices) {
+                this.cursor = new WeakReference<Cursor>(cursor);
+                this.indices = indices;
+            }
+        }
+    }
+
+    private static class BenchmarkOpenHelper extends SQLiteOpenHelper {
+
+        BenchmarkOpenHelper(@NonNull Context context) {
+            super(context, DB_NAME, null, 1);
+        }
+
+        @Override
+        public void onCreate(@NonNull SQLiteDatabase db) {
+            final StringBuilder sql = new StringBuilder("CREATE TABLE " + TABLE + "(_id INTEGER PRIMARY KEY");
+
+            for (String column : COLUMNS) {
+                sql.append(", ").append(column).append(" INTEGER NOT NULL");
+            }
+
+            db.execSQL(sql.append(')').toString());
+        }
+
+        @Override
+        public void onUpgrade(@NonNull SQLiteDatabase db, int oldVersion, int newVersion) {
+            // no impl
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.pushtorefresh.storio.sqlite.benchmark;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.impl.DefaultStorIOSQLite;
+import com.pushtorefresh.storio.sqlite.impl.TuningProfile;
+import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures latency of queries executed while another thread runs a long write transaction.
+ * <p>
+ * Results are printed to logcat with tag {@value #TAG}, compare
+ * "default" and "concurrent reads" lines to see effect of {@link TuningProfile#CONCURRENT_READS}.
+ * <p>
+ * Run with {@code ./gradlew :storio-sqlite:connectedAndroidTest} on a real device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ConcurrentReadsBenchmark {
+
+    private static final String TAG = "StorIOBenchmark";
+
+    private static final String DB_NAME = "concurrent_reads_benchmark.db";
+
+    private static final String TABLE = "items";
+
+    private static final int NUMBER_OF_PREFILLED_ROWS = 10000;
+
+    private static final int NUMBER_OF_ROWS_IN_WRITE_TRANSACTION = 50000;
+
+    @NonNull
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getTargetContext();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void readLatencyWhileWriting() throws Exception {
+        run("default", null);
+    }
+
+    @Test
+    public void readLatencyWhileWritingWithConcurrentReadsProfile() throws Exception {
+        run("concurrent reads", TuningProfile.CONCURRENT_READS);
+    }
+
+    private void run(@NonNull String name, @Nullable TuningProfile tuningProfile) throws Exception {
+        final DefaultStorIOSQLite.CompleteBuilder builder = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(new BenchmarkOpenHelper(context));
+
+        if (tuningProfile != null) {
+            builder.tuningProfile(tuningProfile);
+        }
+
+        final StorIOSQLite storIOSQLite = builder.build();
+
+        try {
+            insertRows(storIOSQLite, NUMBER_OF_PREFILLED_ROWS);
+
+            final CountDownLatch writerStarted = new CountDownLatch(1);
+            final AtomicBoolean writerFinished = new AtomicBoolean(false);
+
+            final Thread writer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    storIOSQLite.lowLevel().beginTransaction();
+                    writerStarted.countDown();
+
+                    try {
+                        insertRows(storIOSQLite, NUMBER_OF_ROWS_IN_WRITE_TRANSACTION);
+                        storIOSQLite.lowLevel().setTransactionSuccessful();
+                    } finally {
+                        storIOSQLite.lowLevel().endTransaction();
+                        writerFinished.set(true);
+                    }
+                }
+            }, "benchmark-writer");
+
+            writer.start();
+            assertTrue(writerStarted.await(10, TimeUnit.SECONDS));
+
+            long[] latencies = new long[64];
+            int numberOfReads = 0;
+
+            while (!writerFinished.get()) {
+                final long start = System.nanoTime();
+                query(storIOSQLite);
+                final long latency = System.nanoTime() - start;
+
+                if (numberOfReads == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, latencies.length * 2);
+                }
+
+                latencies[numberOfReads++] = latency;
+            }
+
+            writer.join();
+
+            report(name, Arrays.copyOf(latencies, numberOfReads));
+        } finally {
+            storIOSQLite.close();
+        }
+    }
+
+    private static void insertRows(@NonNull StorIOSQLite storIOSQLite, int count) {
+        final InsertQuery insertQuery = InsertQuery.builder().table(TABLE).build();
+        final ContentValues contentValues = new ContentValues(1);
+
+        for (int i = 0; i < count; i++) {
+            contentValues.put("value", "value " + i);
+            storIOSQLite.lowLevel().insert(insertQuery, contentValues);
+        }
+    }
+
+    private static void query(@NonNull StorIOSQLite storIOSQLite) {
+        final Cursor cursor = storIOSQLite
+                .get()
+                .cursor()
+                .withQuery(Query.builder()
+                        .table(TABLE)
+                        .orderBy("_id DESC")
+                        .limit(50)
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        try {
+            while (cursor.moveToNext()) {
+                cursor.getString(1);
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static void report(@NonNull String name, @NonNull long[] latencies) {
+        Arrays.sort(latencies);
+
+        if (latencies.length == 0) {
+            Log.i(TAG, name + ": writer finished before first read");
+            return;
+        }
+
+        Log.i(TAG, name
+                + ": reads = " + latencies.length
+                + ", median = " + toMillis(latencies[latencies.length / 2]) + " ms"
+                + ", p95 = " + toMillis(latencies[(int) (latencies.length * 0.95)]) + " ms"
+                + ", max = " + toMillis(latencies[latencies.length - 1]) + " ms");
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000d;
+    }
+
+    private static class BenchmarkOpenHelper extends SQLiteOpenHelper {
+
+        BenchmarkOpenHelper(@NonNull Context context) {
+            super(context, DB_NAME, null, 1);
+        }
+
+        @Override
+        public void onCreate(@NonNull SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + TABLE + "(_id INTEGER PRIMARY KEY, value TEXT NOT NULL)");
+        }
+
+        @Override
+        public void onUpgrade(@NonNull SQLiteDatabase db, int oldVersion, int newVersion) {
+            // no impl
+        }
+    }
+}
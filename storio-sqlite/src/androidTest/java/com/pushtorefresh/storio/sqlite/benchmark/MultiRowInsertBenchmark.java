@@ -0,0 +1,200 @@
+package com.pushtorefresh.storio.sqlite.benchmark;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.support.annotation.NonNull;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.impl.DefaultStorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResults;
+import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
+import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
+import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares Put of collection of {@value #NUMBER_OF_OBJECTS} objects (initial sync)
+ * in one transaction: one Put per object and multi-row inserts.
+ * <p>
+ * Results are printed to logcat with tag {@value #TAG}, compare
+ * "put per object" and "multi-row inserts" lines.
+ * <p>
+ * Run with {@code ./gradlew :storio-sqlite:connectedAndroidTest} on a real device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MultiRowInsertBenchmark {
+
+    private static final String TAG = "StorIOBenchmark";
+
+    private static final String DB_NAME = "multi_row_insert_benchmark.db";
+
+    private static final String TABLE = "items";
+
+    private static final int NUMBER_OF_OBJECTS = 50000;
+
+    private static final int NUMBER_OF_RUNS = 5;
+
+    @NonNull
+    private Context context;
+
+    @NonNull
+    private StorIOSQLite storIOSQLite;
+
+    @NonNull
+    private List<Item> items;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getTargetContext();
+        context.deleteDatabase(DB_NAME);
+
+        storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(new BenchmarkOpenHelper(context))
+                .build();
+
+        items = new ArrayList<Item>(NUMBER_OF_OBJECTS);
+
+        for (int i = 0; i < NUMBER_OF_OBJECTS; i++) {
+            items.add(new Item(i + 1, "title_" + i, i * 10));
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        storIOSQLite.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void putCollectionOfObjects() {
+        final long[] putPerObjectLatencies = new long[NUMBER_OF_RUNS];
+        final long[] multiRowInsertsLatencies = new long[NUMBER_OF_RUNS];
+
+        for (int i = 0; i < NUMBER_OF_RUNS; i++) {
+            long start = System.nanoTime();
+            final PutResults<Item> putPerObjectResults = put(false);
+            putPerObjectLatencies[i] = System.nanoTime() - start;
+
+            deleteAll();
+
+            start = System.nanoTime();
+            final PutResults<Item> multiRowInsertsResults = put(true);
+            multiRowInsertsLatencies[i] = System.nanoTime() - start;
+
+            deleteAll();
+
+            assertEquals(NUMBER_OF_OBJECTS, putPerObjectResults.numberOfInserts());
+            assertEquals(NUMBER_OF_OBJECTS, multiRowInsertsResults.numberOfInserts());
+        }
+
+        report("put per object", putPerObjectLatencies);
+        report("multi-row inserts", multiRowInsertsLatencies);
+    }
+
+    @NonNull
+    private PutResults<Item> put(boolean useMultiRowInserts) {
+        return storIOSQLite
+                .put()
+                .objects(items)
+                .withPutResolver(new ItemPutResolver())
+                .useMultiRowInserts(useMultiRowInserts)
+                .prepare()
+                .executeAsBlocking();
+    }
+
+    private void deleteAll() {
+        storIOSQLite.lowLevel().delete(DeleteQuery.builder().table(TABLE).build());
+    }
+
+    private static void report(@NonNull String name, @NonNull long[] latencies) {
+        Arrays.sort(latencies);
+
+        Log.i(TAG, name
+                + ": runs = " + latencies.length
+                + ", median = " + toMillis(latencies[latencies.length / 2]) + " ms"
+                + ", max = " + toMillis(latencies[latencies.length - 1]) + " ms");
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000d;
+    }
+
+    private static class Item {
+
+        final long id;
+
+        @NonNull
+        final String title;
+
+        final long value;
+
+        Item(long id, @NonNull String title, long value) {
+            this.id = id;
+            this.title = title;
+            this.value = value;
+        }
+    }
+
+    // Same as generated resolvers: objects with ids are put by SELECT then INSERT or UPDATE
+    private static class ItemPutResolver extends DefaultPutResolver<Item> {
+
+        @NonNull
+        @Override
+        protected InsertQuery mapToInsertQuery(@NonNull Item object) {
+            return InsertQuery.builder().table(TABLE).build();
+        }
+
+        @NonNull
+        @Override
+        protected UpdateQuery mapToUpdateQuery(@NonNull Item object) {
+            return UpdateQuery.builder()
+                    .table(TABLE)
+                    .where("_id = ?")
+                    .whereArgs(object.id)
+                    .build();
+        }
+
+        @NonNull
+        @Override
+        protected ContentValues mapToContentValues(@NonNull Item object) {
+            final ContentValues contentValues = new ContentValues(3);
+            contentValues.put("_id", object.id);
+            contentValues.put("title", object.title);
+            contentValues.put("value", object.value);
+            return contentValues;
+        }
+    }
+
+    private static class BenchmarkOpenHelper extends SQLiteOpenHelper {
+
+        BenchmarkOpenHelper(@NonNull Context context) {
+            super(context, DB_NAME, null, 1);
+        }
+
+        @Override
+        public void onCreate(@NonNull SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + TABLE + "(_id INTEGER PRIMARY KEY, title TEXT NOT NULL, value INTEGER NOT NULL)");
+        }
+
+        @Override
+        public void onUpgrade(@NonNull SQLiteDatabase db, int oldVersion, int newVersion) {
+            // no impl
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.pushtorefresh.storio.sqlite.benchmark;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.impl.DefaultStorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.get.DefaultGetResolver;
+import com.pushtorefresh.storio.sqlite.operations.get.GetResolver;
+import com.pushtorefresh.storio.sqlite.operations.get.PreparedGetNumberOfResults;
+import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares {@code SELECT COUNT(*)} with counting rows of {@link Cursor}
+ * for {@link PreparedGetNumberOfResults} on a table with {@value #NUMBER_OF_ROWS} rows.
+ * <p>
+ * Results are printed to logcat with tag {@value #TAG}, compare
+ * "cursor" and "count" lines of each query.
+ * <p>
+ * Run with {@code ./gradlew :storio-sqlite:connectedAndroidTest} on a real device.
+ */
+@RunWith(AndroidJUnit4.class)
+public class NumberOfResultsBenchmark {
+
+    private static final String TAG = "StorIOBenchmark";
+
+    private static final String DB_NAME = "number_of_results_benchmark.db";
+
+    private static final String TABLE = "items";
+
+    private static final int NUMBER_OF_ROWS = 100000;
+
+    private static final int NUMBER_OF_RUNS = 20;
+
+    // Forces previous behavior: query reads all rows into CursorWindow and counts them
+    @NonNull
+    private static final GetResolver<Integer> CURSOR_COUNT_GET_RESOLVER = new DefaultGetResolver<Integer>() {
+        @NonNull
+        @Override
+        public Integer mapFromCursor(@NonNull Cursor cursor) {
+            return cursor.getCount();
+        }
+    };
+
+    @NonNull
+    private Context context;
+
+    @NonNull
+    private StorIOSQLite storIOSQLite;
+
+    @Before
+    public void setUp() {
+        context = InstrumentationRegistry.getTargetContext();
+        context.deleteDatabase(DB_NAME);
+
+        storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(new BenchmarkOpenHelper(context))
+                .build();
+
+        insertRows(storIOSQLite, NUMBER_OF_ROWS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        storIOSQLite.close();
+        context.deleteDatabase(DB_NAME);
+    }
+
+    @Test
+    public void countAllRows() {
+        run("all rows", Query.builder()
+                .table(TABLE)
+                .build(), NUMBER_OF_ROWS);
+    }
+
+    @Test
+    public void countRowsMatchedByWhere() {
+        run("where", Query.builder()
+                .table(TABLE)
+                .where("_id <= ?")
+                .whereArgs(NUMBER_OF_ROWS / 2)
+                .build(), NUMBER_OF_ROWS / 2);
+    }
+
+    @Test
+    public void countRowsOfRawQuery() {
+        final RawQuery rawQuery = RawQuery.builder()
+                .query("SELECT * FROM " + TABLE + " WHERE value LIKE ?")
+                .args("value 1%")
+                .build();
+
+        final long[] cursorLatencies = new long[NUMBER_OF_RUNS];
+        final long[] countLatencies = new long[NUMBER_OF_RUNS];
+        int cursorResult = 0;
+        int countResult = 0;
+
+        for (int i = 0; i < NUMBER_OF_RUNS; i++) {
+            long start = System.nanoTime();
+            cursorResult = prepare(rawQuery, false).executeAsBlocking();
+            cursorLatencies[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            countResult = prepare(rawQuery, true).executeAsBlocking();
+            countLatencies[i] = System.nanoTime() - start;
+        }
+
+        assertEquals(cursorResult, countResult);
+
+        report("raw query, cursor", cursorLatencies);
+        report("raw query, count", countLatencies);
+    }
+
+    private void run(@NonNull String name, @NonNull Query query, int expectedNumberOfResults) {
+        final long[] cursorLatencies = new long[NUMBER_OF_RUNS];
+        final long[] countLatencies = new long[NUMBER_OF_RUNS];
+
+        for (int i = 0; i < NUMBER_OF_RUNS; i++) {
+            long start = System.nanoTime();
+            final int cursorResult = prepare(query, CURSOR_COUNT_GET_RESOLVER).executeAsBlocking();
+            cursorLatencies[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            final int countResult = prepare(query, null).executeAsBlocking();
+            countLatencies[i] = System.nanoTime() - start;
+
+            assertEquals(expectedNumberOfResults, cursorResult);
+            assertEquals(expectedNumberOfResults, countResult);
+        }
+
+        report(name + ", cursor", cursorLatencies);
+        report(name + ", count", countLatencies);
+    }
+
+    @NonNull
+    private PreparedGetNumberOfResults prepare(@NonNull Query query, @Nullable GetResolver<Integer> getResolver) {
+        return storIOSQLite
+                .get()
+                .numberOfResults()
+                .withQuery(query)
+                .withGetResolver(getResolver)
+                .useResultCache(false)
+                .prepare();
+    }
+
+    @NonNull
+    private PreparedGetNumberOfResults prepare(@NonNull RawQuery rawQuery, boolean countAsSubquery) {
+        return storIOSQLite
+                .get()
+                .numberOfResults()
+                .withQuery(rawQuery)
+                .countRawQueryAsSubquery(countAsSubquery)
+                .useResultCache(false)
+                .prepare();
+    }
+
+    private static void insertRows(@NonNull StorIOSQLite storIOSQLite, int count) {
+        final InsertQuery insertQuery = InsertQuery.builder().table(TABLE).build();
+        final ContentValues contentValues = new ContentValues(1);
+
+        storIOSQLite.lowLevel().beginTransaction();
+
+        try {
+            for (int i = 0; i < count; i++) {
+                contentValues.put("value", "value " + i);
+                storIOSQLite.lowLevel().insert(insertQuery, contentValues);
+            }
+
+            storIOSQLite.lowLevel().setTransactionSuccessful();
+        } finally {
+            storIOSQLite.lowLevel().endTransaction();
+        }
+    }
+
+    private static void report(@NonNull String name, @NonNull long[] latencies) {
+        Arrays.sort(latencies);
+
+        Log.i(TAG, name
+                + ": runs = " + latencies.length
+                + ", median = " + toMillis(latencies[latencies.length / 2]) + " ms"
+                + ", max = " + toMillis(latencies[latencies.length - 1]) + " ms");
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000d;
+    }
+
+    private static class BenchmarkOpenHelper extends SQLiteOpenHelper {
+
+        BenchmarkOpenHelper(@NonNull Context context) {
+            super(context, DB_NAME, null, 1);
+        }
+
+        @Override
+        public void onCreate(@NonNull SQLiteDatabase db) {
+            db.execSQL("CREATE TABLE " + TABLE + "(_id INTEGER PRIMARY KEY, value TEXT NOT NULL)");
+        }
+
+        @Override
+        public void onUpgrade(@NonNull SQLiteDatabase db, int oldVersion, int newVersion) {
+            // no impl
+        }
+    }
+}
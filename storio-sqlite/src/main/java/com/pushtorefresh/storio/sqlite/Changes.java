@@ -1,23 +1,70 @@
 package com.pushtorefresh.storio.sqlite;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
 
 /**
  * Immutable container of information about one or more changes happened in {@link StorIOSQLite}.
+ * <p>
+ * Changes of one table can optionally describe affected rows: type of the change
+ * and keys of affected rows, so observers can skip re-query if their rows were not affected.
+ * Changes without row info may affect any row of affected tables.
  */
 public final class Changes {
 
+    /**
+     * Type of the change of rows.
+     */
+    public enum Type {
+        INSERT,
+        /**
+         * Update that did not change keys of affected rows, otherwise rows of the table are unknown.
+         */
+        UPDATE,
+        DELETE
+    }
+
     /**
      * Immutable set of affected tables.
      */
     @NonNull
     private final Set<String> affectedTables;
 
+    /**
+     * Type of the change, {@code null} if unknown.
+     */
+    @Nullable
+    private final Type type;
+
+    /**
+     * Where clause that selects one affected row by its key, {@code null} if affected rows are unknown.
+     */
+    @Nullable
+    private final String keyWhere;
+
+    /**
+     * {@link #keyWhere} normalized by {@link #normalizeWhere(String)} once, so
+     * {@link #mayAffectRows(String, String, List)} only compares strings.
+     */
+    @Nullable
+    private final transient String normalizedKeyWhere;
+
+    /**
+     * Immutable set of where args of {@link #keyWhere} for each affected row.
+     */
+    @NonNull
+    private final Set<List<String>> affectedKeys;
+
     /**
      * Creates {@link Changes} container with info about changes.
      *
@@ -26,29 +73,106 @@ public final class Changes {
     private Changes(@NonNull Set<String> affectedTables) {
         checkNotNull(affectedTables, "Please specify affected tables");
         this.affectedTables = Collections.unmodifiableSet(affectedTables);
+        this.type = null;
+        this.keyWhere = null;
+        this.normalizedKeyWhere = null;
+        this.affectedKeys = Collections.emptySet();
+    }
+
+    /**
+     * Creates {@link Changes} for one table, {@link Collections#singleton(Object)} is already immutable.
+     */
+    private Changes(@NonNull String affectedTable) {
+        this.affectedTables = Collections.singleton(affectedTable);
+        this.type = null;
+        this.keyWhere = null;
+        this.normalizedKeyWhere = null;
+        this.affectedKeys = Collections.emptySet();
+    }
+
+    /**
+     * Creates {@link Changes} of rows of one table.
+     */
+    private Changes(
+            @NonNull String affectedTable,
+            @NonNull Type type,
+            @NonNull String keyWhere,
+            @NonNull Set<List<String>> affectedKeys
+    ) {
+        this.affectedTables = Collections.singleton(affectedTable);
+        this.type = type;
+        this.keyWhere = keyWhere;
+        this.normalizedKeyWhere = normalizeWhere(keyWhere);
+        this.affectedKeys = Collections.unmodifiableSet(affectedKeys);
     }
 
     /**
      * Creates new instance of {@link Changes}.
+     * <p>
+     * Changes of one table are taken from the cache, see {@link #newInstance(String)}.
      *
      * @param affectedTables non-null set of affected tables.
-     * @return new immutable instance of {@link Changes}.
+     * @return immutable instance of {@link Changes}.
      */
     @NonNull
     public static Changes newInstance(@NonNull Set<String> affectedTables) {
+        checkNotNull(affectedTables, "Please specify affected tables");
+
+        if (affectedTables.size() == 1) {
+            final String affectedTable = affectedTables.iterator().next();
+
+            if (affectedTable != null) {
+                return SingleTableChangesCache.get(affectedTable);
+            }
+        }
+
         return new Changes(affectedTables);
     }
 
     /**
      * Creates {@link Changes} container with info about changes.
+     * <p>
+     * Instances are immutable, so they are cached and reused
+     * instead of allocating new {@link Changes} for every write.
      *
      * @param affectedTable table that was affected.
-     * @return new immutable instance of {@link Changes}.
+     * @return immutable instance of {@link Changes}.
      */
     @NonNull
     public static Changes newInstance(@NonNull String affectedTable) {
         checkNotNull(affectedTable, "Please specify affected table");
-        return new Changes(Collections.singleton(affectedTable));
+        return SingleTableChangesCache.get(affectedTable);
+    }
+
+    /**
+     * Creates {@link Changes} of rows of one table.
+     * <p>
+     * Example: {@code newInstance("users", Type.UPDATE, "id = ?", singletonList(singletonList("5")))}.
+     *
+     * @param affectedTable non-null table that was affected.
+     * @param type          non-null type of the change.
+     * @param keyWhere      non-null where clause that selects one affected row by its key.
+     * @param affectedKeys  non-null, non-empty collection of where args of {@code keyWhere}
+     *                      for each affected row.
+     * @return immutable instance of {@link Changes}.
+     */
+    @NonNull
+    public static Changes newInstance(
+            @NonNull String affectedTable,
+            @NonNull Type type,
+            @NonNull String keyWhere,
+            @NonNull Collection<List<String>> affectedKeys
+    ) {
+        checkNotNull(affectedTable, "Please specify affected table");
+        checkNotNull(type, "Please specify type of changes");
+        checkNotNull(keyWhere, "Please specify key where clause");
+        checkNotNull(affectedKeys, "Please specify affected keys");
+
+        if (affectedKeys.isEmpty()) {
+            throw new IllegalArgumentException("Please specify at least one affected key");
+        }
+
+        return new Changes(affectedTable, type, keyWhere, new HashSet<List<String>>(affectedKeys));
     }
 
     /**
@@ -61,6 +185,96 @@ public final class Changes {
         return affectedTables;
     }
 
+    /**
+     * Gets type of the change.
+     *
+     * @return type of the change or {@code null} if it's unknown.
+     */
+    @Nullable
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Gets where clause that selects one affected row by its key.
+     *
+     * @return where clause or {@code null} if affected rows are unknown.
+     */
+    @Nullable
+    public String keyWhere() {
+        return keyWhere;
+    }
+
+    /**
+     * Gets where args of {@link #keyWhere()} for each affected row.
+     *
+     * @return immutable set of keys, empty if affected rows are unknown.
+     */
+    @NonNull
+    public Set<List<String>> affectedKeys() {
+        return affectedKeys;
+    }
+
+    /**
+     * Checks whether these changes could affect rows of the table selected by passed where clause.
+     * <p>
+     * Returns {@code false} only if these changes describe rows selected by same where clause
+     * and none of affected keys equals passed where args.
+     * <p>
+     * Where clause of the query should be normalized once by {@link #normalizeWhere(String)},
+     * this method is called for each change and each observing query.
+     *
+     * @param table           non-null table of the query.
+     * @param normalizedWhere where clause of the query normalized by {@link #normalizeWhere(String)}.
+     * @param whereArgs       non-null where args of the query.
+     * @return {@code true} if rows selected by the query could be affected, {@code false} otherwise.
+     */
+    public boolean mayAffectRows(@NonNull String table, @Nullable String normalizedWhere, @NonNull List<String> whereArgs) {
+        if (!affectedTables.contains(table)) {
+            return false;
+        }
+
+        if (normalizedKeyWhere == null || !normalizedKeyWhere.equals(normalizedWhere)) {
+            return true;
+        }
+
+        return affectedKeys.contains(whereArgs);
+    }
+
+    /**
+     * Normalizes where clause for {@link #mayAffectRows(String, String, List)}:
+     * whitespaces and case are ignored.
+     *
+     * @param where where clause.
+     * @return normalized where clause or {@code null} if passed where clause is {@code null}.
+     */
+    @Nullable
+    public static String normalizeWhere(@Nullable String where) {
+        if (where == null) {
+            return null;
+        }
+
+        final StringBuilder normalizedWhere = new StringBuilder(where.length());
+        boolean whitespace = false;
+
+        for (int i = 0; i < where.length(); i++) {
+            final char c = where.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                whitespace = true;
+            } else {
+                if (whitespace && normalizedWhere.length() > 0) {
+                    normalizedWhere.append(' ');
+                }
+
+                whitespace = false;
+                normalizedWhere.append(Character.toLowerCase(c));
+            }
+        }
+
+        return normalizedWhere.toString();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -68,18 +282,66 @@ public final class Changes {
 
         Changes changes = (Changes) o;
 
-        return affectedTables.equals(changes.affectedTables);
+        if (!affectedTables.equals(changes.affectedTables)) return false;
+        if (type != changes.type) return false;
+        if (keyWhere != null ? !keyWhere.equals(changes.keyWhere) : changes.keyWhere != null)
+            return false;
+        return affectedKeys.equals(changes.affectedKeys);
     }
 
     @Override
     public int hashCode() {
-        return affectedTables.hashCode();
+        int result = affectedTables.hashCode();
+        result = 31 * result + (type != null ? type.hashCode() : 0);
+        result = 31 * result + (keyWhere != null ? keyWhere.hashCode() : 0);
+        result = 31 * result + affectedKeys.hashCode();
+        return result;
     }
 
     @Override
     public String toString() {
         return "Changes{" +
                 "affectedTables=" + affectedTables +
+                ", type=" + type +
+                ", keyWhere='" + keyWhere + '\'' +
+                ", affectedKeys=" + affectedKeys +
                 '}';
     }
+
+    /**
+     * Cache of {@link Changes} of one table, separate class keeps it out of fields of {@link Changes}.
+     */
+    private static final class SingleTableChangesCache {
+
+        /**
+         * Limits memory usage if table names are generated dynamically.
+         */
+        private static final int MAX_SIZE = 512;
+
+        @NonNull
+        private static final ConcurrentMap<String, Changes> CACHE = new ConcurrentHashMap<String, Changes>();
+
+        private SingleTableChangesCache() {
+            throw new IllegalStateException("No instances please");
+        }
+
+        @NonNull
+        static Changes get(@NonNull String affectedTable) {
+            Changes changes = CACHE.get(affectedTable);
+
+            if (changes == null) {
+                changes = new Changes(affectedTable);
+
+                if (CACHE.size() < MAX_SIZE) {
+                    final Changes cachedChanges = CACHE.putIfAbsent(affectedTable, changes);
+
+                    if (cachedChanges != null) {
+                        changes = cachedChanges;
+                    }
+                }
+            }
+
+            return changes;
+        }
+    }
 }
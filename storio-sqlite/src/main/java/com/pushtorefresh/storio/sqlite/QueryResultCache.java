@@ -0,0 +1,262 @@
+package com.pushtorefresh.storio.sqlite;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+
+/**
+ * Bounded in-memory LRU cache of results of Get Operations.
+ * <p>
+ * Results are keyed by Get Operation (type of result, {@link com.pushtorefresh.storio.sqlite.queries.Query}
+ * or {@link com.pushtorefresh.storio.sqlite.queries.RawQuery} and resolver) and evicted
+ * when {@link Changes} affect one of tables of the query, so repeated reads of tables
+ * that rarely change don't touch SQLite at all.
+ * <p>
+ * Results are returned as is, so cache only immutable objects or
+ * opt-out of the cache for Get Operations of mutable objects.
+ * <p>
+ * Thread-safe.
+ */
+public final class QueryResultCache {
+
+    private final int maxSize;
+
+    @NonNull
+    private final Object lock = new Object();
+
+    /**
+     * Guarded by {@link #lock}, in access order.
+     */
+    @NonNull
+    private final LinkedHashMap<Object, Entry> entries;
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    @NonNull
+    private final Map<String, Set<Object>> keysByTable = new HashMap<String, Set<Object>>();
+
+    /**
+     * Guarded by {@link #lock}, incremented on each invalidation.
+     */
+    private long generation;
+
+    @NonNull
+    private final AtomicLong hitCount = new AtomicLong();
+
+    @NonNull
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Creates new cache.
+     *
+     * @param maxSize max number of cached results, least recently used results are evicted.
+     */
+    public QueryResultCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize should be positive, maxSize = " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns cached result.
+     *
+     * @param key non-null key of Get Operation.
+     * @return cached result or {@code null} if there is no such result.
+     */
+    @Nullable
+    public Object get(@NonNull Object key) {
+        final Entry entry;
+
+        synchronized (lock) {
+            entry = entries.get(key);
+        }
+
+        if (entry != null) {
+            hitCount.incrementAndGet();
+            return entry.result;
+        } else {
+            missCount.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Returns current generation of the cache, it should be taken before the query
+     * and passed to {@link #put(Object, Set, Object, long)}: result won't be cached
+     * if tables were changed while query was executed.
+     *
+     * @return current generation.
+     */
+    public long generation() {
+        synchronized (lock) {
+            return generation;
+        }
+    }
+
+    /**
+     * Puts result into the cache.
+     *
+     * @param key        non-null key of Get Operation.
+     * @param tables     non-null, non-empty set of tables of the query, changes of them evict result.
+     * @param result     non-null result.
+     * @param generation generation of the cache taken before the query, see {@link #generation()}.
+     */
+    public void put(@NonNull Object key, @NonNull Set<String> tables, @NonNull Object result, long generation) {
+        checkNotNull(key, "Key can not be null");
+        checkNotNull(tables, "Tables can not be null");
+        checkNotNull(result, "Result can not be null");
+
+        if (tables.isEmpty()) {
+            // Result could not be invalidated
+            return;
+        }
+
+        synchronized (lock) {
+            if (this.generation != generation) {
+                // Tables were changed during the query, result can be outdated
+                return;
+            }
+
+            final Entry previous = entries.put(key, new Entry(tables, result));
+
+            if (previous == null) {
+                for (String table : tables) {
+                    Set<Object> keys = keysByTable.get(table);
+
+                    if (keys == null) {
+                        keys = new HashSet<Object>();
+                        keysByTable.put(table, keys);
+                    }
+
+                    keys.add(key);
+                }
+            }
+
+            if (entries.size() > maxSize) {
+                final Iterator<Map.Entry<Object, Entry>> iterator = entries.entrySet().iterator();
+                final Map.Entry<Object, Entry> eldest = iterator.next();
+                iterator.remove();
+                removeFromIndex(eldest.getKey(), eldest.getValue().tables);
+            }
+        }
+    }
+
+    /**
+     * Evicts results of queries of passed tables.
+     *
+     * @param tables non-null set of changed tables.
+     */
+    public void invalidate(@NonNull Set<String> tables) {
+        synchronized (lock) {
+            generation++;
+
+            for (String table : tables) {
+                final Set<Object> keys = keysByTable.remove(table);
+
+                if (keys == null) {
+                    continue;
+                }
+
+                for (Object key : keys) {
+                    final Entry entry = entries.remove(key);
+
+                    if (entry != null && entry.tables.size() > 1) {
+                        removeFromIndex(key, entry.tables);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Evicts all results.
+     */
+    public void clear() {
+        synchronized (lock) {
+            generation++;
+            entries.clear();
+            keysByTable.clear();
+        }
+    }
+
+    private void removeFromIndex(@NonNull Object key, @NonNull Set<String> tables) {
+        for (String table : tables) {
+            final Set<Object> keys = keysByTable.get(table);
+
+            if (keys != null) {
+                keys.remove(key);
+
+                if (keys.isEmpty()) {
+                    keysByTable.remove(table);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of cached results.
+     */
+    public int size() {
+        synchronized (lock) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return max number of cached results.
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return number of {@link #get(Object)} calls that returned cached result.
+     */
+    public long hitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return number of {@link #get(Object)} calls that did not find cached result.
+     */
+    public long missCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryResultCache{" +
+                "maxSize=" + maxSize +
+                ", size=" + size() +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                '}';
+    }
+
+    private static final class Entry {
+
+        @NonNull
+        final Set<String> tables;
+
+        @NonNull
+        final Object result;
+
+        Entry(@NonNull Set<String> tables, @NonNull Object result) {
+            this.tables = tables;
+            this.result = result;
+        }
+    }
+}
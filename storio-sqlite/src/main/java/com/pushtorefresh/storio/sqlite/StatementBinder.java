@@ -0,0 +1,39 @@
+package com.pushtorefresh.storio.sqlite;
+
+import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
+
+import java.util.List;
+
+/**
+ * Binds values of columns of object directly into compiled {@link SQLiteStatement}
+ * instead of putting them into {@link android.content.ContentValues}, so primitives are
+ * neither boxed nor stored in a map on each write.
+ * <p>
+ * Statements are compiled for {@link #columns()} and reused for all objects,
+ * so binder should bind same columns in same order for any object.
+ * <p>
+ * Implementation should be thread-safe.
+ *
+ * @param <T> type of objects.
+ */
+public interface StatementBinder<T> {
+
+    /**
+     * Gets names of columns in order of their binding.
+     *
+     * @return non-null, non-empty, immutable list of names of columns, same for any object.
+     */
+    @NonNull
+    List<String> columns();
+
+    /**
+     * Binds values of {@link #columns()} of the object to the statement,
+     * value of {@code i}-th column should be bound at index {@code i + 1},
+     * for example with {@link SQLiteStatement#bindLong(int, long)}.
+     *
+     * @param statement non-null compiled statement.
+     * @param object    non-null object.
+     */
+    void bind(@NonNull SQLiteStatement statement, @NonNull T object);
+}
@@ -2,6 +2,7 @@ package com.pushtorefresh.storio.sqlite;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
@@ -9,6 +10,7 @@ import android.support.annotation.WorkerThread;
 import com.pushtorefresh.storio.sqlite.operations.delete.PreparedDelete;
 import com.pushtorefresh.storio.sqlite.operations.execute.PreparedExecuteSQL;
 import com.pushtorefresh.storio.sqlite.operations.get.PreparedGet;
+import com.pushtorefresh.storio.sqlite.operations.internal.LiveQueries;
 import com.pushtorefresh.storio.sqlite.operations.put.PreparedPut;
 import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
 import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
@@ -18,6 +20,7 @@ import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
 
 import java.io.Closeable;
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import rx.Observable;
@@ -33,6 +36,24 @@ import static com.pushtorefresh.storio.internal.Checks.checkNotEmpty;
  */
 public abstract class StorIOSQLite implements Closeable {
 
+    @Nullable
+    private volatile LiveQueries liveQueries;
+
+    @Nullable
+    private final QueryResultCache queryResultCache;
+
+    protected StorIOSQLite() {
+        this(null);
+    }
+
+    /**
+     * @param queryResultCache nullable cache of results of Get Operations,
+     *                         implementation should invalidate it on each {@link Changes}.
+     */
+    protected StorIOSQLite(@Nullable QueryResultCache queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
     /**
      * Prepares "Execute SQL" Operation for {@link StorIOSQLite}.
      * Allows to execute a single SQL statement that is NOT a SELECT/INSERT/UPDATE/DELETE.
@@ -142,6 +163,45 @@ public abstract class StorIOSQLite implements Closeable {
         return observeChangesInTables(Collections.singleton(table));
     }
 
+    /**
+     * Returns cache of results of Get Operations, see {@link QueryResultCache}.
+     * Use it to check number of hits and misses of the cache.
+     *
+     * @return cache or {@code null} if results are not cached.
+     */
+    @Nullable
+    public final QueryResultCache queryResultCache() {
+        return queryResultCache;
+    }
+
+    /**
+     * FOR INTERNAL USAGE ONLY.
+     * <p>
+     * Registry of live queries of this {@link StorIOSQLite}:
+     * equal Get Operations observed via {@code asRxObservable()} share one subscription to changes
+     * and one execution of query per change.
+     *
+     * @return non-null registry of live queries.
+     */
+    @NonNull
+    public final LiveQueries liveQueries() {
+        LiveQueries result = liveQueries;
+
+        if (result == null) {
+            synchronized (this) {
+                result = liveQueries;
+
+                if (result == null) {
+                    // indirect usage of RxJava required to avoid problems with ClassLoader when RxJava is not in ClassPath
+                    result = new LiveQueries();
+                    liveQueries = result;
+                }
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Provides a scheduler on which {@link rx.Observable} / {@link rx.Single}
      * or {@link rx.Completable} will be subscribed.
@@ -227,6 +287,31 @@ public abstract class StorIOSQLite implements Closeable {
         @NonNull
         public abstract Cursor query(@NonNull Query query);
 
+        /**
+         * Executes raw query that returns one row with one numeric column,
+         * for example {@code SELECT COUNT(*)}, and returns value of that column.
+         * <p>
+         * Default implementation reads value from {@link Cursor},
+         * implementations can use compiled statement to avoid creation of {@link Cursor}.
+         *
+         * @param rawQuery sql query.
+         * @return value of the first column of the first row.
+         */
+        @WorkerThread
+        public long simpleQueryForLong(@NonNull RawQuery rawQuery) {
+            final Cursor cursor = rawQuery(rawQuery);
+
+            try {
+                if (!cursor.moveToFirst()) {
+                    throw new IllegalStateException("Query returned no rows, query = " + rawQuery);
+                }
+
+                return cursor.getLong(0);
+            } finally {
+                cursor.close();
+            }
+        }
+
         /**
          * Inserts a row into the database.
          *
@@ -269,6 +354,99 @@ public abstract class StorIOSQLite implements Closeable {
         @WorkerThread
         public abstract int update(@NonNull UpdateQuery updateQuery, @NonNull ContentValues contentValues);
 
+        /**
+         * Checks whether implementation can write rows bound by {@link StatementBinder},
+         * see {@link #insert(InsertQuery, StatementBinder, Object, int)}
+         * and {@link #update(UpdateQuery, StatementBinder, Object)}.
+         * <p>
+         * Default implementation returns {@code false}, so operations write rows as {@link ContentValues}.
+         *
+         * @return {@code true} if rows can be bound directly into compiled statements, {@code false} otherwise.
+         */
+        public boolean canBindStatements() {
+            return false;
+        }
+
+        /**
+         * Inserts a row into the database, values of columns are bound into
+         * compiled {@code INSERT} statement by {@link StatementBinder}.
+         * <p>
+         * Supported only if {@link #canBindStatements()} returns {@code true}.
+         *
+         * @param insertQuery       query.
+         * @param statementBinder   binder of values of columns of the object.
+         * @param object            object that should be inserted.
+         * @param conflictAlgorithm for insert conflict resolver,
+         *                          {@link android.database.sqlite.SQLiteDatabase#CONFLICT_NONE} for plain insert.
+         * @param <T>               type of object.
+         * @return id of inserted row.
+         */
+        @WorkerThread
+        public <T> long insert(
+                @NonNull InsertQuery insertQuery,
+                @NonNull StatementBinder<T> statementBinder,
+                @NonNull T object,
+                int conflictAlgorithm
+        ) {
+            throw new UnsupportedOperationException("Binding of statements is not supported by " + getClass().getName());
+        }
+
+        /**
+         * Updates one or multiple rows in the database, new values of columns
+         * are bound into compiled {@code UPDATE} statement by {@link StatementBinder},
+         * where args are bound after them.
+         * <p>
+         * Supported only if {@link #canBindStatements()} returns {@code true}.
+         *
+         * @param updateQuery     query.
+         * @param statementBinder binder of values of columns of the object.
+         * @param object          object which values should be written.
+         * @param <T>             type of object.
+         * @return the number of rows affected.
+         */
+        @WorkerThread
+        public <T> int update(
+                @NonNull UpdateQuery updateQuery,
+                @NonNull StatementBinder<T> statementBinder,
+                @NonNull T object
+        ) {
+            throw new UnsupportedOperationException("Binding of statements is not supported by " + getClass().getName());
+        }
+
+        /**
+         * Inserts multiple rows into the database.
+         * <p>
+         * Implementation may insert consecutive rows with same set of columns by one
+         * multi-row {@code INSERT INTO table(columns) VALUES (...), (...)} statement,
+         * such statement does not report ids of inserted rows.
+         * <p>
+         * Default implementation inserts rows one by one with
+         * {@link #insertWithOnConflict(InsertQuery, ContentValues, int)}.
+         *
+         * @param insertQuery       query.
+         * @param rows              column values of rows, rows may have different sets of columns.
+         * @param conflictAlgorithm for insert conflict resolver,
+         *                          {@link android.database.sqlite.SQLiteDatabase#CONFLICT_NONE} for plain insert.
+         * @return number of inserted rows.
+         */
+        @WorkerThread
+        public int insertRows(@NonNull InsertQuery insertQuery, @NonNull List<ContentValues> rows, int conflictAlgorithm) {
+            int numberOfInsertedRows = 0;
+
+            //noinspection ForLoopReplaceableByForEach -> on Android it's faster
+            for (int i = 0; i < rows.size(); i++) {
+                final long insertedId = conflictAlgorithm == SQLiteDatabase.CONFLICT_NONE
+                        ? insert(insertQuery, rows.get(i))
+                        : insertWithOnConflict(insertQuery, rows.get(i), conflictAlgorithm);
+
+                if (insertedId != -1) {
+                    numberOfInsertedRows++;
+                }
+            }
+
+            return numberOfInsertedRows;
+        }
+
         /**
          * Deletes one or multiple rows in the database.
          *
@@ -288,6 +466,36 @@ public abstract class StorIOSQLite implements Closeable {
          */
         public abstract void notifyAboutChanges(@NonNull Changes changes);
 
+        /**
+         * Begins a batch of notifications in current thread.
+         * <p>
+         * Changes passed to {@link #notifyAboutChanges(Changes)} in the batch are merged and
+         * sent as one {@link Changes} with all affected tables when the batch ends, so several
+         * operations executed without transaction cause only one re-query of observers.
+         * Batches can be nested and combined with transactions: notification is sent when
+         * outermost batch or transaction of current thread ends.
+         * <p>
+         * Default implementation does nothing, so changes are sent immediately.
+         * <p>Here is the standard idiom for batches:
+         * <p/>
+         * <pre>
+         *   lowLevel.beginNotificationsBatch();
+         *   try {
+         *     ...
+         *   } finally {
+         *     lowLevel.endNotificationsBatch();
+         *   }
+         * </pre>
+         */
+        public void beginNotificationsBatch() {
+        }
+
+        /**
+         * Ends a batch of notifications started by {@link #beginNotificationsBatch()}.
+         */
+        public void endNotificationsBatch() {
+        }
+
         /**
          * Begins a transaction in EXCLUSIVE mode.
          * <p>
@@ -300,6 +508,10 @@ public abstract class StorIOSQLite implements Closeable {
          * rolled back. The changes will be rolled back if any transaction is ended without being
          * marked as clean (by calling setTransactionSuccessful). Otherwise they will be committed.
          * </p>
+         * <p>
+         * Changes sent via {@link #notifyAboutChanges(Changes)} from current thread during the transaction
+         * are merged and sent as one {@link Changes} when outermost transaction ends.
+         * </p>
          * <p>Here is the standard idiom for transactions:
          * <p/>
          * <pre>
@@ -329,6 +541,21 @@ public abstract class StorIOSQLite implements Closeable {
          * how to use this and when transactions are committed and rolled back.
          */
         public abstract void endTransaction();
+
+        /**
+         * Checks whether current thread has a transaction started via {@link #beginTransaction()}.
+         * <p>
+         * Operations use it to avoid starting nested transactions when they are
+         * already executed as part of outer transaction.
+         * <p>
+         * Default implementation returns {@code false}, so operations
+         * will always start their own (possibly nested) transactions.
+         *
+         * @return {@code true} if current thread is in transaction, {@code false} otherwise.
+         */
+        public boolean inTransaction() {
+            return false;
+        }
     }
 
     /**
@@ -0,0 +1,166 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlite.Changes;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.subscriptions.Subscriptions;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+
+/**
+ * FOR INTERNAL USAGE ONLY.
+ * <p>
+ * Delivers {@link Changes} only to subscribers of affected tables: subscribers are indexed by table,
+ * so cost of dispatch depends on number of subscribers of affected tables
+ * instead of number of all subscribers.
+ * <p>
+ * Subscribes to the changes bus once and relies on it to emit changes serially.
+ * Subscribing and unsubscribing are thread-safe and don't block dispatch.
+ * <p>
+ * Hides RxJava from ClassLoader via separate class.
+ */
+final class ChangesDispatcher {
+
+    @NonNull
+    private final ConcurrentMap<String, List<Registration>> registrationsByTable
+            = new ConcurrentHashMap<String, List<Registration>>();
+
+    ChangesDispatcher(@NonNull Observable<Changes> rxBus) {
+        // unsafeSubscribe() keeps dispatcher subscribed if one of subscribers throws,
+        // exception is propagated to the thread that sent changes as it would be with plain subject
+        rxBus.unsafeSubscribe(new Subscriber<Changes>() {
+            @Override
+            public void onCompleted() {
+                // changes bus never completes
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                // changes bus never emits errors
+            }
+
+            @Override
+            public void onNext(Changes changes) {
+                dispatch(changes);
+            }
+        });
+    }
+
+    @NonNull
+    Observable<Changes> observe(@NonNull Set<String> tables) {
+        checkNotNull(tables, "Set of tables can not be null");
+
+        // Defensive copy, passed set can be mutable
+        final Set<String> tablesCopy = new HashSet<String>(tables);
+
+        return Observable.create(new Observable.OnSubscribe<Changes>() {
+            @Override
+            public void call(final Subscriber<? super Changes> subscriber) {
+                final Registration registration = new Registration(subscriber);
+
+                for (String table : tablesCopy) {
+                    registrationsOf(table).add(registration);
+                }
+
+                subscriber.add(Subscriptions.create(new Action0() {
+                    @Override
+                    public void call() {
+                        for (String table : tablesCopy) {
+                            registrationsOf(table).remove(registration);
+                        }
+                    }
+                }));
+            }
+        });
+    }
+
+    void dispatch(@NonNull Changes changes) {
+        final Set<String> affectedTables = changes.affectedTables();
+
+        if (affectedTables.size() == 1) {
+            // Fast path for the most common case, subscribers can not be duplicated
+            final List<Registration> registrations = registrationsByTable.get(affectedTables.iterator().next());
+
+            if (registrations != null) {
+                for (Registration registration : registrations) {
+                    registration.onNext(changes);
+                }
+            }
+        } else {
+            // Subscriber of several affected tables should receive changes only once
+            Set<Registration> notified = null;
+
+            for (String affectedTable : affectedTables) {
+                final List<Registration> registrations = registrationsByTable.get(affectedTable);
+
+                if (registrations == null) {
+                    continue;
+                }
+
+                for (Registration registration : registrations) {
+                    if (notified == null) {
+                        notified = new HashSet<Registration>();
+                    }
+
+                    if (notified.add(registration)) {
+                        registration.onNext(changes);
+                    }
+                }
+            }
+        }
+    }
+
+    @NonNull
+    private List<Registration> registrationsOf(@NonNull String table) {
+        List<Registration> registrations = registrationsByTable.get(table);
+
+        if (registrations == null) {
+            // Lists are not removed when they become empty: number of tables is limited
+            // and it keeps subscribe/unsubscribe free from races with each other
+            final List<Registration> newRegistrations = new CopyOnWriteArrayList<Registration>();
+            registrations = registrationsByTable.putIfAbsent(table, newRegistrations);
+
+            if (registrations == null) {
+                registrations = newRegistrations;
+            }
+        }
+
+        return registrations;
+    }
+
+    /**
+     * Number of registered subscribers of the table.
+     */
+    int numberOfSubscribers(@NonNull String table) {
+        final List<Registration> registrations = registrationsByTable.get(table);
+        return registrations != null ? registrations.size() : 0;
+    }
+
+    // Compared by identity: same subscriber can subscribe to several observables
+    private static final class Registration {
+
+        @NonNull
+        private final Subscriber<? super Changes> subscriber;
+
+        Registration(@NonNull Subscriber<? super Changes> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void onNext(@NonNull Changes changes) {
+            if (!subscriber.isUnsubscribed()) {
+                subscriber.onNext(changes);
+            }
+        }
+    }
+}
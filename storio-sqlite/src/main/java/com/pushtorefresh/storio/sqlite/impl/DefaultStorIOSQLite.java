@@ -2,7 +2,10 @@ package com.pushtorefresh.storio.sqlite.impl;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
@@ -11,7 +14,9 @@ import com.pushtorefresh.storio.TypeMappingFinder;
 import com.pushtorefresh.storio.internal.TypeMappingFinderImpl;
 import com.pushtorefresh.storio.internal.ChangesBus;
 import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.QueryResultCache;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.StatementBinder;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
 import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
@@ -22,9 +27,9 @@ import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import rx.Observable;
 import rx.Scheduler;
@@ -44,15 +49,53 @@ import static java.util.Collections.unmodifiableMap;
  */
 public class DefaultStorIOSQLite extends StorIOSQLite {
 
+    /**
+     * Default {@code SQLITE_MAX_VARIABLE_NUMBER}, limits number of bound values of one statement.
+     */
+    private static final int MAX_VARIABLES_PER_STATEMENT = 999;
+
+    /**
+     * Default {@code SQLITE_MAX_COMPOUND_SELECT}, limits number of rows of multi-row insert
+     * before SQLite 3.8.8.
+     */
+    private static final int MAX_ROWS_PER_INSERT = 500;
+
     @NonNull
     private final SQLiteOpenHelper sqLiteOpenHelper;
 
     @NonNull
-    private final ChangesBus<Changes> changesBus = new ChangesBus<Changes>(RX_JAVA_IS_IN_THE_CLASS_PATH);
+    private final ChangesBus<Changes> changesBus;
+
+    /**
+     * Delivers changes to observers of particular tables, {@code null} if RxJava is not in the ClassPath.
+     */
+    @Nullable
+    private final ChangesDispatcher changesDispatcher;
 
     @Nullable
     private final Scheduler defaultScheduler;
 
+    /**
+     * Cache of compiled insert/update/delete statements, {@code null} if disabled.
+     */
+    @Nullable
+    private final StatementCache statementCache;
+
+    /**
+     * Settings applied to the db when it's opened, {@code null} if db is used as is.
+     */
+    @Nullable
+    private final TuningProfile tuningProfile;
+
+    @NonNull
+    private final Object tuningLock = new Object();
+
+    /**
+     * Last db to which {@link #tuningProfile} was applied, writes are guarded by {@link #tuningLock}.
+     */
+    @Nullable
+    private volatile SQLiteDatabase tunedDb;
+
     /**
      * Implementation of {@link com.pushtorefresh.storio.sqlite.StorIOSQLite.LowLevel}.
      */
@@ -64,8 +107,61 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
             @NonNull TypeMappingFinder typeMappingFinder,
             @Nullable Scheduler defaultScheduler
     ) {
+        this(sqLiteOpenHelper, typeMappingFinder, defaultScheduler, 0);
+    }
+
+    protected DefaultStorIOSQLite(
+            @NonNull SQLiteOpenHelper sqLiteOpenHelper,
+            @NonNull TypeMappingFinder typeMappingFinder,
+            @Nullable Scheduler defaultScheduler,
+            int compiledStatementCacheSize
+    ) {
+        this(sqLiteOpenHelper, typeMappingFinder, defaultScheduler, compiledStatementCacheSize, null);
+    }
+
+    protected DefaultStorIOSQLite(
+            @NonNull SQLiteOpenHelper sqLiteOpenHelper,
+            @NonNull TypeMappingFinder typeMappingFinder,
+            @Nullable Scheduler defaultScheduler,
+            int compiledStatementCacheSize,
+            @Nullable TuningProfile tuningProfile
+    ) {
+        this(sqLiteOpenHelper, typeMappingFinder, defaultScheduler, compiledStatementCacheSize, tuningProfile, null);
+    }
+
+    protected DefaultStorIOSQLite(
+            @NonNull SQLiteOpenHelper sqLiteOpenHelper,
+            @NonNull TypeMappingFinder typeMappingFinder,
+            @Nullable Scheduler defaultScheduler,
+            int compiledStatementCacheSize,
+            @Nullable TuningProfile tuningProfile,
+            @Nullable Scheduler changesScheduler
+    ) {
+        this(sqLiteOpenHelper, typeMappingFinder, defaultScheduler, compiledStatementCacheSize, tuningProfile, changesScheduler, 0);
+    }
+
+    protected DefaultStorIOSQLite(
+            @NonNull SQLiteOpenHelper sqLiteOpenHelper,
+            @NonNull TypeMappingFinder typeMappingFinder,
+            @Nullable Scheduler defaultScheduler,
+            int compiledStatementCacheSize,
+            @Nullable TuningProfile tuningProfile,
+            @Nullable Scheduler changesScheduler,
+            int queryResultCacheSize
+    ) {
+        super(queryResultCacheSize > 0 ? new QueryResultCache(queryResultCacheSize) : null);
         this.sqLiteOpenHelper = sqLiteOpenHelper;
         this.defaultScheduler = defaultScheduler;
+        this.tuningProfile = tuningProfile;
+        changesBus = changesScheduler != null
+                ? new ChangesBus<Changes>(changesScheduler)
+                : new ChangesBus<Changes>(RX_JAVA_IS_IN_THE_CLASS_PATH);
+        changesDispatcher = RX_JAVA_IS_IN_THE_CLASS_PATH
+                ? new ChangesDispatcher(changesBus.asObservable())
+                : null;
+        statementCache = compiledStatementCacheSize > 0
+                ? new StatementCache(compiledStatementCacheSize)
+                : null;
         lowLevel = new LowLevelImpl(typeMappingFinder);
     }
 
@@ -90,8 +186,12 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
     @Override
     @NonNull
     public Observable<Changes> observeChangesInTables(@NonNull final Set<String> tables) {
-        // indirect usage of RxJava filter() required to avoid problems with ClassLoader when RxJava is not in ClassPath
-        return ChangesFilter.apply(observeChanges(), tables);
+        if (changesDispatcher == null) {
+            throw new IllegalStateException("Observing changes in StorIOSQLite requires RxJava");
+        }
+
+        // indirect usage of RxJava required to avoid problems with ClassLoader when RxJava is not in ClassPath
+        return changesDispatcher.observe(tables);
     }
 
     /**
@@ -122,7 +222,8 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
     }
 
     /**
-     * Closes underlying {@link SQLiteOpenHelper}.
+     * Closes cached compiled statements, clears cached results of queries,
+     * releases worker of changes scheduler and closes underlying {@link SQLiteOpenHelper}.
      * <p>
      * All calls to this instance of {@link StorIOSQLite}
      * after call to this method can produce exceptions
@@ -130,9 +231,47 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
      */
     @Override
     public void close() throws IOException {
+        if (statementCache != null) {
+            statementCache.clear();
+        }
+
+        final QueryResultCache queryResultCache = queryResultCache();
+
+        if (queryResultCache != null) {
+            queryResultCache.clear();
+        }
+
+        changesBus.close();
+
+        tunedDb = null;
         sqLiteOpenHelper.close();
     }
 
+    @NonNull
+    private SQLiteDatabase writableDatabase() {
+        return tuned(sqLiteOpenHelper.getWritableDatabase());
+    }
+
+    @NonNull
+    private SQLiteDatabase readableDatabase() {
+        return tuned(sqLiteOpenHelper.getReadableDatabase());
+    }
+
+    @NonNull
+    private SQLiteDatabase tuned(@NonNull SQLiteDatabase db) {
+        // SQLiteOpenHelper returns same instance until it's closed, so profile is applied once per opened db
+        if (tuningProfile != null && tunedDb != db) {
+            synchronized (tuningLock) {
+                if (tunedDb != db) {
+                    tuningProfile.onConfigure(db);
+                    tunedDb = db;
+                }
+            }
+        }
+
+        return db;
+    }
+
     /**
      * Creates new builder for {@link DefaultStorIOSQLite}.
      *
@@ -184,6 +323,16 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         @Nullable
         private Scheduler defaultScheduler = RX_JAVA_IS_IN_THE_CLASS_PATH ? Schedulers.io() : null;
 
+        private int compiledStatementCacheSize;
+
+        @Nullable
+        private TuningProfile tuningProfile;
+
+        @Nullable
+        private Scheduler changesScheduler;
+
+        private int queryResultCacheSize;
+
         CompleteBuilder(@NonNull SQLiteOpenHelper sqLiteOpenHelper) {
             this.sqLiteOpenHelper = sqLiteOpenHelper;
         }
@@ -210,6 +359,26 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
             return this;
         }
 
+        /**
+         * Adds {@link SQLiteTypeMapping}s for types, for example all type mappings generated for a package:
+         * {@code addTypeMappings(StorIOSQLiteMappings.typeMappings())}.
+         *
+         * @param typeMappings map of type mappings by their types, type mapping of each type should be for this type.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder addTypeMappings(@NonNull Map<Class<?>, ? extends SQLiteTypeMapping<?>> typeMappings) {
+            checkNotNull(typeMappings, "Please specify type mappings");
+
+            if (this.typeMapping == null) {
+                this.typeMapping = new HashMap<Class<?>, SQLiteTypeMapping<?>>(typeMappings.size());
+            }
+
+            this.typeMapping.putAll(typeMappings);
+
+            return this;
+        }
+
         /**
          * Optional: Specifies {@link TypeMappingFinder} for low level usage.
          *
@@ -241,6 +410,104 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
             return this;
         }
 
+        /**
+         * Optional: Enables cache of compiled {@link android.database.sqlite.SQLiteStatement}s
+         * for insert, update and delete.
+         * <p>
+         * Statements are keyed by table, set of columns and where clause, so repeated writes
+         * of rows with the same shape skip parsing and planning of SQL by SQLite.
+         * Least recently used statements are closed when cache exceeds passed size.
+         * All cached statements are closed on {@link DefaultStorIOSQLite#close()}.
+         * <p>
+         * Disabled by default.
+         *
+         * @param maxSize max number of cached statements, {@code 0} disables the cache.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder compiledStatementCacheSize(int maxSize) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("Compiled statement cache size can not be negative, maxSize = " + maxSize);
+            }
+
+            this.compiledStatementCacheSize = maxSize;
+
+            return this;
+        }
+
+        /**
+         * Optional: Specifies {@link TuningProfile} that will be applied to the db
+         * before its first usage by {@link DefaultStorIOSQLite} and after each reopen.
+         * <p>
+         * Use {@link TuningProfile#CONCURRENT_READS} to let queries run in parallel
+         * with long write transactions.
+         * <p>
+         * Prefer to call {@link TuningProfile#onConfigure(SQLiteDatabase)} from
+         * {@link SQLiteOpenHelper#onConfigure(SQLiteDatabase)} instead, so the db is configured
+         * before it's created or upgraded, profile should not be specified here then.
+         * <p>
+         * By default db is used as {@link SQLiteOpenHelper} configured it.
+         *
+         * @param tuningProfile non-null profile.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder tuningProfile(@NonNull TuningProfile tuningProfile) {
+            checkNotNull(tuningProfile, "Please specify tuning profile");
+
+            this.tuningProfile = tuningProfile;
+
+            return this;
+        }
+
+        /**
+         * Optional: Specifies scheduler on which changes are delivered to observers.
+         * <p>
+         * Threads that send changes only put them into lock-free queue and return immediately,
+         * one worker of the scheduler delivers them in the order they were sent.
+         * Writers don't wait for observers and don't deliver changes of other writers.
+         * Worker is created once and used for the whole lifetime of {@link DefaultStorIOSQLite},
+         * exceptions thrown by observers are passed to RxJava error handler.
+         * <p>
+         * By default changes are delivered synchronously on the thread that sent them.
+         *
+         * @param changesScheduler non-null scheduler, for example {@code Schedulers.from(singleThreadExecutor)}.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder changesScheduler(@NonNull Scheduler changesScheduler) {
+            checkNotNull(changesScheduler, "Please specify changes scheduler");
+
+            this.changesScheduler = changesScheduler;
+
+            return this;
+        }
+
+        /**
+         * Optional: Enables in-memory cache of results of Get Operations
+         * for list of objects, object and number of results, see {@link QueryResultCache}.
+         * <p>
+         * Results are evicted when {@link Changes} affect tables of their queries,
+         * so repeated reads of rarely changed tables skip SQLite.
+         * Get Operations can opt-out of the cache, it's required for mutable objects
+         * because cached instances are shared between callers.
+         * <p>
+         * Disabled by default.
+         *
+         * @param maxSize max number of cached results, {@code 0} disables the cache.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder queryResultCacheSize(int maxSize) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("Query result cache size can not be negative, maxSize = " + maxSize);
+            }
+
+            this.queryResultCacheSize = maxSize;
+
+            return this;
+        }
+
         /**
          * Builds {@link DefaultStorIOSQLite} instance with required params.
          *
@@ -256,7 +523,15 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
                 typeMappingFinder.directTypeMapping(unmodifiableMap(typeMapping));
             }
 
-            return new DefaultStorIOSQLite(sqLiteOpenHelper, typeMappingFinder, defaultScheduler);
+            return new DefaultStorIOSQLite(
+                    sqLiteOpenHelper,
+                    typeMappingFinder,
+                    defaultScheduler,
+                    compiledStatementCacheSize,
+                    tuningProfile,
+                    changesScheduler,
+                    queryResultCacheSize
+            );
         }
     }
 
@@ -265,20 +540,17 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
      */
     protected class LowLevelImpl extends Internal {
 
-        @NonNull
-        private final Object lock = new Object();
-
         @NonNull
         private final TypeMappingFinder typeMappingFinder;
 
-        @NonNull
-        private AtomicInteger numberOfRunningTransactions = new AtomicInteger(0);
-
         /**
-         * Guarded by {@link #lock}.
+         * Changes deferred by current thread, {@code null} if thread is neither in transaction nor in notifications batch.
+         * <p>
+         * SQLiteDatabase binds transactions to threads, so notifications
+         * are deferred only until transaction of the thread that sent them ends.
          */
         @NonNull
-        private Set<Changes> pendingChanges = new HashSet<Changes>(5);
+        private final ThreadLocal<DeferredChanges> deferredChanges = new ThreadLocal<DeferredChanges>();
 
         protected LowLevelImpl(@NonNull TypeMappingFinder typeMappingFinder) {
             this.typeMappingFinder = typeMappingFinder;
@@ -310,12 +582,10 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         @Override
         public void executeSQL(@NonNull RawQuery rawQuery) {
             if (rawQuery.args().isEmpty()) {
-                sqLiteOpenHelper
-                        .getWritableDatabase()
+                writableDatabase()
                         .execSQL(rawQuery.query());
             } else {
-                sqLiteOpenHelper
-                        .getWritableDatabase()
+                writableDatabase()
                         .execSQL(
                                 rawQuery.query(),
                                 rawQuery.args().toArray(new Object[rawQuery.args().size()])
@@ -330,8 +600,7 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         @NonNull
         @Override
         public Cursor rawQuery(@NonNull RawQuery rawQuery) {
-            return sqLiteOpenHelper
-                    .getReadableDatabase()
+            return readableDatabase()
                     .rawQuery(
                             rawQuery.query(),
                             nullableArrayOfStrings(rawQuery.args())
@@ -345,8 +614,8 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         @NonNull
         @Override
         public Cursor query(@NonNull Query query) {
-            return sqLiteOpenHelper
-                    .getReadableDatabase().query(
+            return readableDatabase()
+                    .query(
                             query.distinct(),
                             query.table(),
                             nullableArrayOfStringsFromListOfStrings(query.columns()),
@@ -359,14 +628,44 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
                     );
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @WorkerThread
+        @Override
+        public long simpleQueryForLong(@NonNull RawQuery rawQuery) {
+            if (statementCache != null) {
+                return statementCache.simpleQueryForLong(
+                        readableDatabase(),
+                        rawQuery.query(),
+                        nullableArrayOfStrings(rawQuery.args())
+                );
+            }
+
+            return DatabaseUtils.longForQuery(
+                    readableDatabase(),
+                    rawQuery.query(),
+                    nullableArrayOfStrings(rawQuery.args())
+            );
+        }
+
         /**
          * {@inheritDoc}
          */
         @WorkerThread
         @Override
         public long insert(@NonNull InsertQuery insertQuery, @NonNull ContentValues contentValues) {
-            return sqLiteOpenHelper
-                    .getWritableDatabase()
+            if (statementCache != null) {
+                return statementCache.insert(
+                        writableDatabase(),
+                        insertQuery.table(),
+                        insertQuery.nullColumnHack(),
+                        contentValues,
+                        SQLiteDatabase.CONFLICT_NONE
+                );
+            }
+
+            return writableDatabase()
                     .insertOrThrow(
                             insertQuery.table(),
                             insertQuery.nullColumnHack(),
@@ -380,8 +679,17 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         @WorkerThread
         @Override
         public long insertWithOnConflict(@NonNull InsertQuery insertQuery, @NonNull ContentValues contentValues, int conflictAlgorithm) {
-            return sqLiteOpenHelper
-                    .getWritableDatabase()
+            if (statementCache != null) {
+                return statementCache.insert(
+                        writableDatabase(),
+                        insertQuery.table(),
+                        insertQuery.nullColumnHack(),
+                        contentValues,
+                        conflictAlgorithm
+                );
+            }
+
+            return writableDatabase()
                     .insertWithOnConflict(
                             insertQuery.table(),
                             insertQuery.nullColumnHack(),
@@ -396,8 +704,17 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         @WorkerThread
         @Override
         public int update(@NonNull UpdateQuery updateQuery, @NonNull ContentValues contentValues) {
-            return sqLiteOpenHelper
-                    .getWritableDatabase()
+            if (statementCache != null) {
+                return statementCache.update(
+                        writableDatabase(),
+                        updateQuery.table(),
+                        contentValues,
+                        nullableString(updateQuery.where()),
+                        updateQuery.whereArgs()
+                );
+            }
+
+            return writableDatabase()
                     .update(
                             updateQuery.table(),
                             contentValues,
@@ -406,14 +723,184 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
                     );
         }
 
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean canBindStatements() {
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @WorkerThread
+        @Override
+        public <T> long insert(
+                @NonNull InsertQuery insertQuery,
+                @NonNull StatementBinder<T> statementBinder,
+                @NonNull T object,
+                int conflictAlgorithm
+        ) {
+            if (statementCache != null) {
+                return statementCache.insert(
+                        writableDatabase(),
+                        insertQuery.table(),
+                        statementBinder,
+                        object,
+                        conflictAlgorithm
+                );
+            }
+
+            final SQLiteStatement statement = writableDatabase()
+                    .compileStatement(StatementCache.insertSql(insertQuery.table(), statementBinder.columns(), conflictAlgorithm));
+
+            try {
+                statementBinder.bind(statement, object);
+                return statement.executeInsert();
+            } finally {
+                statement.close();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @WorkerThread
+        @Override
+        public <T> int update(
+                @NonNull UpdateQuery updateQuery,
+                @NonNull StatementBinder<T> statementBinder,
+                @NonNull T object
+        ) {
+            if (statementCache != null) {
+                return statementCache.update(
+                        writableDatabase(),
+                        updateQuery.table(),
+                        statementBinder,
+                        object,
+                        nullableString(updateQuery.where()),
+                        updateQuery.whereArgs()
+                );
+            }
+
+            final List<String> columns = statementBinder.columns();
+            final SQLiteStatement statement = writableDatabase()
+                    .compileStatement(StatementCache.updateSql(updateQuery.table(), columns, nullableString(updateQuery.where())));
+
+            try {
+                statementBinder.bind(statement, object);
+                StatementCache.bindWhereArgs(statement, columns.size(), updateQuery.whereArgs());
+                return statement.executeUpdateDelete();
+            } finally {
+                statement.close();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         * <p>
+         * Consecutive rows with same set of columns are inserted by multi-row statements,
+         * each statement binds at most 999 values (default limit of SQLite).
+         * Only statements of full chunks are kept in the cache of compiled statements.
+         */
+        @WorkerThread
+        @Override
+        public int insertRows(@NonNull InsertQuery insertQuery, @NonNull List<ContentValues> rows, int conflictAlgorithm) {
+            final SQLiteDatabase db = writableDatabase();
+            final int size = rows.size();
+            int numberOfInsertedRows = 0;
+            int start = 0;
+
+            while (start < size) {
+                final ContentValues firstRow = rows.get(start);
+
+                if (firstRow.size() == 0) {
+                    // Row can be inserted only with nullColumnHack, let single-row insert handle it
+                    if (insertWithOnConflict(insertQuery, firstRow, conflictAlgorithm) != -1) {
+                        numberOfInsertedRows++;
+                    }
+
+                    start++;
+                    continue;
+                }
+
+                final String[] columns = firstRow.keySet().toArray(new String[firstRow.size()]);
+                final int maxRows = Math.max(1, Math.min(MAX_ROWS_PER_INSERT, MAX_VARIABLES_PER_STATEMENT / columns.length));
+
+                int end = start + 1;
+
+                while (end < size && end - start < maxRows && hasColumns(rows.get(end), columns)) {
+                    end++;
+                }
+
+                final Object[] bindArgs = new Object[(end - start) * columns.length];
+                int index = 0;
+
+                for (int i = start; i < end; i++) {
+                    final ContentValues row = rows.get(i);
+
+                    for (String column : columns) {
+                        bindArgs[index++] = row.get(column);
+                    }
+                }
+
+                final String sql = StatementCache.insertRowsSql(insertQuery.table(), columns, end - start, conflictAlgorithm);
+
+                if (statementCache != null && end - start == maxRows) {
+                    // Only full chunks are cached, statement of the tail of the batch
+                    // is rarely reused and would evict hot statements from the cache
+                    numberOfInsertedRows += statementCache.executeUpdateDelete(db, sql, bindArgs);
+                } else {
+                    final SQLiteStatement statement = db.compileStatement(sql);
+
+                    try {
+                        for (int i = 0; i < bindArgs.length; i++) {
+                            StatementCache.bind(statement, i + 1, bindArgs[i]);
+                        }
+
+                        numberOfInsertedRows += statement.executeUpdateDelete();
+                    } finally {
+                        statement.close();
+                    }
+                }
+
+                start = end;
+            }
+
+            return numberOfInsertedRows;
+        }
+
+        private boolean hasColumns(@NonNull ContentValues row, @NonNull String[] columns) {
+            if (row.size() != columns.length) {
+                return false;
+            }
+
+            for (String column : columns) {
+                if (!row.containsKey(column)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
         /**
          * {@inheritDoc}
          */
         @WorkerThread
         @Override
         public int delete(@NonNull DeleteQuery deleteQuery) {
-            return sqLiteOpenHelper
-                    .getWritableDatabase()
+            if (statementCache != null) {
+                return statementCache.delete(
+                        writableDatabase(),
+                        deleteQuery.table(),
+                        nullableString(deleteQuery.where()),
+                        deleteQuery.whereArgs()
+                );
+            }
+
+            return writableDatabase()
                     .delete(
                             deleteQuery.table(),
                             nullableString(deleteQuery.where()),
@@ -428,35 +915,36 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
         public void notifyAboutChanges(@NonNull Changes changes) {
             checkNotNull(changes, "Changes can not be null");
 
-            // Fast path, no synchronization required
-            if (numberOfRunningTransactions.get() == 0) {
+            // Right away, even if notification is deferred: thread in transaction should not read cached results
+            invalidateQueryResultCache(changes.affectedTables());
+
+            final DeferredChanges deferred = deferredChanges.get();
+
+            if (deferred == null) {
                 changesBus.onNext(changes);
             } else {
-                synchronized (lock) {
-                    pendingChanges.add(changes);
-                }
-
-                notifyAboutPendingChangesIfNotInTransaction();
+                deferred.affectedTables.addAll(changes.affectedTables());
             }
         }
 
-        private void notifyAboutPendingChangesIfNotInTransaction() {
-            final Set<Changes> changesToSend;
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void beginNotificationsBatch() {
+            deferNotifications();
+        }
 
-            if (numberOfRunningTransactions.get() == 0) {
-                synchronized (lock) {
-                    changesToSend = pendingChanges;
-                    pendingChanges = new HashSet<Changes>(5);
-                }
-            } else {
-                changesToSend = null;
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void endNotificationsBatch() {
+            if (deferredChanges.get() == null) {
+                throw new IllegalStateException("There is no notifications batch to end in current thread");
             }
 
-            if (changesToSend != null) {
-                for (Changes changes : changesToSend) {
-                    changesBus.onNext(changes);
-                }
-            }
+            sendDeferredNotificationsIfOutermost();
         }
 
         /**
@@ -464,11 +952,10 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
          */
         @Override
         public void beginTransaction() {
-            sqLiteOpenHelper
-                    .getWritableDatabase()
+            writableDatabase()
                     .beginTransaction();
 
-            numberOfRunningTransactions.incrementAndGet();
+            deferNotifications();
         }
 
         /**
@@ -476,8 +963,7 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
          */
         @Override
         public void setTransactionSuccessful() {
-            sqLiteOpenHelper
-                    .getWritableDatabase()
+            writableDatabase()
                     .setTransactionSuccessful();
         }
 
@@ -486,13 +972,68 @@ public class DefaultStorIOSQLite extends StorIOSQLite {
          */
         @Override
         public void endTransaction() {
-            sqLiteOpenHelper
-                    .getWritableDatabase()
+            writableDatabase()
                     .endTransaction();
 
-            numberOfRunningTransactions.decrementAndGet();
-            notifyAboutPendingChangesIfNotInTransaction();
+            sendDeferredNotificationsIfOutermost();
         }
+
+        private void deferNotifications() {
+            DeferredChanges deferred = deferredChanges.get();
+
+            if (deferred == null) {
+                deferred = new DeferredChanges();
+                deferredChanges.set(deferred);
+            }
+
+            deferred.nestingLevel++;
+        }
+
+        private void sendDeferredNotificationsIfOutermost() {
+            final DeferredChanges deferred = deferredChanges.get();
+
+            if (deferred != null && --deferred.nestingLevel == 0) {
+                deferredChanges.remove();
+
+                // One notification with union of tables, so observers of multiple tables re-query only once
+                if (!deferred.affectedTables.isEmpty()) {
+                    // Other threads could cache results they read before the commit
+                    invalidateQueryResultCache(deferred.affectedTables);
+                    changesBus.onNext(Changes.newInstance(deferred.affectedTables));
+                }
+            }
+        }
+
+        private void invalidateQueryResultCache(@NonNull Set<String> tables) {
+            final QueryResultCache queryResultCache = queryResultCache();
+
+            if (queryResultCache != null) {
+                queryResultCache.invalidate(tables);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean inTransaction() {
+            return writableDatabase()
+                    .inTransaction();
+        }
+    }
+
+    /**
+     * Changes deferred by transactions and notifications batches of one thread, accessed only by that thread.
+     */
+    private static final class DeferredChanges {
+
+        /**
+         * Number of not finished transactions and notifications batches.
+         */
+        int nestingLevel;
+
+        @NonNull
+        final Set<String> affectedTables = new HashSet<String>();
     }
 
     /**
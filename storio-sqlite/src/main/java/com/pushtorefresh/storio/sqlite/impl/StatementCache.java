@@ -0,0 +1,484 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import android.content.ContentValues;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteProgram;
+import android.database.sqlite.SQLiteStatement;
+import android.os.Build;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.sqlite.StatementBinder;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.pushtorefresh.storio.internal.InternalQueries.nullableArrayOfStringsFromListOfStrings;
+
+/**
+ * Bounded LRU cache of compiled {@link SQLiteStatement}s for insert, update, delete
+ * and simple queries like {@code SELECT COUNT(*)}.
+ * <p>
+ * Rows are bound either from {@link ContentValues} or by {@link StatementBinder}.
+ * <p>
+ * Statements are keyed by their SQL, which encodes table, set of columns and shape of the where clause,
+ * so rows with the same "shape" are bound into already compiled statement instead of
+ * being parsed and planned by SQLite again.
+ * <p>
+ * Statement is taken out of the cache while it's executed, so concurrent callers
+ * never share bindings of the same statement. Thread-safe.
+ * <p>
+ * For internal usage only!
+ */
+final class StatementCache {
+
+    // Same order as SQLiteDatabase.CONFLICT_* constants
+    @NonNull
+    private static final String[] CONFLICT_VALUES = {"", " OR ROLLBACK", " OR ABORT", " OR FAIL", " OR IGNORE", " OR REPLACE"};
+
+    /**
+     * Multi-row {@code VALUES} are supported since SQLite 3.7.11 (Android 4.1).
+     */
+    private static final boolean MULTI_ROW_VALUES_SUPPORTED = Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+
+    private final int maxSize;
+
+    @NonNull
+    private final Object lock = new Object();
+
+    /**
+     * Guarded by {@link #lock}.
+     * Insertion order equals order of usage because statements are removed on acquire and put back on release.
+     */
+    @NonNull
+    private final LinkedHashMap<String, SQLiteStatement> statements;
+
+    /**
+     * Database for which statements were compiled, guarded by {@link #lock}.
+     */
+    @Nullable
+    private SQLiteDatabase db;
+
+    StatementCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize should be positive, maxSize = " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        statements = new LinkedHashMap<String, SQLiteStatement>(maxSize);
+    }
+
+    @WorkerThread
+    long insert(
+            @NonNull SQLiteDatabase db,
+            @NonNull String table,
+            @Nullable String nullColumnHack,
+            @NonNull ContentValues contentValues,
+            int conflictAlgorithm
+    ) {
+        final int size = contentValues.size();
+
+        if (size == 0 && nullColumnHack == null) {
+            // Let SQLiteDatabase produce same result (or error) as it does without the cache
+            return db.insertWithOnConflict(table, null, contentValues, conflictAlgorithm);
+        }
+
+        final StringBuilder sql = new StringBuilder(32 + table.length() + size * 16)
+                .append("INSERT")
+                .append(CONFLICT_VALUES[conflictAlgorithm])
+                .append(" INTO ")
+                .append(table)
+                .append('(');
+
+        final Object[] bindArgs;
+
+        if (size > 0) {
+            bindArgs = new Object[size];
+            int i = 0;
+
+            for (Map.Entry<String, Object> entry : contentValues.valueSet()) {
+                sql.append(i > 0 ? "," : "").append(entry.getKey());
+                bindArgs[i++] = entry.getValue();
+            }
+
+            sql.append(") VALUES (");
+
+            for (i = 0; i < size; i++) {
+                sql.append(i > 0 ? ",?" : "?");
+            }
+        } else {
+            bindArgs = null;
+            sql.append(nullColumnHack).append(") VALUES (NULL");
+        }
+
+        sql.append(')');
+
+        final String key = sql.toString();
+        final SQLiteStatement statement = acquire(db, key);
+
+        try {
+            if (bindArgs != null) {
+                for (int i = 0; i < bindArgs.length; i++) {
+                    bind(statement, i + 1, bindArgs[i]);
+                }
+            }
+
+            return statement.executeInsert();
+        } finally {
+            release(db, key, statement);
+        }
+    }
+
+    @WorkerThread
+    int update(
+            @NonNull SQLiteDatabase db,
+            @NonNull String table,
+            @NonNull ContentValues contentValues,
+            @Nullable String where,
+            @Nullable List<String> whereArgs
+    ) {
+        final int size = contentValues.size();
+
+        if (size == 0) {
+            // Let SQLiteDatabase produce same error as it does without the cache
+            return db.update(table, contentValues, where, nullableArrayOfStringsFromListOfStrings(whereArgs));
+        }
+
+        final StringBuilder sql = new StringBuilder(32 + table.length() + size * 16)
+                .append("UPDATE ")
+                .append(table)
+                .append(" SET ");
+
+        final Object[] bindArgs = new Object[size];
+        int i = 0;
+
+        for (Map.Entry<String, Object> entry : contentValues.valueSet()) {
+            sql.append(i > 0 ? "," : "").append(entry.getKey()).append("=?");
+            bindArgs[i++] = entry.getValue();
+        }
+
+        appendWhere(sql, where);
+
+        final String key = sql.toString();
+        final SQLiteStatement statement = acquire(db, key);
+
+        try {
+            for (i = 0; i < size; i++) {
+                bind(statement, i + 1, bindArgs[i]);
+            }
+
+            bindWhereArgs(statement, size, whereArgs);
+
+            return statement.executeUpdateDelete();
+        } finally {
+            release(db, key, statement);
+        }
+    }
+
+    @WorkerThread
+    <T> long insert(
+            @NonNull SQLiteDatabase db,
+            @NonNull String table,
+            @NonNull StatementBinder<T> statementBinder,
+            @NonNull T object,
+            int conflictAlgorithm
+    ) {
+        final String key = insertSql(table, statementBinder.columns(), conflictAlgorithm);
+        final SQLiteStatement statement = acquire(db, key);
+
+        try {
+            statementBinder.bind(statement, object);
+            return statement.executeInsert();
+        } finally {
+            release(db, key, statement);
+        }
+    }
+
+    @WorkerThread
+    <T> int update(
+            @NonNull SQLiteDatabase db,
+            @NonNull String table,
+            @NonNull StatementBinder<T> statementBinder,
+            @NonNull T object,
+            @Nullable String where,
+            @Nullable List<String> whereArgs
+    ) {
+        final List<String> columns = statementBinder.columns();
+        final String key = updateSql(table, columns, where);
+        final SQLiteStatement statement = acquire(db, key);
+
+        try {
+            statementBinder.bind(statement, object);
+            bindWhereArgs(statement, columns.size(), whereArgs);
+            return statement.executeUpdateDelete();
+        } finally {
+            release(db, key, statement);
+        }
+    }
+
+    /**
+     * Executes statement that does not return rows, for example multi-row insert.
+     *
+     * @return number of changed rows.
+     */
+    @WorkerThread
+    int executeUpdateDelete(
+            @NonNull SQLiteDatabase db,
+            @NonNull String sql,
+            @NonNull Object[] bindArgs
+    ) {
+        final SQLiteStatement statement = acquire(db, sql);
+
+        try {
+            for (int i = 0; i < bindArgs.length; i++) {
+                bind(statement, i + 1, bindArgs[i]);
+            }
+
+            return statement.executeUpdateDelete();
+        } finally {
+            release(db, sql, statement);
+        }
+    }
+
+    @WorkerThread
+    int delete(
+            @NonNull SQLiteDatabase db,
+            @NonNull String table,
+            @Nullable String where,
+            @Nullable List<String> whereArgs
+    ) {
+        final StringBuilder sql = new StringBuilder(16 + table.length())
+                .append("DELETE FROM ")
+                .append(table);
+
+        appendWhere(sql, where);
+
+        final String key = sql.toString();
+        final SQLiteStatement statement = acquire(db, key);
+
+        try {
+            bindWhereArgs(statement, 0, whereArgs);
+            return statement.executeUpdateDelete();
+        } finally {
+            release(db, key, statement);
+        }
+    }
+
+    @WorkerThread
+    long simpleQueryForLong(
+            @NonNull SQLiteDatabase db,
+            @NonNull String sql,
+            @Nullable String[] args
+    ) {
+        final SQLiteStatement statement = acquire(db, sql);
+
+        try {
+            if (args != null) {
+                // Bound as strings, same as SQLiteDatabase.rawQuery() does
+                for (int i = 0; i < args.length; i++) {
+                    bind(statement, i + 1, args[i]);
+                }
+            }
+
+            return statement.simpleQueryForLong();
+        } finally {
+            release(db, sql, statement);
+        }
+    }
+
+    /**
+     * Closes and removes all cached statements.
+     */
+    void clear() {
+        synchronized (lock) {
+            closeAll();
+            db = null;
+        }
+    }
+
+    int size() {
+        synchronized (lock) {
+            return statements.size();
+        }
+    }
+
+    @NonNull
+    private SQLiteStatement acquire(@NonNull SQLiteDatabase db, @NonNull String sql) {
+        synchronized (lock) {
+            if (this.db != db) {
+                // SQLiteOpenHelper reopened the database, old statements are useless now
+                closeAll();
+                this.db = db;
+            }
+
+            final SQLiteStatement statement = statements.remove(sql);
+
+            if (statement != null) {
+                return statement;
+            }
+        }
+
+        return db.compileStatement(sql);
+    }
+
+    private void release(@NonNull SQLiteDatabase db, @NonNull String sql, @NonNull SQLiteStatement statement) {
+        statement.clearBindings();
+
+        SQLiteStatement statementToClose = null;
+
+        synchronized (lock) {
+            if (this.db == db) {
+                // Another thread could have compiled and released same statement concurrently
+                statementToClose = statements.put(sql, statement);
+
+                if (statements.size() > maxSize) {
+                    final Iterator<SQLiteStatement> eldest = statements.values().iterator();
+                    eldest.next().close();
+                    eldest.remove();
+                }
+            } else {
+                statementToClose = statement;
+            }
+        }
+
+        if (statementToClose != null) {
+            statementToClose.close();
+        }
+    }
+
+    // Guarded by lock
+    private void closeAll() {
+        for (SQLiteStatement statement : statements.values()) {
+            statement.close();
+        }
+
+        statements.clear();
+    }
+
+    /**
+     * @return {@code INSERT INTO table(columns) VALUES (?,...)} statement for {@link StatementBinder}.
+     */
+    @NonNull
+    static String insertSql(@NonNull String table, @NonNull List<String> columns, int conflictAlgorithm) {
+        final int size = columns.size();
+
+        final StringBuilder sql = new StringBuilder(32 + table.length() + size * 16)
+                .append("INSERT")
+                .append(CONFLICT_VALUES[conflictAlgorithm])
+                .append(" INTO ")
+                .append(table)
+                .append('(');
+
+        for (int i = 0; i < size; i++) {
+            sql.append(i > 0 ? "," : "").append(columns.get(i));
+        }
+
+        sql.append(") VALUES (");
+
+        for (int i = 0; i < size; i++) {
+            sql.append(i > 0 ? ",?" : "?");
+        }
+
+        return sql.append(')').toString();
+    }
+
+    /**
+     * @return {@code INSERT INTO table(columns) VALUES (?,...),(?,...)} statement for multiple rows,
+     * or {@code INSERT INTO table(columns) SELECT ?,... UNION ALL SELECT ?,...} for versions of SQLite
+     * without multi-row {@code VALUES} (Android before 4.1).
+     */
+    @NonNull
+    static String insertRowsSql(
+            @NonNull String table,
+            @NonNull String[] columns,
+            int numberOfRows,
+            int conflictAlgorithm
+    ) {
+        final StringBuilder row = new StringBuilder(columns.length * 2);
+
+        for (int i = 0; i < columns.length; i++) {
+            row.append(i > 0 ? ",?" : "?");
+        }
+
+        final StringBuilder sql = new StringBuilder(32 + table.length() + columns.length * 16 + numberOfRows * (row.length() + 16))
+                .append("INSERT")
+                .append(CONFLICT_VALUES[conflictAlgorithm])
+                .append(" INTO ")
+                .append(table)
+                .append('(');
+
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i > 0 ? "," : "").append(columns[i]);
+        }
+
+        sql.append(')');
+
+        for (int i = 0; i < numberOfRows; i++) {
+            if (MULTI_ROW_VALUES_SUPPORTED) {
+                sql.append(i > 0 ? ",(" : " VALUES (").append(row).append(')');
+            } else {
+                sql.append(i > 0 ? " UNION ALL SELECT " : " SELECT ").append(row);
+            }
+        }
+
+        return sql.toString();
+    }
+
+    /**
+     * @return {@code UPDATE table SET column=?,... WHERE where} statement for {@link StatementBinder}.
+     */
+    @NonNull
+    static String updateSql(@NonNull String table, @NonNull List<String> columns, @Nullable String where) {
+        final int size = columns.size();
+
+        final StringBuilder sql = new StringBuilder(32 + table.length() + size * 16)
+                .append("UPDATE ")
+                .append(table)
+                .append(" SET ");
+
+        for (int i = 0; i < size; i++) {
+            sql.append(i > 0 ? "," : "").append(columns.get(i)).append("=?");
+        }
+
+        appendWhere(sql, where);
+
+        return sql.toString();
+    }
+
+    private static void appendWhere(@NonNull StringBuilder sql, @Nullable String where) {
+        if (where != null && where.length() > 0) {
+            sql.append(" WHERE ").append(where);
+        }
+    }
+
+    static void bindWhereArgs(@NonNull SQLiteProgram program, int offset, @Nullable List<String> whereArgs) {
+        if (whereArgs != null) {
+            //noinspection ForLoopReplaceableByForEach -> on Android it's faster
+            for (int i = 0; i < whereArgs.size(); i++) {
+                bind(program, offset + i + 1, whereArgs.get(i));
+            }
+        }
+    }
+
+    /**
+     * Binds value same way as {@link android.database.DatabaseUtils#bindObjectToProgram} does.
+     */
+    static void bind(@NonNull SQLiteProgram program, int index, @Nullable Object value) {
+        if (value == null) {
+            program.bindNull(index);
+        } else if (value instanceof Double || value instanceof Float) {
+            program.bindDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof Number) {
+            program.bindLong(index, ((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            program.bindLong(index, (Boolean) value ? 1 : 0);
+        } else if (value instanceof byte[]) {
+            program.bindBlob(index, (byte[]) value);
+        } else {
+            program.bindString(index, value.toString());
+        }
+    }
+}
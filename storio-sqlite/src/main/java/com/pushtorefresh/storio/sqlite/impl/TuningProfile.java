@@ -0,0 +1,413 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+
+/**
+ * Set of connection settings that {@link DefaultStorIOSQLite} applies to the database
+ * when it's opened: write-ahead logging and {@code mmap_size}, {@code cache_size},
+ * {@code synchronous} and {@code temp_store} pragmas.
+ * <p>
+ * Pragmas are per-connection settings, please call {@link #onConfigure(SQLiteDatabase)}
+ * from {@link android.database.sqlite.SQLiteOpenHelper#onConfigure(SQLiteDatabase)}
+ * to apply them before the db is created or upgraded.
+ * <p>
+ * Settings that were not specified are left as is.
+ * <p>
+ * Instances of this class are immutable.
+ *
+ * @see DefaultStorIOSQLite.CompleteBuilder#tuningProfile(TuningProfile)
+ */
+public final class TuningProfile {
+
+    /**
+     * Profile for apps that observe queries while writing big transactions,
+     * for example {@link com.pushtorefresh.storio.sqlite.operations.put.PreparedPutCollectionOfObjects}.
+     * <p>
+     * Enables write-ahead logging so reads are executed in parallel with write transaction
+     * on separate connections and see last committed state of the db instead of waiting for the writer.
+     * Uses {@link Synchronous#NORMAL} which is durable enough in WAL mode (only last transactions
+     * can be rolled back after power loss, db can not be corrupted), 8 MiB page cache,
+     * 32 MiB of memory-mapped I/O and keeps temporary tables and indices in memory.
+     */
+    @NonNull
+    public static final TuningProfile CONCURRENT_READS = builder()
+            .writeAheadLogging(true)
+            .synchronous(Synchronous.NORMAL)
+            .cacheSize(-8 * 1024)
+            .mmapSize(32 * 1024 * 1024)
+            .tempStore(TempStore.MEMORY)
+            .build();
+
+    /**
+     * Values of {@code PRAGMA synchronous}.
+     */
+    public enum Synchronous {
+        OFF, NORMAL, FULL
+    }
+
+    /**
+     * Values of {@code PRAGMA temp_store}.
+     */
+    public enum TempStore {
+        DEFAULT, FILE, MEMORY
+    }
+
+    @Nullable
+    private final Boolean writeAheadLogging;
+
+    @Nullable
+    private final Synchronous synchronous;
+
+    @Nullable
+    private final Integer cacheSize;
+
+    @Nullable
+    private final Long mmapSize;
+
+    @Nullable
+    private final TempStore tempStore;
+
+    private TuningProfile(
+            @Nullable Boolean writeAheadLogging,
+            @Nullable Synchronous synchronous,
+            @Nullable Integer cacheSize,
+            @Nullable Long mmapSize,
+            @Nullable TempStore tempStore
+    ) {
+        this.writeAheadLogging = writeAheadLogging;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.tempStore = tempStore;
+    }
+
+    /**
+     * Gets write-ahead logging mode.
+     *
+     * @return {@code true} to enable, {@code false} to disable WAL or {@code null} if it's not changed.
+     */
+    @Nullable
+    public Boolean writeAheadLogging() {
+        return writeAheadLogging;
+    }
+
+    /**
+     * Gets value of {@code PRAGMA synchronous}.
+     *
+     * @return value or {@code null} if it's not changed.
+     */
+    @Nullable
+    public Synchronous synchronous() {
+        return synchronous;
+    }
+
+    /**
+     * Gets value of {@code PRAGMA cache_size}.
+     *
+     * @return value or {@code null} if it's not changed.
+     */
+    @Nullable
+    public Integer cacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Gets value of {@code PRAGMA mmap_size}.
+     *
+     * @return value or {@code null} if it's not changed.
+     */
+    @Nullable
+    public Long mmapSize() {
+        return mmapSize;
+    }
+
+    /**
+     * Gets value of {@code PRAGMA temp_store}.
+     *
+     * @return value or {@code null} if it's not changed.
+     */
+    @Nullable
+    public TempStore tempStore() {
+        return tempStore;
+    }
+
+    /**
+     * Applies settings to the db, should be called before any other usage of the db,
+     * for example, from {@link android.database.sqlite.SQLiteOpenHelper#onConfigure(SQLiteDatabase)}.
+     * {@link DefaultStorIOSQLite} calls it too when it opens the db.
+     * <p>
+     * WAL is switched first because Android resets {@code synchronous} when journal mode changes.
+     * <p>
+     * Pragmas are per-connection settings. On Android 11 (API 30) and newer they are passed to
+     * {@code SQLiteDatabase.execPerConnectionSQL()}, so every connection of the pool gets them,
+     * including connections opened for parallel reads in WAL mode.
+     * Older versions have no way to configure these connections: pragmas are applied
+     * to the primary connection which is used for all writes and transactions,
+     * read connections keep SQLite defaults, except {@code synchronous} which Android sets itself.
+     *
+     * @param db non-null db to configure.
+     */
+    @WorkerThread
+    public void onConfigure(@NonNull SQLiteDatabase db) {
+        checkNotNull(db, "Please specify db");
+
+        if (writeAheadLogging != null && !db.isReadOnly()) {
+            if (writeAheadLogging) {
+                // Returns false for in-memory db, it just keeps working in rollback journal mode
+                db.enableWriteAheadLogging();
+            } else {
+                db.disableWriteAheadLogging();
+            }
+        }
+
+        if (synchronous != null) {
+            pragma(db, "synchronous", synchronous.name());
+        }
+
+        if (cacheSize != null) {
+            pragma(db, "cache_size", cacheSize.toString());
+        }
+
+        if (mmapSize != null) {
+            pragma(db, "mmap_size", mmapSize.toString());
+        }
+
+        if (tempStore != null) {
+            pragma(db, "temp_store", tempStore.name());
+        }
+    }
+
+    private static void pragma(@NonNull SQLiteDatabase db, @NonNull String name, @NonNull String value) {
+        final String sql = "PRAGMA " + name + " = " + value;
+
+        if (PerConnectionSql.execute(db, sql)) {
+            return;
+        }
+
+        // Some pragmas return new value as a row, SQLiteDatabase.execSQL() throws for statements with result
+        final Cursor cursor = db.rawQuery(sql, null);
+
+        try {
+            cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * {@code SQLiteDatabase.execPerConnectionSQL(String, Object[])} of API 30,
+     * it's looked up reflectively because library is compiled against older SDK.
+     */
+    private static final class PerConnectionSql {
+
+        @Nullable
+        private static final Method EXEC_PER_CONNECTION_SQL = findExecPerConnectionSql();
+
+        private PerConnectionSql() {
+            throw new IllegalStateException("No instances please");
+        }
+
+        @Nullable
+        private static Method findExecPerConnectionSql() {
+            try {
+                return SQLiteDatabase.class.getMethod("execPerConnectionSQL", String.class, Object[].class);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Executes sql on all current and future connections of the db.
+         *
+         * @return {@code true} if sql was executed, {@code false} if it's not supported by this version of Android.
+         */
+        static boolean execute(@NonNull SQLiteDatabase db, @NonNull String sql) {
+            if (EXEC_PER_CONNECTION_SQL == null) {
+                return false;
+            }
+
+            try {
+                EXEC_PER_CONNECTION_SQL.invoke(db, sql, null);
+                return true;
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                final Throwable cause = e.getCause();
+
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        TuningProfile that = (TuningProfile) o;
+
+        if (writeAheadLogging != null ? !writeAheadLogging.equals(that.writeAheadLogging) : that.writeAheadLogging != null)
+            return false;
+        if (synchronous != that.synchronous) return false;
+        if (cacheSize != null ? !cacheSize.equals(that.cacheSize) : that.cacheSize != null)
+            return false;
+        if (mmapSize != null ? !mmapSize.equals(that.mmapSize) : that.mmapSize != null)
+            return false;
+        return tempStore == that.tempStore;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = writeAheadLogging != null ? writeAheadLogging.hashCode() : 0;
+        result = 31 * result + (synchronous != null ? synchronous.hashCode() : 0);
+        result = 31 * result + (cacheSize != null ? cacheSize.hashCode() : 0);
+        result = 31 * result + (mmapSize != null ? mmapSize.hashCode() : 0);
+        result = 31 * result + (tempStore != null ? tempStore.hashCode() : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "TuningProfile{" +
+                "writeAheadLogging=" + writeAheadLogging +
+                ", synchronous=" + synchronous +
+                ", cacheSize=" + cacheSize +
+                ", mmapSize=" + mmapSize +
+                ", tempStore=" + tempStore +
+                '}';
+    }
+
+    /**
+     * Creates new builder for {@link TuningProfile}.
+     *
+     * @return non-null instance of {@link TuningProfile.Builder}.
+     */
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link TuningProfile}.
+     */
+    public static final class Builder {
+
+        @Nullable
+        private Boolean writeAheadLogging;
+
+        @Nullable
+        private Synchronous synchronous;
+
+        @Nullable
+        private Integer cacheSize;
+
+        @Nullable
+        private Long mmapSize;
+
+        @Nullable
+        private TempStore tempStore;
+
+        /**
+         * Please use {@link TuningProfile#builder()} instead of this.
+         */
+        Builder() {
+        }
+
+        /**
+         * Optional: Enables or disables write-ahead logging.
+         * <p>
+         * In WAL mode Android keeps a pool of connections, so queries from different threads
+         * are executed in parallel with each other and with a write transaction.
+         * Not supported for in-memory databases.
+         *
+         * @param enabled {@code true} to enable WAL, {@code false} to disable it.
+         * @return builder.
+         * @see SQLiteDatabase#enableWriteAheadLogging()
+         */
+        @NonNull
+        public Builder writeAheadLogging(boolean enabled) {
+            this.writeAheadLogging = enabled;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies {@code PRAGMA synchronous}.
+         *
+         * @param synchronous non-null value.
+         * @return builder.
+         */
+        @NonNull
+        public Builder synchronous(@NonNull Synchronous synchronous) {
+            checkNotNull(synchronous, "Please specify synchronous");
+            this.synchronous = synchronous;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies {@code PRAGMA cache_size}.
+         *
+         * @param cacheSize positive number of pages or negative number of KiB.
+         * @return builder.
+         */
+        @NonNull
+        public Builder cacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies {@code PRAGMA mmap_size}.
+         * <p>
+         * Ignored by SQLite versions older than 3.7.17 (Android API < 21).
+         *
+         * @param mmapSize max number of bytes of db file that can be accessed with memory-mapped I/O,
+         *                 {@code 0} disables memory-mapped I/O.
+         * @return builder.
+         */
+        @NonNull
+        public Builder mmapSize(long mmapSize) {
+            if (mmapSize < 0) {
+                throw new IllegalArgumentException("mmapSize can not be negative, mmapSize = " + mmapSize);
+            }
+
+            this.mmapSize = mmapSize;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies {@code PRAGMA temp_store}.
+         *
+         * @param tempStore non-null value.
+         * @return builder.
+         */
+        @NonNull
+        public Builder tempStore(@NonNull TempStore tempStore) {
+            checkNotNull(tempStore, "Please specify temp store");
+            this.tempStore = tempStore;
+            return this;
+        }
+
+        /**
+         * Builds new instance of {@link TuningProfile}.
+         *
+         * @return new immutable instance of {@link TuningProfile}.
+         */
+        @NonNull
+        public TuningProfile build() {
+            return new TuningProfile(writeAheadLogging, synchronous, cacheSize, mmapSize, tempStore);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.pushtorefresh.storio.sqlite.operations.delete;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
@@ -13,6 +14,9 @@ public abstract class DefaultDeleteResolver<T> extends DeleteResolver<T> {
 
     /**
      * Converts object to {@link DeleteQuery}.
+     * <p>
+     * Query should select the row of the object by its key: its where clause and args
+     * are sent to observers as key of deleted row, see {@link com.pushtorefresh.storio.sqlite.Changes}.
      *
      * @param object object that should be deleted.
      * @return {@link DeleteQuery} that will be performed.
@@ -20,6 +24,24 @@ public abstract class DefaultDeleteResolver<T> extends DeleteResolver<T> {
     @NonNull
     protected abstract DeleteQuery mapToDeleteQuery(@NonNull T object);
 
+    /**
+     * Returns name of the key column if {@link #mapToDeleteQuery(Object)} selects the row
+     * of the object by {@code key = ?} where clause with value of the key as the only where arg.
+     * <p>
+     * Then Delete of collection of objects deletes them by chunked
+     * {@code DELETE FROM table WHERE key IN (?, ...)} statements instead of one statement per object,
+     * see {@link PreparedDeleteCollectionOfObjects}.
+     * Objects which delete queries have another where clause are deleted by {@link #performDelete(StorIOSQLite, Object)}.
+     * <p>
+     * Default implementation returns {@code null}, so objects are deleted one by one.
+     *
+     * @return name of the key column or {@code null}.
+     */
+    @Nullable
+    protected String keyColumn() {
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -28,6 +50,6 @@ public abstract class DefaultDeleteResolver<T> extends DeleteResolver<T> {
     public DeleteResult performDelete(@NonNull StorIOSQLite storIOSQLite, @NonNull T object) {
         final DeleteQuery deleteQuery = mapToDeleteQuery(object);
         final int numberOfRowsDeleted = storIOSQLite.lowLevel().delete(deleteQuery);
-        return DeleteResult.newInstance(numberOfRowsDeleted, deleteQuery.table());
+        return DeleteResult.newInstance(numberOfRowsDeleted, deleteQuery.table(), deleteQuery.where(), deleteQuery.whereArgs());
     }
 }
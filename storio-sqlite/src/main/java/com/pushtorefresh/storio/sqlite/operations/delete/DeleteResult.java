@@ -1,8 +1,12 @@
 package com.pushtorefresh.storio.sqlite.operations.delete;
 
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlite.Changes;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
@@ -19,10 +23,40 @@ public final class DeleteResult {
     @NonNull
     private final Set<String> affectedTables;
 
+    /**
+     * Where clause that selects deleted row by its key, {@code null} if deleted row is unknown.
+     */
+    @Nullable
+    private final String keyWhere;
+
+    /**
+     * Where args of {@link #keyWhere}.
+     */
+    @NonNull
+    private final List<String> key;
+
     private DeleteResult(int numberOfRowsDeleted, @NonNull Set<String> affectedTables) {
+        this(numberOfRowsDeleted, affectedTables, null, Collections.<String>emptyList());
+    }
+
+    private DeleteResult(
+            int numberOfRowsDeleted,
+            @NonNull Set<String> affectedTables,
+            @Nullable String keyWhere,
+            @NonNull List<String> key
+    ) {
         checkNotNull(affectedTables, "Please specify affected tables");
         this.numberOfRowsDeleted = numberOfRowsDeleted;
         this.affectedTables = Collections.unmodifiableSet(affectedTables);
+
+        // Empty where clause selects all rows and key with null value can not identify the row
+        if (keyWhere != null && keyWhere.length() > 0 && !key.contains("null")) {
+            this.keyWhere = keyWhere;
+            this.key = key;
+        } else {
+            this.keyWhere = null;
+            this.key = Collections.emptyList();
+        }
     }
 
     /**
@@ -51,6 +85,26 @@ public final class DeleteResult {
         return new DeleteResult(numberOfRowsDeleted, Collections.singleton(affectedTable));
     }
 
+    /**
+     * Creates {@link DeleteResult} of delete of one row with known key.
+     *
+     * @param numberOfRowsDeleted number of rows that were deleted.
+     * @param affectedTable       table that was affected.
+     * @param keyWhere            where clause that selects deleted row by its key.
+     * @param key                 where args of {@code keyWhere}.
+     * @return new {@link DeleteResult} instance.
+     */
+    @NonNull
+    static DeleteResult newInstance(
+            int numberOfRowsDeleted,
+            @NonNull String affectedTable,
+            @Nullable String keyWhere,
+            @NonNull List<String> key
+    ) {
+        checkNotNull(affectedTable, "Please specify affected table");
+        return new DeleteResult(numberOfRowsDeleted, Collections.singleton(affectedTable), keyWhere, key);
+    }
+
     /**
      * Gets number of rows that were deleted.
      *
@@ -70,6 +124,25 @@ public final class DeleteResult {
         return affectedTables;
     }
 
+    /**
+     * Creates {@link Changes} made by Delete Operation, with key of deleted row if it's known.
+     *
+     * @return non-null {@link Changes}.
+     */
+    @NonNull
+    Changes changes() {
+        if (keyWhere == null) {
+            return Changes.newInstance(affectedTables);
+        }
+
+        return Changes.newInstance(
+                affectedTables.iterator().next(),
+                Changes.Type.DELETE,
+                keyWhere,
+                Collections.singletonList(key)
+        );
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -78,13 +151,18 @@ public final class DeleteResult {
         DeleteResult that = (DeleteResult) o;
 
         if (numberOfRowsDeleted != that.numberOfRowsDeleted) return false;
-        return affectedTables.equals(that.affectedTables);
+        if (!affectedTables.equals(that.affectedTables)) return false;
+        if (keyWhere != null ? !keyWhere.equals(that.keyWhere) : that.keyWhere != null)
+            return false;
+        return key.equals(that.key);
     }
 
     @Override
     public int hashCode() {
         int result = numberOfRowsDeleted;
         result = 31 * result + affectedTables.hashCode();
+        result = 31 * result + (keyWhere != null ? keyWhere.hashCode() : 0);
+        result = 31 * result + key.hashCode();
         return result;
     }
 
@@ -93,6 +171,8 @@ public final class DeleteResult {
         return "DeleteResult{" +
                 "numberOfRowsDeleted=" + numberOfRowsDeleted +
                 ", affectedTables=" + affectedTables +
+                ", keyWhere='" + keyWhere + '\'' +
+                ", key=" + key +
                 '}';
     }
 }
@@ -1,5 +1,6 @@
 package com.pushtorefresh.storio.sqlite.operations.delete;
 
+import android.database.Cursor;
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -10,9 +11,12 @@ import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
+import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -26,11 +30,19 @@ import rx.Single;
 
 /**
  * Prepared Delete Operation for {@link StorIOSQLite}.
+ * <p>
+ * Objects which {@link DefaultDeleteResolver} exposes key column are deleted by chunked
+ * {@code DELETE FROM table WHERE key IN (?, ...)} statements, see {@link DefaultDeleteResolver#keyColumn()}.
  *
  * @param <T> type of objects to delete.
  */
 public class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<DeleteResults<T>> {
 
+    /**
+     * Default {@code SQLITE_MAX_VARIABLE_NUMBER}, limits number of keys in one {@code IN (...)}.
+     */
+    private static final int MAX_KEYS_PER_STATEMENT = 999;
+
     @NonNull
     private final Collection<T> objects;
 
@@ -58,7 +70,6 @@ public class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<DeleteR
      *
      * @return non-null results of Delete Operation.
      */
-    @SuppressWarnings("unchecked")
     @WorkerThread
     @NonNull
     @Override
@@ -66,28 +77,22 @@ public class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<DeleteR
         try {
             final StorIOSQLite.LowLevel lowLevel = storIOSQLite.lowLevel();
 
+            // Nullable, delete resolver is resolved once if all objects have same type
+            final DeleteResolver<T> deleteResolverOfAllObjects = deleteResolverOfAllObjects(lowLevel);
+
             // Nullable
             final List<SimpleImmutableEntry<T, DeleteResolver<T>>> objectsAndDeleteResolvers;
 
-            if (explicitDeleteResolver != null) {
+            if (deleteResolverOfAllObjects != null) {
                 objectsAndDeleteResolvers = null;
             } else {
                 objectsAndDeleteResolvers
                         = new ArrayList<SimpleImmutableEntry<T, DeleteResolver<T>>>(objects.size());
 
                 for (final T object : objects) {
-                    final SQLiteTypeMapping<T> typeMapping
-                            = (SQLiteTypeMapping<T>) lowLevel.typeMapping(object.getClass());
-
-                    if (typeMapping == null) {
-                        throw new IllegalStateException("One of the objects from the collection does not have type mapping: " +
-                                "object = " + object + ", object.class = " + object.getClass() + "," +
-                                "db was not affected by this operation, please add type mapping for this type");
-                    }
-
                     objectsAndDeleteResolvers.add(new SimpleImmutableEntry<T, DeleteResolver<T>>(
                             object,
-                            typeMapping.deleteResolver()
+                            typeMapping(lowLevel, object).deleteResolver()
                     ));
                 }
             }
@@ -100,31 +105,20 @@ public class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<DeleteR
             boolean transactionSuccessful = false;
 
             try {
-                if (explicitDeleteResolver != null) {
-                    for (final T object : objects) {
-                        final DeleteResult deleteResult = explicitDeleteResolver.performDelete(storIOSQLite, object);
+                final KeyBatch<T> keyBatch = new KeyBatch<T>();
 
-                        results.put(object, deleteResult);
-
-                        if (!useTransaction && deleteResult.numberOfRowsDeleted() > 0) {
-                            lowLevel.notifyAboutChanges(Changes.newInstance(deleteResult.affectedTables()));
-                        }
+                if (deleteResolverOfAllObjects != null) {
+                    for (final T object : objects) {
+                        delete(lowLevel, deleteResolverOfAllObjects, object, keyBatch, results);
                     }
                 } else {
                     for (final SimpleImmutableEntry<T, DeleteResolver<T>> objectAndDeleteResolver : objectsAndDeleteResolvers) {
-                        final T object = objectAndDeleteResolver.getKey();
-                        final DeleteResolver<T> deleteResolver = objectAndDeleteResolver.getValue();
-
-                        final DeleteResult deleteResult = deleteResolver.performDelete(storIOSQLite, object);
-
-                        results.put(object, deleteResult);
-
-                        if (!useTransaction && deleteResult.numberOfRowsDeleted() > 0) {
-                            lowLevel.notifyAboutChanges(Changes.newInstance(deleteResult.affectedTables()));
-                        }
+                        delete(lowLevel, objectAndDeleteResolver.getValue(), objectAndDeleteResolver.getKey(), keyBatch, results);
                     }
                 }
 
+                deleteByKeys(lowLevel, keyBatch, results);
+
                 if (useTransaction) {
                     lowLevel.setTransactionSuccessful();
                     transactionSuccessful = true;
@@ -160,6 +154,250 @@ public class PreparedDeleteCollectionOfObjects<T> extends PreparedDelete<DeleteR
         }
     }
 
+    /**
+     * Resolves {@link DeleteResolver} once for collection of objects of one class,
+     * so type mapping is not looked up for each object.
+     *
+     * @return delete resolver of all objects, or {@code null} if collection is empty
+     * or contains objects of different classes.
+     */
+    @Nullable
+    private DeleteResolver<T> deleteResolverOfAllObjects(@NonNull StorIOSQLite.LowLevel lowLevel) {
+        if (explicitDeleteResolver != null) {
+            return explicitDeleteResolver;
+        }
+
+        Class<?> classOfAllObjects = null;
+        DeleteResolver<T> deleteResolverOfAllObjects = null;
+
+        for (final T object : objects) {
+            if (classOfAllObjects == null) {
+                classOfAllObjects = object.getClass();
+                deleteResolverOfAllObjects = typeMapping(lowLevel, object).deleteResolver();
+            } else if (object.getClass() != classOfAllObjects) {
+                return null;
+            }
+        }
+
+        return deleteResolverOfAllObjects;
+    }
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    private SQLiteTypeMapping<T> typeMapping(@NonNull StorIOSQLite.LowLevel lowLevel, @NonNull T object) {
+        final SQLiteTypeMapping<T> typeMapping
+                = (SQLiteTypeMapping<T>) lowLevel.typeMapping(object.getClass());
+
+        if (typeMapping == null) {
+            throw new IllegalStateException("One of the objects from the collection does not have type mapping: " +
+                    "object = " + object + ", object.class = " + object.getClass() + "," +
+                    "db was not affected by this operation, please add type mapping for this type");
+        }
+
+        return typeMapping;
+    }
+
+    /**
+     * Deletes object by its resolver or adds it to the batch if resolver exposes key column
+     * and its delete query is exactly {@code key = ?}, see {@link DefaultDeleteResolver#keyColumn()}.
+     */
+    private void delete(
+            @NonNull StorIOSQLite.LowLevel lowLevel,
+            @NonNull DeleteResolver<T> deleteResolver,
+            @NonNull T object,
+            @NonNull KeyBatch<T> keyBatch,
+            @NonNull Map<T, DeleteResult> results
+    ) {
+        final String keyColumn = deleteResolver instanceof DefaultDeleteResolver
+                ? ((DefaultDeleteResolver<T>) deleteResolver).keyColumn()
+                : null;
+
+        if (keyColumn != null) {
+            final DeleteQuery deleteQuery = ((DefaultDeleteResolver<T>) deleteResolver).mapToDeleteQuery(object);
+
+            // Overridden mapToDeleteQuery() can select the row by another column
+            if (deleteQuery.whereArgs().size() == 1 && (keyColumn + " = ?").equals(deleteQuery.where())) {
+                if (!keyBatch.accepts(deleteQuery.table(), keyColumn)) {
+                    deleteByKeys(lowLevel, keyBatch, results);
+                }
+
+                keyBatch.add(deleteQuery.table(), keyColumn, object, deleteQuery);
+                return;
+            }
+        }
+
+        // Keep order of deletes same as order of objects
+        deleteByKeys(lowLevel, keyBatch, results);
+
+        onDeleted(lowLevel, object, deleteResolver.performDelete(storIOSQLite, object), results);
+    }
+
+    /**
+     * Deletes objects of the batch by one {@code DELETE FROM table WHERE key IN (?, ...)} statement.
+     * <p>
+     * Rows are counted per key first, so each object gets same {@link DeleteResult}
+     * as it would get from its own statement.
+     */
+    private void deleteByKeys(
+            @NonNull StorIOSQLite.LowLevel lowLevel,
+            @NonNull KeyBatch<T> keyBatch,
+            @NonNull Map<T, DeleteResult> results
+    ) {
+        final int size = keyBatch.objects.size();
+
+        if (size == 0) {
+            return;
+        }
+
+        final String table = keyBatch.table;
+        final String keyColumn = keyBatch.keyColumn;
+        final String[] keys = new String[size];
+        final StringBuilder where = new StringBuilder(keyColumn.length() + 8 + size * 2)
+                .append(keyColumn)
+                .append(" IN (");
+
+        for (int i = 0; i < size; i++) {
+            keys[i] = keyBatch.deleteQueries.get(i).whereArgs().get(0);
+            where.append(i > 0 ? ",?" : "?");
+        }
+
+        where.append(')');
+
+        final int[] numbersOfRowsDeleted = new int[size];
+        final boolean ownTransaction = !lowLevel.inTransaction();
+
+        if (ownTransaction) {
+            lowLevel.beginTransaction();
+        }
+
+        try {
+            final Map<String, Integer> numbersOfRowsByKeys = new HashMap<String, Integer>(size);
+            int numberOfRows = 0;
+
+            final Cursor cursor = lowLevel.rawQuery(RawQuery.builder()
+                    .query("SELECT " + keyColumn + ", COUNT(*) FROM " + table + " WHERE " + where + " GROUP BY " + keyColumn)
+                    .args((Object[]) keys)
+                    .build());
+
+            try {
+                while (cursor.moveToNext()) {
+                    final int numberOfRowsByKey = cursor.getInt(1);
+                    numbersOfRowsByKeys.put(cursor.getString(0), numberOfRowsByKey);
+                    numberOfRows += numberOfRowsByKey;
+                }
+            } finally {
+                cursor.close();
+            }
+
+            if (numberOfRows > 0) {
+                if (countsMatchKeys(keys, numbersOfRowsByKeys, numberOfRows)) {
+                    lowLevel.delete(DeleteQuery.builder()
+                            .table(table)
+                            .where(where.toString())
+                            .whereArgs((Object[]) keys)
+                            .build());
+
+                    for (int i = 0; i < size; i++) {
+                        // If collection contains same key twice, only first object deletes rows
+                        final Integer numberOfRowsByKey = numbersOfRowsByKeys.remove(keys[i]);
+                        numbersOfRowsDeleted[i] = numberOfRowsByKey != null ? numberOfRowsByKey : 0;
+                    }
+                } else {
+                    // Column affinity changed values of keys (for example "01" -> 1),
+                    // rows can not be attributed to objects, so delete them one by one
+                    for (int i = 0; i < size; i++) {
+                        numbersOfRowsDeleted[i] = lowLevel.delete(keyBatch.deleteQueries.get(i));
+                    }
+                }
+            }
+
+            if (ownTransaction) {
+                lowLevel.setTransactionSuccessful();
+            }
+        } finally {
+            if (ownTransaction) {
+                lowLevel.endTransaction();
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            final DeleteQuery deleteQuery = keyBatch.deleteQueries.get(i);
+
+            onDeleted(
+                    lowLevel,
+                    keyBatch.objects.get(i),
+                    DeleteResult.newInstance(numbersOfRowsDeleted[i], deleteQuery.table(), deleteQuery.where(), deleteQuery.whereArgs()),
+                    results
+            );
+        }
+
+        keyBatch.clear();
+    }
+
+    private static boolean countsMatchKeys(
+            @NonNull String[] keys,
+            @NonNull Map<String, Integer> numbersOfRowsByKeys,
+            int numberOfRows
+    ) {
+        int numberOfMatchedRows = 0;
+
+        for (String key : new HashSet<String>(Arrays.asList(keys))) {
+            final Integer numberOfRowsByKey = numbersOfRowsByKeys.get(key);
+
+            if (numberOfRowsByKey != null) {
+                numberOfMatchedRows += numberOfRowsByKey;
+            }
+        }
+
+        return numberOfMatchedRows == numberOfRows;
+    }
+
+    private void onDeleted(
+            @NonNull StorIOSQLite.LowLevel lowLevel,
+            @NonNull T object,
+            @NonNull DeleteResult deleteResult,
+            @NonNull Map<T, DeleteResult> results
+    ) {
+        results.put(object, deleteResult);
+
+        if (!useTransaction && deleteResult.numberOfRowsDeleted() > 0) {
+            lowLevel.notifyAboutChanges(deleteResult.changes());
+        }
+    }
+
+    /**
+     * Objects that are deleted by one statement: they are in one table and have same key column.
+     */
+    private static class KeyBatch<T> {
+
+        @NonNull
+        final List<T> objects = new ArrayList<T>();
+
+        @NonNull
+        final List<DeleteQuery> deleteQueries = new ArrayList<DeleteQuery>();
+
+        String table;
+
+        String keyColumn;
+
+        boolean accepts(@NonNull String table, @NonNull String keyColumn) {
+            return objects.isEmpty()
+                    || objects.size() < MAX_KEYS_PER_STATEMENT && table.equals(this.table) && keyColumn.equals(this.keyColumn);
+        }
+
+        void add(@NonNull String table, @NonNull String keyColumn, @NonNull T object, @NonNull DeleteQuery deleteQuery) {
+            this.table = table;
+            this.keyColumn = keyColumn;
+            objects.add(object);
+            deleteQueries.add(deleteQuery);
+        }
+
+        void clear() {
+            objects.clear();
+            deleteQueries.clear();
+        }
+    }
+
     /**
      * Creates {@link Observable} which will perform Delete Operation and send result to observer.
      * <p>
@@ -6,7 +6,6 @@ import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
 
 import com.pushtorefresh.storio.StorIOException;
-import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
@@ -72,7 +71,7 @@ public class PreparedDeleteObject<T> extends PreparedDelete<DeleteResult> {
 
             final DeleteResult deleteResult = deleteResolver.performDelete(storIOSQLite, object);
             if (deleteResult.numberOfRowsDeleted() > 0) {
-                lowLevel.notifyAboutChanges(Changes.newInstance(deleteResult.affectedTables()));
+                lowLevel.notifyAboutChanges(deleteResult.changes());
             }
             return deleteResult;
 
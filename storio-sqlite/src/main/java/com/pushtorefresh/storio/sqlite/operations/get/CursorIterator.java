@@ -0,0 +1,183 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link Iterator} that maps rows of {@link Cursor} to objects lazily, one row per {@link #next()}.
+ * <p>
+ * If {@link GetResolver} has related objects, see {@link GetResolver#relatedTables()},
+ * rows are mapped by chunks and related objects are loaded once per chunk.
+ * <p>
+ * {@link Cursor} is closed after last row or after error of mapping,
+ * please {@link #close()} iterator if you stop iteration earlier.
+ * <p>
+ * Not thread-safe, {@link Cursor} is read in {@link #hasNext()} and {@link #next()},
+ * so please use iterator on some background thread. See {@link WorkerThread}.
+ *
+ * @param <T> type of objects.
+ */
+public final class CursorIterator<T> implements Iterator<T>, Closeable {
+
+    /**
+     * Max number of objects held in memory while their related objects are loaded.
+     */
+    static final int RELATIONS_CHUNK_SIZE = 100;
+
+    @NonNull
+    private final StorIOSQLite storIOSQLite;
+
+    @NonNull
+    private final Cursor cursor;
+
+    @NonNull
+    private final GetResolver<T> getResolver;
+
+    /**
+     * Mapped objects that were not returned by {@link #next()} yet,
+     * {@code null} if resolver does not have related objects.
+     */
+    @Nullable
+    private final List<T> chunk;
+
+    private int chunkPosition;
+
+    /**
+     * Whether cursor was moved to the row that was not returned by {@link #next()} yet.
+     */
+    private boolean movedToNext;
+
+    private boolean hasNext;
+
+    private boolean closed;
+
+    /**
+     * Looked up once, before mapping of the first row.
+     */
+    @Nullable
+    private int[] columnIndices;
+
+    private boolean columnIndicesLookedUp;
+
+    CursorIterator(@NonNull StorIOSQLite storIOSQLite, @NonNull Cursor cursor, @NonNull GetResolver<T> getResolver) {
+        this.storIOSQLite = storIOSQLite;
+        this.cursor = cursor;
+        this.getResolver = getResolver;
+        chunk = getResolver.relatedTables().isEmpty() ? null : new ArrayList<T>(RELATIONS_CHUNK_SIZE);
+    }
+
+    @WorkerThread
+    @Override
+    public boolean hasNext() {
+        return chunk != null && chunkPosition < chunk.size() || hasNextRow();
+    }
+
+    private boolean hasNextRow() {
+        if (closed) {
+            return false;
+        }
+
+        if (!movedToNext) {
+            hasNext = cursor.moveToNext();
+            movedToNext = true;
+
+            if (!hasNext) {
+                // Objects of last chunk are still returned
+                closeCursor();
+            }
+        }
+
+        return hasNext;
+    }
+
+    @WorkerThread
+    @NonNull
+    @Override
+    public T next() {
+        if (chunk != null && chunkPosition < chunk.size()) {
+            return chunk.get(chunkPosition++);
+        }
+
+        if (!hasNextRow()) {
+            throw new NoSuchElementException("There are no more rows in cursor");
+        }
+
+        try {
+            if (chunk == null) {
+                return mapRow();
+            }
+
+            chunk.clear();
+            chunkPosition = 0;
+
+            do {
+                chunk.add(mapRow());
+            } while (chunk.size() < RELATIONS_CHUNK_SIZE && hasNextRow());
+
+            getResolver.loadRelations(storIOSQLite, chunk);
+            return chunk.get(chunkPosition++);
+        } catch (Exception exception) {
+            close();
+            throw new StorIOException("Error has occurred during mapping of row of cursor", exception);
+        }
+    }
+
+    @NonNull
+    private T mapRow() {
+        movedToNext = false;
+
+        if (!columnIndicesLookedUp) {
+            columnIndices = getResolver.columnIndices(cursor);
+            columnIndicesLookedUp = true;
+        }
+
+        return columnIndices != null
+                ? getResolver.mapFromCursor(cursor, columnIndices)
+                : getResolver.mapFromCursor(cursor);
+    }
+
+    /**
+     * Not supported, rows can be deleted only by Delete Operation.
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove() is not supported");
+    }
+
+    /**
+     * Closes {@link Cursor}, no more objects will be returned after that.
+     */
+    @Override
+    public void close() {
+        if (chunk != null) {
+            chunk.clear();
+        }
+
+        closeCursor();
+    }
+
+    private void closeCursor() {
+        if (!closed) {
+            closed = true;
+            cursor.close();
+        }
+    }
+
+    /**
+     * @return {@code true} if {@link Cursor} was closed, {@code false} otherwise.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+}
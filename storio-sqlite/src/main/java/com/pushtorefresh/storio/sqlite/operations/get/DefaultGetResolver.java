@@ -2,6 +2,7 @@ package com.pushtorefresh.storio.sqlite.operations.get;
 
 import android.database.Cursor;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.Query;
@@ -16,6 +17,45 @@ import com.pushtorefresh.storio.sqlite.queries.RawQuery;
  */
 public abstract class DefaultGetResolver<T> extends GetResolver<T> {
 
+    /**
+     * Returns table of objects, together with {@link #keyColumn()} it allows
+     * Get Operation by keys, see {@link PreparedGetListOfObjects.Builder#withKeys(java.util.Collection)}.
+     * <p>
+     * Default implementation returns {@code null}.
+     *
+     * @return table or {@code null} if it's unknown.
+     */
+    @Nullable
+    protected String table() {
+        return null;
+    }
+
+    /**
+     * Returns name of the column which value identifies object in {@link #table()},
+     * for example primary key.
+     * <p>
+     * Default implementation returns {@code null}.
+     *
+     * @return name of the key column or {@code null} if it's unknown.
+     */
+    @Nullable
+    protected String keyColumn() {
+        return null;
+    }
+
+    /**
+     * Returns columns which are read by {@link #mapFromCursor(Cursor)}, Get Operations that build
+     * queries themselves, for example by keys, select only them instead of all columns.
+     * <p>
+     * Default implementation returns {@code null}, which means all columns.
+     *
+     * @return columns or {@code null} if they are unknown.
+     */
+    @Nullable
+    protected String[] projection() {
+        return null;
+    }
+
     /**
      * {@inheritDoc}
      */
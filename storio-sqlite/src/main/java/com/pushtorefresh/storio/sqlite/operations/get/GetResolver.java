@@ -2,11 +2,17 @@ package com.pushtorefresh.storio.sqlite.operations.get;
 
 import android.database.Cursor;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
 
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Defines behavior of Get Operation.
  * <p>
@@ -24,6 +30,36 @@ public abstract class GetResolver<T> {
     @NonNull
     public abstract T mapFromCursor(@NonNull Cursor cursor);
 
+    /**
+     * Looks up indices of columns read by {@link #mapFromCursor(Cursor, int[])},
+     * Get Operations call it once per {@link Cursor} instead of looking columns up for each row.
+     * <p>
+     * Default implementation returns {@code null}, so rows are mapped by {@link #mapFromCursor(Cursor)}.
+     *
+     * @param cursor not closed {@link Cursor} that will be mapped.
+     * @return indices of columns or {@code null} if resolver does not map rows by indices.
+     */
+    @Nullable
+    public int[] columnIndices(@NonNull Cursor cursor) {
+        return null;
+    }
+
+    /**
+     * Same as {@link #mapFromCursor(Cursor)}, but with indices of columns
+     * returned by {@link #columnIndices(Cursor)} for the same {@link Cursor}.
+     * <p>
+     * Default implementation calls {@link #mapFromCursor(Cursor)}.
+     *
+     * @param cursor        not closed {@link Cursor} with already set position
+     *                      that should be parsed and converted to object of required type.
+     * @param columnIndices non-null indices of columns of passed {@link Cursor}.
+     * @return non-null object of required type with data parsed from passed {@link Cursor}.
+     */
+    @NonNull
+    public T mapFromCursor(@NonNull Cursor cursor, @NonNull int[] columnIndices) {
+        return mapFromCursor(cursor);
+    }
+
     /**
      * Performs get of results with passed query.
      *
@@ -45,4 +81,34 @@ public abstract class GetResolver<T> {
      */
     @NonNull
     public abstract Cursor performGet(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query);
+
+    /**
+     * Loads objects related to results of Get Operation and sets them to results.
+     * <p>
+     * It's called once per Get Operation of objects with all its results after the cursor was closed,
+     * so related objects can be loaded with one query per relation instead of one query per result,
+     * see {@link RelatedObjects}. Pages and streams of objects call it once per page and per chunk of rows.
+     * <p>
+     * Default implementation does nothing.
+     *
+     * @param storIOSQLite {@link StorIOSQLite} instance to perform get from.
+     * @param objects      non-null, non-empty list of results of Get Operation.
+     */
+    @WorkerThread
+    public void loadRelations(@NonNull StorIOSQLite storIOSQLite, @NonNull List<T> objects) {
+        // no impl
+    }
+
+    /**
+     * Returns tables of objects loaded by {@link #loadRelations(StorIOSQLite, List)},
+     * Get Operations observe them together with tables of the query.
+     * <p>
+     * Default implementation returns empty set.
+     *
+     * @return non-null, immutable set of tables.
+     */
+    @NonNull
+    public Set<String> relatedTables() {
+        return Collections.emptySet();
+    }
 }
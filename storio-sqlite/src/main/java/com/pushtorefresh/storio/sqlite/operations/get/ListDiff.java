@@ -0,0 +1,460 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Immutable container of new list and its difference from previous list.
+ * <p>
+ * Elements of lists are matched by keys, see {@link KeyExtractor}.
+ * Positions of removals and sources of moves refer to previous list,
+ * positions of insertions, changes and targets of moves refer to new list.
+ * <p>
+ * Elements that are equal to elements of previous list with same keys are
+ * taken from previous list, so please implement {@code equals()} of elements.
+ *
+ * @param <T> type of elements.
+ */
+public final class ListDiff<T> {
+
+    /**
+     * Extracts keys of elements, for example, values of primary key columns.
+     *
+     * @param <T> type of elements.
+     */
+    public interface KeyExtractor<T> {
+
+        /**
+         * Gets key of the element.
+         *
+         * @param element non-null element.
+         * @return non-null key that implements {@code equals()} and {@code hashCode()}.
+         */
+        @NonNull
+        Object keyOf(@NonNull T element);
+    }
+
+    @NonNull
+    private final List<T> list;
+
+    @NonNull
+    private final List<Range> insertedRanges;
+
+    @NonNull
+    private final List<Range> removedRanges;
+
+    @NonNull
+    private final List<Range> changedRanges;
+
+    @NonNull
+    private final List<Move> moves;
+
+    private ListDiff(
+            @NonNull List<T> list,
+            @NonNull List<Range> insertedRanges,
+            @NonNull List<Range> removedRanges,
+            @NonNull List<Range> changedRanges,
+            @NonNull List<Move> moves
+    ) {
+        this.list = list;
+        this.insertedRanges = unmodifiableList(insertedRanges);
+        this.removedRanges = unmodifiableList(removedRanges);
+        this.changedRanges = unmodifiableList(changedRanges);
+        this.moves = unmodifiableList(moves);
+    }
+
+    /**
+     * Calculates difference between two lists.
+     * <p>
+     * If keys of one of the lists are not unique, all elements of previous list
+     * are treated as removed and all elements of new list as inserted.
+     *
+     * @param previousList non-null previous list of non-null elements.
+     * @param newList      non-null new list of non-null elements.
+     * @param keyExtractor non-null extractor of keys of elements.
+     * @param <T>          type of elements.
+     * @return non-null, immutable {@link ListDiff}.
+     */
+    @NonNull
+    public static <T> ListDiff<T> calculate(
+            @NonNull List<T> previousList,
+            @NonNull List<T> newList,
+            @NonNull KeyExtractor<T> keyExtractor
+    ) {
+        checkNotNull(previousList, "Please specify previous list");
+        checkNotNull(newList, "Please specify new list");
+        checkNotNull(keyExtractor, "Please specify key extractor");
+
+        final int previousSize = previousList.size();
+        final int newSize = newList.size();
+
+        final Map<Object, Integer> previousPositions = new HashMap<Object, Integer>(previousSize * 2);
+
+        for (int i = 0; i < previousSize; i++) {
+            if (previousPositions.put(keyExtractor.keyOf(previousList.get(i)), i) != null) {
+                return reload(previousSize, newList);
+            }
+        }
+
+        final Set<Object> newKeys = new HashSet<Object>(newSize * 2);
+        final List<T> list = new ArrayList<T>(newSize);
+        final int[] previousPositionsOfNewElements = new int[newSize];
+        final boolean[] kept = new boolean[previousSize];
+        final boolean[] inserted = new boolean[newSize];
+        final boolean[] changed = new boolean[newSize];
+
+        for (int i = 0; i < newSize; i++) {
+            final T element = newList.get(i);
+            final Object key = keyExtractor.keyOf(element);
+
+            if (!newKeys.add(key)) {
+                return reload(previousSize, newList);
+            }
+
+            final Integer previousPosition = previousPositions.get(key);
+
+            if (previousPosition == null) {
+                previousPositionsOfNewElements[i] = -1;
+                inserted[i] = true;
+                list.add(element);
+            } else {
+                previousPositionsOfNewElements[i] = previousPosition;
+                kept[previousPosition] = true;
+
+                final T previousElement = previousList.get(previousPosition);
+
+                if (previousElement.equals(element)) {
+                    // Reuse instance, so observers can compare elements by reference
+                    list.add(previousElement);
+                } else {
+                    changed[i] = true;
+                    list.add(element);
+                }
+            }
+        }
+
+        final List<Range> removedRanges = new ArrayList<Range>();
+        addRanges(kept, false, removedRanges);
+
+        final List<Range> insertedRanges = new ArrayList<Range>();
+        addRanges(inserted, true, insertedRanges);
+
+        final List<Range> changedRanges = new ArrayList<Range>();
+        addRanges(changed, true, changedRanges);
+
+        final List<Move> moves = moves(previousPositionsOfNewElements);
+
+        if (removedRanges.isEmpty() && insertedRanges.isEmpty() && changedRanges.isEmpty() && moves.isEmpty()) {
+            // Nothing changed, reuse previous list
+            return new ListDiff<T>(previousList, insertedRanges, removedRanges, changedRanges, moves);
+        }
+
+        return new ListDiff<T>(unmodifiableList(list), insertedRanges, removedRanges, changedRanges, moves);
+    }
+
+    @NonNull
+    private static <T> ListDiff<T> reload(int previousSize, @NonNull List<T> newList) {
+        final List<Range> removedRanges = previousSize == 0
+                ? Collections.<Range>emptyList()
+                : Collections.singletonList(new Range(0, previousSize));
+
+        final List<Range> insertedRanges = newList.isEmpty()
+                ? Collections.<Range>emptyList()
+                : Collections.singletonList(new Range(0, newList.size()));
+
+        return new ListDiff<T>(
+                newList,
+                insertedRanges,
+                removedRanges,
+                Collections.<Range>emptyList(),
+                Collections.<Move>emptyList()
+        );
+    }
+
+    private static void addRanges(@NonNull boolean[] flags, boolean value, @NonNull List<Range> ranges) {
+        int start = -1;
+
+        for (int i = 0; i <= flags.length; i++) {
+            final boolean inRange = i < flags.length && flags[i] == value;
+
+            if (inRange && start == -1) {
+                start = i;
+            } else if (!inRange && start != -1) {
+                ranges.add(new Range(start, i - start));
+                start = -1;
+            }
+        }
+    }
+
+    /**
+     * Elements that keep relative order form longest increasing subsequence of their previous positions,
+     * all other kept elements were moved.
+     */
+    @NonNull
+    private static List<Move> moves(@NonNull int[] previousPositionsOfNewElements) {
+        final int size = previousPositionsOfNewElements.length;
+
+        // Positions in new list of last elements of increasing subsequences of each length
+        final int[] tails = new int[size];
+        final int[] predecessors = new int[size];
+        int length = 0;
+
+        for (int i = 0; i < size; i++) {
+            final int previousPosition = previousPositionsOfNewElements[i];
+
+            if (previousPosition == -1) {
+                continue;
+            }
+
+            int low = 0;
+            int high = length;
+
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+
+                if (previousPositionsOfNewElements[tails[middle]] < previousPosition) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+
+            predecessors[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+
+            if (low == length) {
+                length++;
+            }
+        }
+
+        final boolean[] notMoved = new boolean[size];
+
+        for (int i = length > 0 ? tails[length - 1] : -1; i != -1; i = predecessors[i]) {
+            notMoved[i] = true;
+        }
+
+        final List<Move> moves = new ArrayList<Move>();
+
+        for (int i = 0; i < size; i++) {
+            if (previousPositionsOfNewElements[i] != -1 && !notMoved[i]) {
+                moves.add(new Move(previousPositionsOfNewElements[i], i));
+            }
+        }
+
+        return moves;
+    }
+
+    /**
+     * Gets new list.
+     *
+     * @return non-null, immutable new list, it's previous list if nothing changed.
+     */
+    @NonNull
+    public List<T> list() {
+        return list;
+    }
+
+    /**
+     * Gets ranges of inserted elements.
+     *
+     * @return non-null, immutable list of ranges of new list in ascending order.
+     */
+    @NonNull
+    public List<Range> insertedRanges() {
+        return insertedRanges;
+    }
+
+    /**
+     * Gets ranges of removed elements.
+     *
+     * @return non-null, immutable list of ranges of previous list in ascending order.
+     */
+    @NonNull
+    public List<Range> removedRanges() {
+        return removedRanges;
+    }
+
+    /**
+     * Gets ranges of elements that have same keys as elements of previous list, but are not equal to them.
+     *
+     * @return non-null, immutable list of ranges of new list in ascending order.
+     */
+    @NonNull
+    public List<Range> changedRanges() {
+        return changedRanges;
+    }
+
+    /**
+     * Gets moves of elements.
+     *
+     * @return non-null, immutable list of moves in ascending order of positions in new list.
+     */
+    @NonNull
+    public List<Move> moves() {
+        return moves;
+    }
+
+    /**
+     * Checks whether new list differs from previous list.
+     *
+     * @return {@code true} if something was inserted, removed, changed or moved, {@code false} otherwise.
+     */
+    public boolean hasChanges() {
+        return !insertedRanges.isEmpty() || !removedRanges.isEmpty() || !changedRanges.isEmpty() || !moves.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ListDiff<?> listDiff = (ListDiff<?>) o;
+
+        if (!list.equals(listDiff.list)) return false;
+        if (!insertedRanges.equals(listDiff.insertedRanges)) return false;
+        if (!removedRanges.equals(listDiff.removedRanges)) return false;
+        if (!changedRanges.equals(listDiff.changedRanges)) return false;
+        return moves.equals(listDiff.moves);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = list.hashCode();
+        result = 31 * result + insertedRanges.hashCode();
+        result = 31 * result + removedRanges.hashCode();
+        result = 31 * result + changedRanges.hashCode();
+        result = 31 * result + moves.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ListDiff{" +
+                "list=" + list +
+                ", insertedRanges=" + insertedRanges +
+                ", removedRanges=" + removedRanges +
+                ", changedRanges=" + changedRanges +
+                ", moves=" + moves +
+                '}';
+    }
+
+    /**
+     * Range of positions of elements.
+     */
+    public static final class Range {
+
+        private final int position;
+
+        private final int count;
+
+        public Range(int position, int count) {
+            this.position = position;
+            this.count = count;
+        }
+
+        /**
+         * @return position of first element of the range.
+         */
+        public int position() {
+            return position;
+        }
+
+        /**
+         * @return number of elements in the range.
+         */
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Range range = (Range) o;
+
+            if (position != range.position) return false;
+            return count == range.count;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = position;
+            result = 31 * result + count;
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Range{" +
+                    "position=" + position +
+                    ", count=" + count +
+                    '}';
+        }
+    }
+
+    /**
+     * Move of one element.
+     */
+    public static final class Move {
+
+        private final int fromPosition;
+
+        private final int toPosition;
+
+        public Move(int fromPosition, int toPosition) {
+            this.fromPosition = fromPosition;
+            this.toPosition = toPosition;
+        }
+
+        /**
+         * @return position of the element in previous list.
+         */
+        public int fromPosition() {
+            return fromPosition;
+        }
+
+        /**
+         * @return position of the element in new list.
+         */
+        public int toPosition() {
+            return toPosition;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Move move = (Move) o;
+
+            if (fromPosition != move.fromPosition) return false;
+            return toPosition == move.toPosition;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = fromPosition;
+            result = 31 * result + toPosition;
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Move{" +
+                    "fromPosition=" + fromPosition +
+                    ", toPosition=" + toPosition +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.exceptions.Exceptions;
+import rx.functions.Action0;
+import rx.subscriptions.CompositeSubscription;
+
+/**
+ * Required to avoid problems with ClassLoader when RxJava is not in ClassPath
+ * We can not use anonymous classes from RxJava directly in StorIO, ClassLoader won't be happy :(
+ * <p>
+ * Loads first page of {@link PreparedGetPagesOfObjects} after subscription, next page after each
+ * emission of requests and reloads loaded pages after changes of the table.
+ * <p>
+ * Pages are loaded on worker of {@link StorIOSQLite#defaultScheduler()} if it's not {@code null},
+ * otherwise on the thread that subscribed, requested next page or changed the table.
+ * <p>
+ * For internal usage only!
+ */
+final class OnSubscribePages<T> implements Observable.OnSubscribe<Pages<T>> {
+
+    @NonNull
+    private final PreparedGetPagesOfObjects<T> preparedOperation;
+
+    @NonNull
+    private final StorIOSQLite storIOSQLite;
+
+    @NonNull
+    private final Observable<?> nextPageRequests;
+
+    private final boolean prefetch;
+
+    OnSubscribePages(@NonNull PreparedGetPagesOfObjects<T> preparedOperation,
+                     @NonNull StorIOSQLite storIOSQLite,
+                     @NonNull Observable<?> nextPageRequests,
+                     boolean prefetch) {
+        this.preparedOperation = preparedOperation;
+        this.storIOSQLite = storIOSQLite;
+        this.nextPageRequests = nextPageRequests;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void call(Subscriber<? super Pages<T>> child) {
+        final Scheduler scheduler = storIOSQLite.defaultScheduler();
+
+        final PagesLoader<T> loader = new PagesLoader<T>(
+                preparedOperation,
+                child,
+                scheduler != null ? scheduler.createWorker() : null,
+                prefetch
+        );
+
+        child.add(loader.subscriptions);
+
+        loader.subscriptions.add(storIOSQLite
+                .observeChangesInTables(preparedOperation.tables())
+                .subscribe(new SignalSubscriber(loader, loader.reload)));
+
+        loader.subscriptions.add(nextPageRequests
+                .subscribe(new SignalSubscriber(loader, loader.nextPage)));
+
+        loader.drain();
+    }
+
+    static final class PagesLoader<T> implements Action0 {
+
+        @NonNull
+        private final PreparedGetPagesOfObjects<T> preparedOperation;
+
+        @NonNull
+        private final Subscriber<? super Pages<T>> child;
+
+        @Nullable
+        private final Scheduler.Worker worker;
+
+        private final boolean prefetch;
+
+        @NonNull
+        final CompositeSubscription subscriptions = new CompositeSubscription();
+
+        @NonNull
+        final AtomicBoolean reload = new AtomicBoolean();
+
+        @NonNull
+        final AtomicBoolean nextPage = new AtomicBoolean();
+
+        @NonNull
+        private final AtomicInteger wip = new AtomicInteger();
+
+        @Nullable
+        volatile Throwable error;
+
+        /**
+         * Accessed only in drain loop.
+         */
+        @Nullable
+        private List<Page<T>> pages;
+
+        /**
+         * Accessed only in drain loop.
+         */
+        @Nullable
+        private Page<T> prefetchedPage;
+
+        PagesLoader(@NonNull PreparedGetPagesOfObjects<T> preparedOperation,
+                    @NonNull Subscriber<? super Pages<T>> child,
+                    @Nullable Scheduler.Worker worker,
+                    boolean prefetch) {
+            this.preparedOperation = preparedOperation;
+            this.child = child;
+            this.worker = worker;
+            this.prefetch = prefetch;
+
+            if (worker != null) {
+                subscriptions.add(worker);
+            }
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() == 0) {
+                if (worker != null) {
+                    worker.schedule(this);
+                } else {
+                    call();
+                }
+            }
+        }
+
+        @Override
+        public void call() {
+            int missed = 1;
+
+            for (; ; ) {
+                if (child.isUnsubscribed()) {
+                    return;
+                }
+
+                final Throwable error = this.error;
+
+                if (error != null) {
+                    subscriptions.unsubscribe();
+                    child.onError(error);
+                    return;
+                }
+
+                try {
+                    loadPages();
+                } catch (Throwable t) {
+                    subscriptions.unsubscribe();
+                    Exceptions.throwOrReport(t, child);
+                    return;
+                }
+
+                missed = wip.addAndGet(-missed);
+
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void loadPages() {
+            List<Page<T>> pages = this.pages;
+            boolean changed = false;
+
+            if (pages == null) {
+                // First page will see all changes made before it
+                reload.set(false);
+                pages = new ArrayList<Page<T>>();
+                pages.add(preparedOperation.loadPage(null, null));
+                this.pages = pages;
+                changed = true;
+            } else if (reload.getAndSet(false)) {
+                // Each page keeps its range of keys, only last page can grow or shrink
+                final List<Page<T>> reloadedPages = new ArrayList<Page<T>>(pages.size());
+
+                for (int i = 0, size = pages.size(); i < size; i++) {
+                    final Page<T> page = pages.get(i);
+                    final boolean lastPage = i == size - 1;
+                    reloadedPages.add(preparedOperation.loadPage(page.afterKey(), lastPage ? null : page.lastKey()));
+                }
+
+                pages = reloadedPages;
+                this.pages = pages;
+                prefetchedPage = null;
+                changed = true;
+            }
+
+            if (nextPage.getAndSet(false)) {
+                final Page<T> lastPage = pages.get(pages.size() - 1);
+
+                if (lastPage.hasNextPage()) {
+                    pages.add(prefetchedPage != null
+                            ? prefetchedPage
+                            : preparedOperation.loadPage(lastPage.lastKey(), null));
+                    prefetchedPage = null;
+                    changed = true;
+                }
+            }
+
+            if (changed) {
+                child.onNext(new Pages<T>(pages));
+            }
+
+            final Page<T> lastPage = pages.get(pages.size() - 1);
+
+            if (prefetch && prefetchedPage == null && lastPage.hasNextPage() && !child.isUnsubscribed()) {
+                prefetchedPage = preparedOperation.loadPage(lastPage.lastKey(), null);
+            }
+        }
+    }
+
+    /**
+     * Sets flag and drains loader on each emission.
+     */
+    static final class SignalSubscriber extends Subscriber<Object> {
+
+        @NonNull
+        private final PagesLoader<?> loader;
+
+        @NonNull
+        private final AtomicBoolean flag;
+
+        SignalSubscriber(@NonNull PagesLoader<?> loader, @NonNull AtomicBoolean flag) {
+            this.loader = loader;
+            this.flag = flag;
+        }
+
+        @Override
+        public void onNext(Object signal) {
+            flag.set(true);
+            loader.drain();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            loader.error = e;
+            loader.drain();
+        }
+
+        @Override
+        public void onCompleted() {
+            // no impl, loaded pages stay observed
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Immutable page of objects loaded by {@link PreparedGetPagesOfObjects}.
+ * <p>
+ * Page contains objects with values of key column in range ({@link #afterKey()}, {@link #lastKey()}],
+ * next page starts after {@link #lastKey()}.
+ *
+ * @param <T> type of objects.
+ */
+public final class Page<T> {
+
+    @NonNull
+    private final List<T> items;
+
+    @Nullable
+    private final String afterKey;
+
+    @Nullable
+    private final String lastKey;
+
+    private final boolean hasNextPage;
+
+    Page(@NonNull List<T> items, @Nullable String afterKey, @Nullable String lastKey, boolean hasNextPage) {
+        this.items = unmodifiableList(items);
+        this.afterKey = afterKey;
+        this.lastKey = lastKey;
+        this.hasNextPage = hasNextPage;
+    }
+
+    /**
+     * @return non-null, immutable list of objects of the page, ordered by key column.
+     */
+    @NonNull
+    public List<T> items() {
+        return items;
+    }
+
+    /**
+     * @return value of key column after which page starts or {@code null} for first page.
+     */
+    @Nullable
+    public String afterKey() {
+        return afterKey;
+    }
+
+    /**
+     * @return value of key column of last object of the page or {@code null} if page is empty.
+     */
+    @Nullable
+    public String lastKey() {
+        return lastKey;
+    }
+
+    /**
+     * @return {@code true} if there are objects after this page, {@code false} otherwise.
+     */
+    public boolean hasNextPage() {
+        return hasNextPage;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Page<?> page = (Page<?>) o;
+
+        if (hasNextPage != page.hasNextPage) return false;
+        if (!items.equals(page.items)) return false;
+        if (afterKey != null ? !afterKey.equals(page.afterKey) : page.afterKey != null) return false;
+        return lastKey != null ? lastKey.equals(page.lastKey) : page.lastKey == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = items.hashCode();
+        result = 31 * result + (afterKey != null ? afterKey.hashCode() : 0);
+        result = 31 * result + (lastKey != null ? lastKey.hashCode() : 0);
+        result = 31 * result + (hasNextPage ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "items=" + items +
+                ", afterKey='" + afterKey + '\'' +
+                ", lastKey='" + lastKey + '\'' +
+                ", hasNextPage=" + hasNextPage +
+                '}';
+    }
+}
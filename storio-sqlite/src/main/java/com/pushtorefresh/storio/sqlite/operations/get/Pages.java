@@ -0,0 +1,85 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Immutable snapshot of pages loaded by {@link PreparedGetPagesOfObjects#asRxObservable(rx.Observable)}.
+ *
+ * @param <T> type of objects.
+ */
+public final class Pages<T> {
+
+    @NonNull
+    private final List<Page<T>> pages;
+
+    @NonNull
+    private final List<T> items;
+
+    Pages(@NonNull List<Page<T>> pages) {
+        this.pages = unmodifiableList(new ArrayList<Page<T>>(pages));
+
+        int numberOfItems = 0;
+
+        for (Page<T> page : pages) {
+            numberOfItems += page.items().size();
+        }
+
+        final List<T> items = new ArrayList<T>(numberOfItems);
+
+        for (Page<T> page : pages) {
+            items.addAll(page.items());
+        }
+
+        this.items = unmodifiableList(items);
+    }
+
+    /**
+     * @return non-null, immutable list of loaded pages in order of key column.
+     */
+    @NonNull
+    public List<Page<T>> pages() {
+        return pages;
+    }
+
+    /**
+     * @return non-null, immutable list of objects of all loaded pages in order of key column.
+     */
+    @NonNull
+    public List<T> items() {
+        return items;
+    }
+
+    /**
+     * @return {@code true} if there are objects after loaded pages, {@code false} otherwise.
+     */
+    public boolean hasNextPage() {
+        return !pages.isEmpty() && pages.get(pages.size() - 1).hasNextPage();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Pages<?> that = (Pages<?>) o;
+
+        return pages.equals(that.pages);
+    }
+
+    @Override
+    public int hashCode() {
+        return pages.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "Pages{" +
+                "pages=" + pages +
+                '}';
+    }
+}
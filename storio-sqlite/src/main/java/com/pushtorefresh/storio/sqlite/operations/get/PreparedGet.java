@@ -8,6 +8,10 @@ import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Prepared Get Operation for {@link StorIOSQLite}.
  *
@@ -36,6 +40,45 @@ public abstract class PreparedGet<Result> implements PreparedOperation<Result> {
         query = null;
     }
 
+    /**
+     * For operations that build their queries themselves, they should override {@link #tablesOfQuery()}.
+     */
+    PreparedGet(@NonNull StorIOSQLite storIOSQLite) {
+        this.storIOSQLite = storIOSQLite;
+        query = null;
+        rawQuery = null;
+    }
+
+    /**
+     * Tables of the query, their changes affect result of the operation.
+     */
+    @NonNull
+    Set<String> tablesOfQuery() {
+        if (query != null) {
+            return Collections.singleton(query.table());
+        } else if (rawQuery != null) {
+            return rawQuery.observesTables();
+        } else {
+            throw new IllegalStateException("Please specify query");
+        }
+    }
+
+    /**
+     * Tables of the query together with tables of objects related to results, see {@link GetResolver#relatedTables()}.
+     */
+    @NonNull
+    static Set<String> withRelatedTables(@NonNull Set<String> tables, @Nullable GetResolver<?> getResolver) {
+        final Set<String> relatedTables = getResolver != null ? getResolver.relatedTables() : Collections.<String>emptySet();
+
+        if (relatedTables.isEmpty()) {
+            return tables;
+        }
+
+        final Set<String> allTables = new HashSet<String>(tables);
+        allTables.addAll(relatedTables);
+        return Collections.unmodifiableSet(allTables);
+    }
+
     /**
      * Builder for {@link PreparedGet}.
      */
@@ -70,6 +113,32 @@ public abstract class PreparedGet<Result> implements PreparedOperation<Result> {
             return new PreparedGetListOfObjects.Builder<T>(storIOSQLite, type);
         }
 
+        /**
+         * Returns builder for Get Operation that maps rows to objects lazily
+         * instead of reading them all into {@link java.util.List}.
+         *
+         * @param type type of objects.
+         * @param <T>  type of objects.
+         * @return builder for Get Operation that returns result as stream of objects.
+         */
+        @NonNull
+        public <T> PreparedGetStreamOfObjects.Builder<T> streamOfObjects(@NonNull Class<T> type) {
+            return new PreparedGetStreamOfObjects.Builder<T>(storIOSQLite, type);
+        }
+
+        /**
+         * Returns builder for Get Operation that loads objects page by page,
+         * pages are selected by values of key column instead of {@code OFFSET}.
+         *
+         * @param type type of objects.
+         * @param <T>  type of objects.
+         * @return builder for Get Operation that returns result as pages of objects.
+         */
+        @NonNull
+        public <T> PreparedGetPagesOfObjects.Builder<T> pagesOfObjects(@NonNull Class<T> type) {
+            return new PreparedGetPagesOfObjects.Builder<T>(storIOSQLite, type);
+        }
+
         /**
          * Returns builder for Get Operation that returns result as item instance.
          *
@@ -91,5 +160,26 @@ public abstract class PreparedGet<Result> implements PreparedOperation<Result> {
         public PreparedGetNumberOfResults.Builder numberOfResults() {
             return new PreparedGetNumberOfResults.Builder(storIOSQLite);
         }
+
+        /**
+         * Returns builder for Get Operation that computes aggregate function
+         * of column in SQLite, for example {@code SUM} or {@code MAX}.
+         *
+         * @return builder for Get Operation that returns result of aggregate function.
+         */
+        @NonNull
+        public PreparedGetAggregate.Builder aggregate() {
+            return new PreparedGetAggregate.Builder(storIOSQLite);
+        }
+
+        /**
+         * Returns builder for Get Operation that checks whether query selects at least one row.
+         *
+         * @return builder for Get Operation that returns whether rows exist.
+         */
+        @NonNull
+        public PreparedGetExists.Builder exists() {
+            return new PreparedGetExists.Builder(storIOSQLite);
+        }
     }
 }
@@ -0,0 +1,336 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import rx.Observable;
+import rx.Single;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotEmpty;
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJavaIsNotAvailable;
+
+/**
+ * Prepared Get Operation for {@link StorIOSQLite} that computes aggregate function
+ * ({@code SUM}, {@code MIN}, {@code MAX}, {@code AVG}) of column over rows of the query.
+ * <p>
+ * Aggregate is computed fully in SQLite, rows are not read into {@link Cursor}.
+ * Result is {@code null} if the query does not select any rows.
+ */
+public class PreparedGetAggregate extends PreparedGet<Double> {
+
+    /**
+     * {@code SELECT expression FROM ...} statement that is executed instead of the query.
+     */
+    @NonNull
+    private final RawQuery aggregateQuery;
+
+    /**
+     * {@code SELECT COALESCE(expression, ?) FROM ...} statement, default value is bound,
+     * so compiled statement is the same for any default value.
+     */
+    @NonNull
+    private final String coalescingSql;
+
+    PreparedGetAggregate(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query, @NonNull String expression) {
+        super(storIOSQLite, query);
+        aggregateQuery = RawQuery.builder()
+                .query(SelectStatements.selectFromQuery(expression, query))
+                .args(query.whereArgs().toArray())
+                .build();
+        coalescingSql = SelectStatements.selectFromQuery("COALESCE(" + expression + ", ?)", query);
+    }
+
+    /**
+     * Executes Get Operation immediately in current thread.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread,
+     * it can cause ANR (Activity Not Responding dialog), block the UI and drop animations frames.
+     * So please, call this method on some background thread. See {@link WorkerThread}.
+     * <p>
+     * Integer values beyond 2^53 lose precision as {@link Double},
+     * please use {@link #executeAsBlockingAsLong(long)} for them.
+     *
+     * @return nullable result of aggregate function, {@code null} if query does not select any rows.
+     */
+    @WorkerThread
+    @Nullable
+    @Override
+    public Double executeAsBlocking() {
+        // SQLite stores NaN as NULL, so aggregate function never returns it
+        final double result = aggregate(Double.NaN);
+        return Double.isNaN(result) ? null : result;
+    }
+
+    /**
+     * Same as {@link #executeAsBlocking()}, but returns primitive.
+     *
+     * @param defaultValue value that is returned if query does not select any rows.
+     * @return result of aggregate function or {@code defaultValue}.
+     */
+    @WorkerThread
+    public double executeAsBlockingAsDouble(double defaultValue) {
+        return aggregate(defaultValue);
+    }
+
+    /**
+     * Same as {@link #executeAsBlocking()}, but returns primitive {@code long}
+     * computed without {@link Cursor}, fractional part of result is discarded.
+     *
+     * @param defaultValue value that is returned if query does not select any rows.
+     * @return result of aggregate function or {@code defaultValue}.
+     */
+    @WorkerThread
+    public long executeAsBlockingAsLong(long defaultValue) {
+        final List<Object> args = new ArrayList<Object>(aggregateQuery.args().size() + 1);
+        args.add(defaultValue);
+        args.addAll(aggregateQuery.args());
+
+        try {
+            return storIOSQLite.lowLevel().simpleQueryForLong(RawQuery.builder()
+                    .query(coalescingSql)
+                    .args(args.toArray())
+                    .build());
+        } catch (Exception exception) {
+            throw new StorIOException("Error has occurred during Get operation. query = " + query, exception);
+        }
+    }
+
+    /**
+     * @return result of aggregate function or {@code defaultValue} if query does not select any rows.
+     */
+    private double aggregate(double defaultValue) {
+        try {
+            final Cursor cursor = storIOSQLite.lowLevel().rawQuery(aggregateQuery);
+
+            try {
+                if (cursor.moveToFirst() && !cursor.isNull(0)) {
+                    return cursor.getDouble(0);
+                } else {
+                    return defaultValue;
+                }
+            } finally {
+                cursor.close();
+            }
+        } catch (Exception exception) {
+            throw new StorIOException("Error has occurred during Get operation. query = " + query, exception);
+        }
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which will be subscribed to changes of table from query
+     * and will emit result each time change occurs.
+     * <p>
+     * First result will be emitted immediately after subscription,
+     * other emissions will occur only if changes of table from query will occur during lifetime of
+     * the {@link Observable}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link StorIOSQLite#defaultScheduler()} if not {@code null}.</dd>
+     * </dl>
+     * <p>
+     * Please don't forget to unsubscribe from this {@link Observable} because
+     * it's "Hot" and endless.
+     *
+     * @return non-null {@link Observable} which will emit nullable
+     * result of aggregate function and will be subscribed to changes of table from query.
+     * @deprecated (will be removed in 2.0) please use {@link #asRxObservable()}.
+     */
+    @NonNull
+    @Override
+    public Observable<Double> createObservable() {
+        return asRxObservable();
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which will be subscribed to changes of table from query
+     * and will emit result each time change occurs.
+     * <p>
+     * First result will be emitted immediately after subscription,
+     * other emissions will occur only if changes of table from query will occur during lifetime of
+     * the {@link Observable}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link StorIOSQLite#defaultScheduler()} if not {@code null}.</dd>
+     * </dl>
+     * <p>
+     * Please don't forget to unsubscribe from this {@link Observable} because
+     * it's "Hot" and endless.
+     * <p>
+     * Equal Get Operations of one {@link StorIOSQLite} share one subscription to changes
+     * and one execution of query per change, new subscribers receive latest result immediately.
+     *
+     * @return non-null {@link Observable} which will emit nullable
+     * result of aggregate function and will be subscribed to changes of table from query.
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<Double> asRxObservable() {
+        throwExceptionIfRxJavaIsNotAvailable("asRxObservable()");
+
+        //noinspection ConstantConditions
+        return RxJavaUtils.createSharedGetObservable(
+                storIOSQLite,
+                this,
+                query,
+                Arrays.<Object>asList(PreparedGetAggregate.class, aggregateQuery)
+        );
+    }
+
+    /**
+     * Creates {@link Single} which will compute aggregate lazily when somebody subscribes to it and send result to observer.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link StorIOSQLite#defaultScheduler()} if not {@code null}.</dd>
+     * </dl>
+     *
+     * @return non-null {@link Single} which will compute aggregate and send nullable result to observer.
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Single<Double> asRxSingle() {
+        return RxJavaUtils.createSingle(storIOSQLite, this);
+    }
+
+    /**
+     * Builder for {@link PreparedGetAggregate}.
+     */
+    public static class Builder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        Builder(@NonNull StorIOSQLite storIOSQLite) {
+            this.storIOSQLite = storIOSQLite;
+        }
+
+        /**
+         * Computes {@code SUM(column)}.
+         *
+         * @param column non-null, non-empty column or expression.
+         * @return builder.
+         */
+        @NonNull
+        public QueryBuilder sum(@NonNull String column) {
+            return function("SUM", column);
+        }
+
+        /**
+         * Computes {@code MIN(column)}.
+         *
+         * @param column non-null, non-empty column or expression.
+         * @return builder.
+         */
+        @NonNull
+        public QueryBuilder min(@NonNull String column) {
+            return function("MIN", column);
+        }
+
+        /**
+         * Computes {@code MAX(column)}.
+         *
+         * @param column non-null, non-empty column or expression.
+         * @return builder.
+         */
+        @NonNull
+        public QueryBuilder max(@NonNull String column) {
+            return function("MAX", column);
+        }
+
+        /**
+         * Computes {@code AVG(column)}.
+         *
+         * @param column non-null, non-empty column or expression.
+         * @return builder.
+         */
+        @NonNull
+        public QueryBuilder avg(@NonNull String column) {
+            return function("AVG", column);
+        }
+
+        @NonNull
+        private QueryBuilder function(@NonNull String function, @NonNull String column) {
+            checkNotEmpty(column, "Please specify column");
+            return new QueryBuilder(storIOSQLite, function + "(" + column + ")");
+        }
+    }
+
+    /**
+     * Builder for {@link PreparedGetAggregate}.
+     */
+    public static class QueryBuilder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final String expression;
+
+        QueryBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull String expression) {
+            this.storIOSQLite = storIOSQLite;
+            this.expression = expression;
+        }
+
+        /**
+         * Required: Specifies query which rows should be aggregated.
+         * <p>
+         * Distinct, grouped or limited query is aggregated as subquery,
+         * so aggregated column should be in its columns.
+         *
+         * @param query non-null query.
+         * @return builder.
+         * @see Query
+         */
+        @NonNull
+        public CompleteBuilder withQuery(@NonNull Query query) {
+            checkNotNull(query, "Please specify query");
+            return new CompleteBuilder(storIOSQLite, query, expression);
+        }
+    }
+
+    /**
+     * Compile-time safe part of builder for {@link PreparedGetAggregate}.
+     */
+    public static class CompleteBuilder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Query query;
+
+        @NonNull
+        private final String expression;
+
+        CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query, @NonNull String expression) {
+            this.storIOSQLite = storIOSQLite;
+            this.query = query;
+            this.expression = expression;
+        }
+
+        /**
+         * Builds new instance of {@link PreparedGetAggregate}.
+         *
+         * @return new instance of {@link PreparedGetAggregate}.
+         */
+        @NonNull
+        public PreparedGetAggregate prepare() {
+            return new PreparedGetAggregate(storIOSQLite, query, expression);
+        }
+    }
+}
@@ -7,8 +7,6 @@ import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
 
 import com.pushtorefresh.storio.StorIOException;
-import com.pushtorefresh.storio.operations.internal.MapSomethingToExecuteAsBlocking;
-import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
 import com.pushtorefresh.storio.sqlite.queries.Query;
@@ -110,6 +108,11 @@ public class PreparedGetCursor extends PreparedGet<Cursor> {
      * <p>
      * Please don't forget to unsubscribe from this {@link Observable} because
      * it's "Hot" and endless.
+     * <p>
+     * Changes are conflated: changes that occur while query is running collapse into one
+     * re-query and query is not executed until subscriber requests next result.
+     * If {@link StorIOSQLite#defaultScheduler()} is not {@code null}, re-queries are executed on it,
+     * so burst of changes leads to few re-queries.
      *
      * @return non-null {@link Observable} which will emit non-null
      * list with mapped results and will be subscribed to changes of tables from query.
@@ -131,18 +134,7 @@ public class PreparedGetCursor extends PreparedGet<Cursor> {
             throw new StorIOException("Please specify query");
         }
 
-        final Observable<Cursor> observable;
-        if (!tables.isEmpty()) {
-            observable = storIOSQLite
-                    .observeChangesInTables(tables) // each change triggers executeAsBlocking
-                    .map(MapSomethingToExecuteAsBlocking.newInstance(this))
-                    .startWith(Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this))) // start stream with first query result
-                    .onBackpressureLatest();
-        } else {
-            observable = Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this));
-        }
-
-        return RxJavaUtils.subscribeOn(storIOSQLite, observable);
+        return RxJavaUtils.createGetObservable(storIOSQLite, this, tables);
     }
 
     /**
@@ -0,0 +1,230 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import java.util.Arrays;
+
+import rx.Observable;
+import rx.Single;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJavaIsNotAvailable;
+
+/**
+ * Prepared Get Operation for {@link StorIOSQLite} that checks whether query selects at least one row.
+ * <p>
+ * Check runs fully in SQLite: {@code SELECT EXISTS(SELECT 1 ... LIMIT 1)} stops at first matched row
+ * and no rows are read into {@link android.database.Cursor}.
+ */
+public class PreparedGetExists extends PreparedGet<Boolean> {
+
+    /**
+     * {@code SELECT EXISTS(...)} statement that is executed instead of the query.
+     */
+    @NonNull
+    private final RawQuery existsQuery;
+
+    PreparedGetExists(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query) {
+        super(storIOSQLite, query);
+        existsQuery = SelectStatements.existsQueryOf(query);
+    }
+
+    PreparedGetExists(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery) {
+        super(storIOSQLite, rawQuery);
+        existsQuery = SelectStatements.existsQueryOf(rawQuery);
+    }
+
+    /**
+     * Executes Get Operation immediately in current thread.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread,
+     * it can cause ANR (Activity Not Responding dialog), block the UI and drop animations frames.
+     * So please, call this method on some background thread. See {@link WorkerThread}.
+     *
+     * @return non-null {@link Boolean#TRUE} if query selects at least one row,
+     * {@link Boolean#FALSE} otherwise, no new instances are allocated.
+     */
+    @WorkerThread
+    @NonNull
+    @Override
+    public Boolean executeAsBlocking() {
+        return executeAsBlockingAsBoolean() ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    /**
+     * Same as {@link #executeAsBlocking()}, but returns primitive.
+     *
+     * @return {@code true} if query selects at least one row, {@code false} otherwise.
+     */
+    @WorkerThread
+    public boolean executeAsBlockingAsBoolean() {
+        try {
+            return storIOSQLite.lowLevel().simpleQueryForLong(existsQuery) != 0;
+        } catch (Exception exception) {
+            throw new StorIOException("Error has occurred during Get operation. query = " + (query != null ? query : rawQuery), exception);
+        }
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which will be subscribed to changes of tables from query
+     * and will emit result each time change occurs.
+     * <p>
+     * First result will be emitted immediately after subscription,
+     * other emissions will occur only if changes of tables from query will occur during lifetime of
+     * the {@link Observable}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link StorIOSQLite#defaultScheduler()} if not {@code null}.</dd>
+     * </dl>
+     * <p>
+     * Please don't forget to unsubscribe from this {@link Observable} because
+     * it's "Hot" and endless.
+     *
+     * @return non-null {@link Observable} which will emit non-null
+     * result of the check and will be subscribed to changes of tables from query.
+     * @deprecated (will be removed in 2.0) please use {@link #asRxObservable()}.
+     */
+    @NonNull
+    @Override
+    public Observable<Boolean> createObservable() {
+        return asRxObservable();
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which will be subscribed to changes of tables from query
+     * and will emit result each time change occurs.
+     * <p>
+     * First result will be emitted immediately after subscription,
+     * other emissions will occur only if changes of tables from query will occur during lifetime of
+     * the {@link Observable}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link StorIOSQLite#defaultScheduler()} if not {@code null}.</dd>
+     * </dl>
+     * <p>
+     * Please don't forget to unsubscribe from this {@link Observable} because
+     * it's "Hot" and endless.
+     * <p>
+     * Equal Get Operations of one {@link StorIOSQLite} share one subscription to changes
+     * and one execution of query per change, new subscribers receive latest result immediately.
+     *
+     * @return non-null {@link Observable} which will emit non-null
+     * result of the check and will be subscribed to changes of tables from query.
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<Boolean> asRxObservable() {
+        throwExceptionIfRxJavaIsNotAvailable("asRxObservable()");
+
+        final Object liveQueryKey = Arrays.<Object>asList(PreparedGetExists.class, existsQuery);
+
+        if (query != null) {
+            return RxJavaUtils.createSharedGetObservable(storIOSQLite, this, query, liveQueryKey);
+        } else {
+            return RxJavaUtils.createSharedGetObservable(storIOSQLite, this, tablesOfQuery(), liveQueryKey);
+        }
+    }
+
+    /**
+     * Creates {@link Single} which will check query lazily when somebody subscribes to it and send result to observer.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link StorIOSQLite#defaultScheduler()} if not {@code null}.</dd>
+     * </dl>
+     *
+     * @return non-null {@link Single} which will check query and send result to observer.
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Single<Boolean> asRxSingle() {
+        return RxJavaUtils.createSingle(storIOSQLite, this);
+    }
+
+    /**
+     * Builder for {@link PreparedGetExists}.
+     */
+    public static class Builder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        Builder(@NonNull StorIOSQLite storIOSQLite) {
+            this.storIOSQLite = storIOSQLite;
+        }
+
+        /**
+         * Required: Specifies query which rows should be checked.
+         *
+         * @param query non-null query.
+         * @return builder.
+         * @see Query
+         */
+        @NonNull
+        public CompleteBuilder withQuery(@NonNull Query query) {
+            checkNotNull(query, "Please specify query");
+            return new CompleteBuilder(storIOSQLite, query, null);
+        }
+
+        /**
+         * Required: Specifies {@link RawQuery} which rows should be checked,
+         * it should be single {@code SELECT} statement, it's executed as {@code SELECT EXISTS(rawQuery)}.
+         *
+         * @param rawQuery query.
+         * @return builder.
+         * @see RawQuery
+         */
+        @NonNull
+        public CompleteBuilder withQuery(@NonNull RawQuery rawQuery) {
+            checkNotNull(rawQuery, "Please specify rawQuery");
+            return new CompleteBuilder(storIOSQLite, null, rawQuery);
+        }
+    }
+
+    /**
+     * Compile-time safe part of builder for {@link PreparedGetExists}.
+     */
+    public static class CompleteBuilder {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @Nullable
+        private final Query query;
+
+        @Nullable
+        private final RawQuery rawQuery;
+
+        CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @Nullable Query query, @Nullable RawQuery rawQuery) {
+            this.storIOSQLite = storIOSQLite;
+            this.query = query;
+            this.rawQuery = rawQuery;
+        }
+
+        /**
+         * Builds new instance of {@link PreparedGetExists}.
+         *
+         * @return new instance of {@link PreparedGetExists}.
+         */
+        @NonNull
+        public PreparedGetExists prepare() {
+            if (query != null) {
+                return new PreparedGetExists(storIOSQLite, query);
+            } else if (rawQuery != null) {
+                return new PreparedGetExists(storIOSQLite, rawQuery);
+            } else {
+                throw new IllegalStateException("Please specify query");
+            }
+        }
+    }
+}
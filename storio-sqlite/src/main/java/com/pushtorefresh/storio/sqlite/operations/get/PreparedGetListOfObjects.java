@@ -7,16 +7,18 @@ import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
 
 import com.pushtorefresh.storio.StorIOException;
-import com.pushtorefresh.storio.operations.internal.MapSomethingToExecuteAsBlocking;
-import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
+import com.pushtorefresh.storio.sqlite.QueryResultCache;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
+import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResolver;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -41,22 +43,37 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
     @Nullable
     private final GetResolver<T> explicitGetResolver;
 
+    private final boolean useResultCache;
+
+    private final boolean shareLiveQuery;
+
+    @Nullable
+    private volatile GetResolver<T> typeMappingGetResolver;
+
     PreparedGetListOfObjects(@NonNull StorIOSQLite storIOSQLite,
                              @NonNull Class<T> type,
                              @NonNull Query query,
-                             @Nullable GetResolver<T> explicitGetResolver) {
+                             @Nullable GetResolver<T> explicitGetResolver,
+                             boolean useResultCache,
+                             boolean shareLiveQuery) {
         super(storIOSQLite, query);
         this.type = type;
         this.explicitGetResolver = explicitGetResolver;
+        this.useResultCache = useResultCache;
+        this.shareLiveQuery = shareLiveQuery;
     }
 
     PreparedGetListOfObjects(@NonNull StorIOSQLite storIOSQLite,
                              @NonNull Class<T> type,
                              @NonNull RawQuery rawQuery,
-                             @Nullable GetResolver<T> explicitGetResolver) {
+                             @Nullable GetResolver<T> explicitGetResolver,
+                             boolean useResultCache,
+                             boolean shareLiveQuery) {
         super(storIOSQLite, rawQuery);
         this.type = type;
         this.explicitGetResolver = explicitGetResolver;
+        this.useResultCache = useResultCache;
+        this.shareLiveQuery = shareLiveQuery;
     }
 
     /**
@@ -69,26 +86,45 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
      * @return non-null, immutable {@link List} with mapped results, list can be empty.
      */
     @WorkerThread
-    @SuppressWarnings({"TryFinallyCanBeTryWithResources", "unchecked"})
-    // Min SDK :( unchecked for empty list
+    @SuppressWarnings("unchecked")
     @NonNull
     @Override
     public List<T> executeAsBlocking() {
-        try {
-            final GetResolver<T> getResolver;
+        final QueryResultCache queryResultCache = useResultCache ? storIOSQLite.queryResultCache() : null;
 
-            if (explicitGetResolver != null) {
-                getResolver = explicitGetResolver;
-            } else {
-                final SQLiteTypeMapping<T> typeMapping = storIOSQLite.lowLevel().typeMapping(type);
+        if (queryResultCache == null || storIOSQLite.lowLevel().inTransaction()) {
+            // Rows written by transaction of this thread are not committed yet, other threads should not see them
+            return executeQuery();
+        }
 
-                if (typeMapping == null) {
-                    throw new IllegalStateException("This type does not have type mapping: " +
-                            "type = " + type + "," +
-                            "db was not touched by this operation, please add type mapping for this type");
-                }
+        final Object key = operationKey();
+        final Object cachedResult = queryResultCache.get(key);
 
-                getResolver = typeMapping.getResolver();
+        if (cachedResult != null) {
+            return (List<T>) cachedResult;
+        }
+
+        // Taken before the query, so result of query that raced with changes is not cached
+        final long generation = queryResultCache.generation();
+        final List<T> result = executeQuery();
+
+        queryResultCache.put(key, tablesOfQuery(), result, generation);
+
+        return result;
+    }
+
+    @WorkerThread
+    @SuppressWarnings({"TryFinallyCanBeTryWithResources", "unchecked"})
+    // Min SDK :( unchecked for empty list
+    @NonNull
+    private List<T> executeQuery() {
+        try {
+            final GetResolver<T> getResolver = getResolverOrNull();
+
+            if (getResolver == null) {
+                throw new IllegalStateException("This type does not have type mapping: " +
+                        "type = " + type + "," +
+                        "db was not touched by this operation, please add type mapping for this type");
             }
 
             final Cursor cursor;
@@ -101,6 +137,8 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
                 throw new IllegalStateException("Please specify query");
             }
 
+            final List<T> list;
+
             try {
                 final int count = cursor.getCount();
 
@@ -108,16 +146,22 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
                     return EMPTY_LIST; // it's immutable
                 }
 
-                final List<T> list = new ArrayList<T>(count);
+                list = new ArrayList<T>(count);
+
+                final int[] columnIndices = getResolver.columnIndices(cursor);
 
                 while (cursor.moveToNext()) {
-                    list.add(getResolver.mapFromCursor(cursor));
+                    list.add(columnIndices != null
+                            ? getResolver.mapFromCursor(cursor, columnIndices)
+                            : getResolver.mapFromCursor(cursor));
                 }
-
-                return unmodifiableList(list);
             } finally {
                 cursor.close();
             }
+
+            getResolver.loadRelations(storIOSQLite, list);
+
+            return unmodifiableList(list);
         } catch (Exception exception) {
             throw new StorIOException("Error has occurred during Get operation. query = " + (query != null ? query : rawQuery), exception);
         }
@@ -164,6 +208,17 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
      * <p>
      * Please don't forget to unsubscribe from this {@link Observable} because
      * it's "Hot" and endless.
+     * <p>
+     * Changes are conflated: changes that occur while query is running collapse into one
+     * re-query and query is not executed until subscriber requests next result.
+     * If {@link StorIOSQLite#defaultScheduler()} is not {@code null}, re-queries are executed on it,
+     * so burst of changes leads to few re-queries.
+     * <p>
+     * Equal Get Operations of one {@link StorIOSQLite} share one subscription to changes
+     * and one execution of query per change, new subscribers receive latest result immediately,
+     * unless sharing is disabled by {@link CompleteBuilder#shareLiveQuery(boolean)}.
+     * <p>
+     * Tables of related objects, see {@link GetResolver#relatedTables()}, are observed too.
      *
      * @return non-null {@link Observable} which will emit non-null, immutable
      * {@link List} with mapped results and will be subscribed to changes of tables from query,
@@ -175,28 +230,105 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
     public Observable<List<T>> asRxObservable() {
         throwExceptionIfRxJavaIsNotAvailable("asRxObservable()");
 
-        final Set<String> tables;
+        return shareLiveQuery
+                ? RxJavaUtils.createSharedGetObservable(storIOSQLite, this, tablesOfQuery(), operationKey())
+                : RxJavaUtils.createGetObservable(storIOSQLite, this, tablesOfQuery());
+    }
 
-        if (query != null) {
-            tables = Collections.singleton(query.table());
-        } else if (rawQuery != null) {
-            tables = rawQuery.observesTables();
-        } else {
-            throw new IllegalStateException("Please specify query");
+    /**
+     * Same as {@link #asRxObservable()}, but emits each list with its difference from previous list,
+     * elements are matched by values of key columns taken from {@link DefaultPutResolver#keyOf(Object)}
+     * of type mapping of this type.
+     * <p>
+     * Difference is calculated on the thread that executed the query, elements equal to elements
+     * of previous list are taken from previous list, see {@link ListDiff}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link StorIOSQLite#defaultScheduler()} if not {@code null}.</dd>
+     * </dl>
+     *
+     * @return non-null {@link Observable} which will emit non-null {@link ListDiff}
+     * and will be subscribed to changes of tables from query.
+     * @throws IllegalStateException if type mapping of this type does not use {@link DefaultPutResolver},
+     *                               please specify {@link ListDiff.KeyExtractor} then.
+     */
+    @NonNull
+    @CheckResult
+    public Observable<ListDiff<T>> asRxObservableWithDiff() {
+        final SQLiteTypeMapping<T> typeMapping = storIOSQLite.lowLevel().typeMapping(type);
+        final PutResolver<T> putResolver = typeMapping != null ? typeMapping.putResolver() : null;
+
+        if (!(putResolver instanceof DefaultPutResolver)) {
+            throw new IllegalStateException("Key columns of type are unknown: type = " + type + ", " +
+                    "please specify key extractor or add type mapping with DefaultPutResolver for this type");
         }
 
-        final Observable<List<T>> observable;
-        if (!tables.isEmpty()) {
-            observable = storIOSQLite
-                    .observeChangesInTables(tables) // each change triggers executeAsBlocking
-                    .map(MapSomethingToExecuteAsBlocking.newInstance(this))
-                    .startWith(Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this))) // start stream with first query result
-                    .onBackpressureLatest();
-        } else {
-            observable = Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this));
+        return asRxObservableWithDiff(new KeyOfPutResolver<T>((DefaultPutResolver<T>) putResolver));
+    }
+
+    /**
+     * Same as {@link #asRxObservable()}, but emits each list with its difference from previous list.
+     * <p>
+     * Difference is calculated on the thread that executed the query, elements equal to elements
+     * of previous list are taken from previous list, see {@link ListDiff}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link StorIOSQLite#defaultScheduler()} if not {@code null}.</dd>
+     * </dl>
+     *
+     * @param keyExtractor non-null extractor of keys of elements.
+     * @return non-null {@link Observable} which will emit non-null {@link ListDiff}
+     * and will be subscribed to changes of tables from query.
+     */
+    @NonNull
+    @CheckResult
+    public Observable<ListDiff<T>> asRxObservableWithDiff(@NonNull ListDiff.KeyExtractor<T> keyExtractor) {
+        throwExceptionIfRxJavaIsNotAvailable("asRxObservableWithDiff()");
+        checkNotNull(keyExtractor, "Please specify key extractor");
+
+        // Latest result of shared live query is replayed on subscribing thread, so diff it on the scheduler too
+        return RxJavaUtils.subscribeOn(storIOSQLite, RxJavaUtils.diffLists(asRxObservable(), keyExtractor));
+    }
+
+    /**
+     * Key of the operation, equal Get Operations share live queries and cached results.
+     */
+    @NonNull
+    private Object operationKey() {
+        return Arrays.<Object>asList(PreparedGetListOfObjects.class, type, query != null ? query : rawQuery, explicitGetResolver, useResultCache);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    Set<String> tablesOfQuery() {
+        return withRelatedTables(super.tablesOfQuery(), getResolverOrNull());
+    }
+
+    /**
+     * Explicit resolver or resolver of type mapping, {@code null} if type does not have type mapping.
+     * Type mapping is looked up once per operation, live query needs it before the first execution.
+     */
+    @Nullable
+    private GetResolver<T> getResolverOrNull() {
+        if (explicitGetResolver != null) {
+            return explicitGetResolver;
         }
 
-        return RxJavaUtils.subscribeOn(storIOSQLite, observable);
+        GetResolver<T> getResolver = typeMappingGetResolver;
+
+        if (getResolver == null) {
+            final SQLiteTypeMapping<T> typeMapping = storIOSQLite.lowLevel().typeMapping(type);
+
+            if (typeMapping != null) {
+                getResolver = typeMapping.getResolver();
+                typeMappingGetResolver = getResolver;
+            }
+        }
+
+        return getResolver;
     }
 
     /**
@@ -216,6 +348,22 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
         return RxJavaUtils.createSingle(storIOSQLite, this);
     }
 
+    private static final class KeyOfPutResolver<T> implements ListDiff.KeyExtractor<T> {
+
+        @NonNull
+        private final DefaultPutResolver<T> putResolver;
+
+        KeyOfPutResolver(@NonNull DefaultPutResolver<T> putResolver) {
+            this.putResolver = putResolver;
+        }
+
+        @NonNull
+        @Override
+        public Object keyOf(@NonNull T element) {
+            return putResolver.keyOf(element);
+        }
+    }
+
     /**
      * Builder for {@link PreparedGetListOfObjects} Operation.
      *
@@ -261,6 +409,25 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
             checkNotNull(rawQuery, "Please specify rawQuery");
             return new CompleteBuilder<T>(storIOSQLite, type, rawQuery);
         }
+
+        /**
+         * Required: Specifies values of the key column of objects that should be loaded,
+         * table and key column are taken from {@link DefaultGetResolver#table()}
+         * and {@link DefaultGetResolver#keyColumn()}, generated resolvers provide them
+         * for types with one {@code @StorIOSQLiteColumn(key = true)}.
+         * <p>
+         * Objects are selected by chunked {@code WHERE key IN (?, ...)} queries.
+         *
+         * @param keys non-null collection of values of the key column.
+         * @param <K>  type of keys.
+         * @return builder.
+         * @see PreparedGetObjectsByKeys
+         */
+        @NonNull
+        public <K> PreparedGetObjectsByKeys.Builder<T, K> withKeys(@NonNull Collection<K> keys) {
+            checkNotNull(keys, "Please specify keys");
+            return new PreparedGetObjectsByKeys.Builder<T, K>(storIOSQLite, type, keys);
+        }
     }
 
     /**
@@ -285,6 +452,10 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
         @Nullable
         private GetResolver<T> getResolver;
 
+        private boolean useResultCache = true;
+
+        private boolean shareLiveQuery = true;
+
         CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type, @NonNull Query query) {
             this.storIOSQLite = storIOSQLite;
             this.type = type;
@@ -316,6 +487,41 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
             return this;
         }
 
+        /**
+         * Optional: Specifies whether {@link StorIOSQLite#queryResultCache()} should be used
+         * by this Get Operation, if cache is enabled.
+         * Cache is not used inside of transaction, it would share uncommitted rows with other threads.
+         * <p>
+         * Cached results are shared between callers, so please opt-out for mutable results.
+         * <p>
+         * Default value is {@code true}.
+         *
+         * @param useResultCache {@code false} to always query the db.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> useResultCache(boolean useResultCache) {
+            this.useResultCache = useResultCache;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies whether subscribers of {@link PreparedGetListOfObjects#asRxObservable()}
+         * share one live query with subscribers of equal Get Operations, see {@link StorIOSQLite#liveQueries()}.
+         * <p>
+         * Shared live query emits same instances of lists to all its subscribers, so please opt-out for mutable results.
+         * <p>
+         * Default value is {@code true}.
+         *
+         * @param shareLiveQuery {@code false} to execute query for each subscriber separately.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> shareLiveQuery(boolean shareLiveQuery) {
+            this.shareLiveQuery = shareLiveQuery;
+            return this;
+        }
+
         /**
          * Builds new instance of {@link PreparedGetListOfObjects}.
          *
@@ -328,14 +534,18 @@ public class PreparedGetListOfObjects<T> extends PreparedGet<List<T>> {
                         storIOSQLite,
                         type,
                         query,
-                        getResolver
+                        getResolver,
+                        useResultCache,
+                        shareLiveQuery
                 );
             } else if (rawQuery != null) {
                 return new PreparedGetListOfObjects<T>(
                         storIOSQLite,
                         type,
                         rawQuery,
-                        getResolver
+                        getResolver,
+                        useResultCache,
+                        shareLiveQuery
                 );
             } else {
                 throw new IllegalStateException("Please specify Query or RawQuery");
@@ -7,13 +7,13 @@ import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
 
 import com.pushtorefresh.storio.StorIOException;
-import com.pushtorefresh.storio.operations.internal.MapSomethingToExecuteAsBlocking;
-import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
+import com.pushtorefresh.storio.sqlite.QueryResultCache;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -28,14 +28,30 @@ public class PreparedGetNumberOfResults extends PreparedGet<Integer> {
     @NonNull
     private final GetResolver<Integer> getResolver;
 
-    PreparedGetNumberOfResults(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query, @NonNull GetResolver<Integer> getResolver) {
+    private final boolean useResultCache;
+
+    private final boolean shareLiveQuery;
+
+    /**
+     * {@code SELECT COUNT(*)} query that is executed instead of the query if it's not {@code null}.
+     */
+    @Nullable
+    private final RawQuery countQuery;
+
+    PreparedGetNumberOfResults(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query, @NonNull GetResolver<Integer> getResolver, boolean useResultCache, boolean shareLiveQuery, @Nullable RawQuery countQuery) {
         super(storIOSQLite, query);
         this.getResolver = getResolver;
+        this.useResultCache = useResultCache;
+        this.shareLiveQuery = shareLiveQuery;
+        this.countQuery = countQuery;
     }
 
-    PreparedGetNumberOfResults(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery, @NonNull GetResolver<Integer> getResolver) {
+    PreparedGetNumberOfResults(@NonNull StorIOSQLite storIOSQLite, @NonNull RawQuery rawQuery, @NonNull GetResolver<Integer> getResolver, boolean useResultCache, boolean shareLiveQuery, @Nullable RawQuery countQuery) {
         super(storIOSQLite, rawQuery);
         this.getResolver = getResolver;
+        this.useResultCache = useResultCache;
+        this.shareLiveQuery = shareLiveQuery;
+        this.countQuery = countQuery;
     }
 
     /**
@@ -51,9 +67,40 @@ public class PreparedGetNumberOfResults extends PreparedGet<Integer> {
     @NonNull
     @Override
     public Integer executeAsBlocking() {
+        final QueryResultCache queryResultCache = useResultCache ? storIOSQLite.queryResultCache() : null;
+
+        if (queryResultCache == null || storIOSQLite.lowLevel().inTransaction()) {
+            // Rows written by transaction of this thread are not committed yet, other threads should not see them
+            return executeQuery();
+        }
+
+        final Object key = operationKey();
+        final Object cachedResult = queryResultCache.get(key);
+
+        if (cachedResult != null) {
+            return (Integer) cachedResult;
+        }
+
+        // Taken before the query, so result of query that raced with changes is not cached
+        final long generation = queryResultCache.generation();
+        final Integer result = executeQuery();
+
+        queryResultCache.put(key, tablesOfQuery(), result, generation);
+
+        return result;
+    }
+
+    @NonNull
+    @WorkerThread
+    private Integer executeQuery() {
         final Cursor cursor;
 
         try {
+            if (countQuery != null) {
+                // SQLite counts rows itself instead of filling CursorWindow with all of them
+                return (int) storIOSQLite.lowLevel().simpleQueryForLong(countQuery);
+            }
+
             if (query != null) {
                 cursor = getResolver.performGet(storIOSQLite, query);
             } else if (rawQuery != null) {
@@ -111,6 +158,15 @@ public class PreparedGetNumberOfResults extends PreparedGet<Integer> {
      * <p>
      * Please don't forget to unsubscribe from this {@link Observable} because
      * it's "Hot" and endless.
+     * <p>
+     * Changes are conflated: changes that occur while query is running collapse into one
+     * re-query and query is not executed until subscriber requests next result.
+     * If {@link StorIOSQLite#defaultScheduler()} is not {@code null}, re-queries are executed on it,
+     * so burst of changes leads to few re-queries.
+     * <p>
+     * Equal Get Operations of one {@link StorIOSQLite} share one subscription to changes
+     * and one execution of query per change, new subscribers receive latest result immediately,
+     * unless sharing is disabled by {@link CompleteBuilder#shareLiveQuery(boolean)}.
      *
      * @return non-null {@link Observable} which will emit non-null
      * number of results of the executed query and will be subscribed to changes of tables from query.
@@ -132,18 +188,17 @@ public class PreparedGetNumberOfResults extends PreparedGet<Integer> {
             throw new StorIOException("Please specify query");
         }
 
-        final Observable<Integer> observable;
-        if (!tables.isEmpty()) {
-            observable = storIOSQLite
-                    .observeChangesInTables(tables) // each change triggers executeAsBlocking
-                    .map(MapSomethingToExecuteAsBlocking.newInstance(this))
-                    .startWith(Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this))) // start stream with first query result
-                    .onBackpressureLatest();
-        } else {
-            observable = Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this));
-        }
+        return shareLiveQuery
+                ? RxJavaUtils.createSharedGetObservable(storIOSQLite, this, tables, operationKey())
+                : RxJavaUtils.createGetObservable(storIOSQLite, this, tables);
+    }
 
-        return RxJavaUtils.subscribeOn(storIOSQLite, observable);
+    /**
+     * Key of the operation, equal Get Operations share live queries and cached results.
+     */
+    @NonNull
+    private Object operationKey() {
+        return Arrays.<Object>asList(PreparedGetNumberOfResults.class, query != null ? query : rawQuery, getResolver, useResultCache);
     }
 
     /**
@@ -230,6 +285,12 @@ public class PreparedGetNumberOfResults extends PreparedGet<Integer> {
         @Nullable
         private GetResolver<Integer> getResolver;
 
+        private boolean useResultCache = true;
+
+        private boolean shareLiveQuery = true;
+
+        private boolean countRawQueryAsSubquery;
+
         CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Query query) {
             this.storIOSQLite = storIOSQLite;
             this.query = query;
@@ -246,6 +307,8 @@ public class PreparedGetNumberOfResults extends PreparedGet<Integer> {
          * Optional: Specifies resolver for Get Operation which can be used
          * to provide custom behavior of Get Operation.
          * <p>
+         * If resolver is not set, {@link Query} is counted by {@code SELECT COUNT(*)}
+         * instead of reading all its rows into {@link Cursor}.
          *
          * @param getResolver nullable resolver for Get Operation.
          * @return builder.
@@ -256,6 +319,61 @@ public class PreparedGetNumberOfResults extends PreparedGet<Integer> {
             return this;
         }
 
+        /**
+         * Optional: Specifies whether {@link StorIOSQLite#queryResultCache()} should be used
+         * by this Get Operation, if cache is enabled.
+         * Cache is not used inside of transaction, it would share uncommitted rows with other threads.
+         * <p>
+         * Cached results are shared between callers, so please opt-out for mutable results.
+         * <p>
+         * Default value is {@code true}.
+         *
+         * @param useResultCache {@code false} to always query the db.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder useResultCache(boolean useResultCache) {
+            this.useResultCache = useResultCache;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies whether {@link RawQuery} should be counted as subquery:
+         * {@code SELECT COUNT(*) FROM (rawQuery)}, so SQLite counts rows itself
+         * instead of reading all of them into {@link Cursor}.
+         * <p>
+         * Please enable it only for single {@code SELECT} statements.
+         * It has no effect on {@link Query}, which is always counted this way,
+         * and if custom {@link GetResolver} is set.
+         * <p>
+         * Default value is {@code false}.
+         *
+         * @param countRawQueryAsSubquery {@code true} to count raw query as subquery.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder countRawQueryAsSubquery(boolean countRawQueryAsSubquery) {
+            this.countRawQueryAsSubquery = countRawQueryAsSubquery;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies whether subscribers of {@link PreparedGetNumberOfResults#asRxObservable()}
+         * share one live query with subscribers of equal Get Operations, see {@link StorIOSQLite#liveQueries()}.
+         * <p>
+         * Shared live query emits same results to all its subscribers, so please opt-out for mutable results.
+         * <p>
+         * Default value is {@code true}.
+         *
+         * @param shareLiveQuery {@code false} to execute query for each subscriber separately.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder shareLiveQuery(boolean shareLiveQuery) {
+            this.shareLiveQuery = shareLiveQuery;
+            return this;
+        }
+
         /**
          * Builds new instance of {@link PreparedGetNumberOfResults}.
          *
@@ -263,6 +381,9 @@ public class PreparedGetNumberOfResults extends PreparedGet<Integer> {
          */
         @NonNull
         public PreparedGetNumberOfResults prepare() {
+            // Custom resolver may count rows in its own way
+            final boolean countInDb = getResolver == null;
+
             if (getResolver == null) {
                 getResolver = STANDARD_GET_RESOLVER;
             }
@@ -271,13 +392,19 @@ public class PreparedGetNumberOfResults extends PreparedGet<Integer> {
                 return new PreparedGetNumberOfResults(
                         storIOSQLite,
                         query,
-                        getResolver
+                        getResolver,
+                        useResultCache,
+                        shareLiveQuery,
+                        countInDb ? SelectStatements.countQueryOf(query) : null
                 );
             } else if (rawQuery != null) {
                 return new PreparedGetNumberOfResults(
                         storIOSQLite,
                         rawQuery,
-                        getResolver
+                        getResolver,
+                        useResultCache,
+                        shareLiveQuery,
+                        countInDb && countRawQueryAsSubquery ? SelectStatements.countQueryOf(rawQuery) : null
                 );
             } else {
                 throw new IllegalStateException("Please specify query");
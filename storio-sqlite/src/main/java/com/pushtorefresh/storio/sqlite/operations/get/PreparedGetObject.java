@@ -7,14 +7,14 @@ import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
 
 import com.pushtorefresh.storio.StorIOException;
-import com.pushtorefresh.storio.operations.internal.MapSomethingToExecuteAsBlocking;
-import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
+import com.pushtorefresh.storio.sqlite.QueryResultCache;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
 
@@ -32,22 +32,37 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
     @Nullable
     private final GetResolver<T> explicitGetResolver;
 
+    private final boolean useResultCache;
+
+    private final boolean shareLiveQuery;
+
+    @Nullable
+    private volatile GetResolver<T> typeMappingGetResolver;
+
     PreparedGetObject(@NonNull StorIOSQLite storIOSQLite,
                              @NonNull Class<T> type,
                              @NonNull Query query,
-                             @Nullable GetResolver<T> explicitGetResolver) {
+                             @Nullable GetResolver<T> explicitGetResolver,
+                             boolean useResultCache,
+                             boolean shareLiveQuery) {
         super(storIOSQLite, query);
         this.type = type;
         this.explicitGetResolver = explicitGetResolver;
+        this.useResultCache = useResultCache;
+        this.shareLiveQuery = shareLiveQuery;
     }
 
     PreparedGetObject(@NonNull StorIOSQLite storIOSQLite,
                              @NonNull Class<T> type,
                              @NonNull RawQuery rawQuery,
-                             @Nullable GetResolver<T> explicitGetResolver) {
+                             @Nullable GetResolver<T> explicitGetResolver,
+                             boolean useResultCache,
+                             boolean shareLiveQuery) {
         super(storIOSQLite, rawQuery);
         this.type = type;
         this.explicitGetResolver = explicitGetResolver;
+        this.useResultCache = useResultCache;
+        this.shareLiveQuery = shareLiveQuery;
     }
 
     /**
@@ -60,24 +75,45 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
      * @return single instance of mapped result. Can be {@code null}, if no items are found.
      */
     @Nullable
-    @SuppressWarnings({"ConstantConditions", "NullableProblems"})
+    @SuppressWarnings({"ConstantConditions", "NullableProblems", "unchecked"})
     @WorkerThread
     public T executeAsBlocking() {
-        try {
-            final GetResolver<T> getResolver;
+        final QueryResultCache queryResultCache = useResultCache ? storIOSQLite.queryResultCache() : null;
 
-            if (explicitGetResolver != null) {
-                getResolver = explicitGetResolver;
-            } else {
-                final SQLiteTypeMapping<T> typeMapping = storIOSQLite.lowLevel().typeMapping(type);
+        if (queryResultCache == null || storIOSQLite.lowLevel().inTransaction()) {
+            // Rows written by transaction of this thread are not committed yet, other threads should not see them
+            return executeQuery();
+        }
 
-                if (typeMapping == null) {
-                    throw new IllegalStateException("This type does not have type mapping: " +
-                            "type = " + type + "," +
-                            "db was not touched by this operation, please add type mapping for this type");
-                }
+        final Object key = operationKey();
+        final Object cachedResult = queryResultCache.get(key);
 
-                getResolver = typeMapping.getResolver();
+        if (cachedResult != null) {
+            return (T) cachedResult;
+        }
+
+        // Taken before the query, so result of query that raced with changes is not cached
+        final long generation = queryResultCache.generation();
+        final T result = executeQuery();
+
+        if (result != null) {
+            // Absence of object is not cached
+            queryResultCache.put(key, tablesOfQuery(), result, generation);
+        }
+
+        return result;
+    }
+
+    @Nullable
+    @WorkerThread
+    private T executeQuery() {
+        try {
+            final GetResolver<T> getResolver = getResolverOrNull();
+
+            if (getResolver == null) {
+                throw new IllegalStateException("This type does not have type mapping: " +
+                        "type = " + type + "," +
+                        "db was not touched by this operation, please add type mapping for this type");
             }
 
             final Cursor cursor;
@@ -90,6 +126,8 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
                 throw new IllegalStateException("Please specify query");
             }
 
+            final T object;
+
             try {
                 final int count = cursor.getCount();
 
@@ -99,10 +137,14 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
 
                 cursor.moveToNext();
 
-                return getResolver.mapFromCursor(cursor);
+                object = getResolver.mapFromCursor(cursor);
             } finally {
                 cursor.close();
             }
+
+            getResolver.loadRelations(storIOSQLite, Collections.singletonList(object));
+
+            return object;
         } catch (Exception exception) {
             throw new StorIOException("Error has occurred during Get operation. query = " + (query != null ? query : rawQuery), exception);
         }
@@ -149,6 +191,21 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
      * <p>
      * Please don't forget to unsubscribe from this {@link Observable} because
      * it's "Hot" and endless.
+     * <p>
+     * Changes are conflated: changes that occur while query is running collapse into one
+     * re-query and query is not executed until subscriber requests next result.
+     * If {@link StorIOSQLite#defaultScheduler()} is not {@code null}, re-queries are executed on it,
+     * so burst of changes leads to few re-queries.
+     * <p>
+     * Equal Get Operations of one {@link StorIOSQLite} share one subscription to changes
+     * and one execution of query per change, new subscribers receive latest result immediately,
+     * unless sharing is disabled by {@link CompleteBuilder#shareLiveQuery(boolean)}.
+     * <p>
+     * Tables of related objects, see {@link GetResolver#relatedTables()}, are observed too.
+     * <p>
+     * For {@link Query} re-query is skipped if {@link com.pushtorefresh.storio.sqlite.Changes}
+     * describe keys of affected rows and none of them is selected by the query,
+     * for example, update of another object by {@link com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver}.
      *
      * @return non-null {@link Observable} which will emit single object
      * (can be {@code null}, if no items are found)
@@ -160,28 +217,62 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
     public Observable<T> asRxObservable() {
         throwExceptionIfRxJavaIsNotAvailable("asRxObservable()");
 
-        final Set<String> tables;
+        final GetResolver<T> getResolver = getResolverOrNull();
 
-        if (query != null) {
-            tables = Collections.singleton(query.table());
-        } else if (rawQuery != null) {
-            tables = rawQuery.observesTables();
+        if (query != null && (getResolver == null || getResolver.relatedTables().isEmpty())) {
+            // Changes of rows with other keys don't affect result of query by key
+            return shareLiveQuery
+                    ? RxJavaUtils.createSharedGetObservable(storIOSQLite, this, query, operationKey())
+                    : RxJavaUtils.createGetObservable(storIOSQLite, this, query);
         } else {
-            throw new IllegalStateException("Please specify query");
+            // Changes of related objects affect result regardless of keys of changed rows
+            final Set<String> tables = withRelatedTables(super.tablesOfQuery(), getResolver);
+
+            return shareLiveQuery
+                    ? RxJavaUtils.createSharedGetObservable(storIOSQLite, this, tables, operationKey())
+                    : RxJavaUtils.createGetObservable(storIOSQLite, this, tables);
         }
+    }
 
-        final Observable<T> observable;
-        if (!tables.isEmpty()) {
-            observable = storIOSQLite
-                    .observeChangesInTables(tables) // each change triggers executeAsBlocking
-                    .map(MapSomethingToExecuteAsBlocking.newInstance(this))
-                    .startWith(Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this))) // start stream with first query result
-                    .onBackpressureLatest();
-        } else {
-            observable = Observable.create(OnSubscribeExecuteAsBlocking.newInstance(this));
+    /**
+     * Key of the operation, equal Get Operations share live queries and cached results.
+     */
+    @NonNull
+    private Object operationKey() {
+        return Arrays.<Object>asList(PreparedGetObject.class, type, query != null ? query : rawQuery, explicitGetResolver, useResultCache);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    Set<String> tablesOfQuery() {
+        return withRelatedTables(super.tablesOfQuery(), getResolverOrNull());
+    }
+
+    /**
+     * Explicit resolver or resolver of type mapping, {@code null} if type does not have type mapping.
+     * Type mapping is looked up once per operation, live query needs it before the first execution.
+     */
+    @Nullable
+    private GetResolver<T> getResolverOrNull() {
+        if (explicitGetResolver != null) {
+            return explicitGetResolver;
+        }
+
+        GetResolver<T> getResolver = typeMappingGetResolver;
+
+        if (getResolver == null) {
+            final SQLiteTypeMapping<T> typeMapping = storIOSQLite.lowLevel().typeMapping(type);
+
+            if (typeMapping != null) {
+                getResolver = typeMapping.getResolver();
+                typeMappingGetResolver = getResolver;
+            }
         }
 
-        return RxJavaUtils.subscribeOn(storIOSQLite, observable);
+        return getResolver;
     }
 
     /**
@@ -270,6 +361,10 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
         @Nullable
         private GetResolver<T> getResolver;
 
+        private boolean useResultCache = true;
+
+        private boolean shareLiveQuery = true;
+
         CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type, @NonNull Query query) {
             this.storIOSQLite = storIOSQLite;
             this.type = type;
@@ -301,6 +396,41 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
             return this;
         }
 
+        /**
+         * Optional: Specifies whether {@link StorIOSQLite#queryResultCache()} should be used
+         * by this Get Operation, if cache is enabled.
+         * Cache is not used inside of transaction, it would share uncommitted rows with other threads.
+         * <p>
+         * Cached results are shared between callers, so please opt-out for mutable results.
+         * <p>
+         * Default value is {@code true}.
+         *
+         * @param useResultCache {@code false} to always query the db.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> useResultCache(boolean useResultCache) {
+            this.useResultCache = useResultCache;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies whether subscribers of {@link PreparedGetObject#asRxObservable()}
+         * share one live query with subscribers of equal Get Operations, see {@link StorIOSQLite#liveQueries()}.
+         * <p>
+         * Shared live query emits same instances of objects to all its subscribers, so please opt-out for mutable results.
+         * <p>
+         * Default value is {@code true}.
+         *
+         * @param shareLiveQuery {@code false} to execute query for each subscriber separately.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> shareLiveQuery(boolean shareLiveQuery) {
+            this.shareLiveQuery = shareLiveQuery;
+            return this;
+        }
+
         /**
          * Builds new instance of {@link PreparedGetObject}.
          *
@@ -313,14 +443,18 @@ public class PreparedGetObject<T> extends PreparedGet<T> {
                         storIOSQLite,
                         type,
                         query,
-                        getResolver
+                        getResolver,
+                        useResultCache,
+                        shareLiveQuery
                 );
             } else if (rawQuery != null) {
                 return new PreparedGetObject<T>(
                         storIOSQLite,
                         type,
                         rawQuery,
-                        getResolver
+                        getResolver,
+                        useResultCache,
+                        shareLiveQuery
                 );
             } else {
                 throw new IllegalStateException("Please specify Query or RawQuery");
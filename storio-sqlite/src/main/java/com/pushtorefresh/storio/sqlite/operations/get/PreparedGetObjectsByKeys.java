@@ -0,0 +1,457 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.operations.PreparedOperation;
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import rx.Observable;
+import rx.Single;
+
+import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJavaIsNotAvailable;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * Prepared Get Operation for {@link StorIOSQLite} that loads objects by values of their key column.
+ * <p>
+ * Objects are selected by {@code WHERE key IN (?, ...)} queries, each query binds at most
+ * 999 keys, default limit of bound values of SQLite.
+ * Keys are matched with rows by their string representation, same as they are bound.
+ *
+ * @param <T> type of objects.
+ * @param <K> type of keys.
+ */
+public class PreparedGetObjectsByKeys<T, K> extends PreparedGet<List<T>> {
+
+    /**
+     * Default {@code SQLITE_MAX_VARIABLE_NUMBER}.
+     */
+    static final int MAX_KEYS_PER_QUERY = 999;
+
+    @NonNull
+    private final Class<T> type;
+
+    @NonNull
+    private final List<K> keys;
+
+    @Nullable
+    private final GetResolver<T> explicitGetResolver;
+
+    PreparedGetObjectsByKeys(@NonNull StorIOSQLite storIOSQLite,
+                             @NonNull Class<T> type,
+                             @NonNull List<K> keys,
+                             @Nullable GetResolver<T> explicitGetResolver) {
+        super(storIOSQLite);
+        this.type = type;
+        this.keys = keys;
+        this.explicitGetResolver = explicitGetResolver;
+    }
+
+    /**
+     * Executes Get Operation immediately in current thread.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread,
+     * it can cause ANR (Activity Not Responding dialog), block the UI and drop animations frames.
+     * So please, call this method on some background thread. See {@link WorkerThread}.
+     *
+     * @return non-null, immutable {@link List} of objects in order of keys,
+     * keys without rows are skipped.
+     */
+    @WorkerThread
+    @NonNull
+    @Override
+    public List<T> executeAsBlocking() {
+        final Map<String, T> objectsByKeys = executeQueries();
+        final List<T> list = new ArrayList<T>(objectsByKeys.size());
+
+        for (K key : keys) {
+            final T object = objectsByKeys.get(String.valueOf(key));
+
+            if (object != null) {
+                list.add(object);
+            }
+        }
+
+        return unmodifiableList(list);
+    }
+
+    /**
+     * Same as {@link #executeAsBlocking()}, but returns objects by their keys.
+     *
+     * @return non-null, immutable {@link Map} of pairs {@code (key, object)} in order of keys,
+     * keys without rows are absent.
+     */
+    @WorkerThread
+    @NonNull
+    public Map<K, T> executeAsBlockingAsMap() {
+        final Map<String, T> objectsByKeys = executeQueries();
+        final Map<K, T> map = new LinkedHashMap<K, T>(objectsByKeys.size());
+
+        for (K key : keys) {
+            final T object = objectsByKeys.get(String.valueOf(key));
+
+            if (object != null) {
+                map.put(key, object);
+            }
+        }
+
+        return unmodifiableMap(map);
+    }
+
+    @WorkerThread
+    @NonNull
+    private Map<String, T> executeQueries() {
+        try {
+            final DefaultGetResolver<T> getResolver = getResolver();
+            final String keyColumn = getResolver.keyColumn();
+
+            // Same key is selected once
+            final List<String> distinctKeys = new ArrayList<String>(new LinkedHashSet<String>(keysAsStrings()));
+            final Map<String, T> objectsByKeys = new HashMap<String, T>(distinctKeys.size());
+
+            for (int start = 0; start < distinctKeys.size(); start += MAX_KEYS_PER_QUERY) {
+                final List<String> chunk = distinctKeys.subList(start, Math.min(start + MAX_KEYS_PER_QUERY, distinctKeys.size()));
+
+                final Cursor cursor = getResolver.performGet(storIOSQLite, Query.builder()
+                        .table(getResolver.table())
+                        .columns(projectionWith(getResolver, keyColumn))
+                        .where(whereKeyIn(keyColumn, chunk.size()))
+                        .whereArgs(chunk.toArray())
+                        .build());
+
+                try {
+                    final int keyColumnIndex = cursor.getColumnIndexOrThrow(keyColumn);
+                    final int[] columnIndices = getResolver.columnIndices(cursor);
+
+                    while (cursor.moveToNext()) {
+                        objectsByKeys.put(cursor.getString(keyColumnIndex), columnIndices != null
+                                ? getResolver.mapFromCursor(cursor, columnIndices)
+                                : getResolver.mapFromCursor(cursor));
+                    }
+                } finally {
+                    cursor.close();
+                }
+            }
+
+            if (!objectsByKeys.isEmpty()) {
+                getResolver.loadRelations(storIOSQLite, new ArrayList<T>(objectsByKeys.values()));
+            }
+
+            return objectsByKeys;
+        } catch (Exception exception) {
+            throw new StorIOException("Error has occurred during Get operation. type = " + type + ", keys = " + keys, exception);
+        }
+    }
+
+    @NonNull
+    private List<String> keysAsStrings() {
+        final List<String> strings = new ArrayList<String>(keys.size());
+
+        for (K key : keys) {
+            strings.add(String.valueOf(key));
+        }
+
+        return strings;
+    }
+
+    @NonNull
+    static String whereKeyIn(@NonNull String keyColumn, int numberOfKeys) {
+        final StringBuilder where = new StringBuilder(keyColumn.length() + 8 + numberOfKeys * 2)
+                .append(keyColumn)
+                .append(" IN (");
+
+        for (int i = 0; i < numberOfKeys; i++) {
+            where.append(i > 0 ? ",?" : "?");
+        }
+
+        return where.append(')').toString();
+    }
+
+    /**
+     * @return projection of resolver if it has the column, {@code null} (all columns) otherwise.
+     */
+    @Nullable
+    static String[] projectionWith(@NonNull GetResolver<?> getResolver, @NonNull String column) {
+        final String[] projection = getResolver instanceof DefaultGetResolver
+                ? ((DefaultGetResolver<?>) getResolver).projection()
+                : null;
+
+        if (projection != null) {
+            for (String projectionColumn : projection) {
+                if (projectionColumn.equals(column)) {
+                    return projection;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @NonNull
+    private DefaultGetResolver<T> getResolver() {
+        final GetResolver<T> getResolver;
+
+        if (explicitGetResolver != null) {
+            getResolver = explicitGetResolver;
+        } else {
+            final SQLiteTypeMapping<T> typeMapping = storIOSQLite.lowLevel().typeMapping(type);
+
+            if (typeMapping == null) {
+                throw new IllegalStateException("This type does not have type mapping: " +
+                        "type = " + type + "," +
+                        "db was not touched by this operation, please add type mapping for this type");
+            }
+
+            getResolver = typeMapping.getResolver();
+        }
+
+        if (!(getResolver instanceof DefaultGetResolver)
+                || ((DefaultGetResolver<T>) getResolver).table() == null
+                || ((DefaultGetResolver<T>) getResolver).keyColumn() == null) {
+            throw new IllegalStateException("Table and key column of type are unknown: type = " + type + ", " +
+                    "please use DefaultGetResolver that returns them from table() and keyColumn()");
+        }
+
+        return (DefaultGetResolver<T>) getResolver;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    Set<String> tablesOfQuery() {
+        final DefaultGetResolver<T> getResolver = getResolver();
+        //noinspection ConstantConditions -> checked by getResolver()
+        return withRelatedTables(Collections.singleton(getResolver.table()), getResolver);
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which will be subscribed to changes of table of objects
+     * and will emit result each time change occurs.
+     * <p>
+     * First result will be emitted immediately after subscription,
+     * other emissions will occur only if changes of table will occur during lifetime of
+     * the {@link Observable}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link StorIOSQLite#defaultScheduler()} if not {@code null}.</dd>
+     * </dl>
+     * <p>
+     * Please don't forget to unsubscribe from this {@link Observable} because
+     * it's "Hot" and endless.
+     *
+     * @return non-null {@link Observable} which will emit non-null, immutable
+     * {@link List} of objects and will be subscribed to changes of table of objects.
+     * @deprecated (will be removed in 2.0) please use {@link #asRxObservable()}.
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<List<T>> createObservable() {
+        return asRxObservable();
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which will be subscribed to changes of table of objects
+     * and will emit result each time change occurs.
+     * <p>
+     * First result will be emitted immediately after subscription,
+     * other emissions will occur only if changes of table will occur during lifetime of
+     * the {@link Observable}.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link StorIOSQLite#defaultScheduler()} if not {@code null}.</dd>
+     * </dl>
+     * <p>
+     * Please don't forget to unsubscribe from this {@link Observable} because
+     * it's "Hot" and endless.
+     * <p>
+     * Equal Get Operations of one {@link StorIOSQLite} share one subscription to changes
+     * and one execution of queries per change, new subscribers receive latest result immediately.
+     *
+     * @return non-null {@link Observable} which will emit non-null, immutable
+     * {@link List} of objects and will be subscribed to changes of table of objects.
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Observable<List<T>> asRxObservable() {
+        throwExceptionIfRxJavaIsNotAvailable("asRxObservable()");
+
+        return createSharedGetObservable(
+                this,
+                Arrays.<Object>asList(PreparedGetObjectsByKeys.class, type, keys, explicitGetResolver)
+        );
+    }
+
+    /**
+     * Same as {@link #asRxObservable()}, but emits objects by their keys,
+     * see {@link #executeAsBlockingAsMap()}.
+     *
+     * @return non-null {@link Observable} which will emit non-null, immutable
+     * {@link Map} of pairs {@code (key, object)} and will be subscribed to changes of table of objects.
+     */
+    @NonNull
+    @CheckResult
+    public Observable<Map<K, T>> asRxObservableAsMap() {
+        throwExceptionIfRxJavaIsNotAvailable("asRxObservableAsMap()");
+
+        return createSharedGetObservable(
+                new AsMap(),
+                Arrays.<Object>asList(PreparedGetObjectsByKeys.class, type, keys, explicitGetResolver, Map.class)
+        );
+    }
+
+    /**
+     * Resolver is checked lazily by {@link #executeAsBlocking()}, so error of resolver
+     * is delivered to subscriber instead of being thrown while {@link Observable} is created.
+     */
+    @NonNull
+    private <R> Observable<R> createSharedGetObservable(@NonNull PreparedOperation<R> operation, @NonNull Object liveQueryKey) {
+        final Set<String> tables;
+
+        try {
+            tables = tablesOfQuery();
+        } catch (IllegalStateException exception) {
+            return Observable.error(new StorIOException("Error has occurred during Get operation. type = " + type + ", keys = " + keys, exception));
+        }
+
+        return RxJavaUtils.createSharedGetObservable(storIOSQLite, operation, tables, liveQueryKey);
+    }
+
+    /**
+     * Creates {@link Single} which will perform Get Operation lazily when somebody subscribes to it and send result to observer.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link StorIOSQLite#defaultScheduler()} if not {@code null}.</dd>
+     * </dl>
+     *
+     * @return non-null {@link Single} which will perform Get Operation.
+     * And send result to observer.
+     */
+    @NonNull
+    @CheckResult
+    @Override
+    public Single<List<T>> asRxSingle() {
+        return RxJavaUtils.createSingle(storIOSQLite, this);
+    }
+
+    /**
+     * Same as {@link #asRxSingle()}, but sends objects by their keys,
+     * see {@link #executeAsBlockingAsMap()}.
+     *
+     * @return non-null {@link Single} which will perform Get Operation.
+     * And send result to observer.
+     */
+    @NonNull
+    @CheckResult
+    public Single<Map<K, T>> asRxSingleAsMap() {
+        return RxJavaUtils.createSingle(storIOSQLite, new AsMap());
+    }
+
+    /**
+     * Get Operation of objects by their keys, see {@link #executeAsBlockingAsMap()}.
+     */
+    private class AsMap implements PreparedOperation<Map<K, T>> {
+
+        @NonNull
+        @Override
+        public Map<K, T> executeAsBlocking() {
+            return executeAsBlockingAsMap();
+        }
+
+        @NonNull
+        @Override
+        public Observable<Map<K, T>> createObservable() {
+            return asRxObservableAsMap();
+        }
+
+        @NonNull
+        @Override
+        public Observable<Map<K, T>> asRxObservable() {
+            return asRxObservableAsMap();
+        }
+
+        @NonNull
+        @Override
+        public Single<Map<K, T>> asRxSingle() {
+            return asRxSingleAsMap();
+        }
+    }
+
+    /**
+     * Builder for {@link PreparedGetObjectsByKeys}.
+     *
+     * @param <T> type of objects.
+     * @param <K> type of keys.
+     */
+    public static class Builder<T, K> {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Class<T> type;
+
+        @NonNull
+        private final List<K> keys;
+
+        @Nullable
+        private GetResolver<T> getResolver;
+
+        Builder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type, @NonNull Collection<K> keys) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+            // Copy, so later changes of the collection do not affect the operation
+            this.keys = unmodifiableList(new ArrayList<K>(keys));
+        }
+
+        /**
+         * Optional: Specifies resolver for Get Operation, it should be {@link DefaultGetResolver}
+         * which returns table and key column.
+         * <p>
+         * {@link SQLiteTypeMapping} can be used to set default GetResolver.
+         * If GetResolver is not set via {@link SQLiteTypeMapping}
+         * or explicitly — exception will be thrown.
+         *
+         * @param getResolver nullable resolver for Get Operation.
+         * @return builder.
+         */
+        @NonNull
+        public Builder<T, K> withGetResolver(@Nullable GetResolver<T> getResolver) {
+            this.getResolver = getResolver;
+            return this;
+        }
+
+        /**
+         * Builds new instance of {@link PreparedGetObjectsByKeys}.
+         *
+         * @return new instance of {@link PreparedGetObjectsByKeys}.
+         */
+        @NonNull
+        public PreparedGetObjectsByKeys<T, K> prepare() {
+            return new PreparedGetObjectsByKeys<T, K>(storIOSQLite, type, keys, getResolver);
+        }
+    }
+}
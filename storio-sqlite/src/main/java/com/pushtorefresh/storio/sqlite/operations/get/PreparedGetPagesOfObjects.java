@@ -0,0 +1,432 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import rx.Observable;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotEmpty;
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJavaIsNotAvailable;
+
+/**
+ * Prepared Get Operation for {@link StorIOSQLite} that loads objects page by page
+ * with keyset pagination: each page is selected by {@code WHERE key > ? ORDER BY key LIMIT n},
+ * so loading of deep pages is as fast as loading of first page, unlike {@code OFFSET}.
+ * <p>
+ * Values of key column should be unique, for example, primary key.
+ *
+ * @param <T> type of results.
+ */
+public class PreparedGetPagesOfObjects<T> {
+
+    @NonNull
+    private final StorIOSQLite storIOSQLite;
+
+    @NonNull
+    private final Class<T> type;
+
+    @NonNull
+    private final Query query;
+
+    @NonNull
+    private final String keyColumn;
+
+    private final int pageSize;
+
+    private final boolean prefetch;
+
+    @Nullable
+    private final GetResolver<T> explicitGetResolver;
+
+    PreparedGetPagesOfObjects(@NonNull StorIOSQLite storIOSQLite,
+                              @NonNull Class<T> type,
+                              @NonNull Query query,
+                              @NonNull String keyColumn,
+                              int pageSize,
+                              boolean prefetch,
+                              @Nullable GetResolver<T> explicitGetResolver) {
+        this.storIOSQLite = storIOSQLite;
+        this.type = type;
+        this.query = query;
+        this.keyColumn = keyColumn;
+        this.pageSize = pageSize;
+        this.prefetch = prefetch;
+        this.explicitGetResolver = explicitGetResolver;
+    }
+
+    /**
+     * Loads first page immediately in current thread.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread,
+     * it can cause ANR (Activity Not Responding dialog), block the UI and drop animations frames.
+     * So please, call this method on some background thread. See {@link WorkerThread}.
+     *
+     * @return non-null first page.
+     */
+    @WorkerThread
+    @NonNull
+    public Page<T> executeAsBlocking() {
+        return loadPage(null, null);
+    }
+
+    /**
+     * Loads page that follows passed page immediately in current thread.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread,
+     * it can cause ANR (Activity Not Responding dialog), block the UI and drop animations frames.
+     * So please, call this method on some background thread. See {@link WorkerThread}.
+     *
+     * @param previousPage non-null previous page.
+     * @return non-null next page, empty if there is no next page.
+     */
+    @WorkerThread
+    @NonNull
+    public Page<T> executeAsBlocking(@NonNull Page<T> previousPage) {
+        checkNotNull(previousPage, "Please specify previous page");
+
+        if (!previousPage.hasNextPage()) {
+            return new Page<T>(Collections.<T>emptyList(), previousPage.lastKey(), null, false);
+        }
+
+        return loadPage(previousPage.lastKey(), null);
+    }
+
+    /**
+     * Creates "Hot" {@link Observable} which emits loaded pages: first page after subscription
+     * and one more page after each emission of {@code nextPageRequests}.
+     * <p>
+     * Next page is prefetched in background after each emission if prefetch is enabled,
+     * so it's emitted without waiting for the query.
+     * <p>
+     * Loaded pages are reloaded after changes of table of the query or tables of related objects,
+     * see {@link GetResolver#relatedTables()}: each page keeps its range of keys, so objects don't jump between pages.
+     * Requests of next page and changes that arrive while pages are loaded are conflated.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Operates on {@link StorIOSQLite#defaultScheduler()} if not {@code null}.</dd>
+     * </dl>
+     * <p>
+     * Please don't forget to unsubscribe from this {@link Observable} because
+     * it's "Hot" and endless.
+     *
+     * @param nextPageRequests non-null {@link Observable}, each emission requests next page.
+     * @return non-null {@link Observable} which will emit snapshots of loaded pages.
+     */
+    @NonNull
+    @CheckResult
+    public Observable<Pages<T>> asRxObservable(@NonNull Observable<?> nextPageRequests) {
+        throwExceptionIfRxJavaIsNotAvailable("asRxObservable()");
+        checkNotNull(nextPageRequests, "Please specify next page requests");
+
+        return Observable
+                .create(new OnSubscribePages<T>(this, storIOSQLite, nextPageRequests, prefetch))
+                .onBackpressureLatest();
+    }
+
+    /**
+     * @return table of the query together with tables of objects related to results,
+     * see {@link GetResolver#relatedTables()}.
+     */
+    @NonNull
+    Set<String> tables() {
+        return PreparedGet.withRelatedTables(Collections.singleton(query.table()), getResolverOrNull());
+    }
+
+    @Nullable
+    private GetResolver<T> getResolverOrNull() {
+        if (explicitGetResolver != null) {
+            return explicitGetResolver;
+        }
+
+        final SQLiteTypeMapping<T> typeMapping = storIOSQLite.lowLevel().typeMapping(type);
+        return typeMapping != null ? typeMapping.getResolver() : null;
+    }
+
+    /**
+     * Loads page with keys in range ({@code afterKey}, {@code upToKey}].
+     *
+     * @param afterKey exclusive lower bound of keys or {@code null} for first page.
+     * @param upToKey  inclusive upper bound of keys of page with fixed range
+     *                 or {@code null} to load up to page size objects.
+     * @return non-null page.
+     */
+    @WorkerThread
+    @NonNull
+    Page<T> loadPage(@Nullable String afterKey, @Nullable String upToKey) {
+        final Query pageQuery = pageQuery(afterKey, upToKey);
+
+        try {
+            final GetResolver<T> getResolver = getResolverOrNull();
+
+            if (getResolver == null) {
+                throw new IllegalStateException("This type does not have type mapping: " +
+                        "type = " + type + "," +
+                        "db was not touched by this operation, please add type mapping for this type");
+            }
+
+            final Cursor cursor = getResolver.performGet(storIOSQLite, pageQuery);
+            final List<T> items;
+            final Page<T> page;
+
+            try {
+                final int count = cursor.getCount();
+
+                // Page of fixed range is not limited, otherwise one extra row tells whether there is next page
+                final int numberOfItems = upToKey != null ? count : Math.min(count, pageSize);
+                items = new ArrayList<T>(numberOfItems);
+                String lastKey = upToKey;
+
+                if (numberOfItems > 0) {
+                    final int keyColumnIndex = cursor.getColumnIndexOrThrow(keyColumn);
+                    final int[] columnIndices = getResolver.columnIndices(cursor);
+
+                    for (int i = 0; i < numberOfItems && cursor.moveToNext(); i++) {
+                        items.add(columnIndices != null
+                                ? getResolver.mapFromCursor(cursor, columnIndices)
+                                : getResolver.mapFromCursor(cursor));
+
+                        if (upToKey == null && i == numberOfItems - 1) {
+                            lastKey = cursor.getString(keyColumnIndex);
+                        }
+                    }
+                }
+
+                final boolean hasNextPage = upToKey != null || count > pageSize;
+                page = new Page<T>(items, afterKey, lastKey, hasNextPage);
+            } finally {
+                cursor.close();
+            }
+
+            if (!items.isEmpty()) {
+                getResolver.loadRelations(storIOSQLite, items);
+            }
+
+            return page;
+        } catch (Exception exception) {
+            throw new StorIOException("Error has occurred during Get operation. query = " + pageQuery, exception);
+        }
+    }
+
+    @NonNull
+    private Query pageQuery(@Nullable String afterKey, @Nullable String upToKey) {
+        final StringBuilder where = new StringBuilder();
+        final List<Object> whereArgs = new ArrayList<Object>(query.whereArgs());
+
+        if (query.where().length() > 0) {
+            where.append('(').append(query.where()).append(')');
+        }
+
+        if (afterKey != null) {
+            where.append(where.length() > 0 ? " AND " : "").append(keyColumn).append(" > ?");
+            whereArgs.add(afterKey);
+        }
+
+        if (upToKey != null) {
+            where.append(where.length() > 0 ? " AND " : "").append(keyColumn).append(" <= ?");
+            whereArgs.add(upToKey);
+        }
+
+        final Query.CompleteBuilder builder = query.toBuilder()
+                .where(where.toString())
+                .whereArgs(whereArgs)
+                .orderBy(keyColumn);
+
+        if (upToKey == null) {
+            builder.limit(pageSize + 1);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Builder for {@link PreparedGetPagesOfObjects} Operation.
+     *
+     * @param <T> type of objects.
+     */
+    public static class Builder<T> {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Class<T> type;
+
+        Builder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+        }
+
+        /**
+         * Required: Specifies query which selects objects of all pages.
+         * <p>
+         * Query should not have {@code ORDER BY}, {@code LIMIT}, {@code GROUP BY} and {@code HAVING} clauses,
+         * pages are ordered and limited by key column.
+         *
+         * @param query non-null query.
+         * @return builder.
+         * @see Query
+         */
+        @NonNull
+        public KeyColumnBuilder<T> withQuery(@NonNull Query query) {
+            checkNotNull(query, "Please specify query");
+
+            if (query.orderBy().length() > 0 || query.limit().length() > 0
+                    || query.groupBy().length() > 0 || query.having().length() > 0) {
+                throw new IllegalArgumentException("Query of pages should not have orderBy, limit, groupBy and having, "
+                        + "pages are ordered and limited by key column, query = " + query);
+            }
+
+            return new KeyColumnBuilder<T>(storIOSQLite, type, query);
+        }
+    }
+
+    /**
+     * Builder for {@link PreparedGetPagesOfObjects} Operation.
+     *
+     * @param <T> type of objects.
+     */
+    public static class KeyColumnBuilder<T> {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Class<T> type;
+
+        @NonNull
+        private final Query query;
+
+        KeyColumnBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type, @NonNull Query query) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+            this.query = query;
+        }
+
+        /**
+         * Required: Specifies column with unique values that orders objects and splits them into pages,
+         * for example, primary key.
+         *
+         * @param keyColumn non-null, non-empty name of key column as it appears in {@link Cursor}.
+         * @param pageSize  max number of objects in loaded page, must be positive.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> withKeyColumn(@NonNull String keyColumn, int pageSize) {
+            checkNotEmpty(keyColumn, "Please specify key column");
+
+            if (pageSize <= 0) {
+                throw new IllegalArgumentException("Page size should be positive, pageSize = " + pageSize);
+            }
+
+            if (!query.columns().isEmpty() && !query.columns().contains(keyColumn)) {
+                throw new IllegalArgumentException("Columns of query should contain key column, keyColumn = "
+                        + keyColumn + ", query = " + query);
+            }
+
+            return new CompleteBuilder<T>(storIOSQLite, type, query, keyColumn, pageSize);
+        }
+    }
+
+    /**
+     * Compile-safe part of {@link Builder}.
+     *
+     * @param <T> type of objects.
+     */
+    public static class CompleteBuilder<T> {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Class<T> type;
+
+        @NonNull
+        private final Query query;
+
+        @NonNull
+        private final String keyColumn;
+
+        private final int pageSize;
+
+        private boolean prefetch = true;
+
+        @Nullable
+        private GetResolver<T> getResolver;
+
+        CompleteBuilder(@NonNull StorIOSQLite storIOSQLite,
+                        @NonNull Class<T> type,
+                        @NonNull Query query,
+                        @NonNull String keyColumn,
+                        int pageSize) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+            this.query = query;
+            this.keyColumn = keyColumn;
+            this.pageSize = pageSize;
+        }
+
+        /**
+         * Optional: Specifies resolver for Get Operation which can be used
+         * to provide custom behavior of Get Operation.
+         * <p>
+         * {@link SQLiteTypeMapping} can be used to set default GetResolver.
+         * If GetResolver is not set via {@link SQLiteTypeMapping}
+         * or explicitly — exception will be thrown.
+         *
+         * @param getResolver nullable resolver for Get Operation.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> withGetResolver(@Nullable GetResolver<T> getResolver) {
+            this.getResolver = getResolver;
+            return this;
+        }
+
+        /**
+         * Optional: Specifies whether next page should be loaded in background
+         * before it's requested by {@link PreparedGetPagesOfObjects#asRxObservable(Observable)}.
+         * <p>
+         * Default value is {@code true}.
+         *
+         * @param prefetch {@code false} to load next page only when it's requested.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> prefetch(boolean prefetch) {
+            this.prefetch = prefetch;
+            return this;
+        }
+
+        /**
+         * Builds new instance of {@link PreparedGetPagesOfObjects}.
+         *
+         * @return new instance of {@link PreparedGetPagesOfObjects}.
+         */
+        @NonNull
+        public PreparedGetPagesOfObjects<T> prepare() {
+            return new PreparedGetPagesOfObjects<T>(
+                    storIOSQLite,
+                    type,
+                    query,
+                    keyColumn,
+                    pageSize,
+                    prefetch,
+                    getResolver
+            );
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import rx.Observable;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJavaIsNotAvailable;
+
+/**
+ * Prepared Get Operation for {@link StorIOSQLite} that maps rows to objects lazily,
+ * so only objects that are consumed at the moment are held in memory.
+ * <p>
+ * Useful for exports, reindexing and other jobs over big number of rows.
+ * Related objects are loaded per chunk of rows, see {@link CursorIterator}.
+ *
+ * @param <T> type of results.
+ */
+public class PreparedGetStreamOfObjects<T> {
+
+    @NonNull
+    private final StorIOSQLite storIOSQLite;
+
+    @NonNull
+    private final Class<T> type;
+
+    @Nullable
+    private final Query query;
+
+    @Nullable
+    private final RawQuery rawQuery;
+
+    @Nullable
+    private final GetResolver<T> explicitGetResolver;
+
+    PreparedGetStreamOfObjects(@NonNull StorIOSQLite storIOSQLite,
+                               @NonNull Class<T> type,
+                               @NonNull Query query,
+                               @Nullable GetResolver<T> explicitGetResolver) {
+        this.storIOSQLite = storIOSQLite;
+        this.type = type;
+        this.query = query;
+        this.rawQuery = null;
+        this.explicitGetResolver = explicitGetResolver;
+    }
+
+    PreparedGetStreamOfObjects(@NonNull StorIOSQLite storIOSQLite,
+                               @NonNull Class<T> type,
+                               @NonNull RawQuery rawQuery,
+                               @Nullable GetResolver<T> explicitGetResolver) {
+        this.storIOSQLite = storIOSQLite;
+        this.type = type;
+        this.query = null;
+        this.rawQuery = rawQuery;
+        this.explicitGetResolver = explicitGetResolver;
+    }
+
+    /**
+     * Executes query immediately in current thread and returns iterator
+     * that maps rows to objects lazily.
+     * <p>
+     * Notice: This is blocking I/O operation that should not be executed on the Main Thread,
+     * it can cause ANR (Activity Not Responding dialog), block the UI and drop animations frames.
+     * So please, call this method and use returned iterator on some background thread. See {@link WorkerThread}.
+     * <p>
+     * Please {@link CursorIterator#close()} iterator if you don't iterate until the end.
+     *
+     * @return non-null {@link CursorIterator} over mapped results.
+     */
+    @WorkerThread
+    @NonNull
+    public CursorIterator<T> executeAsBlocking() {
+        try {
+            final GetResolver<T> getResolver;
+
+            if (explicitGetResolver != null) {
+                getResolver = explicitGetResolver;
+            } else {
+                final SQLiteTypeMapping<T> typeMapping = storIOSQLite.lowLevel().typeMapping(type);
+
+                if (typeMapping == null) {
+                    throw new IllegalStateException("This type does not have type mapping: " +
+                            "type = " + type + "," +
+                            "db was not touched by this operation, please add type mapping for this type");
+                }
+
+                getResolver = typeMapping.getResolver();
+            }
+
+            final Cursor cursor;
+
+            if (query != null) {
+                cursor = getResolver.performGet(storIOSQLite, query);
+            } else if (rawQuery != null) {
+                cursor = getResolver.performGet(storIOSQLite, rawQuery);
+            } else {
+                throw new IllegalStateException("Please specify query");
+            }
+
+            return new CursorIterator<T>(storIOSQLite, cursor, getResolver);
+        } catch (Exception exception) {
+            throw new StorIOException("Error has occurred during Get operation. query = " + (query != null ? query : rawQuery), exception);
+        }
+    }
+
+    /**
+     * Creates "Cold" {@link Observable} which executes query when somebody subscribes to it
+     * and emits mapped results one by one, then completes.
+     * <p>
+     * Rows are mapped only when subscriber requests them (backpressure),
+     * cursor is closed after last row, on error or on unsubscribe.
+     * Changes of tables are not observed.
+     * <dl>
+     * <dt><b>Scheduler:</b></dt>
+     * <dd>Query and mapping of rows are executed on {@link StorIOSQLite#defaultScheduler()} if not {@code null},
+     * even if subscriber requests rows from another thread.</dd>
+     * </dl>
+     *
+     * @return non-null {@link Observable} which will emit mapped results.
+     */
+    @NonNull
+    @CheckResult
+    public Observable<T> asRxObservable() {
+        throwExceptionIfRxJavaIsNotAvailable("asRxObservable()");
+        return RxJavaUtils.createStreamObservable(storIOSQLite, this);
+    }
+
+    /**
+     * Builder for {@link PreparedGetStreamOfObjects} Operation.
+     *
+     * @param <T> type of objects.
+     */
+    public static class Builder<T> {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Class<T> type;
+
+        Builder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+        }
+
+        /**
+         * Required: Specifies query which will be passed to {@link StorIOSQLite}
+         * to get stream of objects.
+         *
+         * @param query non-null query.
+         * @return builder.
+         * @see Query
+         */
+        @NonNull
+        public CompleteBuilder<T> withQuery(@NonNull Query query) {
+            checkNotNull(query, "Please specify query");
+            return new CompleteBuilder<T>(storIOSQLite, type, query);
+        }
+
+        /**
+         * Required: Specifies {@link RawQuery} for Get Operation,
+         * you can use it for "joins" and same constructions which are not allowed for {@link Query}.
+         *
+         * @param rawQuery query.
+         * @return builder.
+         * @see RawQuery
+         */
+        @NonNull
+        public CompleteBuilder<T> withQuery(@NonNull RawQuery rawQuery) {
+            checkNotNull(rawQuery, "Please specify rawQuery");
+            return new CompleteBuilder<T>(storIOSQLite, type, rawQuery);
+        }
+    }
+
+    /**
+     * Compile-safe part of {@link Builder}.
+     *
+     * @param <T> type of objects.
+     */
+    public static class CompleteBuilder<T> {
+
+        @NonNull
+        private final StorIOSQLite storIOSQLite;
+
+        @NonNull
+        private final Class<T> type;
+
+        @Nullable
+        Query query;
+
+        @Nullable
+        RawQuery rawQuery;
+
+        @Nullable
+        private GetResolver<T> getResolver;
+
+        CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type, @NonNull Query query) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+            this.query = query;
+            rawQuery = null;
+        }
+
+        CompleteBuilder(@NonNull StorIOSQLite storIOSQLite, @NonNull Class<T> type, @NonNull RawQuery rawQuery) {
+            this.storIOSQLite = storIOSQLite;
+            this.type = type;
+            this.rawQuery = rawQuery;
+            query = null;
+        }
+
+        /**
+         * Optional: Specifies resolver for Get Operation which can be used
+         * to provide custom behavior of Get Operation.
+         * <p>
+         * {@link SQLiteTypeMapping} can be used to set default GetResolver.
+         * If GetResolver is not set via {@link SQLiteTypeMapping}
+         * or explicitly — exception will be thrown.
+         *
+         * @param getResolver nullable resolver for Get Operation.
+         * @return builder.
+         */
+        @NonNull
+        public CompleteBuilder<T> withGetResolver(@Nullable GetResolver<T> getResolver) {
+            this.getResolver = getResolver;
+            return this;
+        }
+
+        /**
+         * Builds new instance of {@link PreparedGetStreamOfObjects}.
+         *
+         * @return new instance of {@link PreparedGetStreamOfObjects}.
+         */
+        @NonNull
+        public PreparedGetStreamOfObjects<T> prepare() {
+            if (query != null) {
+                return new PreparedGetStreamOfObjects<T>(storIOSQLite, type, query, getResolver);
+            } else if (rawQuery != null) {
+                return new PreparedGetStreamOfObjects<T>(storIOSQLite, type, rawQuery, getResolver);
+            } else {
+                throw new IllegalStateException("Please specify query");
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.pushtorefresh.storio.sqlite.operations.get.PreparedGetObjectsByKeys.MAX_KEYS_PER_QUERY;
+import static com.pushtorefresh.storio.sqlite.operations.get.PreparedGetObjectsByKeys.projectionWith;
+import static com.pushtorefresh.storio.sqlite.operations.get.PreparedGetObjectsByKeys.whereKeyIn;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Loads related objects for all results of Get Operation at once,
+ * used by {@link GetResolver#loadRelations(StorIOSQLite, List)} of generated resolvers.
+ */
+public final class RelatedObjects {
+
+    private RelatedObjects() {
+        throw new IllegalStateException("No instances please");
+    }
+
+    /**
+     * Loads objects which column has one of passed values with {@code WHERE column IN (?, ...)} queries,
+     * each query binds at most 999 values, so N results require one query instead of N queries.
+     * <p>
+     * Objects are mapped by {@link GetResolver} of type mapping of their type,
+     * their own relations are not loaded.
+     *
+     * @param storIOSQLite {@link StorIOSQLite} instance to perform get from.
+     * @param type         type of related objects, it should have type mapping.
+     * @param table        table of related objects.
+     * @param column       column of related objects that is matched with values.
+     * @param values       values of column, {@code null} values are skipped.
+     * @param <T>          type of related objects.
+     * @return non-null map of immutable lists of related objects by string representation of value of column,
+     * values without related objects are absent.
+     */
+    @WorkerThread
+    @NonNull
+    public static <T> Map<String, List<T>> load(
+            @NonNull StorIOSQLite storIOSQLite,
+            @NonNull Class<T> type,
+            @NonNull String table,
+            @NonNull String column,
+            @NonNull Collection<?> values) {
+
+        final SQLiteTypeMapping<T> typeMapping = storIOSQLite.lowLevel().typeMapping(type);
+
+        if (typeMapping == null) {
+            throw new IllegalStateException("This type does not have type mapping: " +
+                    "type = " + type + "," +
+                    "please add type mapping for related type");
+        }
+
+        final GetResolver<T> getResolver = typeMapping.getResolver();
+
+        // Same value is selected once
+        final Set<String> distinctValues = new LinkedHashSet<String>(values.size());
+
+        for (Object value : values) {
+            if (value != null) {
+                distinctValues.add(String.valueOf(value));
+            }
+        }
+
+        final List<String> keys = new ArrayList<String>(distinctValues);
+        final Map<String, List<T>> objects = new HashMap<String, List<T>>(keys.size());
+
+        for (int start = 0; start < keys.size(); start += MAX_KEYS_PER_QUERY) {
+            final List<String> chunk = keys.subList(start, Math.min(start + MAX_KEYS_PER_QUERY, keys.size()));
+
+            final Cursor cursor = getResolver.performGet(storIOSQLite, Query.builder()
+                    .table(table)
+                    .columns(projectionWith(getResolver, column))
+                    .where(whereKeyIn(column, chunk.size()))
+                    .whereArgs(chunk.toArray())
+                    .build());
+
+            try {
+                final int columnIndex = cursor.getColumnIndexOrThrow(column);
+                final int[] columnIndices = getResolver.columnIndices(cursor);
+
+                while (cursor.moveToNext()) {
+                    final String value = cursor.getString(columnIndex);
+                    List<T> list = objects.get(value);
+
+                    if (list == null) {
+                        list = new ArrayList<T>();
+                        objects.put(value, list);
+                    }
+
+                    list.add(columnIndices != null
+                            ? getResolver.mapFromCursor(cursor, columnIndices)
+                            : getResolver.mapFromCursor(cursor));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        for (Map.Entry<String, List<T>> entry : objects.entrySet()) {
+            entry.setValue(unmodifiableList(entry.getValue()));
+        }
+
+        return objects;
+    }
+}
@@ -0,0 +1,153 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import java.util.List;
+
+/**
+ * Builds SQL of statements that compute result of Get Operation in SQLite
+ * instead of reading rows of {@link Query} into {@link android.database.Cursor}.
+ */
+final class SelectStatements {
+
+    private SelectStatements() {
+        throw new IllegalStateException("No instances please");
+    }
+
+    /**
+     * @return {@code SELECT expression FROM table WHERE ...} if rows of query are just rows matched by where clause,
+     * otherwise {@code SELECT expression FROM (query)}, because number of rows of
+     * distinct, grouped or limited query differs from number of matched rows.
+     */
+    @NonNull
+    static String selectFromQuery(@NonNull String expression, @NonNull Query query) {
+        final StringBuilder sql = new StringBuilder("SELECT ")
+                .append(expression)
+                .append(" FROM ");
+
+        if (isPlain(query)) {
+            sql.append(query.table());
+            appendClause(sql, " WHERE ", query.where());
+        } else {
+            sql.append('(');
+            appendSelect(sql, query);
+            sql.append(')');
+        }
+
+        return sql.toString();
+    }
+
+    /**
+     * @return {@code SELECT COUNT(*) FROM ...} statement that returns number of rows of query.
+     */
+    @NonNull
+    static RawQuery countQueryOf(@NonNull Query query) {
+        return RawQuery.builder()
+                .query(selectFromQuery("COUNT(*)", query))
+                .args(query.whereArgs().toArray())
+                .build();
+    }
+
+    /**
+     * @return {@code SELECT COUNT(*) FROM (rawQuery)} statement.
+     */
+    @NonNull
+    static RawQuery countQueryOf(@NonNull RawQuery rawQuery) {
+        return selectFromRawQuery("COUNT(*)", rawQuery);
+    }
+
+    /**
+     * @return {@code SELECT EXISTS(...)} statement that returns 1 if query selects at least one row, 0 otherwise.
+     */
+    @NonNull
+    static RawQuery existsQueryOf(@NonNull Query query) {
+        final StringBuilder sql = new StringBuilder("SELECT EXISTS(");
+
+        if (isPlain(query)) {
+            sql.append("SELECT 1 FROM ").append(query.table());
+            appendClause(sql, " WHERE ", query.where());
+            sql.append(" LIMIT 1");
+        } else {
+            appendSelect(sql, query);
+        }
+
+        sql.append(')');
+
+        return RawQuery.builder()
+                .query(sql.toString())
+                .args(query.whereArgs().toArray())
+                .build();
+    }
+
+    /**
+     * @return raw query wrapped as subquery: {@code SELECT expression FROM (rawQuery)}.
+     */
+    @NonNull
+    static RawQuery selectFromRawQuery(@NonNull String expression, @NonNull RawQuery rawQuery) {
+        return RawQuery.builder()
+                .query("SELECT " + expression + " FROM (" + statementOf(rawQuery) + ")")
+                .args(rawQuery.args().toArray())
+                .build();
+    }
+
+    /**
+     * @return {@code SELECT EXISTS(rawQuery)} statement.
+     */
+    @NonNull
+    static RawQuery existsQueryOf(@NonNull RawQuery rawQuery) {
+        return RawQuery.builder()
+                .query("SELECT EXISTS(" + statementOf(rawQuery) + ")")
+                .args(rawQuery.args().toArray())
+                .build();
+    }
+
+    private static boolean isPlain(@NonNull Query query) {
+        return !query.distinct()
+                && query.groupBy().length() == 0
+                && query.having().length() == 0
+                && query.limit().length() == 0;
+    }
+
+    private static void appendSelect(@NonNull StringBuilder sql, @NonNull Query query) {
+        sql.append(query.distinct() ? "SELECT DISTINCT " : "SELECT ");
+
+        final List<String> columns = query.columns();
+
+        if (columns.isEmpty()) {
+            sql.append('*');
+        } else {
+            for (int i = 0; i < columns.size(); i++) {
+                sql.append(i > 0 ? ", " : "").append(columns.get(i));
+            }
+        }
+
+        sql.append(" FROM ").append(query.table());
+
+        appendClause(sql, " WHERE ", query.where());
+        appendClause(sql, " GROUP BY ", query.groupBy());
+        appendClause(sql, " HAVING ", query.having());
+        appendClause(sql, " ORDER BY ", query.orderBy());
+        appendClause(sql, " LIMIT ", query.limit());
+    }
+
+    private static void appendClause(@NonNull StringBuilder sql, @NonNull String keyword, @NonNull String clause) {
+        if (clause.length() > 0) {
+            sql.append(keyword).append(clause);
+        }
+    }
+
+    // Trailing semicolon is not allowed in subquery
+    @NonNull
+    private static String statementOf(@NonNull RawQuery rawQuery) {
+        String sql = rawQuery.query().trim();
+
+        while (sql.endsWith(";")) {
+            sql = sql.substring(0, sql.length() - 1).trim();
+        }
+
+        return sql;
+    }
+}
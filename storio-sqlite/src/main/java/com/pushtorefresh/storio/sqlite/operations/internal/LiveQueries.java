@@ -0,0 +1,121 @@
+package com.pushtorefresh.storio.sqlite.operations.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action0;
+
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+
+/**
+ * FOR INTERNAL USAGE ONLY.
+ * <p>
+ * Registry of live queries of one {@link com.pushtorefresh.storio.sqlite.StorIOSQLite}:
+ * equal live queries share one upstream subscription, so query is executed once per change
+ * for all their subscribers. New subscribers receive latest result immediately,
+ * live query is removed from registry and unsubscribed from upstream when its last subscriber leaves.
+ * <p>
+ * Hides RxJava from ClassLoader via separate class.
+ */
+public final class LiveQueries {
+
+    @NonNull
+    private final ConcurrentMap<Object, Observable<?>> liveQueries = new ConcurrentHashMap<Object, Observable<?>>();
+
+    /**
+     * Returns {@link Observable} shared between all subscribers of live queries with equal key.
+     * <p>
+     * Live query is registered only when somebody subscribes to returned {@link Observable}.
+     *
+     * @param key       non-null key of live query, must implement {@code equals()} and {@code hashCode()}.
+     * @param liveQuery non-null {@link Observable} that will be shared if there is no live query with equal key.
+     * @param <T>       type of results.
+     * @return shared {@link Observable}.
+     */
+    @NonNull
+    public <T> Observable<T> share(@NonNull Object key, @NonNull Observable<T> liveQuery) {
+        checkNotNull(key, "Key of live query can not be null");
+        checkNotNull(liveQuery, "Live query can not be null");
+
+        return Observable.create(new OnSubscribeLiveQuery<T>(key, liveQuery));
+    }
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    private <T> Observable<T> sharedLiveQuery(@NonNull Object key, @NonNull Observable<T> liveQuery) {
+        final Observable<T> existing = (Observable<T>) liveQueries.get(key);
+
+        if (existing != null) {
+            return existing;
+        }
+
+        final RemoveLiveQuery removeLiveQuery = new RemoveLiveQuery(key);
+
+        final Observable<T> shared = liveQuery
+                .doOnTerminate(removeLiveQuery)
+                .doOnUnsubscribe(removeLiveQuery)
+                .replay(1)
+                .refCount();
+
+        // Set before publication, upstream can't be subscribed before that
+        removeLiveQuery.liveQuery = shared;
+
+        final Observable<T> concurrentlyAdded = (Observable<T>) liveQueries.putIfAbsent(key, shared);
+        return concurrentlyAdded != null ? concurrentlyAdded : shared;
+    }
+
+    /**
+     * Number of live queries that have subscribers.
+     */
+    public int numberOfLiveQueries() {
+        return liveQueries.size();
+    }
+
+    private final class OnSubscribeLiveQuery<T> implements Observable.OnSubscribe<T> {
+
+        @NonNull
+        private final Object key;
+
+        @NonNull
+        private final Observable<T> liveQuery;
+
+        OnSubscribeLiveQuery(@NonNull Object key, @NonNull Observable<T> liveQuery) {
+            this.key = key;
+            this.liveQuery = liveQuery;
+        }
+
+        @Override
+        public void call(Subscriber<? super T> subscriber) {
+            // If shared live query is torn down right before this, subscriber just starts it again
+            sharedLiveQuery(key, liveQuery).unsafeSubscribe(subscriber);
+        }
+    }
+
+    private final class RemoveLiveQuery implements Action0 {
+
+        @NonNull
+        private final Object key;
+
+        @Nullable
+        volatile Observable<?> liveQuery;
+
+        RemoveLiveQuery(@NonNull Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public void call() {
+            final Observable<?> liveQuery = this.liveQuery;
+
+            // Removes only own entry, equal live query could be registered after teardown
+            if (liveQuery != null) {
+                liveQueries.remove(key, liveQuery);
+            }
+        }
+    }
+}
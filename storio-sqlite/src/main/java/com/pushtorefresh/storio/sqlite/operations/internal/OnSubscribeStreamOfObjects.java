@@ -0,0 +1,245 @@
+package com.pushtorefresh.storio.sqlite.operations.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlite.operations.get.CursorIterator;
+import com.pushtorefresh.storio.sqlite.operations.get.PreparedGetStreamOfObjects;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import rx.Observable;
+import rx.Producer;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.exceptions.Exceptions;
+import rx.functions.Action0;
+import rx.subscriptions.Subscriptions;
+
+/**
+ * Required to avoid problems with ClassLoader when RxJava is not in ClassPath
+ * We can not use anonymous classes from RxJava directly in StorIO, ClassLoader won't be happy :(
+ * <p>
+ * Executes {@link PreparedGetStreamOfObjects} after first request and emits objects
+ * only as many as subscriber requested, cursor is closed after last object, on error or on unsubscribe.
+ * <p>
+ * If {@link Scheduler} is passed, query and mapping of rows happen on one of its workers,
+ * otherwise on the thread that requested objects.
+ * <p>
+ * For internal usage only!
+ */
+public final class OnSubscribeStreamOfObjects<T> implements Observable.OnSubscribe<T> {
+
+    @NonNull
+    private final PreparedGetStreamOfObjects<T> preparedOperation;
+
+    @Nullable
+    private final Scheduler scheduler;
+
+    private OnSubscribeStreamOfObjects(@NonNull PreparedGetStreamOfObjects<T> preparedOperation,
+                                       @Nullable Scheduler scheduler) {
+        this.preparedOperation = preparedOperation;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Creates new instance of {@link OnSubscribeStreamOfObjects}
+     *
+     * @param preparedOperation non-null instance of {@link PreparedGetStreamOfObjects}
+     * @param scheduler         nullable {@link Scheduler} to execute query and map rows on
+     * @param <T>               type of objects
+     * @return new instance of {@link OnSubscribeStreamOfObjects}
+     */
+    @NonNull
+    public static <T> Observable.OnSubscribe<T> newInstance(@NonNull PreparedGetStreamOfObjects<T> preparedOperation,
+                                                            @Nullable Scheduler scheduler) {
+        return new OnSubscribeStreamOfObjects<T>(preparedOperation, scheduler);
+    }
+
+    @Override
+    public void call(Subscriber<? super T> subscriber) {
+        final StreamProducer<T> producer = new StreamProducer<T>(
+                preparedOperation,
+                subscriber,
+                scheduler != null ? scheduler.createWorker() : null
+        );
+
+        // Cursor is closed by drain loop, so it's not read and closed concurrently
+        subscriber.add(Subscriptions.create(new Action0() {
+            @Override
+            public void call() {
+                producer.drain();
+            }
+        }));
+
+        subscriber.setProducer(producer);
+    }
+
+    // Extends AtomicLong to keep number of requested objects without extra allocation
+    static final class StreamProducer<T> extends AtomicLong implements Producer, Action0 {
+
+        @NonNull
+        private final PreparedGetStreamOfObjects<T> preparedOperation;
+
+        @NonNull
+        private final Subscriber<? super T> child;
+
+        /**
+         * Unsubscribed by drain loop after termination, not by child:
+         * drain scheduled by unsubscription should still run and close cursor.
+         */
+        @Nullable
+        private final Scheduler.Worker worker;
+
+        @NonNull
+        private final AtomicInteger wip = new AtomicInteger();
+
+        /**
+         * Accessed only in drain loop.
+         */
+        @Nullable
+        private CursorIterator<T> iterator;
+
+        StreamProducer(@NonNull PreparedGetStreamOfObjects<T> preparedOperation,
+                       @NonNull Subscriber<? super T> child,
+                       @Nullable Scheduler.Worker worker) {
+            this.preparedOperation = preparedOperation;
+            this.child = child;
+            this.worker = worker;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("n >= 0 required, n = " + n);
+            }
+
+            if (n > 0) {
+                addRequested(n);
+                drain();
+            }
+        }
+
+        /**
+         * Adds {@code n} to requested amount, capped at {@link Long#MAX_VALUE}.
+         */
+        private void addRequested(long n) {
+            for (; ; ) {
+                final long current = get();
+
+                if (current == Long.MAX_VALUE) {
+                    return;
+                }
+
+                long next = current + n;
+
+                if (next < 0) {
+                    next = Long.MAX_VALUE;
+                }
+
+                if (compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() == 0) {
+                if (worker != null) {
+                    worker.schedule(this);
+                } else {
+                    call();
+                }
+            }
+        }
+
+        @Override
+        public void call() {
+            int missed = 1;
+
+            for (; ; ) {
+                if (child.isUnsubscribed()) {
+                    terminate();
+                    return;
+                }
+
+                final long requested = get();
+
+                if (iterator == null && requested != 0) {
+                    try {
+                        iterator = preparedOperation.executeAsBlocking();
+                    } catch (Throwable t) {
+                        terminate();
+                        Exceptions.throwOrReport(t, child);
+                        return;
+                    }
+                }
+
+                final CursorIterator<T> iterator = this.iterator;
+
+                if (iterator != null) {
+                    long emitted = 0;
+
+                    for (; ; ) {
+                        if (child.isUnsubscribed()) {
+                            terminate();
+                            return;
+                        }
+
+                        final boolean hasNext;
+                        T object = null;
+
+                        try {
+                            hasNext = iterator.hasNext();
+
+                            if (hasNext && emitted != requested) {
+                                object = iterator.next();
+                            }
+                        } catch (Throwable t) {
+                            terminate();
+                            Exceptions.throwOrReport(t, child);
+                            return;
+                        }
+
+                        if (!hasNext) {
+                            terminate();
+                            child.onCompleted();
+                            return;
+                        }
+
+                        if (emitted == requested) {
+                            break;
+                        }
+
+                        child.onNext(object);
+                        emitted++;
+                    }
+
+                    if (emitted != 0 && requested != Long.MAX_VALUE) {
+                        addAndGet(-emitted);
+                    }
+                }
+
+                missed = wip.addAndGet(-missed);
+
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Keeps {@link #wip} non-zero, so drain loop won't run anymore.
+         */
+        private void terminate() {
+            if (iterator != null) {
+                iterator.close();
+            }
+
+            if (worker != null) {
+                worker.unsubscribe();
+            }
+        }
+    }
+}
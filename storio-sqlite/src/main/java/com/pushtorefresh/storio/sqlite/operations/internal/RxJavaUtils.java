@@ -2,17 +2,29 @@ package com.pushtorefresh.storio.sqlite.operations.internal;
 
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.operations.PreparedOperation;
+import com.pushtorefresh.storio.operations.internal.OnSubscribeConflatingReQuery;
 import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlocking;
 import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlockingCompletable;
 import com.pushtorefresh.storio.operations.internal.OnSubscribeExecuteAsBlockingSingle;
+import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.get.ListDiff;
+import com.pushtorefresh.storio.sqlite.operations.get.PreparedGetStreamOfObjects;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 import rx.Completable;
 import rx.Observable;
 import rx.Scheduler;
 import rx.Single;
+import rx.functions.Func0;
+import rx.functions.Func1;
 
 import static com.pushtorefresh.storio.internal.Environment.throwExceptionIfRxJavaIsNotAvailable;
 
@@ -36,6 +48,137 @@ public final class RxJavaUtils {
         return subscribeOn(storIOSQLite, observable);
     }
 
+    /**
+     * Creates {@link Observable} for Get Operation: emits result of the operation after subscription
+     * and re-executes it after changes of tables with conflation,
+     * see {@link OnSubscribeConflatingReQuery}.
+     * <p>
+     * Re-queries are executed on {@link StorIOSQLite#defaultScheduler()} if it's not {@code null}.
+     */
+    @CheckResult
+    @NonNull
+    public static <T> Observable<T> createGetObservable(
+            @NonNull StorIOSQLite storIOSQLite,
+            @NonNull PreparedOperation<T> operation,
+            @NonNull Set<String> tables
+    ) {
+        throwExceptionIfRxJavaIsNotAvailable("asRxObservable()");
+
+        return createGetObservable(
+                storIOSQLite,
+                operation,
+                tables.isEmpty() ? null : storIOSQLite.observeChangesInTables(tables)
+        );
+    }
+
+    @NonNull
+    private static <T> Observable<T> createGetObservable(
+            @NonNull StorIOSQLite storIOSQLite,
+            @NonNull PreparedOperation<T> operation,
+            @Nullable Observable<Changes> changes
+    ) {
+        final Scheduler scheduler = storIOSQLite.defaultScheduler();
+        final Observable<T> observable;
+
+        if (changes != null) {
+            observable = Observable.create(OnSubscribeConflatingReQuery.newInstance(
+                    operation,
+                    changes,
+                    scheduler
+            ));
+        } else {
+            observable = Observable.create(OnSubscribeExecuteAsBlocking.newInstance(operation));
+        }
+
+        return scheduler != null ? observable.subscribeOn(scheduler) : observable;
+    }
+
+    /**
+     * Same as {@link #createGetObservable(StorIOSQLite, PreparedOperation, Set)},
+     * but shares {@link Observable} between subscribers of Get Operations with equal key
+     * via {@link StorIOSQLite#liveQueries()}.
+     */
+    @CheckResult
+    @NonNull
+    public static <T> Observable<T> createSharedGetObservable(
+            @NonNull StorIOSQLite storIOSQLite,
+            @NonNull PreparedOperation<T> operation,
+            @NonNull Set<String> tables,
+            @NonNull Object liveQueryKey
+    ) {
+        final Observable<T> observable = createGetObservable(storIOSQLite, operation, tables);
+
+        // There is nothing to share if query does not observe tables
+        return tables.isEmpty()
+                ? observable
+                : storIOSQLite.liveQueries().share(liveQueryKey, observable);
+    }
+
+    /**
+     * Same as {@link #createSharedGetObservable(StorIOSQLite, PreparedOperation, Set, Object)}
+     * for Get Operation of {@link Query}, but skips re-query after {@link Changes}
+     * that did not affect rows selected by the query, see {@link Changes#mayAffectRows(String, String, java.util.List)}.
+     */
+    @CheckResult
+    @NonNull
+    public static <T> Observable<T> createSharedGetObservable(
+            @NonNull StorIOSQLite storIOSQLite,
+            @NonNull PreparedOperation<T> operation,
+            @NonNull Query query,
+            @NonNull Object liveQueryKey
+    ) {
+        return storIOSQLite.liveQueries().share(liveQueryKey, createGetObservable(storIOSQLite, operation, query));
+    }
+
+    /**
+     * Same as {@link #createSharedGetObservable(StorIOSQLite, PreparedOperation, Query, Object)},
+     * but {@link Observable} is not shared between subscribers.
+     */
+    @CheckResult
+    @NonNull
+    public static <T> Observable<T> createGetObservable(
+            @NonNull StorIOSQLite storIOSQLite,
+            @NonNull PreparedOperation<T> operation,
+            @NonNull Query query
+    ) {
+        throwExceptionIfRxJavaIsNotAvailable("asRxObservable()");
+
+        final Observable<Changes> changes = storIOSQLite
+                .observeChangesInTables(Collections.singleton(query.table()))
+                .filter(new MayAffectRowsOfQuery(query));
+
+        return createGetObservable(storIOSQLite, operation, changes);
+    }
+
+    /**
+     * Creates {@link Observable} that emits objects of {@link PreparedGetStreamOfObjects} with backpressure,
+     * see {@link OnSubscribeStreamOfObjects}.
+     */
+    @CheckResult
+    @NonNull
+    public static <T> Observable<T> createStreamObservable(
+            @NonNull StorIOSQLite storIOSQLite,
+            @NonNull PreparedGetStreamOfObjects<T> operation
+    ) {
+        throwExceptionIfRxJavaIsNotAvailable("asRxObservable()");
+
+        return Observable.create(OnSubscribeStreamOfObjects.newInstance(operation, storIOSQLite.defaultScheduler()));
+    }
+
+    /**
+     * Maps each list emitted by passed {@link Observable} to {@link ListDiff} from previous list
+     * on the thread that emitted it, first list is diffed against empty list.
+     * Each subscriber has its own previous list.
+     */
+    @CheckResult
+    @NonNull
+    public static <T> Observable<ListDiff<T>> diffLists(
+            @NonNull Observable<List<T>> lists,
+            @NonNull ListDiff.KeyExtractor<T> keyExtractor
+    ) {
+        return Observable.defer(new DiffLists<T>(lists, keyExtractor));
+    }
+
     @CheckResult
     @NonNull
     public static <T> Single<T> createSingle(
@@ -93,4 +236,68 @@ public final class RxJavaUtils {
         final Scheduler scheduler = storIOSQLite.defaultScheduler();
         return scheduler != null ? completable.subscribeOn(scheduler) : completable;
     }
+
+    private static final class MayAffectRowsOfQuery implements Func1<Changes, Boolean> {
+
+        @NonNull
+        private final Query query;
+
+        /**
+         * Normalized once, filter is called for each change.
+         */
+        @Nullable
+        private final String normalizedWhere;
+
+        MayAffectRowsOfQuery(@NonNull Query query) {
+            this.query = query;
+            this.normalizedWhere = Changes.normalizeWhere(query.where());
+        }
+
+        @Override
+        public Boolean call(Changes changes) {
+            return changes.mayAffectRows(query.table(), normalizedWhere, query.whereArgs());
+        }
+    }
+
+    private static final class DiffLists<T> implements Func0<Observable<ListDiff<T>>> {
+
+        @NonNull
+        private final Observable<List<T>> lists;
+
+        @NonNull
+        private final ListDiff.KeyExtractor<T> keyExtractor;
+
+        DiffLists(@NonNull Observable<List<T>> lists, @NonNull ListDiff.KeyExtractor<T> keyExtractor) {
+            this.lists = lists;
+            this.keyExtractor = keyExtractor;
+        }
+
+        @Override
+        public Observable<ListDiff<T>> call() {
+            return lists.map(new DiffWithPreviousList<T>(keyExtractor));
+        }
+    }
+
+    private static final class DiffWithPreviousList<T> implements Func1<List<T>, ListDiff<T>> {
+
+        @NonNull
+        private final ListDiff.KeyExtractor<T> keyExtractor;
+
+        /**
+         * Lists are emitted serially, so it's accessed from one thread at a time.
+         */
+        @NonNull
+        private List<T> previousList = Collections.emptyList();
+
+        DiffWithPreviousList(@NonNull ListDiff.KeyExtractor<T> keyExtractor) {
+            this.keyExtractor = keyExtractor;
+        }
+
+        @Override
+        public ListDiff<T> call(List<T> list) {
+            final ListDiff<T> listDiff = ListDiff.calculate(previousList, list, keyExtractor);
+            previousList = listDiff.list();
+            return listDiff;
+        }
+    }
 }
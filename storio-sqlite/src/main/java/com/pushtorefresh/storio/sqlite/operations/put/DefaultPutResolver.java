@@ -3,12 +3,20 @@ package com.pushtorefresh.storio.sqlite.operations.put;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
+import com.pushtorefresh.storio.sqlite.StatementBinder;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
 
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static android.database.sqlite.SQLiteDatabase.CONFLICT_NONE;
+import static android.database.sqlite.SQLiteDatabase.CONFLICT_REPLACE;
 import static com.pushtorefresh.storio.internal.InternalQueries.nullableArrayOfStringsFromListOfStrings;
 import static com.pushtorefresh.storio.internal.InternalQueries.nullableString;
 
@@ -21,6 +29,12 @@ import static com.pushtorefresh.storio.internal.InternalQueries.nullableString;
  */
 public abstract class DefaultPutResolver<T> extends PutResolver<T> {
 
+    @NonNull
+    private static final Pattern AND = Pattern.compile("\\s+(?i:and)\\s+");
+
+    @NonNull
+    private static final Pattern COLUMN_EQUALS_ARG = Pattern.compile("(\\w+)\\s*=\\s*\\?");
+
     /**
      * Converts object of required type to {@link InsertQuery}.
      *
@@ -32,6 +46,11 @@ public abstract class DefaultPutResolver<T> extends PutResolver<T> {
 
     /**
      * Converts object of required type to {@link UpdateQuery}.
+     * <p>
+     * Query should select the row of the object by its key: its where clause and args
+     * are sent to observers as key of affected row, see {@link com.pushtorefresh.storio.sqlite.Changes}.
+     * Key of updated row is sent only if where clause is {@code "column = ?"} conditions joined by {@code AND}
+     * and {@link ContentValues} don't change values of these columns.
      *
      * @param object non-null object that should be converted to {@link UpdateQuery}.
      * @return non-null {@link UpdateQuery}.
@@ -48,49 +67,237 @@ public abstract class DefaultPutResolver<T> extends PutResolver<T> {
     @NonNull
     protected abstract ContentValues mapToContentValues(@NonNull T object);
 
+    /**
+     * Returns {@link StatementBinder} that binds values of the object directly into compiled statement,
+     * it's used instead of {@link #mapToContentValues(Object)} if
+     * {@link StorIOSQLite.LowLevel#canBindStatements()} returns {@code true}.
+     * <p>
+     * Binder should bind same columns as {@link #mapToContentValues(Object)} puts,
+     * so it can not be used if set of columns depends on values of the object.
+     * Subclass that overrides {@link #mapToContentValues(Object)} must override this method too,
+     * for example, return {@code null} from it, otherwise its {@link ContentValues} are not used.
+     *
+     * @return nullable binder, {@code null} by default, so rows are written as {@link ContentValues}.
+     */
+    @Nullable
+    protected StatementBinder<T> statementBinder() {
+        return null;
+    }
+
+    /**
+     * Gets key of the object: where args of its {@link UpdateQuery},
+     * for example, values of primary key columns.
+     *
+     * @param object non-null object.
+     * @return non-null, immutable list of values of key columns.
+     */
+    @NonNull
+    public List<String> keyOf(@NonNull T object) {
+        return mapToUpdateQuery(object).whereArgs();
+    }
+
+    /**
+     * Returns {@link PutStrategy} used when Put Operation does not specify one explicitly.
+     * <p>
+     * Override it to pick another strategy for all puts of this type.
+     *
+     * @return non-null put strategy, {@link PutStrategy#SELECT_THEN_WRITE} by default.
+     */
+    @NonNull
+    protected PutStrategy putStrategy() {
+        return PutStrategy.SELECT_THEN_WRITE;
+    }
+
     /**
      * {@inheritDoc}
      */
     @NonNull
     @Override
     public PutResult performPut(@NonNull StorIOSQLite storIOSQLite, @NonNull T object) {
-        final UpdateQuery updateQuery = mapToUpdateQuery(object);
+        return performPut(storIOSQLite, object, putStrategy());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @NonNull
+    @Override
+    public PutResult performPut(@NonNull StorIOSQLite storIOSQLite, @NonNull T object, @NonNull PutStrategy putStrategy) {
         final StorIOSQLite.LowLevel lowLevel = storIOSQLite.lowLevel();
 
+        if (putStrategy == PutStrategy.INSERT_OR_REPLACE) {
+            // single statement, no need in transaction
+            final InsertQuery insertQuery = mapToInsertQuery(object);
+            final StatementBinder<T> statementBinder = statementBinderFor(lowLevel);
+
+            final long insertedId = statementBinder != null
+                    ? lowLevel.insert(insertQuery, statementBinder, object, CONFLICT_REPLACE)
+                    : lowLevel.insertWithOnConflict(insertQuery, mapToContentValues(object), CONFLICT_REPLACE);
+
+            return PutResult.newInsertResult(insertedId, insertQuery.table());
+        }
+
         // for data consistency in concurrent environment, encapsulate Put Operation into transaction
-        lowLevel.beginTransaction();
+        // if it's not already a part of outer transaction
+        final boolean ownTransaction = !lowLevel.inTransaction();
+
+        if (ownTransaction) {
+            lowLevel.beginTransaction();
+        }
+
+        try {
+            final PutResult putResult = putStrategy == PutStrategy.UPDATE_THEN_INSERT
+                    ? updateThenInsert(lowLevel, object)
+                    : selectThenWrite(lowLevel, object);
+
+            if (ownTransaction) {
+                // everything okay
+                lowLevel.setTransactionSuccessful();
+            }
+
+            return putResult;
+        } finally {
+            if (ownTransaction) {
+                // in case of bad situations, db won't be affected
+                lowLevel.endTransaction();
+            }
+        }
+    }
+
+    @NonNull
+    private PutResult selectThenWrite(@NonNull StorIOSQLite.LowLevel lowLevel, @NonNull T object) {
+        final UpdateQuery updateQuery = mapToUpdateQuery(object);
+
+        final Cursor cursor = lowLevel.query(Query.builder()
+                .table(updateQuery.table())
+                .where(nullableString(updateQuery.where()))
+                .whereArgs((Object[]) nullableArrayOfStringsFromListOfStrings(updateQuery.whereArgs()))
+                .build());
 
         try {
+            final StatementBinder<T> statementBinder = statementBinderFor(lowLevel);
+            final ContentValues contentValues = statementBinder == null ? mapToContentValues(object) : null;
+
+            if (cursor.getCount() == 0) {
+                final InsertQuery insertQuery = mapToInsertQuery(object);
+                final long insertedId = contentValues != null
+                        ? lowLevel.insert(insertQuery, contentValues)
+                        : lowLevel.insert(insertQuery, statementBinder, object, CONFLICT_NONE);
+                return PutResult.newInsertResult(insertedId, insertQuery.table(), updateQuery.where(), updateQuery.whereArgs());
+            } else {
+                final int numberOfRowsUpdated = contentValues != null
+                        ? lowLevel.update(updateQuery, contentValues)
+                        : lowLevel.update(updateQuery, statementBinder, object);
+                return PutResult.newUpdateResult(numberOfRowsUpdated, updateQuery.table(), keyWhereOfUpdate(updateQuery, contentValues), updateQuery.whereArgs());
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @NonNull
+    private PutResult updateThenInsert(@NonNull StorIOSQLite.LowLevel lowLevel, @NonNull T object) {
+        final UpdateQuery updateQuery = mapToUpdateQuery(object);
+        final StatementBinder<T> statementBinder = statementBinderFor(lowLevel);
+        final ContentValues contentValues = statementBinder == null ? mapToContentValues(object) : null;
+
+        final int numberOfRowsUpdated = contentValues != null
+                ? lowLevel.update(updateQuery, contentValues)
+                : lowLevel.update(updateQuery, statementBinder, object);
+
+        if (numberOfRowsUpdated > 0) {
+            return PutResult.newUpdateResult(numberOfRowsUpdated, updateQuery.table(), keyWhereOfUpdate(updateQuery, contentValues), updateQuery.whereArgs());
+        } else {
+            final InsertQuery insertQuery = mapToInsertQuery(object);
+            final long insertedId = contentValues != null
+                    ? lowLevel.insert(insertQuery, contentValues)
+                    : lowLevel.insert(insertQuery, statementBinder, object, CONFLICT_NONE);
+            return PutResult.newInsertResult(insertedId, insertQuery.table(), updateQuery.where(), updateQuery.whereArgs());
+        }
+    }
+
+    /**
+     * Updates row of the object if it exists in db, row of new object is not inserted,
+     * so caller can insert new rows itself, for example, by multi-row statement.
+     *
+     * @param putStrategy {@link PutStrategy#SELECT_THEN_WRITE} or {@link PutStrategy#UPDATE_THEN_INSERT}.
+     * @return result of update or {@code null} if row of the object does not exist.
+     */
+    @Nullable
+    PutResult updateIfExists(@NonNull StorIOSQLite.LowLevel lowLevel, @NonNull T object, @NonNull UpdateQuery updateQuery, @NonNull PutStrategy putStrategy) {
+        if (putStrategy == PutStrategy.SELECT_THEN_WRITE) {
             final Cursor cursor = lowLevel.query(Query.builder()
                     .table(updateQuery.table())
                     .where(nullableString(updateQuery.where()))
                     .whereArgs((Object[]) nullableArrayOfStringsFromListOfStrings(updateQuery.whereArgs()))
                     .build());
 
-            final PutResult putResult;
-
             try {
-                final ContentValues contentValues = mapToContentValues(object);
-
                 if (cursor.getCount() == 0) {
-                    final InsertQuery insertQuery = mapToInsertQuery(object);
-                    final long insertedId = lowLevel.insert(insertQuery, contentValues);
-                    putResult = PutResult.newInsertResult(insertedId, insertQuery.table());
-                } else {
-                    final int numberOfRowsUpdated = lowLevel.update(updateQuery, contentValues);
-                    putResult = PutResult.newUpdateResult(numberOfRowsUpdated, updateQuery.table());
+                    return null;
                 }
             } finally {
                 cursor.close();
             }
+        }
 
-            // everything okay
-            lowLevel.setTransactionSuccessful();
+        final StatementBinder<T> statementBinder = statementBinderFor(lowLevel);
+        final ContentValues contentValues = statementBinder == null ? mapToContentValues(object) : null;
 
-            return putResult;
-        } finally {
-            // in case of bad situations, db won't be affected
-            lowLevel.endTransaction();
+        final int numberOfRowsUpdated = contentValues != null
+                ? lowLevel.update(updateQuery, contentValues)
+                : lowLevel.update(updateQuery, statementBinder, object);
+
+        if (numberOfRowsUpdated == 0 && putStrategy == PutStrategy.UPDATE_THEN_INSERT) {
+            return null;
+        }
+
+        return PutResult.newUpdateResult(numberOfRowsUpdated, updateQuery.table(), keyWhereOfUpdate(updateQuery, contentValues), updateQuery.whereArgs());
+    }
+
+    /**
+     * Update that changes key of the row may affect rows selected by any key,
+     * so key of updated row is sent to observers only if values of key columns don't change.
+     *
+     * @return where clause of update query or {@code null} if update can change key of the row.
+     */
+    @Nullable
+    private static String keyWhereOfUpdate(@NonNull UpdateQuery updateQuery, @Nullable ContentValues contentValues) {
+        if (contentValues == null) {
+            // Values bound by StatementBinder are unknown
+            return null;
+        }
+
+        final List<String> whereArgs = updateQuery.whereArgs();
+        final String[] conditions = AND.split(updateQuery.where().trim());
+
+        if (conditions.length != whereArgs.size()) {
+            return null;
         }
+
+        for (int i = 0; i < conditions.length; i++) {
+            final Matcher matcher = COLUMN_EQUALS_ARG.matcher(conditions[i]);
+
+            if (!matcher.matches()) {
+                return null;
+            }
+
+            final String column = matcher.group(1);
+
+            if (contentValues.containsKey(column)
+                    && !String.valueOf(contentValues.get(column)).equals(whereArgs.get(i))) {
+                return null;
+            }
+        }
+
+        return updateQuery.where();
+    }
+
+    /**
+     * @return binder of this resolver if low level supports it, {@code null} otherwise.
+     */
+    @Nullable
+    private StatementBinder<T> statementBinderFor(@NonNull StorIOSQLite.LowLevel lowLevel) {
+        return lowLevel.canBindStatements() ? statementBinder() : null;
     }
 }
@@ -1,5 +1,6 @@
 package com.pushtorefresh.storio.sqlite.operations.put;
 
+import android.content.ContentValues;
 import android.support.annotation.CheckResult;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -10,6 +11,7 @@ import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
+import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
 
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
@@ -24,8 +26,18 @@ import rx.Completable;
 import rx.Observable;
 import rx.Single;
 
+import static android.database.sqlite.SQLiteDatabase.CONFLICT_NONE;
+import static android.database.sqlite.SQLiteDatabase.CONFLICT_REPLACE;
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+
 public class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResults<T>> {
 
+    /**
+     * Max number of rows passed to {@link StorIOSQLite.LowLevel#insertRows(InsertQuery, List, int)} at once,
+     * so {@link ContentValues} of all objects are not held in memory.
+     */
+    private static final int MULTI_ROW_INSERT_BATCH_SIZE = 500;
+
     @NonNull
     private final Collection<T> objects;
 
@@ -34,14 +46,31 @@ public class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResults<T>
     @Nullable
     private final PutResolver<T> explicitPutResolver;
 
+    @Nullable
+    private final PutStrategy explicitPutStrategy;
+
+    private final boolean useMultiRowInserts;
+
     PreparedPutCollectionOfObjects(@NonNull StorIOSQLite storIOSQLite,
                                    @NonNull Collection<T> objects,
                                    @Nullable PutResolver<T> explicitPutResolver,
+                                   @Nullable PutStrategy explicitPutStrategy,
                                    boolean useTransaction) {
+        this(storIOSQLite, objects, explicitPutResolver, explicitPutStrategy, useTransaction, false);
+    }
+
+    PreparedPutCollectionOfObjects(@NonNull StorIOSQLite storIOSQLite,
+                                   @NonNull Collection<T> objects,
+                                   @Nullable PutResolver<T> explicitPutResolver,
+                                   @Nullable PutStrategy explicitPutStrategy,
+                                   boolean useTransaction,
+                                   boolean useMultiRowInserts) {
         super(storIOSQLite);
         this.objects = objects;
         this.useTransaction = useTransaction;
         this.explicitPutResolver = explicitPutResolver;
+        this.explicitPutStrategy = explicitPutStrategy;
+        this.useMultiRowInserts = useMultiRowInserts;
     }
 
     /**
@@ -53,7 +82,6 @@ public class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResults<T>
      *
      * @return non-null results of Put Operation.
      */
-    @SuppressWarnings("unchecked")
     @WorkerThread
     @NonNull
     @Override
@@ -61,27 +89,21 @@ public class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResults<T>
         try {
             final StorIOSQLite.LowLevel lowLevel = storIOSQLite.lowLevel();
 
+            // Nullable, put resolver is resolved once if all objects have same type
+            final PutResolver<T> putResolverOfAllObjects = putResolverOfAllObjects(lowLevel);
+
             // Nullable
             final List<SimpleImmutableEntry<T, PutResolver<T>>> objectsAndPutResolvers;
 
-            if (explicitPutResolver != null) {
+            if (putResolverOfAllObjects != null) {
                 objectsAndPutResolvers = null;
             } else {
                 objectsAndPutResolvers = new ArrayList<SimpleImmutableEntry<T, PutResolver<T>>>(objects.size());
 
                 for (final T object : objects) {
-                    final SQLiteTypeMapping<T> typeMapping
-                            = (SQLiteTypeMapping<T>) lowLevel.typeMapping(object.getClass());
-
-                    if (typeMapping == null) {
-                        throw new IllegalStateException("One of the objects from the collection does not have type mapping: " +
-                                "object = " + object + ", object.class = " + object.getClass() + "," +
-                                "db was not affected by this operation, please add type mapping for this type");
-                    }
-
                     objectsAndPutResolvers.add(new SimpleImmutableEntry<T, PutResolver<T>>(
                             object,
-                            typeMapping.putResolver()
+                            typeMapping(lowLevel, object).putResolver()
                     ));
                 }
             }
@@ -91,33 +113,27 @@ public class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResults<T>
             }
 
             final Map<T, PutResult> results = new HashMap<T, PutResult>(objects.size());
+            final Set<String> tablesWithInsertsWithoutResults = new HashSet<String>(1);
+            final RowBatch rowBatch = useMultiRowInserts
+                    ? new RowBatch(Math.min(objects.size(), MULTI_ROW_INSERT_BATCH_SIZE))
+                    : null;
             boolean transactionSuccessful = false;
 
             try {
-                if (explicitPutResolver != null) {
+                if (putResolverOfAllObjects != null) {
                     for (final T object : objects) {
-                        final PutResult putResult = explicitPutResolver.performPut(storIOSQLite, object);
-                        results.put(object, putResult);
-
-                        if (!useTransaction && (putResult.wasInserted() || putResult.wasUpdated())) {
-                            lowLevel.notifyAboutChanges(Changes.newInstance(putResult.affectedTables()));
-                        }
+                        put(lowLevel, putResolverOfAllObjects, object, rowBatch, results, tablesWithInsertsWithoutResults);
                     }
                 } else {
                     for (final SimpleImmutableEntry<T, PutResolver<T>> objectAndPutResolver : objectsAndPutResolvers) {
-                        final T object = objectAndPutResolver.getKey();
-                        final PutResolver<T> putResolver = objectAndPutResolver.getValue();
-
-                        final PutResult putResult = putResolver.performPut(storIOSQLite, object);
-
-                        results.put(object, putResult);
-
-                        if (!useTransaction && (putResult.wasInserted() || putResult.wasUpdated())) {
-                            lowLevel.notifyAboutChanges(Changes.newInstance(putResult.affectedTables()));
-                        }
+                        put(lowLevel, objectAndPutResolver.getValue(), objectAndPutResolver.getKey(), rowBatch, results, tablesWithInsertsWithoutResults);
                     }
                 }
 
+                if (rowBatch != null) {
+                    insertRows(lowLevel, rowBatch, tablesWithInsertsWithoutResults);
+                }
+
                 if (useTransaction) {
                     lowLevel.setTransactionSuccessful();
                     transactionSuccessful = true;
@@ -129,6 +145,7 @@ public class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResults<T>
                     // if put was in transaction and it was successful -> notify about changes
                     if (transactionSuccessful) {
                         final Set<String> affectedTables = new HashSet<String>(1); // in most cases it will be 1 table
+                        affectedTables.addAll(tablesWithInsertsWithoutResults);
 
                         for (final T object : results.keySet()) {
                             final PutResult putResult = results.get(object);
@@ -146,13 +163,144 @@ public class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResults<T>
                 }
             }
 
-            return PutResults.newInstance(results);
+            return PutResults.newInstance(results, rowBatch != null ? rowBatch.numberOfInserts : 0);
 
         } catch (Exception exception) {
             throw new StorIOException("Error has occurred during Put operation. objects = " + objects, exception);
         }
     }
 
+    /**
+     * Resolves {@link PutResolver} once for collection of objects of one class,
+     * so type mapping is not looked up for each object.
+     *
+     * @return put resolver of all objects, or {@code null} if collection is empty
+     * or contains objects of different classes.
+     */
+    @Nullable
+    private PutResolver<T> putResolverOfAllObjects(@NonNull StorIOSQLite.LowLevel lowLevel) {
+        if (explicitPutResolver != null) {
+            return explicitPutResolver;
+        }
+
+        Class<?> classOfAllObjects = null;
+        PutResolver<T> putResolverOfAllObjects = null;
+
+        for (final T object : objects) {
+            if (classOfAllObjects == null) {
+                classOfAllObjects = object.getClass();
+                putResolverOfAllObjects = typeMapping(lowLevel, object).putResolver();
+            } else if (object.getClass() != classOfAllObjects) {
+                return null;
+            }
+        }
+
+        return putResolverOfAllObjects;
+    }
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    private SQLiteTypeMapping<T> typeMapping(@NonNull StorIOSQLite.LowLevel lowLevel, @NonNull T object) {
+        final SQLiteTypeMapping<T> typeMapping
+                = (SQLiteTypeMapping<T>) lowLevel.typeMapping(object.getClass());
+
+        if (typeMapping == null) {
+            throw new IllegalStateException("One of the objects from the collection does not have type mapping: " +
+                    "object = " + object + ", object.class = " + object.getClass() + "," +
+                    "db was not affected by this operation, please add type mapping for this type");
+        }
+
+        return typeMapping;
+    }
+
+    /**
+     * Puts object by its resolver or, if multi-row inserts are used and object is mapped
+     * by {@link DefaultPutResolver}, updates its row if it exists or adds its row to the batch.
+     */
+    private void put(
+            @NonNull StorIOSQLite.LowLevel lowLevel,
+            @NonNull PutResolver<T> putResolver,
+            @NonNull T object,
+            @Nullable RowBatch rowBatch,
+            @NonNull Map<T, PutResult> results,
+            @NonNull Set<String> insertedTables
+    ) {
+        final PutResult putResult;
+
+        if (rowBatch != null && putResolver instanceof DefaultPutResolver) {
+            final DefaultPutResolver<T> defaultPutResolver = (DefaultPutResolver<T>) putResolver;
+            final PutStrategy putStrategy = explicitPutStrategy != null
+                    ? explicitPutStrategy
+                    : defaultPutResolver.putStrategy();
+
+            final PutResult updateResult = putStrategy != PutStrategy.INSERT_OR_REPLACE
+                    ? defaultPutResolver.updateIfExists(lowLevel, object, defaultPutResolver.mapToUpdateQuery(object), putStrategy)
+                    : null;
+
+            if (updateResult == null) {
+                final InsertQuery insertQuery = defaultPutResolver.mapToInsertQuery(object);
+                final int conflictAlgorithm = putStrategy == PutStrategy.INSERT_OR_REPLACE
+                        ? CONFLICT_REPLACE
+                        : CONFLICT_NONE;
+
+                if (!rowBatch.accepts(insertQuery, conflictAlgorithm)) {
+                    insertRows(lowLevel, rowBatch, insertedTables);
+                }
+
+                rowBatch.add(insertQuery, conflictAlgorithm, defaultPutResolver.mapToContentValues(object));
+                return;
+            }
+
+            putResult = updateResult;
+        } else {
+            if (rowBatch != null) {
+                // Keep order of writes same as order of objects
+                insertRows(lowLevel, rowBatch, insertedTables);
+            }
+
+            putResult = performPut(putResolver, object);
+        }
+
+        results.put(object, putResult);
+
+        if (!useTransaction && (putResult.wasInserted() || putResult.wasUpdated())) {
+            lowLevel.notifyAboutChanges(putResult.changes());
+        }
+    }
+
+    /**
+     * Inserts rows of the batch by one multi-row statement, see {@link StorIOSQLite.LowLevel#insertRows(InsertQuery, List, int)}.
+     */
+    private void insertRows(
+            @NonNull StorIOSQLite.LowLevel lowLevel,
+            @NonNull RowBatch rowBatch,
+            @NonNull Set<String> insertedTables
+    ) {
+        if (rowBatch.rows.isEmpty()) {
+            return;
+        }
+
+        final InsertQuery insertQuery = rowBatch.insertQuery;
+        final int numberOfInserts = lowLevel.insertRows(insertQuery, rowBatch.rows, rowBatch.conflictAlgorithm);
+        rowBatch.rows.clear();
+        rowBatch.numberOfInserts += numberOfInserts;
+
+        if (numberOfInserts > 0) {
+            if (useTransaction) {
+                insertedTables.add(insertQuery.table());
+            } else {
+                lowLevel.notifyAboutChanges(Changes.newInstance(insertQuery.table()));
+            }
+        }
+    }
+
+    @NonNull
+    private PutResult performPut(@NonNull PutResolver<T> putResolver, @NonNull T object) {
+        return explicitPutStrategy != null
+                ? putResolver.performPut(storIOSQLite, object, explicitPutStrategy)
+                : putResolver.performPut(storIOSQLite, object);
+    }
+
     /**
      * Creates {@link Observable} which will perform Put Operation and send result to observer.
      * <p>
@@ -228,6 +376,39 @@ public class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResults<T>
         return RxJavaUtils.createCompletable(storIOSQLite, this);
     }
 
+    /**
+     * Rows that are inserted by one multi-row statement: they have same {@link InsertQuery}
+     * and conflict algorithm.
+     */
+    private static class RowBatch {
+
+        @NonNull
+        final List<ContentValues> rows;
+
+        InsertQuery insertQuery;
+
+        int conflictAlgorithm;
+
+        int numberOfInserts;
+
+        RowBatch(int capacity) {
+            rows = new ArrayList<ContentValues>(capacity);
+        }
+
+        boolean accepts(@NonNull InsertQuery insertQuery, int conflictAlgorithm) {
+            return rows.isEmpty()
+                    || rows.size() < MULTI_ROW_INSERT_BATCH_SIZE
+                    && conflictAlgorithm == this.conflictAlgorithm
+                    && insertQuery.equals(this.insertQuery);
+        }
+
+        void add(@NonNull InsertQuery insertQuery, int conflictAlgorithm, @NonNull ContentValues row) {
+            this.insertQuery = insertQuery;
+            this.conflictAlgorithm = conflictAlgorithm;
+            rows.add(row);
+        }
+    }
+
     /**
      * Builder for {@link PreparedPutCollectionOfObjects}
      *
@@ -243,8 +424,12 @@ public class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResults<T>
 
         private PutResolver<T> putResolver;
 
+        private PutStrategy putStrategy;
+
         private boolean useTransaction = true;
 
+        private boolean useMultiRowInserts;
+
         Builder(@NonNull StorIOSQLite storIOSQLite, @NonNull Collection<T> objects) {
             this.storIOSQLite = storIOSQLite;
             this.objects = objects;
@@ -280,6 +465,57 @@ public class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResults<T>
             return this;
         }
 
+        /**
+         * Optional: Specifies {@link PutStrategy} for Put Operation.
+         * <p>
+         * By default, strategy is chosen by {@link PutResolver},
+         * see {@link DefaultPutResolver#putStrategy()}.
+         * Notice that custom {@link PutResolver}s may ignore requested strategy.
+         *
+         * @param putStrategy put strategy.
+         * @return builder.
+         */
+        @NonNull
+        public Builder<T> withPutStrategy(@NonNull PutStrategy putStrategy) {
+            checkNotNull(putStrategy, "Please specify put strategy");
+            this.putStrategy = putStrategy;
+            return this;
+        }
+
+        /**
+         * Optional: Defines that new rows of objects mapped by {@link DefaultPutResolver} should be
+         * inserted by multi-row {@code INSERT INTO table(columns) VALUES (...), (...)} statements
+         * instead of one insert per object, see {@link StorIOSQLite.LowLevel#insertRows(InsertQuery, List, int)}.
+         * It's much faster for big collections, for example on initial sync.
+         * <p>
+         * {@link PutStrategy} still decides what happens with rows that already exist:
+         * with {@link PutStrategy#SELECT_THEN_WRITE} and {@link PutStrategy#UPDATE_THEN_INSERT}
+         * they are updated one by one and only rows of new objects are batched into plain {@code INSERT},
+         * with {@link PutStrategy#INSERT_OR_REPLACE} all rows are batched into {@code INSERT OR REPLACE}
+         * without checks, which is the fastest, but has its drawbacks, see {@link PutStrategy#INSERT_OR_REPLACE}.
+         * Rows of new objects are inserted after checks of following objects,
+         * so collection should not contain several new objects with same key.
+         * <p>
+         * Trade-off: multi-row statement does not report ids of inserted rows, {@code last_insert_rowid()}
+         * returns only id of the last one and ids of rows are not contiguous if objects have their own ids.
+         * So {@link PutResults#results()} contains results of updated objects and objects with other
+         * {@link PutResolver}s, number of rows inserted by multi-row statements is counted by
+         * {@link PutResults#numberOfInserts()} and observers receive changes of whole tables
+         * without keys of inserted rows.
+         * Keep it {@code false} if you need ids of all inserted rows, then objects are put one by one.
+         * <p>
+         * Disabled by default.
+         *
+         * @param useMultiRowInserts {@code true} to insert new rows by multi-row statements without
+         *                           results of inserted objects, {@code false} to put objects one by one.
+         * @return builder.
+         */
+        @NonNull
+        public Builder<T> useMultiRowInserts(boolean useMultiRowInserts) {
+            this.useMultiRowInserts = useMultiRowInserts;
+            return this;
+        }
+
         /**
          * Prepares Put Operation
          *
@@ -291,7 +527,9 @@ public class PreparedPutCollectionOfObjects<T> extends PreparedPut<PutResults<T>
                     storIOSQLite,
                     objects,
                     putResolver,
-                    useTransaction
+                    putStrategy,
+                    useTransaction,
+                    useMultiRowInserts
             );
         }
     }
@@ -6,7 +6,6 @@ import android.support.annotation.NonNull;
 import android.support.annotation.WorkerThread;
 
 import com.pushtorefresh.storio.StorIOException;
-import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
 
@@ -49,7 +48,7 @@ public class PreparedPutContentValues extends PreparedPut<PutResult> {
         try {
             final PutResult putResult = putResolver.performPut(storIOSQLite, contentValues);
             if (putResult.wasInserted() || putResult.wasUpdated()) {
-                storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance(putResult.affectedTables()));
+                storIOSQLite.lowLevel().notifyAboutChanges(putResult.changes());
             }
             return putResult;
         } catch (Exception exception) {
@@ -73,7 +73,7 @@ public class PreparedPutContentValuesIterable extends PreparedPut<PutResults<Con
                     putResults.put(contentValues, putResult);
 
                     if (!useTransaction && (putResult.wasInserted() || putResult.wasUpdated())) {
-                        lowLevel.notifyAboutChanges(Changes.newInstance(putResult.affectedTables()));
+                        lowLevel.notifyAboutChanges(putResult.changes());
                     }
                 }
 
@@ -6,7 +6,6 @@ import android.support.annotation.Nullable;
 import android.support.annotation.WorkerThread;
 
 import com.pushtorefresh.storio.StorIOException;
-import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.internal.RxJavaUtils;
@@ -15,6 +14,8 @@ import rx.Completable;
 import rx.Observable;
 import rx.Single;
 
+import static com.pushtorefresh.storio.internal.Checks.checkNotNull;
+
 /**
  * Prepared Put Operation for {@link StorIOSQLite}.
  *
@@ -28,12 +29,17 @@ public class PreparedPutObject<T> extends PreparedPut<PutResult> {
     @Nullable
     private final PutResolver<T> explicitPutResolver;
 
+    @Nullable
+    private final PutStrategy explicitPutStrategy;
+
     PreparedPutObject(@NonNull StorIOSQLite storIOSQLite,
                       @NonNull T object,
-                      @Nullable PutResolver<T> explicitPutResolver) {
+                      @Nullable PutResolver<T> explicitPutResolver,
+                      @Nullable PutStrategy explicitPutStrategy) {
         super(storIOSQLite);
         this.object = object;
         this.explicitPutResolver = explicitPutResolver;
+        this.explicitPutStrategy = explicitPutStrategy;
     }
 
     /**
@@ -69,10 +75,12 @@ public class PreparedPutObject<T> extends PreparedPut<PutResult> {
                 putResolver = typeMapping.putResolver();
             }
 
-            final PutResult putResult = putResolver.performPut(storIOSQLite, object);
+            final PutResult putResult = explicitPutStrategy != null
+                    ? putResolver.performPut(storIOSQLite, object, explicitPutStrategy)
+                    : putResolver.performPut(storIOSQLite, object);
 
             if (putResult.wasInserted() || putResult.wasUpdated()) {
-                lowLevel.notifyAboutChanges(Changes.newInstance(putResult.affectedTables()));
+                lowLevel.notifyAboutChanges(putResult.changes());
             }
 
             return putResult;
@@ -172,6 +180,8 @@ public class PreparedPutObject<T> extends PreparedPut<PutResult> {
 
         private PutResolver<T> putResolver;
 
+        private PutStrategy putStrategy;
+
         Builder(@NonNull StorIOSQLite storIOSQLite, @NonNull T object) {
             this.storIOSQLite = storIOSQLite;
             this.object = object;
@@ -194,6 +204,23 @@ public class PreparedPutObject<T> extends PreparedPut<PutResult> {
             return this;
         }
 
+        /**
+         * Optional: Specifies {@link PutStrategy} for Put Operation.
+         * <p>
+         * By default, strategy is chosen by {@link PutResolver},
+         * see {@link DefaultPutResolver#putStrategy()}.
+         * Notice that custom {@link PutResolver}s may ignore requested strategy.
+         *
+         * @param putStrategy put strategy.
+         * @return builder.
+         */
+        @NonNull
+        public Builder<T> withPutStrategy(@NonNull PutStrategy putStrategy) {
+            checkNotNull(putStrategy, "Please specify put strategy");
+            this.putStrategy = putStrategy;
+            return this;
+        }
+
         /**
          * Prepares Put Operation.
          *
@@ -204,7 +231,8 @@ public class PreparedPutObject<T> extends PreparedPut<PutResult> {
             return new PreparedPutObject<T>(
                     storIOSQLite,
                     object,
-                    putResolver
+                    putResolver,
+                    putStrategy
             );
         }
     }
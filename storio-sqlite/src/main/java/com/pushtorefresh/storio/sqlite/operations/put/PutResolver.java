@@ -21,4 +21,22 @@ public abstract class PutResolver<T> {
      */
     @NonNull
     public abstract PutResult performPut(@NonNull StorIOSQLite storIOSQLite, @NonNull T object);
+
+    /**
+     * Performs put of an object with explicitly requested {@link PutStrategy}.
+     * <p>
+     * Default implementation ignores strategy and delegates to
+     * {@link #performPut(StorIOSQLite, Object)}, resolvers that can
+     * choose between insert and update in different ways should override it.
+     *
+     * @param storIOSQLite {@link StorIOSQLite} instance to perform put into.
+     * @param object       non-null object that should be put into {@link StorIOSQLite}.
+     * @param putStrategy  non-null strategy requested for this Put Operation.
+     * @return non-null result of Put Operation.
+     * @see DefaultPutResolver
+     */
+    @NonNull
+    public PutResult performPut(@NonNull StorIOSQLite storIOSQLite, @NonNull T object, @NonNull PutStrategy putStrategy) {
+        return performPut(storIOSQLite, object);
+    }
 }
@@ -3,6 +3,10 @@ package com.pushtorefresh.storio.sqlite.operations.put;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import com.pushtorefresh.storio.sqlite.Changes;
+
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 import static com.pushtorefresh.storio.internal.Checks.checkNotEmpty;
@@ -26,7 +30,29 @@ public final class PutResult {
     @NonNull
     private final Set<String> affectedTables;
 
+    /**
+     * Where clause that selects affected row by its key, {@code null} if affected row is unknown.
+     */
+    @Nullable
+    private final String keyWhere;
+
+    /**
+     * Where args of {@link #keyWhere}.
+     */
+    @NonNull
+    private final List<String> key;
+
     private PutResult(@Nullable Long insertedId, @Nullable Integer numberOfRowsUpdated, @NonNull Set<String> affectedTables) {
+        this(insertedId, numberOfRowsUpdated, affectedTables, null, Collections.<String>emptyList());
+    }
+
+    private PutResult(
+            @Nullable Long insertedId,
+            @Nullable Integer numberOfRowsUpdated,
+            @NonNull Set<String> affectedTables,
+            @Nullable String keyWhere,
+            @NonNull List<String> key
+    ) {
         if (numberOfRowsUpdated != null && numberOfRowsUpdated < 0) {
             throw new IllegalArgumentException("Number of rows updated must be >= 0");
         }
@@ -44,6 +70,16 @@ public final class PutResult {
         this.insertedId = insertedId;
         this.numberOfRowsUpdated = numberOfRowsUpdated;
         this.affectedTables = unmodifiableSet(affectedTables);
+
+        // Empty where clause selects all rows and key with null value can not identify the row:
+        // for example, id of inserted row is generated by SQLite
+        if (keyWhere != null && keyWhere.length() > 0 && !key.contains("null")) {
+            this.keyWhere = keyWhere;
+            this.key = key;
+        } else {
+            this.keyWhere = null;
+            this.key = Collections.emptyList();
+        }
     }
 
     /**
@@ -94,6 +130,45 @@ public final class PutResult {
         return new PutResult(null, numberOfRowsUpdated, singleton(affectedTable));
     }
 
+    /**
+     * Creates {@link PutResult} of insert of one row with known key.
+     *
+     * @param insertedId    id of new row.
+     * @param affectedTable table that was affected.
+     * @param keyWhere      where clause that selects inserted row by its key.
+     * @param key           where args of {@code keyWhere}.
+     * @return new {@link PutResult} instance.
+     */
+    @NonNull
+    static PutResult newInsertResult(
+            long insertedId,
+            @NonNull String affectedTable,
+            @Nullable String keyWhere,
+            @NonNull List<String> key
+    ) {
+        return new PutResult(insertedId, null, singleton(affectedTable), keyWhere, key);
+    }
+
+    /**
+     * Creates {@link PutResult} of update of one row with known key.
+     *
+     * @param numberOfRowsUpdated number of rows that were updated, must be {@code >= 0}.
+     * @param affectedTable       table that was affected.
+     * @param keyWhere            where clause that selects updated row by its key,
+     *                            {@code null} if update could change the key.
+     * @param key                 where args of {@code keyWhere}.
+     * @return new {@link PutResult} instance.
+     */
+    @NonNull
+    static PutResult newUpdateResult(
+            int numberOfRowsUpdated,
+            @NonNull String affectedTable,
+            @Nullable String keyWhere,
+            @NonNull List<String> key
+    ) {
+        return new PutResult(null, numberOfRowsUpdated, singleton(affectedTable), keyWhere, key);
+    }
+
     /**
      * Checks whether result of Put Operation was "insert".
      *
@@ -170,6 +245,25 @@ public final class PutResult {
         return affectedTables;
     }
 
+    /**
+     * Creates {@link Changes} made by Put Operation, with key of affected row if it's known.
+     *
+     * @return non-null {@link Changes}.
+     */
+    @NonNull
+    Changes changes() {
+        if (keyWhere == null) {
+            return Changes.newInstance(affectedTables);
+        }
+
+        return Changes.newInstance(
+                affectedTables.iterator().next(),
+                wasInserted() ? Changes.Type.INSERT : Changes.Type.UPDATE,
+                keyWhere,
+                Collections.singletonList(key)
+        );
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -181,7 +275,10 @@ public final class PutResult {
             return false;
         if (numberOfRowsUpdated != null ? !numberOfRowsUpdated.equals(putResult.numberOfRowsUpdated) : putResult.numberOfRowsUpdated != null)
             return false;
-        return affectedTables.equals(putResult.affectedTables);
+        if (!affectedTables.equals(putResult.affectedTables)) return false;
+        if (keyWhere != null ? !keyWhere.equals(putResult.keyWhere) : putResult.keyWhere != null)
+            return false;
+        return key.equals(putResult.key);
     }
 
     @Override
@@ -189,6 +286,8 @@ public final class PutResult {
         int result = insertedId != null ? insertedId.hashCode() : 0;
         result = 31 * result + (numberOfRowsUpdated != null ? numberOfRowsUpdated.hashCode() : 0);
         result = 31 * result + affectedTables.hashCode();
+        result = 31 * result + (keyWhere != null ? keyWhere.hashCode() : 0);
+        result = 31 * result + key.hashCode();
         return result;
     }
 
@@ -198,6 +297,8 @@ public final class PutResult {
                 "insertedId=" + insertedId +
                 ", numberOfRowsUpdated=" + numberOfRowsUpdated +
                 ", affectedTables=" + affectedTables +
+                ", keyWhere='" + keyWhere + '\'' +
+                ", key=" + key +
                 '}';
     }
 }
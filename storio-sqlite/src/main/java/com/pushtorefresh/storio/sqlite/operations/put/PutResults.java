@@ -18,14 +18,21 @@ public final class PutResults<T> {
     @NonNull
     private final Map<T, PutResult> results;
 
+    /**
+     * Number of rows inserted for objects which results were not collected,
+     * see {@link PreparedPutCollectionOfObjects.Builder#useMultiRowInserts(boolean)}.
+     */
+    private final int numberOfInsertsWithoutResults;
+
     @Nullable
     private transient volatile Integer numberOfInsertsCache;
 
     @Nullable
     private transient volatile Integer numberOfUpdatesCache;
 
-    private PutResults(@NonNull Map<T, PutResult> putResults) {
+    private PutResults(@NonNull Map<T, PutResult> putResults, int numberOfInsertsWithoutResults) {
         this.results = Collections.unmodifiableMap(putResults);
+        this.numberOfInsertsWithoutResults = numberOfInsertsWithoutResults;
     }
 
     /**
@@ -37,7 +44,21 @@ public final class PutResults<T> {
      */
     @NonNull
     public static <T> PutResults<T> newInstance(@NonNull Map<T, PutResult> putResults) {
-        return new PutResults<T>(putResults);
+        return new PutResults<T>(putResults, 0);
+    }
+
+    /**
+     * Creates new instance of {@link PutResults} for Put Operation
+     * that did not collect results of some objects, for example multi-row insert.
+     *
+     * @param putResults                    results of objects that were collected.
+     * @param numberOfInsertsWithoutResults number of rows inserted for other objects.
+     * @param <T>                           type of objects.
+     * @return immutable instance of {@link PutResults}.
+     */
+    @NonNull
+    public static <T> PutResults<T> newInstance(@NonNull Map<T, PutResult> putResults, int numberOfInsertsWithoutResults) {
+        return new PutResults<T>(putResults, numberOfInsertsWithoutResults);
     }
 
     /**
@@ -51,9 +72,10 @@ public final class PutResults<T> {
     }
 
     /**
-     * Returns number of inserts from all {@link #results()}.
+     * Returns number of inserts from all {@link #results()}
+     * plus number of rows inserted for objects without results.
      *
-     * @return number of inserts from all {@link #results()}.
+     * @return number of inserts.
      */
     public int numberOfInserts() {
         final Integer cachedValue = numberOfInsertsCache;
@@ -62,7 +84,7 @@ public final class PutResults<T> {
             return cachedValue;
         }
 
-        int numberOfInserts = 0;
+        int numberOfInserts = numberOfInsertsWithoutResults;
 
         for (T object : results.keySet()) {
             if (results.get(object).wasInserted()) {
@@ -110,18 +132,22 @@ public final class PutResults<T> {
 
         PutResults<?> that = (PutResults<?>) o;
 
+        if (numberOfInsertsWithoutResults != that.numberOfInsertsWithoutResults) return false;
         return results.equals(that.results);
     }
 
     @Override
     public int hashCode() {
-        return results.hashCode();
+        int result = results.hashCode();
+        result = 31 * result + numberOfInsertsWithoutResults;
+        return result;
     }
 
     @Override
     public String toString() {
         return "PutResults{" +
                 "results=" + results +
+                ", numberOfInsertsWithoutResults=" + numberOfInsertsWithoutResults +
                 '}';
     }
 }
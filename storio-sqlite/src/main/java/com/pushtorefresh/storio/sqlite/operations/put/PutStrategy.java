@@ -0,0 +1,41 @@
+package com.pushtorefresh.storio.sqlite.operations.put;
+
+/**
+ * Defines how {@link DefaultPutResolver} decides between insert and update.
+ *
+ * @see DefaultPutResolver#putStrategy()
+ * @see PreparedPutObject.Builder#withPutStrategy(PutStrategy)
+ * @see PreparedPutCollectionOfObjects.Builder#withPutStrategy(PutStrategy)
+ */
+public enum PutStrategy {
+
+    /**
+     * Queries rows that match {@link com.pushtorefresh.storio.sqlite.queries.UpdateQuery}
+     * and then performs update if there are any, or insert otherwise.
+     * <p>
+     * Costs query, cursor and write per object. Default strategy.
+     */
+    SELECT_THEN_WRITE,
+
+    /**
+     * Performs update by {@link com.pushtorefresh.storio.sqlite.queries.UpdateQuery}
+     * and then performs insert only if no rows were updated.
+     * <p>
+     * Costs one statement per object that already exists in db and two statements per new object.
+     * Result is the same as for {@link #SELECT_THEN_WRITE} except that
+     * {@link PutResult#numberOfRowsUpdated()} is never {@code 0}.
+     */
+    UPDATE_THEN_INSERT,
+
+    /**
+     * Performs {@code INSERT OR REPLACE} with {@link com.pushtorefresh.storio.sqlite.queries.InsertQuery},
+     * {@link com.pushtorefresh.storio.sqlite.queries.UpdateQuery} is not used.
+     * <p>
+     * Costs exactly one statement per object, but notice that SQLite resolves conflict
+     * by deleting existing row and inserting new one: {@code ON DELETE} triggers and
+     * foreign keys actions are fired and columns that are not present
+     * in {@link android.content.ContentValues} are reset to their default values.
+     * Result of the put is always "insert".
+     */
+    INSERT_OR_REPLACE
+}
@@ -4,11 +4,15 @@ import com.pushtorefresh.storio.test.ToStringChecker;
 
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class ChangesTest {
@@ -37,6 +41,13 @@ public class ChangesTest {
         assertThat(changes.affectedTables()).contains("test_table");
     }
 
+    @Test
+    public void newInstanceOneAffectedTableShouldReuseInstance() {
+        final Changes changes = Changes.newInstance("test_table");
+        assertThat(Changes.newInstance("test_table")).isSameAs(changes);
+        assertThat(Changes.newInstance(Collections.singleton("test_table"))).isSameAs(changes);
+    }
+
     @Test
     public void newInstanceMultipleAffectedTables() {
         final Set<String> affectedTables = new HashSet<String>();
@@ -48,6 +59,89 @@ public class ChangesTest {
         assertThat(changes.affectedTables()).isEqualTo(affectedTables);
     }
 
+    @Test
+    public void newInstanceWithoutRowsShouldNotDescribeRows() {
+        final Changes changes = Changes.newInstance("test_table");
+        assertThat(changes.type()).isNull();
+        assertThat(changes.keyWhere()).isNull();
+        assertThat(changes.affectedKeys()).isEmpty();
+    }
+
+    @Test
+    public void newInstanceWithRows() {
+        final Changes changes = Changes.newInstance(
+                "test_table",
+                Changes.Type.UPDATE,
+                "_id = ?",
+                asList(singletonList("1"), singletonList("2"))
+        );
+
+        assertThat(changes.affectedTables()).containsExactly("test_table");
+        assertThat(changes.type()).isEqualTo(Changes.Type.UPDATE);
+        assertThat(changes.keyWhere()).isEqualTo("_id = ?");
+        assertThat(changes.affectedKeys()).containsOnly(singletonList("1"), singletonList("2"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void newInstanceWithRowsShouldNotAllowEmptyKeys() {
+        Changes.newInstance("test_table", Changes.Type.DELETE, "_id = ?", Collections.<List<String>>emptyList());
+    }
+
+    @Test
+    public void shouldNotAffectRowsWithOtherKeys() {
+        final Changes changes = Changes.newInstance(
+                "test_table",
+                Changes.Type.INSERT,
+                "_id = ?",
+                singletonList(singletonList("1"))
+        );
+
+        assertThat(changes.mayAffectRows("test_table", "_id = ?", singletonList("2"))).isFalse();
+        assertThat(changes.mayAffectRows("test_table", "_id = ?", singletonList("1"))).isTrue();
+
+        // Whitespaces and case of where clause don't matter
+        assertThat(changes.mayAffectRows("test_table", Changes.normalizeWhere(" _ID   =  ? "), singletonList("2"))).isFalse();
+    }
+
+    @Test
+    public void changesWithRowsShouldNormalizeKeyWhere() {
+        final Changes changes = Changes.newInstance(
+                "test_table",
+                Changes.Type.DELETE,
+                " _ID   =  ? ",
+                singletonList(singletonList("1"))
+        );
+
+        assertThat(changes.mayAffectRows("test_table", "_id = ?", singletonList("2"))).isFalse();
+        assertThat(changes.keyWhere()).isEqualTo(" _ID   =  ? ");
+    }
+
+    @Test
+    public void normalizeWhereShouldIgnoreWhitespacesAndCase() {
+        assertThat(Changes.normalizeWhere("  Name =\n ?  AND  _ID = ?")).isEqualTo("name = ? and _id = ?");
+        assertThat(Changes.normalizeWhere(null)).isNull();
+    }
+
+    @Test
+    public void shouldAffectRowsSelectedByOtherWhereClause() {
+        final Changes changes = Changes.newInstance(
+                "test_table",
+                Changes.Type.DELETE,
+                "_id = ?",
+                singletonList(singletonList("1"))
+        );
+
+        assertThat(changes.mayAffectRows("test_table", "name = ?", singletonList("2"))).isTrue();
+        assertThat(changes.mayAffectRows("test_table", null, Collections.<String>emptyList())).isTrue();
+        assertThat(changes.mayAffectRows("other_table", "_id = ?", singletonList("1"))).isFalse();
+    }
+
+    @Test
+    public void changesWithoutRowsShouldAffectAllRows() {
+        assertThat(Changes.newInstance("test_table").mayAffectRows("test_table", "_id = ?", singletonList("1")))
+                .isTrue();
+    }
+
     @Test
     public void verifyEqualsAndHashCodeImplementation() {
         EqualsVerifier
@@ -0,0 +1,118 @@
+package com.pushtorefresh.storio.sqlite;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+public class QueryResultCacheTest {
+
+    @Test
+    public void shouldNotAllowNotPositiveMaxSize() {
+        try {
+            new QueryResultCache(0);
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException expected) {
+            assertThat(expected).hasMessage("maxSize should be positive, maxSize = 0");
+        }
+    }
+
+    @Test
+    public void shouldReturnCachedResultAndCountHitsAndMisses() {
+        final QueryResultCache cache = new QueryResultCache(10);
+
+        assertThat(cache.get("key")).isNull();
+
+        cache.put("key", singleton("table"), "result", cache.generation());
+
+        assertThat(cache.get("key")).isEqualTo("result");
+        assertThat(cache.get("key")).isEqualTo("result");
+
+        assertThat(cache.hitCount()).isEqualTo(2);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldEvictResultsOfChangedTables() {
+        final QueryResultCache cache = new QueryResultCache(10);
+
+        final Set<String> tables = new HashSet<String>();
+        tables.add("table1");
+        tables.add("table2");
+
+        cache.put("key1", singleton("table1"), "result1", cache.generation());
+        cache.put("key2", tables, "result2", cache.generation());
+        cache.put("key3", singleton("table3"), "result3", cache.generation());
+
+        cache.invalidate(singleton("table2"));
+
+        assertThat(cache.get("key1")).isEqualTo("result1");
+        assertThat(cache.get("key2")).isNull();
+        assertThat(cache.get("key3")).isEqualTo("result3");
+
+        cache.invalidate(singleton("table1"));
+
+        assertThat(cache.get("key1")).isNull();
+        assertThat(cache.get("key3")).isEqualTo("result3");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotCacheResultOfQueryThatRacedWithChanges() {
+        final QueryResultCache cache = new QueryResultCache(10);
+
+        final long generation = cache.generation();
+
+        // Change happens while query is executed
+        cache.invalidate(singleton("table"));
+
+        cache.put("key", singleton("table"), "outdated result", generation);
+
+        assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    public void shouldNotCacheResultWithoutTables() {
+        final QueryResultCache cache = new QueryResultCache(10);
+
+        cache.put("key", Collections.<String>emptySet(), "result", cache.generation());
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResult() {
+        final QueryResultCache cache = new QueryResultCache(2);
+
+        cache.put("key1", singleton("table"), "result1", cache.generation());
+        cache.put("key2", singleton("table"), "result2", cache.generation());
+
+        // key1 becomes most recently used
+        assertThat(cache.get("key1")).isEqualTo("result1");
+
+        cache.put("key3", singleton("table"), "result3", cache.generation());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("key2")).isNull();
+        assertThat(cache.get("key1")).isEqualTo("result1");
+        assertThat(cache.get("key3")).isEqualTo("result3");
+    }
+
+    @Test
+    public void clearShouldEvictAllResults() {
+        final QueryResultCache cache = new QueryResultCache(10);
+
+        cache.put("key1", singleton("table1"), "result1", cache.generation());
+        cache.put("key2", singleton("table2"), "result2", cache.generation());
+
+        cache.clear();
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get("key1")).isNull();
+    }
+}
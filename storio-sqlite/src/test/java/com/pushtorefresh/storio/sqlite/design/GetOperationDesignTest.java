@@ -2,6 +2,9 @@ package com.pushtorefresh.storio.sqlite.design;
 
 import android.database.Cursor;
 
+import com.pushtorefresh.storio.sqlite.operations.get.CursorIterator;
+import com.pushtorefresh.storio.sqlite.operations.get.Page;
+import com.pushtorefresh.storio.sqlite.operations.get.Pages;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
@@ -255,4 +258,99 @@ public class GetOperationDesignTest extends OperationDesignTest {
                 .prepare()
                 .asRxSingle();
     }
+
+    @Test
+    public void getStreamOfObjectsBlocking() {
+        CursorIterator<User> users = storIOSQLite()
+                .get()
+                .streamOfObjects(User.class)
+                .withQuery(Query.builder()
+                        .table("users")
+                        .build())
+                .withGetResolver(UserTableMeta.GET_RESOLVER)
+                .prepare()
+                .executeAsBlocking();
+    }
+
+    @Test
+    public void getStreamOfObjectsObservable() {
+        Observable<User> observableUsers = storIOSQLite()
+                .get()
+                .streamOfObjects(User.class)
+                .withQuery(Query.builder()
+                        .table("users")
+                        .build())
+                .withGetResolver(UserTableMeta.GET_RESOLVER)
+                .prepare()
+                .asRxObservable();
+    }
+
+    @Test
+    public void getPagesOfObjectsBlocking() {
+        Page<User> firstPage = storIOSQLite()
+                .get()
+                .pagesOfObjects(User.class)
+                .withQuery(Query.builder()
+                        .table("users")
+                        .build())
+                .withKeyColumn("id", 20)
+                .withGetResolver(UserTableMeta.GET_RESOLVER)
+                .prepare()
+                .executeAsBlocking();
+    }
+
+    @Test
+    public void getPagesOfObjectsObservable() {
+        Observable<Pages<User>> observablePages = storIOSQLite()
+                .get()
+                .pagesOfObjects(User.class)
+                .withQuery(Query.builder()
+                        .table("users")
+                        .build())
+                .withKeyColumn("id", 20)
+                .prefetch(false)
+                .withGetResolver(UserTableMeta.GET_RESOLVER)
+                .prepare()
+                .asRxObservable(Observable.never());
+    }
+
+    @Test
+    public void getAggregateBlocking() {
+        Double maxId = storIOSQLite()
+                .get()
+                .aggregate()
+                .max("id")
+                .withQuery(Query.builder()
+                        .table("users")
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+    }
+
+    @Test
+    public void getAggregateObservable() {
+        Observable<Double> observableSum = storIOSQLite()
+                .get()
+                .aggregate()
+                .sum("id")
+                .withQuery(Query.builder()
+                        .table("users")
+                        .build())
+                .prepare()
+                .asRxObservable();
+    }
+
+    @Test
+    public void getExistsObservable() {
+        Observable<Boolean> observableExists = storIOSQLite()
+                .get()
+                .exists()
+                .withQuery(Query.builder()
+                        .table("users")
+                        .where("email = ?")
+                        .whereArgs("user@email.com")
+                        .build())
+                .prepare()
+                .asRxObservable();
+    }
 }
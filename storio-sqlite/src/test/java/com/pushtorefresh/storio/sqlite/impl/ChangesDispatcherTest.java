@@ -0,0 +1,158 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import com.pushtorefresh.storio.sqlite.Changes;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+public class ChangesDispatcherTest {
+
+    @Test
+    public void shouldNotAllowNullTables() {
+        ChangesDispatcher changesDispatcher = new ChangesDispatcher(PublishSubject.<Changes>create());
+
+        try {
+            //noinspection ConstantConditions
+            changesDispatcher.observe(null);
+            failBecauseExceptionWasNotThrown(NullPointerException.class);
+        } catch (NullPointerException expected) {
+            assertThat(expected).hasMessage("Set of tables can not be null");
+        }
+    }
+
+    @Test
+    public void shouldDeliverChangesOnlyToSubscribersOfAffectedTable() {
+        PublishSubject<Changes> rxBus = PublishSubject.create();
+        ChangesDispatcher changesDispatcher = new ChangesDispatcher(rxBus);
+
+        TestSubscriber<Changes> testSubscriber1 = new TestSubscriber<Changes>();
+        TestSubscriber<Changes> testSubscriber2 = new TestSubscriber<Changes>();
+
+        changesDispatcher.observe(singleton("table1")).subscribe(testSubscriber1);
+        changesDispatcher.observe(singleton("table2")).subscribe(testSubscriber2);
+
+        rxBus.onNext(Changes.newInstance("table1"));
+        rxBus.onNext(Changes.newInstance("table2"));
+        rxBus.onNext(Changes.newInstance("table3"));
+
+        testSubscriber1.assertValue(Changes.newInstance("table1"));
+        testSubscriber2.assertValue(Changes.newInstance("table2"));
+    }
+
+    @Test
+    public void shouldDeliverChangesWhereRequiredTableIsPartOfChanges() {
+        PublishSubject<Changes> rxBus = PublishSubject.create();
+        ChangesDispatcher changesDispatcher = new ChangesDispatcher(rxBus);
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+        changesDispatcher.observe(singleton("table3")).subscribe(testSubscriber);
+
+        Set<String> tables = new HashSet<String>();
+        tables.add("table1");
+        // Notice, that required table is just a part of Changes
+        tables.add("table2");
+        tables.add("table3");
+
+        rxBus.onNext(Changes.newInstance("table1"));
+        rxBus.onNext(Changes.newInstance(tables));
+
+        testSubscriber.assertValue(Changes.newInstance(tables));
+    }
+
+    @Test
+    public void subscriberOfSeveralAffectedTablesShouldReceiveChangesOnce() {
+        PublishSubject<Changes> rxBus = PublishSubject.create();
+        ChangesDispatcher changesDispatcher = new ChangesDispatcher(rxBus);
+
+        Set<String> tables = new HashSet<String>();
+        tables.add("table1");
+        tables.add("table2");
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+        changesDispatcher.observe(tables).subscribe(testSubscriber);
+
+        rxBus.onNext(Changes.newInstance(tables));
+
+        testSubscriber.assertValue(Changes.newInstance(tables));
+    }
+
+    @Test
+    public void shouldNotDeliverChangesAfterUnsubscribe() {
+        PublishSubject<Changes> rxBus = PublishSubject.create();
+        ChangesDispatcher changesDispatcher = new ChangesDispatcher(rxBus);
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+        changesDispatcher.observe(singleton("table")).subscribe(testSubscriber);
+
+        assertThat(changesDispatcher.numberOfSubscribers("table")).isEqualTo(1);
+
+        testSubscriber.unsubscribe();
+
+        assertThat(changesDispatcher.numberOfSubscribers("table")).isEqualTo(0);
+
+        rxBus.onNext(Changes.newInstance("table"));
+        testSubscriber.assertNoValues();
+    }
+
+    @Test
+    public void shouldNotBeAffectedByChangesOfPassedSet() {
+        PublishSubject<Changes> rxBus = PublishSubject.create();
+        ChangesDispatcher changesDispatcher = new ChangesDispatcher(rxBus);
+
+        Set<String> tables = new HashSet<String>();
+        tables.add("table1");
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+        changesDispatcher.observe(tables).subscribe(testSubscriber);
+
+        tables.add("table2");
+
+        rxBus.onNext(Changes.newInstance("table2"));
+        testSubscriber.assertNoValues();
+    }
+
+    @Test
+    public void subscriberThatThrowsShouldNotBreakDispatch() {
+        PublishSubject<Changes> rxBus = PublishSubject.create();
+        ChangesDispatcher changesDispatcher = new ChangesDispatcher(rxBus);
+
+        final RuntimeException exception = new RuntimeException("test exception");
+
+        Subscription throwingSubscription = changesDispatcher
+                .observe(singleton("table1"))
+                .subscribe(new Action1<Changes>() {
+                    @Override
+                    public void call(Changes changes) {
+                        throw exception;
+                    }
+                });
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+        changesDispatcher.observe(singleton("table2")).subscribe(testSubscriber);
+
+        try {
+            rxBus.onNext(Changes.newInstance("table1"));
+            failBecauseExceptionWasNotThrown(RuntimeException.class);
+        } catch (RuntimeException expected) {
+            // Subscriber without onError, exception is propagated to the thread that sent changes
+            assertThat(expected.getCause()).isSameAs(exception);
+        }
+
+        // Throwing subscriber is unsubscribed, others keep receiving changes
+        assertThat(throwingSubscription.isUnsubscribed()).isTrue();
+
+        rxBus.onNext(Changes.newInstance("table2"));
+        testSubscriber.assertValue(Changes.newInstance("table2"));
+    }
+}
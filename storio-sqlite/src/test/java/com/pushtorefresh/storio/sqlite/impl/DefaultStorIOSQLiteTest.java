@@ -3,12 +3,14 @@ package com.pushtorefresh.storio.sqlite.impl;
 import android.content.ContentValues;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.support.annotation.NonNull;
 
 import com.pushtorefresh.storio.TypeMappingFinder;
 import com.pushtorefresh.storio.internal.ChangesBus;
 import com.pushtorefresh.storio.internal.TypeMappingFinderImpl;
 import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.QueryResultCache;
 import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.delete.DeleteResolver;
@@ -28,18 +30,29 @@ import org.powermock.modules.junit4.PowerMockRunner;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.annotation.Nullable;
 
 import rx.Scheduler;
+import rx.Subscription;
+import rx.functions.Action1;
 import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.mock;
@@ -98,6 +111,39 @@ public class DefaultStorIOSQLiteTest {
         builder.addTypeMapping(Object.class, null);
     }
 
+    @Test
+    public void addTypeMappingsNullMappings() {
+        DefaultStorIOSQLite.CompleteBuilder builder = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class));
+
+        expectedException.expect(NullPointerException.class);
+        expectedException.expectMessage(equalTo("Please specify type mappings"));
+        expectedException.expectCause(nullValue(Throwable.class));
+
+        //noinspection ConstantConditions
+        builder.addTypeMappings(null);
+    }
+
+    @Test
+    public void typeMappingsShouldBeAddedWithOneCall() {
+        //noinspection unchecked
+        SQLiteTypeMapping<ClassEntity> typeMapping = SQLiteTypeMapping.builder()
+                .putResolver(mock(PutResolver.class))
+                .getResolver(mock(GetResolver.class))
+                .deleteResolver(mock(DeleteResolver.class))
+                .build();
+
+        final Map<Class<?>, SQLiteTypeMapping<?>> typeMappings = new HashMap<Class<?>, SQLiteTypeMapping<?>>();
+        typeMappings.put(ClassEntity.class, typeMapping);
+
+        DefaultStorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .addTypeMappings(typeMappings)
+                .build();
+
+        assertThat(storIOSQLite.lowLevel().typeMapping(ClassEntity.class)).isEqualTo(typeMapping);
+    }
+
     @Test
     public void nullTypeMappingFinder() {
         DefaultStorIOSQLite.CompleteBuilder builder = DefaultStorIOSQLite.builder()
@@ -189,6 +235,159 @@ public class DefaultStorIOSQLiteTest {
         assertThat(storIOSQLite.lowLevel().typeMapping(AnotherEntity.class)).isEqualTo(anotherMapping);
     }
 
+    @Test
+    public void compiledStatementCacheSizeShouldNotBeNegative() {
+        DefaultStorIOSQLite.CompleteBuilder builder = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class));
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(equalTo("Compiled statement cache size can not be negative, maxSize = -1"));
+        expectedException.expectCause(nullValue(Throwable.class));
+
+        builder.compiledStatementCacheSize(-1);
+    }
+
+    @Test
+    public void nullTuningProfile() {
+        DefaultStorIOSQLite.CompleteBuilder builder = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class));
+
+        expectedException.expect(NullPointerException.class);
+        expectedException.expectMessage(equalTo("Please specify tuning profile"));
+        expectedException.expectCause(nullValue(Throwable.class));
+
+        //noinspection ConstantConditions
+        builder.tuningProfile(null);
+    }
+
+    @Test
+    public void queryResultCacheSizeShouldNotBeNegative() {
+        DefaultStorIOSQLite.CompleteBuilder builder = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class));
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(equalTo("Query result cache size can not be negative, maxSize = -1"));
+        expectedException.expectCause(nullValue(Throwable.class));
+
+        builder.queryResultCacheSize(-1);
+    }
+
+    @Test
+    public void queryResultCacheShouldBeDisabledByDefault() {
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .build();
+
+        assertThat(storIOSQLite.queryResultCache()).isNull();
+    }
+
+    @Test
+    public void changesShouldInvalidateQueryResultCache() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(mock(SQLiteDatabase.class));
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .queryResultCacheSize(10)
+                .build();
+
+        QueryResultCache queryResultCache = storIOSQLite.queryResultCache();
+        assertThat(queryResultCache).isNotNull();
+        assertThat(queryResultCache.maxSize()).isEqualTo(10);
+
+        //noinspection ConstantConditions
+        queryResultCache.put("key1", singleton("table1"), "result1", queryResultCache.generation());
+        queryResultCache.put("key2", singleton("table2"), "result2", queryResultCache.generation());
+
+        storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table1"));
+
+        assertThat(queryResultCache.get("key1")).isNull();
+        assertThat(queryResultCache.get("key2")).isEqualTo("result2");
+
+        storIOSQLite.lowLevel().beginTransaction();
+        storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table2"));
+
+        // Notification is deferred, but thread in transaction should not read outdated result
+        assertThat(queryResultCache.get("key2")).isNull();
+
+        storIOSQLite.lowLevel().endTransaction();
+    }
+
+    @Test
+    public void nullChangesScheduler() {
+        DefaultStorIOSQLite.CompleteBuilder builder = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class));
+
+        expectedException.expect(NullPointerException.class);
+        expectedException.expectMessage(equalTo("Please specify changes scheduler"));
+        expectedException.expectCause(nullValue(Throwable.class));
+
+        //noinspection ConstantConditions
+        builder.changesScheduler(null);
+    }
+
+    @Test
+    public void changesShouldBeDispatchedOnChangesScheduler() {
+        TestScheduler changesScheduler = new TestScheduler();
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .changesScheduler(changesScheduler)
+                .build();
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+
+        storIOSQLite
+                .observeChangesInTable("table1")
+                .subscribe(testSubscriber);
+
+        storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table1"));
+        storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table2"));
+        storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table1"));
+
+        // Sender does not wait for subscribers
+        testSubscriber.assertNoValues();
+
+        changesScheduler.triggerActions();
+
+        testSubscriber.assertValues(Changes.newInstance("table1"), Changes.newInstance("table1"));
+        testSubscriber.assertNoErrors();
+    }
+
+    @Test
+    public void tuningProfileShouldBeAppliedOncePerOpenedDb() throws IOException {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase db1 = mock(SQLiteDatabase.class);
+        SQLiteDatabase db2 = mock(SQLiteDatabase.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(db1);
+        when(sqLiteOpenHelper.getReadableDatabase()).thenReturn(db1);
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .tuningProfile(TuningProfile.builder().writeAheadLogging(true).build())
+                .build();
+
+        // Should not open db eagerly
+        verify(sqLiteOpenHelper, times(0)).getWritableDatabase();
+
+        storIOSQLite.lowLevel().beginTransaction();
+        storIOSQLite.lowLevel().setTransactionSuccessful();
+        storIOSQLite.lowLevel().endTransaction();
+        storIOSQLite.lowLevel().rawQuery(RawQuery.builder().query("SELECT 1").build());
+
+        verify(db1).enableWriteAheadLogging();
+
+        storIOSQLite.close();
+
+        // SQLiteOpenHelper opens new db after close
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(db2);
+        storIOSQLite.lowLevel().beginTransaction();
+
+        verify(db1).enableWriteAheadLogging();
+        verify(db2).enableWriteAheadLogging();
+    }
+
     @Test
     public void shouldCloseSQLiteOpenHelper() throws IOException {
         SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
@@ -297,6 +496,232 @@ public class DefaultStorIOSQLiteTest {
         }
     }
 
+    @Test
+    public void changesOfTransactionShouldBeMergedIntoOneNotification() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(mock(SQLiteDatabase.class));
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+        storIOSQLite.observeChanges().subscribe(testSubscriber);
+
+        storIOSQLite.lowLevel().beginTransaction();
+        storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table1"));
+
+        storIOSQLite.lowLevel().beginTransaction();
+        storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table2"));
+        storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table1"));
+        storIOSQLite.lowLevel().setTransactionSuccessful();
+        storIOSQLite.lowLevel().endTransaction();
+
+        // Nested transaction should not send changes
+        testSubscriber.assertNoValues();
+
+        storIOSQLite.lowLevel().setTransactionSuccessful();
+        storIOSQLite.lowLevel().endTransaction();
+
+        Set<String> tables = new HashSet<String>(2);
+        tables.add("table1");
+        tables.add("table2");
+
+        testSubscriber.assertValue(Changes.newInstance(tables));
+        testSubscriber.assertNoErrors();
+    }
+
+    @Test
+    public void notificationsBatchShouldMergeChanges() {
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .build();
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+        storIOSQLite.observeChanges().subscribe(testSubscriber);
+
+        storIOSQLite.lowLevel().beginNotificationsBatch();
+
+        try {
+            storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table1"));
+            storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table2"));
+
+            testSubscriber.assertNoValues();
+        } finally {
+            storIOSQLite.lowLevel().endNotificationsBatch();
+        }
+
+        Set<String> tables = new HashSet<String>(2);
+        tables.add("table1");
+        tables.add("table2");
+
+        testSubscriber.assertValue(Changes.newInstance(tables));
+        testSubscriber.assertNoErrors();
+
+        // After the batch changes should be sent immediately
+        storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table3"));
+        testSubscriber.assertValues(Changes.newInstance(tables), Changes.newInstance("table3"));
+    }
+
+    @Test
+    public void transactionInsideOfNotificationsBatchShouldNotSendChanges() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(mock(SQLiteDatabase.class));
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+        storIOSQLite.observeChanges().subscribe(testSubscriber);
+
+        storIOSQLite.lowLevel().beginNotificationsBatch();
+        storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table1"));
+
+        storIOSQLite.lowLevel().beginTransaction();
+        storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("table2"));
+        storIOSQLite.lowLevel().setTransactionSuccessful();
+        storIOSQLite.lowLevel().endTransaction();
+
+        testSubscriber.assertNoValues();
+
+        storIOSQLite.lowLevel().endNotificationsBatch();
+
+        Set<String> tables = new HashSet<String>(2);
+        tables.add("table1");
+        tables.add("table2");
+
+        testSubscriber.assertValue(Changes.newInstance(tables));
+    }
+
+    @Test
+    public void emptyNotificationsBatchShouldNotSendChanges() {
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .build();
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+        storIOSQLite.observeChanges().subscribe(testSubscriber);
+
+        storIOSQLite.lowLevel().beginNotificationsBatch();
+        storIOSQLite.lowLevel().endNotificationsBatch();
+
+        testSubscriber.assertNoValues();
+    }
+
+    @Test
+    public void endNotificationsBatchWithoutBeginShouldThrow() {
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .build();
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(equalTo("There is no notifications batch to end in current thread"));
+        expectedException.expectCause(nullValue(Throwable.class));
+
+        storIOSQLite.lowLevel().endNotificationsBatch();
+    }
+
+    @Test
+    public void transactionShouldNotDelayNotificationsFromOtherThreads() throws InterruptedException {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(mock(SQLiteDatabase.class));
+
+        final StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .build();
+
+        TestSubscriber<Changes> testSubscriber = new TestSubscriber<Changes>();
+        storIOSQLite.observeChanges().subscribe(testSubscriber);
+
+        final CountDownLatch longTransactionStarted = new CountDownLatch(1);
+        final CountDownLatch finishLongTransaction = new CountDownLatch(1);
+
+        Thread longTransaction = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                storIOSQLite.lowLevel().beginTransaction();
+                storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("long_transaction_table"));
+                longTransactionStarted.countDown();
+
+                try {
+                    finishLongTransaction.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+
+                storIOSQLite.lowLevel().setTransactionSuccessful();
+                storIOSQLite.lowLevel().endTransaction();
+            }
+        });
+
+        longTransaction.start();
+        assertThat(longTransactionStarted.await(20, SECONDS)).isTrue();
+
+        final int numberOfWriters = 20;
+        final CountDownLatch startAllWriters = new CountDownLatch(1);
+        final CountDownLatch allWritersFinished = new CountDownLatch(numberOfWriters);
+        final AtomicInteger numberOfDelayedNotifications = new AtomicInteger();
+
+        for (int i = 0; i < numberOfWriters; i++) {
+            final Changes changes = Changes.newInstance("table_" + i);
+
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    final CountDownLatch notificationReceived = new CountDownLatch(1);
+
+                    final Subscription subscription = storIOSQLite
+                            .observeChanges()
+                            .subscribe(new Action1<Changes>() {
+                                @Override
+                                public void call(Changes receivedChanges) {
+                                    if (receivedChanges.equals(changes)) {
+                                        notificationReceived.countDown();
+                                    }
+                                }
+                            });
+
+                    try {
+                        startAllWriters.await();
+
+                        storIOSQLite.lowLevel().beginTransaction();
+                        storIOSQLite.lowLevel().notifyAboutChanges(changes);
+                        storIOSQLite.lowLevel().setTransactionSuccessful();
+                        storIOSQLite.lowLevel().endTransaction();
+
+                        // Long transaction is still running, notification should not wait for it
+                        if (!notificationReceived.await(5, SECONDS)) {
+                            numberOfDelayedNotifications.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    } finally {
+                        subscription.unsubscribe();
+                    }
+
+                    allWritersFinished.countDown();
+                }
+            }).start();
+        }
+
+        startAllWriters.countDown();
+        assertThat(allWritersFinished.await(20, SECONDS)).isTrue();
+
+        assertThat(numberOfDelayedNotifications.get()).isEqualTo(0);
+        assertThat(testSubscriber.getOnNextEvents())
+                .hasSize(numberOfWriters)
+                .doesNotContain(Changes.newInstance("long_transaction_table"));
+
+        finishLongTransaction.countDown();
+        longTransaction.join();
+
+        testSubscriber.assertNoErrors();
+        assertThat(testSubscriber.getOnNextEvents())
+                .hasSize(numberOfWriters + 1)
+                .endsWith(Changes.newInstance("long_transaction_table"));
+    }
+
     @Test
     public void shouldPassArgsToInsertWithOnConflict() {
         SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
@@ -327,6 +752,40 @@ public class DefaultStorIOSQLiteTest {
         );
     }
 
+    @Test
+    public void insertRowsShouldNotCacheStatementOfPartialChunk() {
+        SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        SQLiteStatement statement = mock(SQLiteStatement.class);
+
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.compileStatement(anyString())).thenReturn(statement);
+        when(statement.executeUpdateDelete()).thenReturn(2);
+
+        StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .compiledStatementCacheSize(10)
+                .build();
+
+        ContentValues row = mock(ContentValues.class);
+        when(row.size()).thenReturn(1);
+        when(row.keySet()).thenReturn(singleton("test_column"));
+        when(row.containsKey("test_column")).thenReturn(true);
+
+        InsertQuery insertQuery = InsertQuery.builder()
+                .table("test_table")
+                .build();
+
+        assertThat(storIOSQLite.lowLevel().insertRows(insertQuery, asList(row, row), SQLiteDatabase.CONFLICT_REPLACE))
+                .isEqualTo(2);
+        assertThat(storIOSQLite.lowLevel().insertRows(insertQuery, asList(row, row), SQLiteDatabase.CONFLICT_REPLACE))
+                .isEqualTo(2);
+
+        // Statement is compiled for each partial chunk and closed right after execution
+        verify(sqLiteDatabase, times(2)).compileStatement(anyString());
+        verify(statement, times(2)).close();
+    }
+
     @Test
     public void notifyAboutChangesShouldNotAcceptNullAsChanges() {
         SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
@@ -0,0 +1,107 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import android.database.sqlite.SQLiteProgram;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+public class StatementCacheTest {
+
+    @Test
+    public void shouldNotAcceptZeroMaxSize() {
+        try {
+            new StatementCache(0);
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException expected) {
+            assertThat(expected).hasMessage("maxSize should be positive, maxSize = 0");
+        }
+    }
+
+    @Test
+    public void shouldBeEmptyAfterCreation() {
+        assertThat(new StatementCache(5).size()).isEqualTo(0);
+    }
+
+    @Test
+    public void clearShouldWorkOnEmptyCache() {
+        StatementCache statementCache = new StatementCache(5);
+        statementCache.clear();
+        assertThat(statementCache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void bindNull() {
+        SQLiteProgram program = mock(SQLiteProgram.class);
+        StatementCache.bind(program, 1, null);
+        verify(program).bindNull(1);
+        verifyNoMoreInteractions(program);
+    }
+
+    @Test
+    public void bindIntegralNumbersAsLong() {
+        SQLiteProgram program = mock(SQLiteProgram.class);
+
+        StatementCache.bind(program, 1, (byte) 1);
+        StatementCache.bind(program, 2, (short) 2);
+        StatementCache.bind(program, 3, 3);
+        StatementCache.bind(program, 4, 4L);
+
+        verify(program).bindLong(1, 1);
+        verify(program).bindLong(2, 2);
+        verify(program).bindLong(3, 3);
+        verify(program).bindLong(4, 4);
+        verifyNoMoreInteractions(program);
+    }
+
+    @Test
+    public void bindFloatingPointNumbersAsDouble() {
+        SQLiteProgram program = mock(SQLiteProgram.class);
+
+        StatementCache.bind(program, 1, 1.5f);
+        StatementCache.bind(program, 2, 2.5d);
+
+        verify(program).bindDouble(1, 1.5d);
+        verify(program).bindDouble(2, 2.5d);
+        verifyNoMoreInteractions(program);
+    }
+
+    @Test
+    public void bindBooleanAsLong() {
+        SQLiteProgram program = mock(SQLiteProgram.class);
+
+        StatementCache.bind(program, 1, true);
+        StatementCache.bind(program, 2, false);
+
+        verify(program).bindLong(1, 1);
+        verify(program).bindLong(2, 0);
+        verifyNoMoreInteractions(program);
+    }
+
+    @Test
+    public void bindBlob() {
+        SQLiteProgram program = mock(SQLiteProgram.class);
+        byte[] blob = {1, 2, 3};
+
+        StatementCache.bind(program, 1, blob);
+
+        verify(program).bindBlob(1, blob);
+        verifyNoMoreInteractions(program);
+    }
+
+    @Test
+    public void bindOtherObjectsAsString() {
+        SQLiteProgram program = mock(SQLiteProgram.class);
+
+        StatementCache.bind(program, 1, "string");
+        StatementCache.bind(program, 2, new StringBuilder("builder"));
+
+        verify(program).bindString(1, "string");
+        verify(program).bindString(2, "builder");
+        verifyNoMoreInteractions(program);
+    }
+}
@@ -0,0 +1,167 @@
+package com.pushtorefresh.storio.sqlite.impl;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class TuningProfileTest {
+
+    @Test
+    public void shouldNotAllowNegativeMmapSize() {
+        try {
+            TuningProfile.builder().mmapSize(-1);
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException expected) {
+            assertThat(expected)
+                    .hasMessage("mmapSize can not be negative, mmapSize = -1")
+                    .hasNoCause();
+        }
+    }
+
+    @Test
+    public void shouldNotAllowNullSynchronous() {
+        try {
+            //noinspection ConstantConditions
+            TuningProfile.builder().synchronous(null);
+            failBecauseExceptionWasNotThrown(NullPointerException.class);
+        } catch (NullPointerException expected) {
+            assertThat(expected)
+                    .hasMessage("Please specify synchronous")
+                    .hasNoCause();
+        }
+    }
+
+    @Test
+    public void shouldNotAllowNullTempStore() {
+        try {
+            //noinspection ConstantConditions
+            TuningProfile.builder().tempStore(null);
+            failBecauseExceptionWasNotThrown(NullPointerException.class);
+        } catch (NullPointerException expected) {
+            assertThat(expected)
+                    .hasMessage("Please specify temp store")
+                    .hasNoCause();
+        }
+    }
+
+    @Test
+    public void emptyProfileShouldNotTouchDb() {
+        SQLiteDatabase db = mock(SQLiteDatabase.class);
+
+        TuningProfile.builder().build().onConfigure(db);
+
+        verifyNoMoreInteractions(db);
+    }
+
+    @Test
+    public void shouldEnableWalBeforePragmas() {
+        SQLiteDatabase db = mock(SQLiteDatabase.class);
+        Cursor cursor = mock(Cursor.class);
+        when(db.rawQuery(anyString(), (String[]) isNull())).thenReturn(cursor);
+
+        TuningProfile.CONCURRENT_READS.onConfigure(db);
+
+        InOrder inOrder = inOrder(db);
+        inOrder.verify(db).isReadOnly();
+        inOrder.verify(db).enableWriteAheadLogging();
+        inOrder.verify(db).rawQuery("PRAGMA synchronous = NORMAL", null);
+        inOrder.verify(db).rawQuery("PRAGMA cache_size = -8192", null);
+        inOrder.verify(db).rawQuery("PRAGMA mmap_size = 33554432", null);
+        inOrder.verify(db).rawQuery("PRAGMA temp_store = MEMORY", null);
+        verifyNoMoreInteractions(db);
+
+        // Each pragma cursor should be executed and closed
+        verify(cursor, times(4)).moveToFirst();
+        verify(cursor, times(4)).close();
+    }
+
+    @Test
+    public void shouldDisableWal() {
+        SQLiteDatabase db = mock(SQLiteDatabase.class);
+
+        TuningProfile.builder().writeAheadLogging(false).build().onConfigure(db);
+
+        verify(db).isReadOnly();
+        verify(db).disableWriteAheadLogging();
+        verifyNoMoreInteractions(db);
+    }
+
+    @Test
+    public void shouldNotSwitchWalForReadOnlyDb() {
+        SQLiteDatabase db = mock(SQLiteDatabase.class);
+        when(db.isReadOnly()).thenReturn(true);
+
+        TuningProfile.builder().writeAheadLogging(true).build().onConfigure(db);
+
+        verify(db).isReadOnly();
+        verifyNoMoreInteractions(db);
+    }
+
+    @Test
+    public void shouldCloseCursorIfPragmaFailed() {
+        SQLiteDatabase db = mock(SQLiteDatabase.class);
+        Cursor cursor = mock(Cursor.class);
+        when(db.rawQuery(anyString(), (String[]) isNull())).thenReturn(cursor);
+        IllegalStateException exception = new IllegalStateException("test exception");
+        when(cursor.moveToFirst()).thenThrow(exception);
+
+        try {
+            TuningProfile.builder().cacheSize(100).build().onConfigure(db);
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException expected) {
+            assertThat(expected).isSameAs(exception);
+        }
+
+        verify(cursor).close();
+    }
+
+    @Test
+    public void builderShouldKeepValues() {
+        TuningProfile tuningProfile = TuningProfile.builder()
+                .writeAheadLogging(true)
+                .synchronous(TuningProfile.Synchronous.FULL)
+                .cacheSize(2000)
+                .mmapSize(0)
+                .tempStore(TuningProfile.TempStore.FILE)
+                .build();
+
+        assertThat(tuningProfile.writeAheadLogging()).isTrue();
+        assertThat(tuningProfile.synchronous()).isEqualTo(TuningProfile.Synchronous.FULL);
+        assertThat(tuningProfile.cacheSize()).isEqualTo(2000);
+        assertThat(tuningProfile.mmapSize()).isEqualTo(0L);
+        assertThat(tuningProfile.tempStore()).isEqualTo(TuningProfile.TempStore.FILE);
+    }
+
+    @Test
+    public void verifyEqualsAndHashCodeImplementation() {
+        EqualsVerifier
+                .forClass(TuningProfile.class)
+                .allFieldsShouldBeUsed()
+                .verify();
+    }
+
+    @Test
+    public void checkToStringImplementation() {
+        assertThat(TuningProfile.CONCURRENT_READS.toString()).isEqualTo("TuningProfile{"
+                + "writeAheadLogging=true, "
+                + "synchronous=NORMAL, "
+                + "cacheSize=-8192, "
+                + "mmapSize=33554432, "
+                + "tempStore=MEMORY}");
+    }
+}
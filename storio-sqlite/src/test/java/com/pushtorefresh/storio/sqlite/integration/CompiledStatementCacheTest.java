@@ -0,0 +1,239 @@
+package com.pushtorefresh.storio.sqlite.integration;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.sqlite.BuildConfig;
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.StatementBinder;
+import com.pushtorefresh.storio.sqlite.impl.DefaultStorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.put.DefaultPutResolver;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResult;
+import com.pushtorefresh.storio.sqlite.operations.put.PutStrategy;
+import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
+import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricGradleTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@RunWith(RobolectricGradleTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 21)
+public class CompiledStatementCacheTest extends BaseTest {
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+
+        storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .addTypeMapping(User.class, SQLiteTypeMapping.<User>builder()
+                        .putResolver(UserTableMeta.PUT_RESOLVER)
+                        .getResolver(UserTableMeta.GET_RESOLVER)
+                        .deleteResolver(UserTableMeta.DELETE_RESOLVER)
+                        .build())
+                .compiledStatementCacheSize(2)
+                .build();
+    }
+
+    @Test
+    public void insertUpdateAndDeleteThroughCachedStatements() {
+        final List<User> users = putUsersBlocking(10);
+        assertThat(getAllUsersBlocking()).isEqualTo(users);
+
+        final User userForUpdate = User.newInstance(users.get(0).id(), "new@email.com");
+
+        final PutResult updateResult = storIOSQLite
+                .put()
+                .object(userForUpdate)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(updateResult.wasUpdated()).isTrue();
+
+        deleteUsersBlocking(users.subList(1, users.size()));
+
+        final List<User> usersInStorage = getAllUsersBlocking();
+        assertThat(usersInStorage).hasSize(1);
+        assertThat(usersInStorage.get(0)).isEqualTo(userForUpdate);
+    }
+
+    @Test
+    public void insertWithOnConflictReplace() {
+        final User user = putUserBlocking();
+
+        final ContentValues contentValues = new ContentValues();
+        contentValues.put(UserTableMeta.COLUMN_ID, user.id());
+        contentValues.put(UserTableMeta.COLUMN_EMAIL, "new@email.com");
+
+        final long id = storIOSQLite
+                .lowLevel()
+                .insertWithOnConflict(
+                        InsertQuery.builder().table(UserTableMeta.TABLE).build(),
+                        contentValues,
+                        SQLiteDatabase.CONFLICT_REPLACE
+                );
+
+        assertThat(id).isEqualTo(user.id());
+        assertThat(getAllUsersBlocking()).containsExactly(User.newInstance(user.id(), "new@email.com"));
+    }
+
+    @Test
+    public void shouldBindNullValues() {
+        final User user = putUserBlocking(User.newInstance(null, "user@email.com", null));
+
+        final Cursor cursor = db.query(UserTableMeta.TABLE, null, null, null, null, null, null);
+
+        try {
+            assertThat(cursor.moveToFirst()).isTrue();
+            assertThat(UserTableMeta.GET_RESOLVER.mapFromCursor(cursor)).isEqualTo(user);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Test
+    public void updateAndDeleteShouldReturnNumberOfAffectedRows() {
+        putUsersBlocking(3);
+
+        final ContentValues contentValues = new ContentValues();
+        contentValues.put(UserTableMeta.COLUMN_PHONE, "1-999-547867");
+
+        final int numberOfUpdatedRows = storIOSQLite
+                .lowLevel()
+                .update(UpdateQuery.builder().table(UserTableMeta.TABLE).build(), contentValues);
+
+        assertThat(numberOfUpdatedRows).isEqualTo(3);
+
+        final int numberOfDeletedRows = storIOSQLite
+                .lowLevel()
+                .delete(DeleteQuery.builder().table(UserTableMeta.TABLE).build());
+
+        assertThat(numberOfDeletedRows).isEqualTo(3);
+    }
+
+    @Test
+    public void simpleQueryForLongThroughCachedStatement() {
+        putUsersBlocking(3);
+
+        final RawQuery countQuery = RawQuery.builder()
+                .query("SELECT COUNT(*) FROM " + UserTableMeta.TABLE + " WHERE " + UserTableMeta.COLUMN_ID + " > ?")
+                .args(1)
+                .build();
+
+        assertThat(storIOSQLite.lowLevel().simpleQueryForLong(countQuery)).isEqualTo(2);
+
+        // Same statement is bound with new arguments
+        assertThat(storIOSQLite.lowLevel().simpleQueryForLong(countQuery.toBuilder().args(2).build())).isEqualTo(1);
+    }
+
+    @Test
+    public void putThroughStatementBinder() {
+        final DefaultPutResolver<User> putResolver = new BindingUserPutResolver();
+
+        final User user = User.newInstance(null, "user@email.com", null);
+        final PutResult insertResult = putResolver.performPut(storIOSQLite, user);
+
+        assertThat(insertResult.wasInserted()).isTrue();
+
+        final User userForUpdate = User.newInstance(insertResult.insertedId(), "new@email.com", "1-999-547867");
+
+        assertThat(putResolver.performPut(storIOSQLite, userForUpdate).wasUpdated()).isTrue();
+        assertThat(putResolver.performPut(storIOSQLite, userForUpdate, PutStrategy.UPDATE_THEN_INSERT).numberOfRowsUpdated()).isEqualTo(1);
+        assertThat(putResolver.performPut(storIOSQLite, userForUpdate, PutStrategy.INSERT_OR_REPLACE).wasInserted()).isTrue();
+
+        assertThat(getAllUsersBlocking()).containsExactly(userForUpdate);
+    }
+
+    @Test
+    public void shouldWorkAfterClose() throws Exception {
+        putUsersBlocking(3);
+
+        storIOSQLite.close();
+
+        // SQLiteOpenHelper reopens db, statements compiled for previous instance should not be used
+        final List<User> users = putUsersBlocking(3);
+        assertThat(getAllUsersBlocking()).hasSize(6).containsAll(users);
+    }
+
+    private static class BindingUserPutResolver extends DefaultPutResolver<User> {
+
+        @NonNull
+        private static final List<String> COLUMNS = Collections.unmodifiableList(Arrays.asList(
+                UserTableMeta.COLUMN_ID,
+                UserTableMeta.COLUMN_EMAIL,
+                UserTableMeta.COLUMN_PHONE
+        ));
+
+        @NonNull
+        private final StatementBinder<User> statementBinder = new StatementBinder<User>() {
+            @NonNull
+            @Override
+            public List<String> columns() {
+                return COLUMNS;
+            }
+
+            @Override
+            public void bind(@NonNull SQLiteStatement statement, @NonNull User user) {
+                if (user.id() != null) {
+                    statement.bindLong(1, user.id());
+                } else {
+                    statement.bindNull(1);
+                }
+
+                statement.bindString(2, user.email());
+
+                if (user.phone() != null) {
+                    statement.bindString(3, user.phone());
+                } else {
+                    statement.bindNull(3);
+                }
+            }
+        };
+
+        @NonNull
+        @Override
+        protected InsertQuery mapToInsertQuery(@NonNull User user) {
+            return InsertQuery.builder()
+                    .table(UserTableMeta.TABLE)
+                    .build();
+        }
+
+        @NonNull
+        @Override
+        protected UpdateQuery mapToUpdateQuery(@NonNull User user) {
+            return UpdateQuery.builder()
+                    .table(UserTableMeta.TABLE)
+                    .where(UserTableMeta.COLUMN_ID + " = ?")
+                    .whereArgs(user.id())
+                    .build();
+        }
+
+        @NonNull
+        @Override
+        protected ContentValues mapToContentValues(@NonNull User user) {
+            throw new AssertionError("Statement should be bound instead");
+        }
+
+        @Nullable
+        @Override
+        protected StatementBinder<User> statementBinder() {
+            return statementBinder;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.robolectric.annotation.Config;
 import java.util.ArrayList;
 import java.util.List;
 
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @RunWith(RobolectricGradleTestRunner.class)
@@ -64,4 +65,30 @@ public class DeleteTest extends BaseTest {
             assertThat(usersAfterDelete.contains(user)).isEqualTo(!shouldBeDeleted);
         }
     }
+
+    @Test
+    public void deleteCollectionByKeysShouldReturnResultOfEachObject() {
+        final List<User> users = new ArrayList<User>();
+
+        for (long id = 1; id <= 5; id++) {
+            users.add(User.newInstance(id, "user" + id + "@example.com"));
+        }
+
+        putUsersBlocking(users);
+
+        final User notExistingUser = User.newInstance(99L, "user99@example.com");
+
+        final DeleteResults<User> deleteResults = storIOSQLite
+                .delete()
+                .objects(asList(users.get(0), users.get(2), notExistingUser))
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(deleteResults.results()).hasSize(3);
+        assertThat(deleteResults.results().get(users.get(0)).numberOfRowsDeleted()).isEqualTo(1);
+        assertThat(deleteResults.results().get(users.get(2)).numberOfRowsDeleted()).isEqualTo(1);
+        assertThat(deleteResults.results().get(notExistingUser).numberOfRowsDeleted()).isEqualTo(0);
+
+        assertThat(getAllUsersBlocking()).containsExactly(users.get(1), users.get(3), users.get(4));
+    }
 }
@@ -3,12 +3,14 @@ package com.pushtorefresh.storio.sqlite.integration;
 import android.database.Cursor;
 
 import com.pushtorefresh.storio.sqlite.BuildConfig;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResults;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricGradleTestRunner;
 import org.robolectric.annotation.Config;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -53,6 +55,58 @@ public class InsertTest extends BaseTest {
         cursor.close();
     }
 
+    @Test
+    public void insertCollectionWithMultiRowInserts() {
+        // More rows than fit into one statement
+        final List<User> users = TestFactory.newUsers(1200);
+
+        final PutResults<User> putResults = storIOSQLite
+                .put()
+                .objects(users)
+                .useMultiRowInserts(true)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(putResults.results()).isEmpty();
+        assertThat(putResults.numberOfInserts()).isEqualTo(users.size());
+
+        final List<User> insertedUsers = getAllUsersBlocking();
+
+        assertThat(insertedUsers).hasSize(users.size());
+
+        for (int i = 0; i < users.size(); i++) {
+            assertThat(insertedUsers.get(i).email()).isEqualTo(users.get(i).email());
+        }
+    }
+
+    @Test
+    public void multiRowInsertsShouldUpdateExistingRows() {
+        final List<User> users = new ArrayList<User>();
+
+        for (long id = 1; id <= 10; id++) {
+            users.add(User.newInstance(id, "user" + id + "@example.com"));
+        }
+
+        putUsersBlocking(users);
+
+        final List<User> updatedUsers = new ArrayList<User>();
+
+        for (long id = 1; id <= 10; id++) {
+            updatedUsers.add(User.newInstance(id, "updated" + id + "@example.com", "+" + id));
+        }
+
+        final PutResults<User> putResults = storIOSQLite
+                .put()
+                .objects(updatedUsers)
+                .useMultiRowInserts(true)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(putResults.numberOfInserts()).isEqualTo(0);
+        assertThat(putResults.numberOfUpdates()).isEqualTo(updatedUsers.size());
+        assertThat(getAllUsersBlocking()).isEqualTo(updatedUsers);
+    }
+
     @Test
     public void insertAndDeleteTwice() {
         final User user = TestFactory.newUser();
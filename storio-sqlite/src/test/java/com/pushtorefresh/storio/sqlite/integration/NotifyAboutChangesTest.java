@@ -142,7 +142,7 @@ public class NotifyAboutChangesTest extends BaseTest {
     }
 
     @Test
-    public void shouldReceiveOneNotificationInTransactionWithMultipleThreads() throws InterruptedException {
+    public void transactionShouldNotDeferNotificationsFromOtherThreads() throws InterruptedException {
         final String table = "test_table";
         final int numberOfThreads = 100;
 
@@ -185,14 +185,21 @@ public class NotifyAboutChangesTest extends BaseTest {
 
         assertThat(allThreadsFinishedLock.await(20, SECONDS)).isTrue();
 
-        // While we in transaction, no changes should be sent
-        assertThat(testSubscriber.getOnNextEvents()).hasSize(0);
+        // Other threads are not in transaction, their changes should be sent immediately
+        assertThat(testSubscriber.getOnNextEvents()).hasSize(numberOfThreads);
+
+        storIOSQLite
+                .lowLevel()
+                .notifyAboutChanges(Changes.newInstance(table));
+
+        // Changes of thread in transaction should wait for the end of transaction
+        assertThat(testSubscriber.getOnNextEvents()).hasSize(numberOfThreads);
 
         storIOSQLite
                 .lowLevel()
                 .endTransaction();
 
         testSubscriber.assertNoErrors();
-        testSubscriber.assertReceivedOnNext(singletonList(Changes.newInstance(table)));
+        assertThat(testSubscriber.getOnNextEvents()).hasSize(numberOfThreads + 1);
     }
-}
\ No newline at end of file
+}
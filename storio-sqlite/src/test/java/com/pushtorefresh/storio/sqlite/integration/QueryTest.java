@@ -6,6 +6,7 @@ import android.support.annotation.NonNull;
 import com.pushtorefresh.storio.sqlite.BuildConfig;
 import com.pushtorefresh.storio.sqlite.operations.get.DefaultGetResolver;
 import com.pushtorefresh.storio.sqlite.operations.get.GetResolver;
+import com.pushtorefresh.storio.sqlite.operations.get.PreparedGetAggregate;
 import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
@@ -18,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -430,6 +432,38 @@ public class QueryTest extends BaseTest {
         assertThat(getAllUsersBlocking()).isEqualTo(users);
     }
 
+    @Test
+    public void queryObjectsByKeys() {
+        putUsersBlocking(5);
+        final List<User> users = getAllUsersBlocking();
+
+        final List<User> usersFromQuery = storIOSQLite
+                .get()
+                .listOfObjects(User.class)
+                .withKeys(Arrays.asList(users.get(3).id(), 99L, users.get(0).id()))
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(usersFromQuery).containsExactly(users.get(3), users.get(0));
+    }
+
+    @Test
+    public void queryObjectsByKeysAsMap() {
+        putUsersBlocking(3);
+        final List<User> users = getAllUsersBlocking();
+
+        final Map<Long, User> usersFromQuery = storIOSQLite
+                .get()
+                .listOfObjects(User.class)
+                .withKeys(Arrays.asList(users.get(2).id(), users.get(1).id()))
+                .prepare()
+                .executeAsBlockingAsMap();
+
+        assertThat(usersFromQuery).hasSize(2);
+        assertThat(usersFromQuery.get(users.get(2).id())).isEqualTo(users.get(2));
+        assertThat(usersFromQuery.get(users.get(1).id())).isEqualTo(users.get(1));
+    }
+
     @Test
     public void getNumberOfResults() {
         putUsersBlocking(8);
@@ -444,6 +478,116 @@ public class QueryTest extends BaseTest {
         assertThat(numberOfResults).isEqualTo(8);
     }
 
+    @Test
+    public void getNumberOfResultsOfLimitedQuery() {
+        putUsersBlocking(8);
+
+        Integer numberOfResults = storIOSQLite
+                .get()
+                .numberOfResults()
+                .withQuery(Query.builder()
+                        .table(UserTableMeta.TABLE)
+                        .where(UserTableMeta.COLUMN_ID + " > ?")
+                        .whereArgs(2)
+                        .limit(3)
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(numberOfResults).isEqualTo(3);
+    }
+
+    @Test
+    public void getNumberOfResultsOfGroupedQuery() {
+        putUserBlocking(User.newInstance(null, "1@email.com"));
+        putUserBlocking(User.newInstance(null, "1@email.com"));
+        putUserBlocking(User.newInstance(null, "2@email.com"));
+
+        Integer numberOfResults = storIOSQLite
+                .get()
+                .numberOfResults()
+                .withQuery(Query.builder()
+                        .table(UserTableMeta.TABLE)
+                        .columns(UserTableMeta.COLUMN_EMAIL)
+                        .groupBy(UserTableMeta.COLUMN_EMAIL)
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(numberOfResults).isEqualTo(2);
+    }
+
+    @Test
+    public void exists() {
+        putUserBlocking(User.newInstance(null, "1@email.com"));
+
+        final Query.CompleteBuilder query = Query.builder()
+                .table(UserTableMeta.TABLE)
+                .where(UserTableMeta.COLUMN_EMAIL + " = ?");
+
+        assertThat(storIOSQLite
+                .get()
+                .exists()
+                .withQuery(query.whereArgs("1@email.com").build())
+                .prepare()
+                .executeAsBlocking()).isTrue();
+
+        assertThat(storIOSQLite
+                .get()
+                .exists()
+                .withQuery(query.whereArgs("2@email.com").build())
+                .prepare()
+                .executeAsBlocking()).isFalse();
+    }
+
+    @Test
+    public void aggregate() {
+        putUsersBlocking(4);
+
+        final PreparedGetAggregate sumOfIds = storIOSQLite
+                .get()
+                .aggregate()
+                .sum(UserTableMeta.COLUMN_ID)
+                .withQuery(UserTableMeta.QUERY_ALL)
+                .prepare();
+
+        assertThat(sumOfIds.executeAsBlocking()).isEqualTo(10d);
+        assertThat(sumOfIds.executeAsBlockingAsLong(-1)).isEqualTo(10);
+
+        final PreparedGetAggregate avgOfNoRows = storIOSQLite
+                .get()
+                .aggregate()
+                .avg(UserTableMeta.COLUMN_ID)
+                .withQuery(Query.builder()
+                        .table(UserTableMeta.TABLE)
+                        .where(UserTableMeta.COLUMN_ID + " > ?")
+                        .whereArgs(100)
+                        .build())
+                .prepare();
+
+        assertThat(avgOfNoRows.executeAsBlocking()).isNull();
+        assertThat(avgOfNoRows.executeAsBlockingAsLong(-1)).isEqualTo(-1);
+        assertThat(avgOfNoRows.executeAsBlockingAsDouble(0.5)).isEqualTo(0.5);
+    }
+
+    @Test
+    public void getNumberOfResultsOfRawQueryCountedAsSubquery() {
+        putUsersBlocking(8);
+
+        Integer numberOfResults = storIOSQLite
+                .get()
+                .numberOfResults()
+                .withQuery(RawQuery.builder()
+                        .query("SELECT * FROM " + UserTableMeta.TABLE + " WHERE " + UserTableMeta.COLUMN_ID + " <= ?")
+                        .args(5)
+                        .build())
+                .countRawQueryAsSubquery(true)
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(numberOfResults).isEqualTo(5);
+    }
+
     @Test
     public void queryOneExistedObject() {
         final List<User> users = putUsersBlocking(3);
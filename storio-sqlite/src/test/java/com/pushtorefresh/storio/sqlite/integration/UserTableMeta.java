@@ -3,6 +3,7 @@ package com.pushtorefresh.storio.sqlite.integration;
 import android.content.ContentValues;
 import android.database.Cursor;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.delete.DefaultDeleteResolver;
@@ -93,6 +94,18 @@ public class UserTableMeta {
                     cursor.getString(cursor.getColumnIndex(COLUMN_PHONE))
             );
         }
+
+        @Nullable
+        @Override
+        protected String table() {
+            return TABLE;
+        }
+
+        @Nullable
+        @Override
+        protected String keyColumn() {
+            return COLUMN_ID;
+        }
     };
     static final DeleteResolver<User> DELETE_RESOLVER = new DefaultDeleteResolver<User>() {
         @NonNull
@@ -104,6 +117,12 @@ public class UserTableMeta {
                     .whereArgs(user.id())
                     .build();
         }
+
+        @Nullable
+        @Override
+        protected String keyColumn() {
+            return COLUMN_ID;
+        }
     };
 
     private UserTableMeta() {
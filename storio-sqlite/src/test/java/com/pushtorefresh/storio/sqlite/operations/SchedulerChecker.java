@@ -6,6 +6,7 @@ import com.pushtorefresh.storio.operations.PreparedOperation;
 import com.pushtorefresh.storio.operations.PreparedWriteOperation;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 
+import rx.Subscription;
 import rx.schedulers.TestScheduler;
 
 import static org.mockito.Mockito.never;
@@ -34,7 +35,9 @@ public class SchedulerChecker {
     }
 
     public void checkAsObservable(@NonNull PreparedOperation operation) {
-        operation.asRxObservable().subscribe();
+        final Subscription subscription = operation.asRxObservable().subscribe();
+        // Equal Get Operations share live query, spy should not reuse this subscription
+        subscription.unsubscribe();
         check(operation);
     }
 
@@ -2,6 +2,7 @@ package com.pushtorefresh.storio.sqlite.operations.delete;
 
 import android.support.annotation.NonNull;
 
+import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
 
@@ -51,6 +52,42 @@ public class DefaultDeleteResolverTest {
 
         assertThat(deleteResult.numberOfRowsDeleted()).isEqualTo(1);
         assertThat(deleteResult.affectedTables()).isEqualTo(Collections.singleton(testTable));
+        assertThat(deleteResult.changes()).isEqualTo(Changes.newInstance(testTable));
+    }
+
+    @Test
+    public void performDeleteShouldReturnKeyOfDeletedRow() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+
+        final DeleteQuery deleteQuery = DeleteQuery.builder()
+                .table("test_table")
+                .where("_id = ?")
+                .whereArgs(5)
+                .build();
+
+        when(storIOSQLite.lowLevel())
+                .thenReturn(internal);
+
+        when(internal.delete(deleteQuery))
+                .thenReturn(1);
+
+        final DefaultDeleteResolver<TestItem> defaultDeleteResolver = new DefaultDeleteResolver<TestItem>() {
+            @NonNull
+            @Override
+            public DeleteQuery mapToDeleteQuery(@NonNull TestItem testItem) {
+                return deleteQuery;
+            }
+        };
+
+        final DeleteResult deleteResult = defaultDeleteResolver.performDelete(storIOSQLite, new TestItem());
+
+        assertThat(deleteResult.changes()).isEqualTo(Changes.newInstance(
+                "test_table",
+                Changes.Type.DELETE,
+                "_id = ?",
+                Collections.singletonList(Collections.singletonList("5"))
+        ));
     }
 
     private static class TestItem {
@@ -166,9 +166,9 @@ class DeleteStub {
         }
 
         if (withTypeMapping) {
-            // Number of calls to receive delete resolver should be equal to number of items
-            verify(internal, times(itemsRequestedForDelete.size())).typeMapping(TestItem.class);
-            verify(typeMapping, times(itemsRequestedForDelete.size())).deleteResolver();
+            // Delete resolver should be received once for collection of objects of one type
+            verify(internal).typeMapping(TestItem.class);
+            verify(typeMapping).deleteResolver();
         }
 
         verifyTransactionBehavior();
@@ -1,15 +1,25 @@
 package com.pushtorefresh.storio.sqlite.operations.delete;
 
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
 import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.SchedulerChecker;
 import com.pushtorefresh.storio.sqlite.queries.DeleteQuery;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import rx.Completable;
 import rx.Observable;
@@ -625,6 +635,157 @@ public class PreparedDeleteCollectionOfObjectsTest {
         }
     }
 
+    public static class DeleteByKeys {
+
+        @Test
+        public void shouldDeleteObjectsByKeysWithOneStatement() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+            when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+            when(lowLevel.inTransaction()).thenReturn(true);
+
+            // Rows of keys "1" and "2" exist, row of key "3" does not
+            final Cursor cursor = mock(Cursor.class);
+            when(cursor.moveToNext()).thenReturn(true, true, false);
+            when(cursor.getString(0)).thenReturn("1", "2");
+            when(cursor.getInt(1)).thenReturn(1);
+            when(lowLevel.rawQuery(any(RawQuery.class))).thenReturn(cursor);
+
+            final TestItem item1 = TestItem.newInstance();
+            final TestItem item2 = TestItem.newInstance();
+            final TestItem item3 = TestItem.newInstance();
+
+            final Map<TestItem, String> keys = new HashMap<TestItem, String>();
+            keys.put(item1, "1");
+            keys.put(item2, "2");
+            keys.put(item3, "3");
+
+            final DeleteResults<TestItem> deleteResults = new PreparedDeleteCollectionOfObjects.Builder<TestItem>(storIOSQLite, asList(item1, item2, item3))
+                    .withDeleteResolver(new KeyDeleteResolver(keys))
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(deleteResults.results()).hasSize(3);
+            assertThat(deleteResults.results().get(item1)).isEqualTo(DeleteResult.newInstance(1, TestItem.TABLE, "id = ?", singletonList("1")));
+            assertThat(deleteResults.results().get(item2)).isEqualTo(DeleteResult.newInstance(1, TestItem.TABLE, "id = ?", singletonList("2")));
+            assertThat(deleteResults.results().get(item3)).isEqualTo(DeleteResult.newInstance(0, TestItem.TABLE, "id = ?", singletonList("3")));
+
+            verify(lowLevel).rawQuery(RawQuery.builder()
+                    .query("SELECT id, COUNT(*) FROM " + TestItem.TABLE + " WHERE id IN (?,?,?) GROUP BY id")
+                    .args("1", "2", "3")
+                    .build());
+
+            verify(lowLevel).delete(DeleteQuery.builder()
+                    .table(TestItem.TABLE)
+                    .where("id IN (?,?,?)")
+                    .whereArgs("1", "2", "3")
+                    .build());
+
+            verify(lowLevel, never()).delete(DeleteQuery.builder()
+                    .table(TestItem.TABLE)
+                    .where("id = ?")
+                    .whereArgs("1")
+                    .build());
+
+            verify(lowLevel).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+        }
+
+        @Test
+        public void shouldDeleteObjectsOneByOneIfRowsDoNotMatchKeys() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+            when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+            when(lowLevel.inTransaction()).thenReturn(true);
+
+            // Key "01" was converted to 1 by affinity of the column
+            final Cursor cursor = mock(Cursor.class);
+            when(cursor.moveToNext()).thenReturn(true, false);
+            when(cursor.getString(0)).thenReturn("1");
+            when(cursor.getInt(1)).thenReturn(1);
+            when(lowLevel.rawQuery(any(RawQuery.class))).thenReturn(cursor);
+
+            final DeleteQuery deleteQuery = DeleteQuery.builder()
+                    .table(TestItem.TABLE)
+                    .where("id = ?")
+                    .whereArgs("01")
+                    .build();
+
+            when(lowLevel.delete(deleteQuery)).thenReturn(1);
+
+            final TestItem item = TestItem.newInstance();
+
+            final DeleteResults<TestItem> deleteResults = new PreparedDeleteCollectionOfObjects.Builder<TestItem>(storIOSQLite, singletonList(item))
+                    .withDeleteResolver(new KeyDeleteResolver(Collections.singletonMap(item, "01")))
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(deleteResults.results().get(item)).isEqualTo(DeleteResult.newInstance(1, TestItem.TABLE, "id = ?", singletonList("01")));
+            verify(lowLevel).delete(deleteQuery);
+        }
+
+        @Test
+        public void shouldDeleteObjectsOneByOneIfDeleteQueryDoesNotSelectByKeyColumn() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+            when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+            when(lowLevel.inTransaction()).thenReturn(true);
+
+            final DeleteQuery deleteQuery = DeleteQuery.builder()
+                    .table(TestItem.TABLE)
+                    .where("remote_id = ?")
+                    .whereArgs("1")
+                    .build();
+
+            when(lowLevel.delete(deleteQuery)).thenReturn(1);
+
+            final TestItem item = TestItem.newInstance();
+
+            final DeleteResults<TestItem> deleteResults = new PreparedDeleteCollectionOfObjects.Builder<TestItem>(storIOSQLite, singletonList(item))
+                    .withDeleteResolver(new KeyDeleteResolver(Collections.singletonMap(item, "1")) {
+                        @NonNull
+                        @Override
+                        protected DeleteQuery mapToDeleteQuery(@NonNull TestItem object) {
+                            return deleteQuery;
+                        }
+                    })
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(deleteResults.results().get(item)).isEqualTo(DeleteResult.newInstance(1, TestItem.TABLE, "remote_id = ?", singletonList("1")));
+            verify(lowLevel).delete(deleteQuery);
+            verify(lowLevel, never()).rawQuery(any(RawQuery.class));
+        }
+
+        private static class KeyDeleteResolver extends DefaultDeleteResolver<TestItem> {
+
+            @NonNull
+            private final Map<TestItem, String> keys;
+
+            KeyDeleteResolver(@NonNull Map<TestItem, String> keys) {
+                this.keys = keys;
+            }
+
+            @NonNull
+            @Override
+            protected DeleteQuery mapToDeleteQuery(@NonNull TestItem object) {
+                return DeleteQuery.builder()
+                        .table(TestItem.TABLE)
+                        .where("id = ?")
+                        .whereArgs(keys.get(object))
+                        .build();
+            }
+
+            @Nullable
+            @Override
+            protected String keyColumn() {
+                return "id";
+            }
+        }
+    }
+
     public static class OtherTests {
 
         @Test
@@ -832,5 +993,42 @@ public class PreparedDeleteCollectionOfObjectsTest {
 
             schedulerChecker.checkAsCompletable(operation);
         }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        public void shouldDeleteObjectsOfDifferentTypesWithTheirDeleteResolvers() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+            when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+
+            final SQLiteTypeMapping<TestItem> testItemTypeMapping = mock(SQLiteTypeMapping.class);
+            final DeleteResolver<TestItem> testItemDeleteResolver = mock(DeleteResolver.class);
+            final SQLiteTypeMapping<String> stringTypeMapping = mock(SQLiteTypeMapping.class);
+            final DeleteResolver<String> stringDeleteResolver = mock(DeleteResolver.class);
+
+            when(lowLevel.typeMapping(TestItem.class)).thenReturn(testItemTypeMapping);
+            when(testItemTypeMapping.deleteResolver()).thenReturn(testItemDeleteResolver);
+            when(lowLevel.typeMapping(String.class)).thenReturn(stringTypeMapping);
+            when(stringTypeMapping.deleteResolver()).thenReturn(stringDeleteResolver);
+
+            final TestItem testItem = TestItem.newInstance();
+            final DeleteResult testItemDeleteResult = DeleteResult.newInstance(1, TestItem.TABLE);
+            final DeleteResult stringDeleteResult = DeleteResult.newInstance(1, "strings");
+
+            when(testItemDeleteResolver.performDelete(storIOSQLite, testItem)).thenReturn(testItemDeleteResult);
+            when(stringDeleteResolver.performDelete(storIOSQLite, "string")).thenReturn(stringDeleteResult);
+
+            final DeleteResults<Object> deleteResults = new PreparedDeleteCollectionOfObjects.Builder<Object>(storIOSQLite, asList(testItem, "string"))
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(deleteResults.results()).hasSize(2);
+            assertThat(deleteResults.results()).containsEntry(testItem, testItemDeleteResult);
+            assertThat(deleteResults.results()).containsEntry("string", stringDeleteResult);
+
+            verify(testItemDeleteResolver).performDelete(storIOSQLite, testItem);
+            verify(stringDeleteResolver).performDelete(storIOSQLite, "string");
+        }
     }
 }
@@ -0,0 +1,105 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ListDiffTest {
+
+    /**
+     * Key is the part before ':', value is the part after it.
+     */
+    @NonNull
+    private final ListDiff.KeyExtractor<String> keyExtractor = new ListDiff.KeyExtractor<String>() {
+        @NonNull
+        @Override
+        public Object keyOf(@NonNull String element) {
+            return element.substring(0, element.indexOf(':'));
+        }
+    };
+
+    @Test
+    public void diffFromEmptyListShouldInsertAllElements() {
+        final ListDiff<String> listDiff = ListDiff.calculate(
+                Collections.<String>emptyList(),
+                asList("1:a", "2:b"),
+                keyExtractor
+        );
+
+        assertThat(listDiff.list()).containsExactly("1:a", "2:b");
+        assertThat(listDiff.insertedRanges()).containsExactly(new ListDiff.Range(0, 2));
+        assertThat(listDiff.removedRanges()).isEmpty();
+        assertThat(listDiff.changedRanges()).isEmpty();
+        assertThat(listDiff.moves()).isEmpty();
+        assertThat(listDiff.hasChanges()).isTrue();
+    }
+
+    @Test
+    public void shouldReusePreviousListIfNothingChanged() {
+        final List<String> previousList = asList("1:a", "2:b");
+
+        //noinspection RedundantStringConstructorCall
+        final ListDiff<String> listDiff = ListDiff.calculate(
+                previousList,
+                asList(new String("1:a"), new String("2:b")),
+                keyExtractor
+        );
+
+        assertThat(listDiff.list()).isSameAs(previousList);
+        assertThat(listDiff.hasChanges()).isFalse();
+    }
+
+    @Test
+    public void shouldDetectInsertedRemovedAndChangedRanges() {
+        final List<String> previousList = asList("1:a", "2:b", "3:c", "4:d", "5:e");
+
+        final ListDiff<String> listDiff = ListDiff.calculate(
+                previousList,
+                asList("1:a", "6:f", "7:g", "4:D", "5:E"),
+                keyExtractor
+        );
+
+        assertThat(listDiff.list()).containsExactly("1:a", "6:f", "7:g", "4:D", "5:E");
+        assertThat(listDiff.removedRanges()).containsExactly(new ListDiff.Range(1, 2));
+        assertThat(listDiff.insertedRanges()).containsExactly(new ListDiff.Range(1, 2));
+        assertThat(listDiff.changedRanges()).containsExactly(new ListDiff.Range(3, 2));
+        assertThat(listDiff.moves()).isEmpty();
+
+        // Unchanged element is taken from previous list
+        assertThat(listDiff.list().get(0)).isSameAs(previousList.get(0));
+    }
+
+    @Test
+    public void shouldDetectMinimalMoves() {
+        final ListDiff<String> listDiff = ListDiff.calculate(
+                asList("1:a", "2:b", "3:c", "4:d"),
+                asList("4:d", "1:a", "2:b", "3:c"),
+                keyExtractor
+        );
+
+        assertThat(listDiff.moves()).containsExactly(new ListDiff.Move(3, 0));
+        assertThat(listDiff.insertedRanges()).isEmpty();
+        assertThat(listDiff.removedRanges()).isEmpty();
+        assertThat(listDiff.changedRanges()).isEmpty();
+    }
+
+    @Test
+    public void shouldReloadListWithNotUniqueKeys() {
+        final ListDiff<String> listDiff = ListDiff.calculate(
+                asList("1:a", "2:b", "3:c"),
+                asList("1:a", "1:b"),
+                keyExtractor
+        );
+
+        assertThat(listDiff.list()).containsExactly("1:a", "1:b");
+        assertThat(listDiff.removedRanges()).containsExactly(new ListDiff.Range(0, 3));
+        assertThat(listDiff.insertedRanges()).containsExactly(new ListDiff.Range(0, 2));
+        assertThat(listDiff.moves()).isEmpty();
+    }
+}
@@ -0,0 +1,183 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetAggregateTest {
+
+    private StorIOSQLite storIOSQLite;
+
+    private StorIOSQLite.LowLevel lowLevel;
+
+    private Cursor cursor;
+
+    @Before
+    public void beforeEachTest() {
+        storIOSQLite = mock(StorIOSQLite.class);
+        lowLevel = mock(StorIOSQLite.LowLevel.class);
+        cursor = mock(Cursor.class);
+
+        when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+        when(lowLevel.rawQuery(any(RawQuery.class))).thenReturn(cursor);
+        when(cursor.moveToFirst()).thenReturn(true);
+    }
+
+    @Test
+    public void shouldComputeAggregateInSQLite() {
+        when(cursor.getDouble(0)).thenReturn(12.5);
+
+        final Double sum = new PreparedGetAggregate.Builder(storIOSQLite)
+                .sum("price")
+                .withQuery(Query.builder()
+                        .table("test_table")
+                        .where("category = ?")
+                        .whereArgs(3)
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(sum).isEqualTo(12.5);
+
+        verify(lowLevel).rawQuery(RawQuery.builder()
+                .query("SELECT SUM(price) FROM test_table WHERE category = ?")
+                .args("3")
+                .build());
+
+        verify(lowLevel, never()).query(any(Query.class));
+        verify(cursor).close();
+    }
+
+    @Test
+    public void shouldReturnNullIfAggregateIsNull() {
+        when(cursor.isNull(0)).thenReturn(true);
+
+        final PreparedGetAggregate preparedGet = new PreparedGetAggregate.Builder(storIOSQLite)
+                .max("price")
+                .withQuery(Query.builder().table("test_table").build())
+                .prepare();
+
+        assertThat(preparedGet.executeAsBlocking()).isNull();
+        assertThat(preparedGet.executeAsBlockingAsDouble(-1)).isEqualTo(-1);
+    }
+
+    @Test
+    public void shouldAggregateLimitedQueryAsSubquery() {
+        new PreparedGetAggregate.Builder(storIOSQLite)
+                .avg("price")
+                .withQuery(Query.builder()
+                        .table("test_table")
+                        .orderBy("date DESC")
+                        .limit(10)
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        verify(lowLevel).rawQuery(RawQuery.builder()
+                .query("SELECT AVG(price) FROM (SELECT * FROM test_table ORDER BY date DESC LIMIT 10)")
+                .build());
+    }
+
+    @Test
+    public void executeAsBlockingAsLongShouldUseSimpleQueryWithBoundDefaultValue() {
+        when(lowLevel.simpleQueryForLong(any(RawQuery.class))).thenReturn(7L);
+
+        final long min = new PreparedGetAggregate.Builder(storIOSQLite)
+                .min("price")
+                .withQuery(Query.builder()
+                        .table("test_table")
+                        .where("category = ?")
+                        .whereArgs(3)
+                        .build())
+                .prepare()
+                .executeAsBlockingAsLong(-1);
+
+        assertThat(min).isEqualTo(7);
+
+        verify(lowLevel).simpleQueryForLong(RawQuery.builder()
+                .query("SELECT COALESCE(MIN(price), ?) FROM test_table WHERE category = ?")
+                .args(-1L, "3")
+                .build());
+
+        verify(lowLevel, never()).rawQuery(any(RawQuery.class));
+    }
+
+    @Test
+    public void shouldWrapExceptionIntoStorIOException() {
+        when(lowLevel.rawQuery(any(RawQuery.class)))
+                .thenThrow(new IllegalStateException("test exception"));
+
+        try {
+            new PreparedGetAggregate.Builder(storIOSQLite)
+                    .sum("price")
+                    .withQuery(Query.builder().table("test_table").build())
+                    .prepare()
+                    .executeAsBlocking();
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            assertThat(expected.getCause()).hasMessage("test exception");
+        }
+    }
+
+    @Test
+    public void shouldNotAllowEmptyColumn() {
+        try {
+            new PreparedGetAggregate.Builder(storIOSQLite)
+                    .sum("");
+
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException expected) {
+            assertThat(expected).hasMessage("Please specify column");
+        }
+    }
+
+    @Test
+    public void observableShouldRecomputeAggregateAfterChangesOfTable() {
+        final PublishSubject<Changes> changes = PublishSubject.create();
+
+        when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
+                .thenReturn(changes);
+
+        when(cursor.getDouble(0)).thenReturn(1d, 2d);
+
+        final TestSubscriber<Double> testSubscriber = new TestSubscriber<Double>();
+
+        new PreparedGetAggregate.Builder(storIOSQLite)
+                .sum("price")
+                .withQuery(Query.builder().table("test_table").build())
+                .prepare()
+                .asRxObservable()
+                .subscribe(testSubscriber);
+
+        testSubscriber.assertValue(1d);
+
+        changes.onNext(Changes.newInstance("test_table"));
+
+        testSubscriber.assertValues(1d, 2d);
+        testSubscriber.assertNoTerminalEvent();
+
+        testSubscriber.unsubscribe();
+        assertThat(changes.hasObservers()).isFalse();
+    }
+}
@@ -0,0 +1,148 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetExistsTest {
+
+    private StorIOSQLite storIOSQLite;
+
+    private StorIOSQLite.LowLevel lowLevel;
+
+    @Before
+    public void beforeEachTest() {
+        storIOSQLite = mock(StorIOSQLite.class);
+        lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+        when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+    }
+
+    @Test
+    public void shouldCheckQueryWithSelectExists() {
+        when(lowLevel.simpleQueryForLong(any(RawQuery.class))).thenReturn(1L);
+
+        final Boolean exists = new PreparedGetExists.Builder(storIOSQLite)
+                .withQuery(Query.builder()
+                        .table("test_table")
+                        .where("a = ?")
+                        .whereArgs(1)
+                        .orderBy("b")
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(exists).isSameAs(Boolean.TRUE);
+
+        verify(lowLevel).simpleQueryForLong(RawQuery.builder()
+                .query("SELECT EXISTS(SELECT 1 FROM test_table WHERE a = ? LIMIT 1)")
+                .args("1")
+                .build());
+
+        verify(lowLevel, never()).query(any(Query.class));
+    }
+
+    @Test
+    public void shouldCheckGroupedQueryAsSubquery() {
+        when(lowLevel.simpleQueryForLong(any(RawQuery.class))).thenReturn(0L);
+
+        final boolean exists = new PreparedGetExists.Builder(storIOSQLite)
+                .withQuery(Query.builder()
+                        .table("test_table")
+                        .columns("a", "COUNT(*) AS c")
+                        .groupBy("a")
+                        .having("c > 1")
+                        .build())
+                .prepare()
+                .executeAsBlockingAsBoolean();
+
+        assertThat(exists).isFalse();
+
+        verify(lowLevel).simpleQueryForLong(RawQuery.builder()
+                .query("SELECT EXISTS(SELECT a, COUNT(*) AS c FROM test_table GROUP BY a HAVING c > 1)")
+                .build());
+    }
+
+    @Test
+    public void shouldCheckRawQueryWithSelectExists() {
+        when(lowLevel.simpleQueryForLong(any(RawQuery.class))).thenReturn(1L);
+
+        final boolean exists = new PreparedGetExists.Builder(storIOSQLite)
+                .withQuery(RawQuery.builder()
+                        .query("SELECT * FROM test_table WHERE a = ?;")
+                        .args(1)
+                        .build())
+                .prepare()
+                .executeAsBlockingAsBoolean();
+
+        assertThat(exists).isTrue();
+
+        verify(lowLevel).simpleQueryForLong(RawQuery.builder()
+                .query("SELECT EXISTS(SELECT * FROM test_table WHERE a = ?)")
+                .args(1)
+                .build());
+    }
+
+    @Test
+    public void shouldWrapExceptionIntoStorIOException() {
+        when(lowLevel.simpleQueryForLong(any(RawQuery.class)))
+                .thenThrow(new IllegalStateException("test exception"));
+
+        try {
+            new PreparedGetExists.Builder(storIOSQLite)
+                    .withQuery(Query.builder().table("test_table").build())
+                    .prepare()
+                    .executeAsBlocking();
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            assertThat(expected.getCause()).hasMessage("test exception");
+        }
+    }
+
+    @Test
+    public void observableShouldReCheckAfterChangesOfTable() {
+        final PublishSubject<Changes> changes = PublishSubject.create();
+
+        when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
+                .thenReturn(changes);
+
+        when(lowLevel.simpleQueryForLong(any(RawQuery.class))).thenReturn(0L, 1L);
+
+        final TestSubscriber<Boolean> testSubscriber = new TestSubscriber<Boolean>();
+
+        new PreparedGetExists.Builder(storIOSQLite)
+                .withQuery(Query.builder().table("test_table").build())
+                .prepare()
+                .asRxObservable()
+                .subscribe(testSubscriber);
+
+        testSubscriber.assertValue(false);
+
+        changes.onNext(Changes.newInstance("test_table"));
+
+        testSubscriber.assertValues(false, true);
+        testSubscriber.assertNoTerminalEvent();
+
+        testSubscriber.unsubscribe();
+        assertThat(changes.hasObservers()).isFalse();
+    }
+}
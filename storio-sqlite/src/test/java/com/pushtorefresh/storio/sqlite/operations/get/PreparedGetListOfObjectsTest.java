@@ -1,6 +1,7 @@
 package com.pushtorefresh.storio.sqlite.operations.get;
 
 import android.database.Cursor;
+import android.support.annotation.NonNull;
 
 import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.sqlite.Changes;
@@ -13,13 +14,16 @@ import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import rx.Observable;
 import rx.Single;
 import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
@@ -28,6 +32,7 @@ import static org.mockito.Matchers.anySet;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -307,9 +312,10 @@ public class PreparedGetListOfObjectsTest {
                     .hasCauseInstanceOf(IllegalStateException.class);
 
             verify(storIOSQLite).get();
-            verify(storIOSQLite).lowLevel();
+            // Type mapping is looked up for related tables on subscription and then for execution
+            verify(storIOSQLite, times(2)).lowLevel();
             verify(storIOSQLite).defaultScheduler();
-            verify(internal).typeMapping(TestItem.class);
+            verify(internal, times(2)).typeMapping(TestItem.class);
             verify(internal, never()).query(any(Query.class));
             verify(storIOSQLite).observeChangesInTables(anySet());
             verifyNoMoreInteractions(storIOSQLite, internal);
@@ -340,9 +346,10 @@ public class PreparedGetListOfObjectsTest {
                     .hasCauseInstanceOf(IllegalStateException.class);
 
             verify(storIOSQLite).get();
-            verify(storIOSQLite).lowLevel();
+            // Type mapping is looked up for related tables on subscription and then for execution
+            verify(storIOSQLite, times(2)).lowLevel();
             verify(storIOSQLite).defaultScheduler();
-            verify(internal).typeMapping(TestItem.class);
+            verify(internal, times(2)).typeMapping(TestItem.class);
             verify(internal, never()).rawQuery(any(RawQuery.class));
             verifyNoMoreInteractions(storIOSQLite, internal);
         }
@@ -416,6 +423,85 @@ public class PreparedGetListOfObjectsTest {
     // Because we run tests on this class with Enclosed runner, we need to wrap other tests into class
     public static class OtherTests {
 
+        @SuppressWarnings("unchecked")
+        @Test
+        public void shouldLoadRelationsOfAllResultsOnce() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final GetResolver<Object> getResolver = mock(GetResolver.class);
+            final Cursor cursor = mock(Cursor.class);
+
+            when(cursor.getCount()).thenReturn(2);
+            when(cursor.moveToNext()).thenReturn(true, true, false);
+            when(getResolver.performGet(eq(storIOSQLite), any(Query.class))).thenReturn(cursor);
+            when(getResolver.mapFromCursor(cursor)).thenReturn("object_1", "object_2");
+
+            final List<Object> objects = new PreparedGetListOfObjects<Object>(
+                    storIOSQLite,
+                    Object.class,
+                    Query.builder().table("test_table").build(),
+                    getResolver,
+                    false,
+                    true
+            ).executeAsBlocking();
+
+            assertThat(objects).containsExactly("object_1", "object_2");
+
+            // Relations are loaded for whole list after the cursor is closed
+            verify(cursor).close();
+            verify(getResolver).loadRelations(storIOSQLite, asList((Object) "object_1", "object_2"));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        public void shouldLookUpColumnIndicesOncePerCursor() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final GetResolver<Object> getResolver = mock(GetResolver.class);
+            final Cursor cursor = mock(Cursor.class);
+            final int[] columnIndices = {1, 0};
+
+            when(cursor.getCount()).thenReturn(2);
+            when(cursor.moveToNext()).thenReturn(true, true, false);
+            when(getResolver.performGet(eq(storIOSQLite), any(Query.class))).thenReturn(cursor);
+            when(getResolver.columnIndices(cursor)).thenReturn(columnIndices);
+            when(getResolver.mapFromCursor(cursor, columnIndices)).thenReturn("object_1", "object_2");
+
+            final List<Object> objects = new PreparedGetListOfObjects<Object>(
+                    storIOSQLite,
+                    Object.class,
+                    Query.builder().table("test_table").build(),
+                    getResolver,
+                    false,
+                    true
+            ).executeAsBlocking();
+
+            assertThat(objects).containsExactly("object_1", "object_2");
+
+            verify(getResolver, times(1)).columnIndices(cursor);
+            verify(getResolver, times(2)).mapFromCursor(cursor, columnIndices);
+            verify(getResolver, never()).mapFromCursor(cursor);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        public void shouldObserveRelatedTables() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final GetResolver<Object> getResolver = mock(GetResolver.class);
+
+            when(getResolver.relatedTables()).thenReturn(singleton("related_table"));
+            when(storIOSQLite.observeChangesInTables(anySet())).thenReturn(Observable.<Changes>empty());
+
+            new PreparedGetListOfObjects<Object>(
+                    storIOSQLite,
+                    Object.class,
+                    Query.builder().table("test_table").build(),
+                    getResolver,
+                    false,
+                    true
+            ).asRxObservable().subscribe(new TestSubscriber<List<Object>>());
+
+            verify(storIOSQLite).observeChangesInTables(new HashSet<String>(asList("test_table", "related_table")));
+        }
+
         @Test
         public void completeBuilderShouldThrowExceptionIfNoQueryWasSet() {
             PreparedGetListOfObjects.CompleteBuilder completeBuilder = new PreparedGetListOfObjects.Builder<Object>(mock(StorIOSQLite.class), Object.class)
@@ -439,7 +525,9 @@ public class PreparedGetListOfObjectsTest {
                     mock(StorIOSQLite.class),
                     Object.class,
                     (Query) null,
-                    (GetResolver<Object>) mock(GetResolver.class)
+                    (GetResolver<Object>) mock(GetResolver.class),
+                    true,
+                    true
             );
 
             try {
@@ -459,7 +547,9 @@ public class PreparedGetListOfObjectsTest {
                     mock(StorIOSQLite.class),
                     Object.class,
                     (Query) null,
-                    (GetResolver<Object>) mock(GetResolver.class)
+                    (GetResolver<Object>) mock(GetResolver.class),
+                    true,
+                    true
             );
 
             try {
@@ -495,7 +585,9 @@ public class PreparedGetListOfObjectsTest {
                             storIOSQLite,
                             Object.class,
                             Query.builder().table("test_table").build(),
-                            getResolver
+                            getResolver,
+                            true,
+                            true
                     );
 
             try {
@@ -509,6 +601,7 @@ public class PreparedGetListOfObjectsTest {
                 verify(cursor).close();
 
                 verify(getResolver).performGet(eq(storIOSQLite), any(Query.class));
+                verify(getResolver).columnIndices(cursor);
                 verify(getResolver).mapFromCursor(cursor);
                 verify(cursor).getCount();
                 verify(cursor).moveToNext();
@@ -544,7 +637,9 @@ public class PreparedGetListOfObjectsTest {
                             storIOSQLite,
                             Object.class,
                             Query.builder().table("test_table").build(),
-                            getResolver
+                            getResolver,
+                            true,
+                            true
                     );
 
             final TestSubscriber<List<Object>> testSubscriber = new TestSubscriber<List<Object>>();
@@ -568,7 +663,9 @@ public class PreparedGetListOfObjectsTest {
 
             //noinspection unchecked
             verify(storIOSQLite).observeChangesInTables(anySet());
+            verify(getResolver).relatedTables();
             verify(getResolver).performGet(eq(storIOSQLite), any(Query.class));
+            verify(getResolver).columnIndices(cursor);
             verify(getResolver).mapFromCursor(cursor);
             verify(cursor).getCount();
             verify(cursor).moveToNext();
@@ -601,7 +698,9 @@ public class PreparedGetListOfObjectsTest {
                             storIOSQLite,
                             Object.class,
                             Query.builder().table("test_table").build(),
-                            getResolver
+                            getResolver,
+                            true,
+                            true
                     );
 
             final TestSubscriber<List<Object>> testSubscriber = new TestSubscriber<List<Object>>();
@@ -625,6 +724,7 @@ public class PreparedGetListOfObjectsTest {
 
             //noinspection unchecked
             verify(getResolver).performGet(eq(storIOSQLite), any(Query.class));
+            verify(getResolver).columnIndices(cursor);
             verify(getResolver).mapFromCursor(cursor);
             verify(cursor).getCount();
             verify(cursor).moveToNext();
@@ -633,6 +733,85 @@ public class PreparedGetListOfObjectsTest {
             verifyNoMoreInteractions(storIOSQLite, getResolver, cursor);
         }
 
+        @Test
+        public void asRxObservableWithDiffShouldEmitDiffFromPreviousList() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final PublishSubject<Changes> changes = PublishSubject.create();
+
+            when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
+                    .thenReturn(changes);
+
+            //noinspection unchecked
+            final GetResolver<String> getResolver = mock(GetResolver.class);
+            final Cursor cursor = mock(Cursor.class);
+
+            when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                    .thenReturn(cursor);
+
+            when(cursor.getCount()).thenReturn(2);
+            when(cursor.moveToNext()).thenReturn(true, true, false, true, true, false);
+
+            //noinspection RedundantStringConstructorCall
+            when(getResolver.mapFromCursor(cursor))
+                    .thenReturn("1:a", "2:b", new String("2:b"), "3:c");
+
+            final TestSubscriber<ListDiff<String>> testSubscriber = new TestSubscriber<ListDiff<String>>();
+
+            new PreparedGetListOfObjects.Builder<String>(storIOSQLite, String.class)
+                    .withQuery(Query.builder().table("test_table").build())
+                    .withGetResolver(getResolver)
+                    .prepare()
+                    .asRxObservableWithDiff(new ListDiff.KeyExtractor<String>() {
+                        @NonNull
+                        @Override
+                        public Object keyOf(@NonNull String element) {
+                            return element.substring(0, 1);
+                        }
+                    })
+                    .subscribe(testSubscriber);
+
+            changes.onNext(Changes.newInstance("test_table"));
+
+            testSubscriber.assertValueCount(2);
+
+            final ListDiff<String> firstDiff = testSubscriber.getOnNextEvents().get(0);
+            assertThat(firstDiff.list()).containsExactly("1:a", "2:b");
+            assertThat(firstDiff.insertedRanges()).containsExactly(new ListDiff.Range(0, 2));
+
+            final ListDiff<String> secondDiff = testSubscriber.getOnNextEvents().get(1);
+            assertThat(secondDiff.list()).containsExactly("2:b", "3:c");
+            assertThat(secondDiff.removedRanges()).containsExactly(new ListDiff.Range(0, 1));
+            assertThat(secondDiff.insertedRanges()).containsExactly(new ListDiff.Range(1, 1));
+            assertThat(secondDiff.moves()).isEmpty();
+            assertThat(secondDiff.changedRanges()).isEmpty();
+
+            // Unchanged element is taken from previous list
+            assertThat(secondDiff.list().get(0)).isSameAs(firstDiff.list().get(1));
+
+            testSubscriber.unsubscribe();
+        }
+
+        @Test
+        public void asRxObservableWithDiffShouldRequireKeyColumnsOfTypeMapping() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+            when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+
+            try {
+                //noinspection CheckResult
+                new PreparedGetListOfObjects.Builder<TestItem>(storIOSQLite, TestItem.class)
+                        .withQuery(Query.builder().table("test_table").build())
+                        .prepare()
+                        .asRxObservableWithDiff();
+
+                failBecauseExceptionWasNotThrown(IllegalStateException.class);
+            } catch (IllegalStateException expected) {
+                assertThat(expected).hasMessage("Key columns of type are unknown: type = " + TestItem.class + ", " +
+                        "please specify key extractor or add type mapping with DefaultPutResolver for this type");
+            }
+        }
+
         @Test
         public void getListOfObjectsObservableExecutesOnSpecifiedScheduler() {
             final GetObjectsStub getStub = GetObjectsStub.newInstanceWithoutTypeMapping();
@@ -1,18 +1,23 @@
 package com.pushtorefresh.storio.sqlite.operations.get;
 
 import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
 
 import com.pushtorefresh.storio.StorIOException;
 import com.pushtorefresh.storio.sqlite.Changes;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.impl.DefaultStorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.SchedulerChecker;
 import com.pushtorefresh.storio.sqlite.queries.Query;
+import com.pushtorefresh.storio.sqlite.queries.RawQuery;
 
 import org.junit.Test;
 
 import rx.Observable;
 import rx.Single;
 import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
 
 import static java.util.Collections.singleton;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -21,6 +26,9 @@ import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class PreparedGetNumberOfResultsTest {
@@ -221,7 +229,7 @@ public class PreparedGetNumberOfResultsTest {
     public void executeAsBlockingShouldThrowExceptionIfNoQueryWasSet() {
         //noinspection unchecked,ConstantConditions
         PreparedGetNumberOfResults preparedGetNumberOfResults
-                = new PreparedGetNumberOfResults(mock(StorIOSQLite.class), (Query) null, (GetResolver<Integer>) mock(GetResolver.class));
+                = new PreparedGetNumberOfResults(mock(StorIOSQLite.class), (Query) null, (GetResolver<Integer>) mock(GetResolver.class), true, true, null);
 
         try {
             preparedGetNumberOfResults.executeAsBlocking();
@@ -236,7 +244,7 @@ public class PreparedGetNumberOfResultsTest {
     public void asRxObservableShouldThrowExceptionIfNoQueryWasSet() {
         //noinspection unchecked,ConstantConditions
         PreparedGetNumberOfResults preparedGetNumberOfResults
-                = new PreparedGetNumberOfResults(mock(StorIOSQLite.class), (Query) null, (GetResolver<Integer>) mock(GetResolver.class));
+                = new PreparedGetNumberOfResults(mock(StorIOSQLite.class), (Query) null, (GetResolver<Integer>) mock(GetResolver.class), true, true, null);
 
         try {
             //noinspection CheckResult
@@ -259,6 +267,313 @@ public class PreparedGetNumberOfResultsTest {
         assertThat(standardGetResolver.mapFromCursor(cursor)).isEqualTo(12314);
     }
 
+    @Test
+    public void shouldCountQueryWithSelectCountIfGetResolverIsNotSet() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+        when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+        when(lowLevel.simpleQueryForLong(any(RawQuery.class))).thenReturn(42L);
+
+        final Integer numberOfResults = new PreparedGetNumberOfResults.Builder(storIOSQLite)
+                .withQuery(Query.builder()
+                        .table("test_table")
+                        .where("a = ? AND b = ?")
+                        .whereArgs(1, "2")
+                        .orderBy("c")
+                        .build())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(numberOfResults).isEqualTo(42);
+
+        verify(lowLevel).simpleQueryForLong(RawQuery.builder()
+                .query("SELECT COUNT(*) FROM test_table WHERE a = ? AND b = ?")
+                .args("1", "2")
+                .build());
+
+        verify(lowLevel, never()).query(any(Query.class));
+    }
+
+    @Test
+    public void shouldCountDistinctGroupedOrLimitedQueryAsSubquery() {
+        assertThat(SelectStatements.countQueryOf(Query.builder()
+                .table("test_table")
+                .distinct(true)
+                .columns("a", "b")
+                .where("c = ?")
+                .whereArgs(3)
+                .build()))
+                .isEqualTo(RawQuery.builder()
+                        .query("SELECT COUNT(*) FROM (SELECT DISTINCT a, b FROM test_table WHERE c = ?)")
+                        .args("3")
+                        .build());
+
+        assertThat(SelectStatements.countQueryOf(Query.builder()
+                .table("test_table")
+                .groupBy("a")
+                .having("COUNT(*) > 1")
+                .orderBy("a")
+                .limit(5, 10)
+                .build()))
+                .isEqualTo(RawQuery.builder()
+                        .query("SELECT COUNT(*) FROM (SELECT * FROM test_table GROUP BY a HAVING COUNT(*) > 1 ORDER BY a LIMIT 5, 10)")
+                        .build());
+    }
+
+    @Test
+    public void shouldCountRawQueryAsSubqueryOnlyIfEnabled() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+        final Cursor cursor = mock(Cursor.class);
+
+        when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+        when(lowLevel.simpleQueryForLong(any(RawQuery.class))).thenReturn(3L);
+        when(lowLevel.rawQuery(any(RawQuery.class))).thenReturn(cursor);
+        when(cursor.getCount()).thenReturn(3);
+
+        final RawQuery rawQuery = RawQuery.builder()
+                .query("SELECT * FROM test_table WHERE a = ?;")
+                .args(1)
+                .build();
+
+        assertThat(new PreparedGetNumberOfResults.Builder(storIOSQLite)
+                .withQuery(rawQuery)
+                .prepare()
+                .executeAsBlocking()).isEqualTo(3);
+
+        verify(lowLevel).rawQuery(rawQuery);
+        verify(lowLevel, never()).simpleQueryForLong(any(RawQuery.class));
+
+        assertThat(new PreparedGetNumberOfResults.Builder(storIOSQLite)
+                .withQuery(rawQuery)
+                .countRawQueryAsSubquery(true)
+                .prepare()
+                .executeAsBlocking()).isEqualTo(3);
+
+        verify(lowLevel).simpleQueryForLong(RawQuery.builder()
+                .query("SELECT COUNT(*) FROM (SELECT * FROM test_table WHERE a = ?)")
+                .args(1)
+                .build());
+
+        verify(lowLevel, times(1)).rawQuery(any(RawQuery.class));
+    }
+
+    @Test
+    public void equalObservablesShouldShareLiveQuery() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final PublishSubject<Changes> changes = PublishSubject.create();
+
+        when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
+                .thenReturn(changes);
+
+        //noinspection unchecked
+        final GetResolver<Integer> getResolver = mock(GetResolver.class);
+        final Cursor cursor = mock(Cursor.class);
+
+        when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                .thenReturn(cursor);
+
+        when(getResolver.mapFromCursor(cursor))
+                .thenReturn(1, 2);
+
+        final TestSubscriber<Integer> testSubscriber1 = new TestSubscriber<Integer>();
+        final TestSubscriber<Integer> testSubscriber2 = new TestSubscriber<Integer>();
+
+        new PreparedGetNumberOfResults.Builder(storIOSQLite)
+                .withQuery(Query.builder().table("test_table").build())
+                .withGetResolver(getResolver)
+                .prepare()
+                .asRxObservable()
+                .subscribe(testSubscriber1);
+
+        // Equal, but not the same operation
+        new PreparedGetNumberOfResults.Builder(storIOSQLite)
+                .withQuery(Query.builder().table("test_table").build())
+                .withGetResolver(getResolver)
+                .prepare()
+                .asRxObservable()
+                .subscribe(testSubscriber2);
+
+        // Second subscriber receives latest result without query
+        testSubscriber2.assertValue(1);
+        verify(getResolver, times(1)).performGet(eq(storIOSQLite), any(Query.class));
+
+        changes.onNext(Changes.newInstance("test_table"));
+
+        testSubscriber1.assertValues(1, 2);
+        testSubscriber2.assertValues(1, 2);
+        verify(getResolver, times(2)).performGet(eq(storIOSQLite), any(Query.class));
+
+        testSubscriber1.unsubscribe();
+        assertThat(changes.hasObservers()).isTrue();
+
+        testSubscriber2.unsubscribe();
+        assertThat(changes.hasObservers()).isFalse();
+        assertThat(storIOSQLite.liveQueries().numberOfLiveQueries()).isZero();
+    }
+
+    @Test
+    public void observablesShouldNotShareLiveQueryIfOptedOut() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final PublishSubject<Changes> changes = PublishSubject.create();
+
+        when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
+                .thenReturn(changes);
+
+        //noinspection unchecked
+        final GetResolver<Integer> getResolver = mock(GetResolver.class);
+        final Cursor cursor = mock(Cursor.class);
+
+        when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                .thenReturn(cursor);
+
+        when(getResolver.mapFromCursor(cursor))
+                .thenReturn(1, 2, 3, 4);
+
+        final PreparedGetNumberOfResults preparedGet = new PreparedGetNumberOfResults.Builder(storIOSQLite)
+                .withQuery(Query.builder().table("test_table").build())
+                .withGetResolver(getResolver)
+                .shareLiveQuery(false)
+                .prepare();
+
+        final TestSubscriber<Integer> testSubscriber1 = new TestSubscriber<Integer>();
+        final TestSubscriber<Integer> testSubscriber2 = new TestSubscriber<Integer>();
+
+        preparedGet.asRxObservable().subscribe(testSubscriber1);
+        preparedGet.asRxObservable().subscribe(testSubscriber2);
+
+        testSubscriber1.assertValue(1);
+        testSubscriber2.assertValue(2);
+        assertThat(storIOSQLite.liveQueries().numberOfLiveQueries()).isZero();
+
+        changes.onNext(Changes.newInstance("test_table"));
+
+        testSubscriber1.assertValues(1, 3);
+        testSubscriber2.assertValues(2, 4);
+        verify(getResolver, times(4)).performGet(eq(storIOSQLite), any(Query.class));
+
+        testSubscriber1.unsubscribe();
+        testSubscriber2.unsubscribe();
+        assertThat(changes.hasObservers()).isFalse();
+    }
+
+    @Test
+    public void shouldUseQueryResultCache() {
+        final SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(mock(SQLiteDatabase.class));
+
+        final StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .queryResultCacheSize(10)
+                .build();
+
+        //noinspection unchecked
+        final GetResolver<Integer> getResolver = mock(GetResolver.class);
+        final Cursor cursor = mock(Cursor.class);
+
+        when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                .thenReturn(cursor);
+
+        when(getResolver.mapFromCursor(cursor))
+                .thenReturn(1, 2);
+
+        final PreparedGetNumberOfResults preparedGet = storIOSQLite
+                .get()
+                .numberOfResults()
+                .withQuery(Query.builder().table("test_table").build())
+                .withGetResolver(getResolver)
+                .prepare();
+
+        assertThat(preparedGet.executeAsBlocking()).isEqualTo(1);
+        assertThat(preparedGet.executeAsBlocking()).isEqualTo(1);
+
+        verify(getResolver, times(1)).performGet(eq(storIOSQLite), any(Query.class));
+
+        storIOSQLite.lowLevel().notifyAboutChanges(Changes.newInstance("test_table"));
+
+        assertThat(preparedGet.executeAsBlocking()).isEqualTo(2);
+
+        verify(getResolver, times(2)).performGet(eq(storIOSQLite), any(Query.class));
+
+        //noinspection ConstantConditions
+        assertThat(storIOSQLite.queryResultCache().hitCount()).isEqualTo(1);
+        assertThat(storIOSQLite.queryResultCache().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotUseQueryResultCacheIfOptedOut() {
+        final StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(mock(SQLiteOpenHelper.class))
+                .queryResultCacheSize(10)
+                .build();
+
+        //noinspection unchecked
+        final GetResolver<Integer> getResolver = mock(GetResolver.class);
+        final Cursor cursor = mock(Cursor.class);
+
+        when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                .thenReturn(cursor);
+
+        when(getResolver.mapFromCursor(cursor))
+                .thenReturn(1);
+
+        final PreparedGetNumberOfResults preparedGet = storIOSQLite
+                .get()
+                .numberOfResults()
+                .withQuery(Query.builder().table("test_table").build())
+                .withGetResolver(getResolver)
+                .useResultCache(false)
+                .prepare();
+
+        preparedGet.executeAsBlocking();
+        preparedGet.executeAsBlocking();
+
+        verify(getResolver, times(2)).performGet(eq(storIOSQLite), any(Query.class));
+
+        //noinspection ConstantConditions
+        assertThat(storIOSQLite.queryResultCache().size()).isZero();
+    }
+
+    @Test
+    public void shouldNotUseQueryResultCacheInsideOfTransaction() {
+        final SQLiteOpenHelper sqLiteOpenHelper = mock(SQLiteOpenHelper.class);
+        final SQLiteDatabase sqLiteDatabase = mock(SQLiteDatabase.class);
+        when(sqLiteOpenHelper.getWritableDatabase()).thenReturn(sqLiteDatabase);
+        when(sqLiteDatabase.inTransaction()).thenReturn(true);
+
+        final StorIOSQLite storIOSQLite = DefaultStorIOSQLite.builder()
+                .sqliteOpenHelper(sqLiteOpenHelper)
+                .queryResultCacheSize(10)
+                .build();
+
+        //noinspection unchecked
+        final GetResolver<Integer> getResolver = mock(GetResolver.class);
+        final Cursor cursor = mock(Cursor.class);
+
+        when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                .thenReturn(cursor);
+
+        when(getResolver.mapFromCursor(cursor))
+                .thenReturn(1, 2);
+
+        final PreparedGetNumberOfResults preparedGet = storIOSQLite
+                .get()
+                .numberOfResults()
+                .withQuery(Query.builder().table("test_table").build())
+                .withGetResolver(getResolver)
+                .prepare();
+
+        assertThat(preparedGet.executeAsBlocking()).isEqualTo(1);
+        assertThat(preparedGet.executeAsBlocking()).isEqualTo(2);
+
+        verify(getResolver, times(2)).performGet(eq(storIOSQLite), any(Query.class));
+
+        //noinspection ConstantConditions
+        assertThat(storIOSQLite.queryResultCache().size()).isZero();
+        assertThat(storIOSQLite.queryResultCache().missCount()).isZero();
+    }
+
     @Test
     public void getNumberOfResultsObservableExecutesOnSpecifiedScheduler() {
         final GetNumberOfResultsStub getStub = GetNumberOfResultsStub.newInstance();
@@ -18,8 +18,10 @@ import java.util.Set;
 import rx.Observable;
 import rx.Single;
 import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
 
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Matchers.any;
@@ -27,6 +29,7 @@ import static org.mockito.Matchers.anySet;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -288,9 +291,10 @@ public class PreparedGetObjectTest {
                             "db was not touched by this operation, please add type mapping for this type");
 
             verify(storIOSQLite).get();
-            verify(storIOSQLite).lowLevel();
+            // Type mapping is looked up for related tables on subscription and then for execution
+            verify(storIOSQLite, times(2)).lowLevel();
             verify(storIOSQLite).defaultScheduler();
-            verify(internal).typeMapping(TestItem.class);
+            verify(internal, times(2)).typeMapping(TestItem.class);
             verify(internal, never()).query(any(Query.class));
             verify(storIOSQLite).observeChangesInTables(anySet());
             verifyNoMoreInteractions(storIOSQLite, internal);
@@ -402,9 +406,10 @@ public class PreparedGetObjectTest {
                             "db was not touched by this operation, please add type mapping for this type");
 
             verify(storIOSQLite).get();
-            verify(storIOSQLite).lowLevel();
+            // Type mapping is looked up for related tables on subscription and then for execution
+            verify(storIOSQLite, times(2)).lowLevel();
             verify(storIOSQLite).defaultScheduler();
-            verify(internal).typeMapping(TestItem.class);
+            verify(internal, times(2)).typeMapping(TestItem.class);
             verify(internal, never()).rawQuery(any(RawQuery.class));
             verifyNoMoreInteractions(storIOSQLite, internal);
         }
@@ -477,7 +482,9 @@ public class PreparedGetObjectTest {
                     mock(StorIOSQLite.class),
                     Object.class,
                     (Query) null,
-                    (GetResolver<Object>) mock(GetResolver.class)
+                    (GetResolver<Object>) mock(GetResolver.class),
+                    true,
+                    true
             );
 
             try {
@@ -497,7 +504,9 @@ public class PreparedGetObjectTest {
                     mock(StorIOSQLite.class),
                     Object.class,
                     (Query) null,
-                    (GetResolver<Object>) mock(GetResolver.class)
+                    (GetResolver<Object>) mock(GetResolver.class),
+                    true,
+                    true
             );
 
             try {
@@ -535,7 +544,9 @@ public class PreparedGetObjectTest {
                             storIOSQLite,
                             Object.class,
                             Query.builder().table("test_table").build(),
-                            getResolver
+                            getResolver,
+                            true,
+                            true
                     );
 
             try {
@@ -584,7 +595,9 @@ public class PreparedGetObjectTest {
                             storIOSQLite,
                             Object.class,
                             Query.builder().table("test_table").build(),
-                            getResolver
+                            getResolver,
+                            true,
+                            true
                     );
 
             final TestSubscriber<Object> testSubscriber = new TestSubscriber<Object>();
@@ -608,6 +621,7 @@ public class PreparedGetObjectTest {
 
             //noinspection unchecked
             verify(storIOSQLite).observeChangesInTables(anySet());
+            verify(getResolver).relatedTables();
             verify(getResolver).performGet(eq(storIOSQLite), any(Query.class));
             verify(getResolver).mapFromCursor(cursor);
             verify(cursor).getCount();
@@ -641,7 +655,9 @@ public class PreparedGetObjectTest {
                             storIOSQLite,
                             Object.class,
                             Query.builder().table("test_table").build(),
-                            getResolver
+                            getResolver,
+                            true,
+                            true
                     );
 
             final TestSubscriber<Object> testSubscriber = new TestSubscriber<Object>();
@@ -673,6 +689,44 @@ public class PreparedGetObjectTest {
             verifyNoMoreInteractions(storIOSQLite, getResolver, cursor);
         }
 
+        @Test
+        public void observableShouldNotReQueryAfterChangesOfOtherRows() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final PublishSubject<Changes> changes = PublishSubject.create();
+
+            when(storIOSQLite.observeChangesInTables(eq(singleton("test_table"))))
+                    .thenReturn(changes);
+
+            //noinspection unchecked
+            final GetResolver<Object> getResolver = mock(GetResolver.class);
+            final Cursor cursor = mock(Cursor.class);
+
+            when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                    .thenReturn(cursor);
+
+            final TestSubscriber<Object> testSubscriber = new TestSubscriber<Object>();
+
+            new PreparedGetObject.Builder<Object>(storIOSQLite, Object.class)
+                    .withQuery(Query.builder().table("test_table").where("_id = ?").whereArgs(1).build())
+                    .withGetResolver(getResolver)
+                    .prepare()
+                    .asRxObservable()
+                    .subscribe(testSubscriber);
+
+            verify(getResolver, times(1)).performGet(eq(storIOSQLite), any(Query.class));
+
+            changes.onNext(Changes.newInstance("test_table", Changes.Type.UPDATE, "_id = ?", singletonList(singletonList("2"))));
+            verify(getResolver, times(1)).performGet(eq(storIOSQLite), any(Query.class));
+
+            changes.onNext(Changes.newInstance("test_table", Changes.Type.UPDATE, "_id = ?", singletonList(singletonList("1"))));
+            verify(getResolver, times(2)).performGet(eq(storIOSQLite), any(Query.class));
+
+            changes.onNext(Changes.newInstance("test_table"));
+            verify(getResolver, times(3)).performGet(eq(storIOSQLite), any(Query.class));
+
+            testSubscriber.unsubscribe();
+        }
+
         @Test
         public void getObjectByQueryObservableExecutesOnSpecifiedScheduler() {
             final GetObjectStub getStub = GetObjectStub.newInstanceWithoutTypeMapping();
@@ -0,0 +1,266 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import rx.observers.TestSubscriber;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetObjectsByKeysTest {
+
+    private StorIOSQLite storIOSQLite;
+
+    private StorIOSQLite.LowLevel lowLevel;
+
+    @Before
+    public void beforeEachTest() {
+        storIOSQLite = mock(StorIOSQLite.class);
+        lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+        when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+
+        // Each query returns rows of its where args in reverse order, key "3" does not exist
+        when(lowLevel.query(any(Query.class))).thenAnswer(new Answer<Cursor>() {
+            @Override
+            public Cursor answer(InvocationOnMock invocation) throws Throwable {
+                final List<String> keys = new ArrayList<String>(((Query) invocation.getArguments()[0]).whereArgs());
+                keys.remove("3");
+                return cursorOf(keys);
+            }
+        });
+    }
+
+    @Test
+    public void shouldReturnObjectsInOrderOfKeys() {
+        final List<String> objects = new PreparedGetListOfObjects.Builder<String>(storIOSQLite, String.class)
+                .withKeys(asList(2L, 3L, 1L, 2L))
+                .withGetResolver(new KeyGetResolver())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(objects).containsExactly("object_2", "object_1", "object_2");
+
+        // Same key is selected once
+        verify(lowLevel).query(Query.builder()
+                .table("test_table")
+                .where("id IN (?,?,?)")
+                .whereArgs("2", "3", "1")
+                .build());
+    }
+
+    @Test
+    public void shouldReturnObjectsByKeys() {
+        final Map<Long, String> objects = new PreparedGetListOfObjects.Builder<String>(storIOSQLite, String.class)
+                .withKeys(asList(2L, 3L, 1L))
+                .withGetResolver(new KeyGetResolver())
+                .prepare()
+                .executeAsBlockingAsMap();
+
+        assertThat(objects).hasSize(2);
+        assertThat(objects.keySet()).containsExactly(2L, 1L);
+        assertThat(objects.get(2L)).isEqualTo("object_2");
+        assertThat(objects.get(1L)).isEqualTo("object_1");
+    }
+
+    @Test
+    public void shouldSelectProjectionOfResolver() {
+        new PreparedGetListOfObjects.Builder<String>(storIOSQLite, String.class)
+                .withKeys(singletonList(1L))
+                .withGetResolver(new KeyGetResolver() {
+                    @Nullable
+                    @Override
+                    protected String[] projection() {
+                        return new String[]{"id", "name"};
+                    }
+                })
+                .prepare()
+                .executeAsBlocking();
+
+        verify(lowLevel).query(Query.builder()
+                .table("test_table")
+                .columns("id", "name")
+                .where("id IN (?)")
+                .whereArgs("1")
+                .build());
+    }
+
+    @Test
+    public void shouldSelectAllColumnsIfProjectionDoesNotHaveKeyColumn() {
+        new PreparedGetListOfObjects.Builder<String>(storIOSQLite, String.class)
+                .withKeys(singletonList(1L))
+                .withGetResolver(new KeyGetResolver() {
+                    @Nullable
+                    @Override
+                    protected String[] projection() {
+                        return new String[]{"name"};
+                    }
+                })
+                .prepare()
+                .executeAsBlocking();
+
+        verify(lowLevel).query(Query.builder()
+                .table("test_table")
+                .where("id IN (?)")
+                .whereArgs("1")
+                .build());
+    }
+
+    @Test
+    public void shouldSplitKeysIntoChunks() {
+        final List<Integer> keys = new ArrayList<Integer>();
+
+        for (int i = 0; i < 2500; i++) {
+            keys.add(i + 10);
+        }
+
+        final List<String> objects = new PreparedGetListOfObjects.Builder<String>(storIOSQLite, String.class)
+                .withKeys(keys)
+                .withGetResolver(new KeyGetResolver())
+                .prepare()
+                .executeAsBlocking();
+
+        assertThat(objects).hasSize(2500);
+        assertThat(objects.get(0)).isEqualTo("object_10");
+        assertThat(objects.get(2499)).isEqualTo("object_2509");
+
+        // 999 + 999 + 502 keys
+        verify(lowLevel, times(3)).query(any(Query.class));
+    }
+
+    @Test
+    public void shouldThrowIfKeyColumnIsUnknown() {
+        try {
+            new PreparedGetListOfObjects.Builder<String>(storIOSQLite, String.class)
+                    .withKeys(singletonList(1))
+                    .withGetResolver(new DefaultGetResolver<String>() {
+                        @NonNull
+                        @Override
+                        public String mapFromCursor(@NonNull Cursor cursor) {
+                            throw new AssertionError();
+                        }
+                    })
+                    .prepare()
+                    .executeAsBlocking();
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            assertThat(expected.getCause())
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Table and key column of type are unknown: type = class java.lang.String, " +
+                            "please use DefaultGetResolver that returns them from table() and keyColumn()");
+        }
+    }
+
+    @Test
+    public void asRxObservableShouldEmitErrorIfKeyColumnIsUnknown() {
+        final TestSubscriber<List<String>> testSubscriber = new TestSubscriber<List<String>>();
+
+        new PreparedGetListOfObjects.Builder<String>(storIOSQLite, String.class)
+                .withKeys(singletonList(1))
+                .withGetResolver(new DefaultGetResolver<String>() {
+                    @NonNull
+                    @Override
+                    public String mapFromCursor(@NonNull Cursor cursor) {
+                        throw new AssertionError();
+                    }
+                })
+                .prepare()
+                .asRxObservable()
+                .subscribe(testSubscriber);
+
+        testSubscriber.assertNoValues();
+        testSubscriber.assertError(StorIOException.class);
+        assertThat(testSubscriber.getOnErrorEvents().get(0).getCause())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Table and key column of type are unknown: type = class java.lang.String, " +
+                        "please use DefaultGetResolver that returns them from table() and keyColumn()");
+    }
+
+    @Test
+    public void asRxSingleAsMapShouldReturnObjectsByKeys() {
+        final TestSubscriber<Map<Long, String>> testSubscriber = new TestSubscriber<Map<Long, String>>();
+
+        new PreparedGetListOfObjects.Builder<String>(storIOSQLite, String.class)
+                .withKeys(asList(2L, 3L, 1L))
+                .withGetResolver(new KeyGetResolver())
+                .prepare()
+                .asRxSingleAsMap()
+                .subscribe(testSubscriber);
+
+        testSubscriber.assertNoErrors();
+        testSubscriber.assertValueCount(1);
+
+        final Map<Long, String> objects = testSubscriber.getOnNextEvents().get(0);
+        assertThat(objects.keySet()).containsExactly(2L, 1L);
+        assertThat(objects.get(2L)).isEqualTo("object_2");
+        assertThat(objects.get(1L)).isEqualTo("object_1");
+    }
+
+    @NonNull
+    private static Cursor cursorOf(@NonNull final List<String> keys) {
+        final Cursor cursor = mock(Cursor.class);
+        final int[] position = {keys.size()};
+
+        when(cursor.getColumnIndexOrThrow("id")).thenReturn(0);
+
+        when(cursor.moveToNext()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                return --position[0] >= 0;
+            }
+        });
+
+        when(cursor.getString(0)).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                return keys.get(position[0]);
+            }
+        });
+
+        return cursor;
+    }
+
+    private static class KeyGetResolver extends DefaultGetResolver<String> {
+
+        @NonNull
+        @Override
+        public String mapFromCursor(@NonNull Cursor cursor) {
+            return "object_" + cursor.getString(0);
+        }
+
+        @Nullable
+        @Override
+        protected String table() {
+            return "test_table";
+        }
+
+        @Nullable
+        @Override
+        protected String keyColumn() {
+            return "id";
+        }
+    }
+}
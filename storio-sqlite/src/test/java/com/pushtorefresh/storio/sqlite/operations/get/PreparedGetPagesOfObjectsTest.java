@@ -0,0 +1,386 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetPagesOfObjectsTest {
+
+    private StorIOSQLite storIOSQLite;
+
+    private GetResolver<String> getResolver;
+
+    private PublishSubject<Changes> changes;
+
+    // Sorted values of key column of the table
+    private final List<Integer> keys = new ArrayList<Integer>(asList(1, 2, 3, 4, 5, 6, 7));
+
+    private final List<Query> queries = new ArrayList<Query>();
+
+    @Before
+    public void beforeEachTest() {
+        storIOSQLite = mock(StorIOSQLite.class);
+        //noinspection unchecked
+        getResolver = mock(GetResolver.class);
+        changes = PublishSubject.create();
+
+        when(storIOSQLite.observeChangesInTables(anySetOf(String.class)))
+                .thenReturn(changes);
+
+        when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                .thenAnswer(new Answer<Cursor>() {
+                    @Override
+                    public Cursor answer(InvocationOnMock invocation) throws Throwable {
+                        final Query query = (Query) invocation.getArguments()[1];
+                        queries.add(query);
+                        return cursorOf(query);
+                    }
+                });
+
+        when(getResolver.mapFromCursor(any(Cursor.class)))
+                .thenAnswer(new Answer<String>() {
+                    @Override
+                    public String answer(InvocationOnMock invocation) throws Throwable {
+                        final Cursor cursor = (Cursor) invocation.getArguments()[0];
+                        return "item" + cursor.getString(0);
+                    }
+                });
+    }
+
+    @Test
+    public void executeAsBlockingShouldLoadPagesByKeys() {
+        final PreparedGetPagesOfObjects<String> operation = prepare(3);
+
+        final Page<String> firstPage = operation.executeAsBlocking();
+
+        assertThat(firstPage.items()).containsExactly("item1", "item2", "item3");
+        assertThat(firstPage.afterKey()).isNull();
+        assertThat(firstPage.lastKey()).isEqualTo("3");
+        assertThat(firstPage.hasNextPage()).isTrue();
+
+        final Page<String> secondPage = operation.executeAsBlocking(firstPage);
+        final Page<String> thirdPage = operation.executeAsBlocking(secondPage);
+
+        assertThat(secondPage.items()).containsExactly("item4", "item5", "item6");
+        assertThat(thirdPage.items()).containsExactly("item7");
+        assertThat(thirdPage.hasNextPage()).isFalse();
+
+        assertThat(queries.get(0)).isEqualTo(Query.builder()
+                .table("test_table")
+                .where("(active = ?)")
+                .whereArgs(1)
+                .orderBy("id")
+                .limit(4)
+                .build());
+
+        assertThat(queries.get(1)).isEqualTo(Query.builder()
+                .table("test_table")
+                .where("(active = ?) AND id > ?")
+                .whereArgs(1, "3")
+                .orderBy("id")
+                .limit(4)
+                .build());
+
+        // There is no page after last page
+        assertThat(operation.executeAsBlocking(thirdPage).items()).isEmpty();
+        assertThat(queries).hasSize(3);
+    }
+
+    @Test
+    public void shouldLoadRelationsOncePerPage() {
+        final PreparedGetPagesOfObjects<String> operation = prepare(3);
+
+        final Page<String> firstPage = operation.executeAsBlocking();
+        operation.executeAsBlocking(firstPage);
+
+        verify(getResolver).loadRelations(storIOSQLite, asList("item1", "item2", "item3"));
+        verify(getResolver).loadRelations(storIOSQLite, asList("item4", "item5", "item6"));
+    }
+
+    @Test
+    public void observableShouldObserveTablesOfRelatedObjects() {
+        when(getResolver.relatedTables()).thenReturn(singleton("related_table"));
+
+        final TestSubscriber<Pages<String>> testSubscriber = new TestSubscriber<Pages<String>>();
+
+        prepare(3).asRxObservable(PublishSubject.create()).subscribe(testSubscriber);
+
+        verify(storIOSQLite).observeChangesInTables(new HashSet<String>(asList("test_table", "related_table")));
+        testSubscriber.unsubscribe();
+    }
+
+    @Test
+    public void shouldNotAllowQueryWithOrderBy() {
+        try {
+            new PreparedGetPagesOfObjects.Builder<String>(storIOSQLite, String.class)
+                    .withQuery(Query.builder().table("test_table").orderBy("name").build());
+
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException expected) {
+            assertThat(expected).hasMessageStartingWith("Query of pages should not have orderBy");
+        }
+    }
+
+    @Test
+    public void shouldNotAllowColumnsWithoutKeyColumn() {
+        try {
+            new PreparedGetPagesOfObjects.Builder<String>(storIOSQLite, String.class)
+                    .withQuery(Query.builder().table("test_table").columns("name").build())
+                    .withKeyColumn("id", 3);
+
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException expected) {
+            assertThat(expected).hasMessageStartingWith("Columns of query should contain key column");
+        }
+    }
+
+    @Test
+    public void shouldNotAllowNonPositivePageSize() {
+        try {
+            new PreparedGetPagesOfObjects.Builder<String>(storIOSQLite, String.class)
+                    .withQuery(Query.builder().table("test_table").build())
+                    .withKeyColumn("id", 0);
+
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException expected) {
+            assertThat(expected).hasMessage("Page size should be positive, pageSize = 0");
+        }
+    }
+
+    @Test
+    public void executeAsBlockingShouldWrapExceptionIntoStorIOException() {
+        when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                .thenThrow(new IllegalStateException("test exception"));
+
+        try {
+            prepare(3).executeAsBlocking();
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            assertThat(expected.getCause()).hasMessage("test exception");
+        }
+    }
+
+    @Test
+    public void observableShouldEmitNextPageOnRequestAndPrefetchPageAfterIt() {
+        final PublishSubject<Object> nextPageRequests = PublishSubject.create();
+        final TestSubscriber<Pages<String>> testSubscriber = new TestSubscriber<Pages<String>>();
+
+        prepare(3).asRxObservable(nextPageRequests).subscribe(testSubscriber);
+
+        testSubscriber.assertValueCount(1);
+        assertThat(testSubscriber.getOnNextEvents().get(0).items()).containsExactly("item1", "item2", "item3");
+
+        // Second page was prefetched
+        assertThat(queries).hasSize(2);
+
+        nextPageRequests.onNext(null);
+
+        testSubscriber.assertValueCount(2);
+        final Pages<String> pages = testSubscriber.getOnNextEvents().get(1);
+        assertThat(pages.pages()).hasSize(2);
+        assertThat(pages.items()).containsExactly("item1", "item2", "item3", "item4", "item5", "item6");
+        assertThat(pages.hasNextPage()).isTrue();
+
+        // Prefetched page was emitted, third page was prefetched
+        assertThat(queries).hasSize(3);
+
+        nextPageRequests.onNext(null);
+        testSubscriber.assertValueCount(3);
+        assertThat(testSubscriber.getOnNextEvents().get(2).hasNextPage()).isFalse();
+
+        // No more pages
+        nextPageRequests.onNext(null);
+        testSubscriber.assertValueCount(3);
+        assertThat(queries).hasSize(3);
+
+        testSubscriber.assertNoTerminalEvent();
+        testSubscriber.unsubscribe();
+        assertThat(changes.hasObservers()).isFalse();
+        assertThat(nextPageRequests.hasObservers()).isFalse();
+    }
+
+    @Test
+    public void observableShouldNotPrefetchIfPrefetchIsDisabled() {
+        final PublishSubject<Object> nextPageRequests = PublishSubject.create();
+        final TestSubscriber<Pages<String>> testSubscriber = new TestSubscriber<Pages<String>>();
+
+        new PreparedGetPagesOfObjects.Builder<String>(storIOSQLite, String.class)
+                .withQuery(Query.builder().table("test_table").build())
+                .withKeyColumn("id", 3)
+                .withGetResolver(getResolver)
+                .prefetch(false)
+                .prepare()
+                .asRxObservable(nextPageRequests)
+                .subscribe(testSubscriber);
+
+        testSubscriber.assertValueCount(1);
+        assertThat(queries).hasSize(1);
+
+        nextPageRequests.onNext(null);
+
+        testSubscriber.assertValueCount(2);
+        assertThat(queries).hasSize(2);
+        testSubscriber.unsubscribe();
+    }
+
+    @Test
+    public void observableShouldReloadPagesByTheirRangesAfterChanges() {
+        final PublishSubject<Object> nextPageRequests = PublishSubject.create();
+        final TestSubscriber<Pages<String>> testSubscriber = new TestSubscriber<Pages<String>>();
+
+        prepare(3).asRxObservable(nextPageRequests).subscribe(testSubscriber);
+        nextPageRequests.onNext(null);
+        testSubscriber.assertValueCount(2);
+
+        keys.remove(Integer.valueOf(2));
+        keys.add(8);
+        queries.clear();
+        changes.onNext(Changes.newInstance("test_table"));
+
+        testSubscriber.assertValueCount(3);
+
+        final Pages<String> pages = testSubscriber.getOnNextEvents().get(2);
+
+        // First page keeps its range, objects don't move between pages
+        assertThat(pages.pages().get(0).items()).containsExactly("item1", "item3");
+        assertThat(pages.pages().get(1).items()).containsExactly("item4", "item5", "item6");
+        assertThat(pages.hasNextPage()).isTrue();
+
+        assertThat(queries.get(0)).isEqualTo(Query.builder()
+                .table("test_table")
+                .where("(active = ?) AND id <= ?")
+                .whereArgs(1, "3")
+                .orderBy("id")
+                .build());
+
+        assertThat(queries.get(1)).isEqualTo(Query.builder()
+                .table("test_table")
+                .where("(active = ?) AND id > ?")
+                .whereArgs(1, "3")
+                .orderBy("id")
+                .limit(4)
+                .build());
+
+        nextPageRequests.onNext(null);
+
+        // Stale prefetched page was discarded
+        assertThat(testSubscriber.getOnNextEvents().get(3).pages().get(2).items())
+                .containsExactly("item7", "item8");
+
+        testSubscriber.unsubscribe();
+    }
+
+    @Test
+    public void observableShouldSendErrorIfLoadingFailed() {
+        when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                .thenThrow(new IllegalStateException("test exception"));
+
+        final PublishSubject<Object> nextPageRequests = PublishSubject.create();
+        final TestSubscriber<Pages<String>> testSubscriber = new TestSubscriber<Pages<String>>();
+
+        prepare(3).asRxObservable(nextPageRequests).subscribe(testSubscriber);
+
+        testSubscriber.assertError(StorIOException.class);
+        assertThat(changes.hasObservers()).isFalse();
+        assertThat(nextPageRequests.hasObservers()).isFalse();
+    }
+
+    @Test
+    public void shouldNotQueryBeforeSubscription() {
+        prepare(3).asRxObservable(PublishSubject.create());
+
+        verify(getResolver, never()).performGet(eq(storIOSQLite), any(Query.class));
+        verify(storIOSQLite, never()).observeChangesInTables(anySetOf(String.class));
+    }
+
+    private PreparedGetPagesOfObjects<String> prepare(int pageSize) {
+        return new PreparedGetPagesOfObjects.Builder<String>(storIOSQLite, String.class)
+                .withQuery(Query.builder()
+                        .table("test_table")
+                        .where("active = ?")
+                        .whereArgs(1)
+                        .build())
+                .withKeyColumn("id", pageSize)
+                .withGetResolver(getResolver)
+                .prepare();
+    }
+
+    // Selects keys of the table like SQLite would do for query of the page
+    private Cursor cursorOf(Query query) {
+        final List<String> whereArgs = query.whereArgs();
+        // Arguments of the base query go first
+        int argIndex = query.where().startsWith("(") ? 1 : 0;
+
+        Integer afterKey = null;
+        Integer upToKey = null;
+
+        if (query.where().contains("id > ?")) {
+            afterKey = Integer.valueOf(whereArgs.get(argIndex++));
+        }
+
+        if (query.where().contains("id <= ?")) {
+            upToKey = Integer.valueOf(whereArgs.get(argIndex));
+        }
+
+        final int limit = query.limit().length() > 0 ? Integer.parseInt(query.limit()) : Integer.MAX_VALUE;
+        final List<String> rows = new ArrayList<String>();
+
+        for (Integer key : keys) {
+            if ((afterKey == null || key > afterKey) && (upToKey == null || key <= upToKey) && rows.size() < limit) {
+                rows.add(String.valueOf(key));
+            }
+        }
+
+        final Cursor cursor = mock(Cursor.class);
+        final AtomicInteger position = new AtomicInteger(-1);
+
+        when(cursor.getCount()).thenReturn(rows.size());
+
+        when(cursor.moveToNext()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                return position.incrementAndGet() < rows.size();
+            }
+        });
+
+        when(cursor.getColumnIndexOrThrow("id")).thenReturn(0);
+
+        when(cursor.getString(anyInt())).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                return rows.get(position.get());
+            }
+        });
+
+        return cursor;
+    }
+}
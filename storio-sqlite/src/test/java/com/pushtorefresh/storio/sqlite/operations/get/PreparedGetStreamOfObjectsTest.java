@@ -0,0 +1,219 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+
+import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PreparedGetStreamOfObjectsTest {
+
+    private StorIOSQLite storIOSQLite;
+
+    private GetResolver<String> getResolver;
+
+    private Cursor cursor;
+
+    @Before
+    public void beforeEachTest() {
+        storIOSQLite = mock(StorIOSQLite.class);
+        //noinspection unchecked
+        getResolver = mock(GetResolver.class);
+        cursor = mock(Cursor.class);
+
+        when(getResolver.performGet(eq(storIOSQLite), any(Query.class)))
+                .thenReturn(cursor);
+
+        when(cursor.moveToNext())
+                .thenReturn(true, true, true, false);
+
+        when(getResolver.mapFromCursor(cursor))
+                .thenReturn("1", "2", "3");
+    }
+
+    @Test
+    public void iteratorShouldMapRowsLazilyAndCloseCursorAfterLastRow() {
+        final CursorIterator<String> iterator = prepare().executeAsBlocking();
+
+        verify(getResolver, never()).mapFromCursor(cursor);
+
+        assertThat(iterator.next()).isEqualTo("1");
+        verify(getResolver, times(1)).mapFromCursor(cursor);
+
+        assertThat(iterator.next()).isEqualTo("2");
+        assertThat(iterator.next()).isEqualTo("3");
+        verify(cursor, never()).close();
+
+        assertThat(iterator.hasNext()).isFalse();
+        assertThat(iterator.isClosed()).isTrue();
+        verify(cursor).close();
+    }
+
+    @Test
+    public void iteratorShouldLoadRelationsOncePerChunkOfRows() {
+        when(getResolver.relatedTables())
+                .thenReturn(singleton("related_table"));
+
+        final CursorIterator<String> iterator = prepare().executeAsBlocking();
+
+        // All rows fit into one chunk
+        assertThat(iterator.next()).isEqualTo("1");
+        verify(getResolver).loadRelations(storIOSQLite, asList("1", "2", "3"));
+        verify(cursor).close();
+
+        assertThat(iterator.next()).isEqualTo("2");
+        assertThat(iterator.next()).isEqualTo("3");
+        assertThat(iterator.hasNext()).isFalse();
+
+        verify(getResolver, times(1)).loadRelations(eq(storIOSQLite), anyListOf(String.class));
+    }
+
+    @Test
+    public void closeShouldCloseCursor() {
+        final CursorIterator<String> iterator = prepare().executeAsBlocking();
+
+        assertThat(iterator.next()).isEqualTo("1");
+
+        iterator.close();
+        iterator.close();
+
+        verify(cursor, times(1)).close();
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    public void iteratorShouldCloseCursorIfMappingFailed() {
+        when(getResolver.mapFromCursor(cursor))
+                .thenThrow(new IllegalStateException("test exception"));
+
+        final CursorIterator<String> iterator = prepare().executeAsBlocking();
+
+        try {
+            iterator.next();
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            assertThat(expected.getCause()).hasMessage("test exception");
+        }
+
+        verify(cursor).close();
+    }
+
+    @Test
+    public void executeAsBlockingShouldThrowExceptionIfNoTypeMappingWasFound() {
+        final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+        when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+
+        try {
+            new PreparedGetStreamOfObjects.Builder<String>(storIOSQLite, String.class)
+                    .withQuery(Query.builder().table("test_table").build())
+                    .prepare()
+                    .executeAsBlocking();
+
+            failBecauseExceptionWasNotThrown(StorIOException.class);
+        } catch (StorIOException expected) {
+            assertThat(expected.getCause()).isInstanceOf(IllegalStateException.class);
+        }
+
+        verify(lowLevel, never()).query(any(Query.class));
+    }
+
+    @Test
+    public void observableShouldEmitOnlyRequestedObjects() {
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>(0);
+
+        prepare().asRxObservable().subscribe(testSubscriber);
+
+        // Query is not executed until first request
+        verify(getResolver, never()).performGet(eq(storIOSQLite), any(Query.class));
+
+        testSubscriber.requestMore(2);
+
+        testSubscriber.assertValues("1", "2");
+        testSubscriber.assertNoTerminalEvent();
+        verify(getResolver, times(2)).mapFromCursor(cursor);
+        verify(cursor, never()).close();
+
+        testSubscriber.requestMore(10);
+
+        testSubscriber.assertValues("1", "2", "3");
+        testSubscriber.assertCompleted();
+        verify(cursor).close();
+    }
+
+    @Test
+    public void observableShouldCloseCursorOnUnsubscribe() {
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>(1);
+
+        prepare().asRxObservable().subscribe(testSubscriber);
+
+        testSubscriber.assertValue("1");
+
+        testSubscriber.unsubscribe();
+
+        verify(cursor).close();
+    }
+
+    @Test
+    public void observableShouldCloseCursorAndSendErrorIfMappingFailed() {
+        when(getResolver.mapFromCursor(cursor))
+                .thenReturn("1")
+                .thenThrow(new IllegalStateException("test exception"));
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>();
+
+        prepare().asRxObservable().subscribe(testSubscriber);
+
+        testSubscriber.assertValue("1");
+        testSubscriber.assertError(StorIOException.class);
+        verify(cursor).close();
+    }
+
+    @Test
+    public void observableShouldQueryAndMapRowsOnDefaultScheduler() {
+        final TestScheduler testScheduler = new TestScheduler();
+        when(storIOSQLite.defaultScheduler()).thenReturn(testScheduler);
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>(1);
+
+        prepare().asRxObservable().subscribe(testSubscriber);
+
+        verify(getResolver, never()).performGet(eq(storIOSQLite), any(Query.class));
+        testSubscriber.assertNoValues();
+
+        testScheduler.triggerActions();
+        testSubscriber.assertValue("1");
+
+        // Cursor is closed on the scheduler too
+        testSubscriber.unsubscribe();
+        verify(cursor, never()).close();
+
+        testScheduler.triggerActions();
+        verify(cursor).close();
+    }
+
+    private PreparedGetStreamOfObjects<String> prepare() {
+        return new PreparedGetStreamOfObjects.Builder<String>(storIOSQLite, String.class)
+                .withQuery(Query.builder().table("test_table").build())
+                .withGetResolver(getResolver)
+                .prepare();
+    }
+}
@@ -0,0 +1,144 @@
+package com.pushtorefresh.storio.sqlite.operations.get;
+
+import android.database.Cursor;
+import android.support.annotation.NonNull;
+
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
+import com.pushtorefresh.storio.sqlite.StorIOSQLite;
+import com.pushtorefresh.storio.sqlite.operations.delete.DeleteResolver;
+import com.pushtorefresh.storio.sqlite.operations.put.PutResolver;
+import com.pushtorefresh.storio.sqlite.queries.Query;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RelatedObjectsTest {
+
+    private StorIOSQLite storIOSQLite;
+
+    private StorIOSQLite.LowLevel lowLevel;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void beforeEachTest() {
+        storIOSQLite = mock(StorIOSQLite.class);
+        lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+        when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+
+        when(lowLevel.typeMapping(String.class)).thenReturn(SQLiteTypeMapping.<String>builder()
+                .putResolver(mock(PutResolver.class))
+                .getResolver(new ValueGetResolver())
+                .deleteResolver(mock(DeleteResolver.class))
+                .build());
+
+        // Each value has two related rows: "value_a" and "value_b"
+        when(lowLevel.query(any(Query.class))).thenAnswer(new Answer<Cursor>() {
+            @Override
+            public Cursor answer(InvocationOnMock invocation) throws Throwable {
+                final List<String> rows = new ArrayList<String>();
+
+                for (String value : ((Query) invocation.getArguments()[0]).whereArgs()) {
+                    rows.add(value);
+                    rows.add(value);
+                }
+
+                return cursorOf(rows);
+            }
+        });
+    }
+
+    @Test
+    public void shouldGroupRelatedObjectsByValues() {
+        final Map<String, List<String>> related = RelatedObjects.load(
+                storIOSQLite, String.class, "related_table", "parent_id", asList(1L, 2L, null, 1L));
+
+        assertThat(related).hasSize(2);
+        assertThat(related.get("1")).containsExactly("related_1", "related_1");
+        assertThat(related.get("2")).containsExactly("related_2", "related_2");
+
+        // Same value is selected once, null is skipped
+        verify(lowLevel).query(Query.builder()
+                .table("related_table")
+                .where("parent_id IN (?,?)")
+                .whereArgs("1", "2")
+                .build());
+    }
+
+    @Test
+    public void shouldSplitValuesIntoChunks() {
+        final List<Integer> values = new ArrayList<Integer>();
+
+        for (int i = 0; i < 1500; i++) {
+            values.add(i);
+        }
+
+        final Map<String, List<String>> related = RelatedObjects.load(
+                storIOSQLite, String.class, "related_table", "parent_id", values);
+
+        assertThat(related).hasSize(1500);
+
+        // 999 + 501 values
+        verify(lowLevel, times(2)).query(any(Query.class));
+    }
+
+    @Test
+    public void shouldThrowIfRelatedTypeDoesNotHaveTypeMapping() {
+        try {
+            RelatedObjects.load(storIOSQLite, Object.class, "related_table", "parent_id", asList(1L));
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException expected) {
+            assertThat(expected).hasMessage("This type does not have type mapping: " +
+                    "type = " + Object.class + "," +
+                    "please add type mapping for related type");
+        }
+    }
+
+    @NonNull
+    private static Cursor cursorOf(@NonNull final List<String> values) {
+        final Cursor cursor = mock(Cursor.class);
+        final int[] position = {-1};
+
+        when(cursor.getColumnIndexOrThrow("parent_id")).thenReturn(0);
+
+        when(cursor.moveToNext()).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                return ++position[0] < values.size();
+            }
+        });
+
+        when(cursor.getString(0)).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(InvocationOnMock invocation) throws Throwable {
+                return values.get(position[0]);
+            }
+        });
+
+        return cursor;
+    }
+
+    private static class ValueGetResolver extends DefaultGetResolver<String> {
+
+        @NonNull
+        @Override
+        public String mapFromCursor(@NonNull Cursor cursor) {
+            return "related_" + cursor.getString(0);
+        }
+    }
+}
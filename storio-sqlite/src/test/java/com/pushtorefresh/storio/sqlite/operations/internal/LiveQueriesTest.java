@@ -0,0 +1,138 @@
+package com.pushtorefresh.storio.sqlite.operations.internal;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rx.Observable;
+import rx.functions.Action0;
+import rx.observers.TestSubscriber;
+import rx.subjects.BehaviorSubject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+public class LiveQueriesTest {
+
+    @Test
+    public void shouldNotAllowNullKey() {
+        try {
+            //noinspection ConstantConditions
+            new LiveQueries().share(null, Observable.just("result"));
+            failBecauseExceptionWasNotThrown(NullPointerException.class);
+        } catch (NullPointerException expected) {
+            assertThat(expected).hasMessage("Key of live query can not be null");
+        }
+    }
+
+    @Test
+    public void shouldNotAllowNullLiveQuery() {
+        try {
+            //noinspection ConstantConditions
+            new LiveQueries().share("key", null);
+            failBecauseExceptionWasNotThrown(NullPointerException.class);
+        } catch (NullPointerException expected) {
+            assertThat(expected).hasMessage("Live query can not be null");
+        }
+    }
+
+    @Test
+    public void liveQueriesWithEqualKeysShouldShareUpstream() {
+        final LiveQueries liveQueries = new LiveQueries();
+        final BehaviorSubject<String> results = BehaviorSubject.create("first");
+        final AtomicInteger numberOfUpstreamSubscriptions = new AtomicInteger();
+
+        final Observable<String> liveQuery = results.doOnSubscribe(new Action0() {
+            @Override
+            public void call() {
+                numberOfUpstreamSubscriptions.incrementAndGet();
+            }
+        });
+
+        final TestSubscriber<String> testSubscriber1 = new TestSubscriber<String>();
+        final TestSubscriber<String> testSubscriber2 = new TestSubscriber<String>();
+
+        liveQueries.share("key", liveQuery).subscribe(testSubscriber1);
+
+        results.onNext("second");
+
+        // New subscriber receives latest result immediately
+        liveQueries.share("key", liveQuery).subscribe(testSubscriber2);
+        testSubscriber2.assertValue("second");
+
+        results.onNext("third");
+
+        testSubscriber1.assertValues("first", "second", "third");
+        testSubscriber2.assertValues("second", "third");
+
+        assertThat(numberOfUpstreamSubscriptions.get()).isEqualTo(1);
+        assertThat(liveQueries.numberOfLiveQueries()).isEqualTo(1);
+    }
+
+    @Test
+    public void liveQueriesWithDifferentKeysShouldNotShareUpstream() {
+        final LiveQueries liveQueries = new LiveQueries();
+
+        final TestSubscriber<String> testSubscriber1 = new TestSubscriber<String>();
+        final TestSubscriber<String> testSubscriber2 = new TestSubscriber<String>();
+
+        liveQueries.share("key1", BehaviorSubject.create("1")).subscribe(testSubscriber1);
+        liveQueries.share("key2", BehaviorSubject.create("2")).subscribe(testSubscriber2);
+
+        testSubscriber1.assertValue("1");
+        testSubscriber2.assertValue("2");
+        assertThat(liveQueries.numberOfLiveQueries()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotRegisterLiveQueryWithoutSubscribers() {
+        final LiveQueries liveQueries = new LiveQueries();
+
+        //noinspection CheckResult
+        liveQueries.share("key", BehaviorSubject.create("result"));
+
+        assertThat(liveQueries.numberOfLiveQueries()).isZero();
+    }
+
+    @Test
+    public void shouldTearDownAfterLastSubscriberLeaves() {
+        final LiveQueries liveQueries = new LiveQueries();
+        final BehaviorSubject<String> results = BehaviorSubject.create("first");
+
+        final TestSubscriber<String> testSubscriber1 = new TestSubscriber<String>();
+        final TestSubscriber<String> testSubscriber2 = new TestSubscriber<String>();
+
+        liveQueries.share("key", results).subscribe(testSubscriber1);
+        liveQueries.share("key", results).subscribe(testSubscriber2);
+
+        testSubscriber1.unsubscribe();
+
+        assertThat(results.hasObservers()).isTrue();
+        assertThat(liveQueries.numberOfLiveQueries()).isEqualTo(1);
+
+        testSubscriber2.unsubscribe();
+
+        assertThat(results.hasObservers()).isFalse();
+        assertThat(liveQueries.numberOfLiveQueries()).isZero();
+
+        // Next subscriber starts live query again
+        final TestSubscriber<String> testSubscriber3 = new TestSubscriber<String>();
+        liveQueries.share("key", results).subscribe(testSubscriber3);
+
+        testSubscriber3.assertValue("first");
+        assertThat(liveQueries.numberOfLiveQueries()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRemoveLiveQueryAfterError() {
+        final LiveQueries liveQueries = new LiveQueries();
+        final IllegalStateException exception = new IllegalStateException("test exception");
+
+        final TestSubscriber<String> testSubscriber = new TestSubscriber<String>();
+
+        liveQueries.share("key", Observable.<String>error(exception)).subscribe(testSubscriber);
+
+        testSubscriber.assertError(exception);
+        assertThat(liveQueries.numberOfLiveQueries()).isZero();
+    }
+}
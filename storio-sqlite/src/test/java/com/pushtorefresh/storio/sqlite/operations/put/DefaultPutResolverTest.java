@@ -2,9 +2,12 @@ package com.pushtorefresh.storio.sqlite.operations.put;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.StatementBinder;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
 import com.pushtorefresh.storio.sqlite.queries.Query;
@@ -12,6 +15,7 @@ import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
 
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -20,6 +24,7 @@ import rx.functions.Func1;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -220,6 +225,358 @@ public class DefaultPutResolverTest {
         assertThat(putResult.insertedId()).isNull();
     }
 
+    /**
+     * Verifies behavior of {@link PutStrategy#UPDATE_THEN_INSERT} when row already exists
+     */
+    @Test
+    public void updateThenInsertShouldOnlyUpdateExistingRow() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(42L);
+
+        when(storIOSQLite.lowLevel())
+                .thenReturn(internal);
+
+        when(internal.update(any(UpdateQuery.class), any(ContentValues.class)))
+                .thenReturn(1);
+
+        final PutResult putResult = newPutResolver()
+                .performPut(storIOSQLite, testItem, PutStrategy.UPDATE_THEN_INSERT);
+
+        verify(internal, times(1)).beginTransaction();
+        verify(internal, times(1)).setTransactionSuccessful();
+        verify(internal, times(1)).endTransaction();
+
+        // no queries and inserts should occur
+        verify(internal, times(0)).query(any(Query.class));
+        verify(internal, times(0)).insert(any(InsertQuery.class), any(ContentValues.class));
+
+        verify(internal, times(1)).update(any(UpdateQuery.class), eq(TestItem.MAP_TO_CONTENT_VALUES.call(testItem)));
+
+        assertThat(putResult.wasUpdated()).isTrue();
+        assertThat(putResult.numberOfRowsUpdated()).isEqualTo(1);
+        assertThat(putResult.affectedTables()).containsExactly(TestItem.TABLE);
+
+        // Observers receive key of updated row
+        assertThat(putResult.changes()).isEqualTo(Changes.newInstance(
+                TestItem.TABLE,
+                Changes.Type.UPDATE,
+                TestItem.COLUMN_ID + " = ?",
+                Collections.singletonList(Collections.singletonList("42"))
+        ));
+    }
+
+    @Test
+    public void updateThatChangesKeyShouldAffectAllRows() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(42L);
+
+        when(storIOSQLite.lowLevel())
+                .thenReturn(internal);
+
+        when(internal.update(any(UpdateQuery.class), any(ContentValues.class)))
+                .thenReturn(1);
+
+        final ContentValues contentValues = mock(ContentValues.class);
+
+        // Row with key 42 gets key 43
+        when(contentValues.containsKey(TestItem.COLUMN_ID))
+                .thenReturn(true);
+
+        when(contentValues.get(TestItem.COLUMN_ID))
+                .thenReturn(43L);
+
+        final PutResult putResult = new TestItemPutResolver() {
+            @NonNull
+            @Override
+            protected ContentValues mapToContentValues(@NonNull TestItem object) {
+                return contentValues;
+            }
+        }.performPut(storIOSQLite, testItem, PutStrategy.UPDATE_THEN_INSERT);
+
+        assertThat(putResult.wasUpdated()).isTrue();
+
+        // Observers of rows with key 43 should re-query, so they receive only affected table
+        assertThat(putResult.changes()).isEqualTo(Changes.newInstance(TestItem.TABLE));
+    }
+
+    /**
+     * Verifies behavior of {@link PutStrategy#UPDATE_THEN_INSERT} when row does not exist
+     */
+    @Test
+    public void updateThenInsertShouldInsertIfNothingWasUpdated() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(null);
+
+        when(storIOSQLite.lowLevel())
+                .thenReturn(internal);
+
+        when(internal.update(any(UpdateQuery.class), any(ContentValues.class)))
+                .thenReturn(0);
+
+        when(internal.insert(any(InsertQuery.class), any(ContentValues.class)))
+                .thenReturn(24L);
+
+        final PutResult putResult = newPutResolver()
+                .performPut(storIOSQLite, testItem, PutStrategy.UPDATE_THEN_INSERT);
+
+        verify(internal, times(0)).query(any(Query.class));
+        verify(internal, times(1)).update(any(UpdateQuery.class), any(ContentValues.class));
+        verify(internal, times(1)).insert(any(InsertQuery.class), eq(TestItem.MAP_TO_CONTENT_VALUES.call(testItem)));
+
+        assertThat(putResult.wasInserted()).isTrue();
+        assertThat(putResult.insertedId()).isEqualTo(24L);
+        assertThat(putResult.affectedTables()).containsExactly(TestItem.TABLE);
+
+        // Key of inserted row is generated by SQLite, so observers receive only affected table
+        assertThat(putResult.changes()).isEqualTo(Changes.newInstance(TestItem.TABLE));
+    }
+
+    @Test
+    public void keyOfShouldReturnWhereArgsOfUpdateQuery() {
+        assertThat(newPutResolver().keyOf(new TestItem(42L))).containsExactly("42");
+    }
+
+    /**
+     * Verifies behavior of {@link PutStrategy#INSERT_OR_REPLACE}
+     */
+    @Test
+    public void insertOrReplaceShouldUseSingleStatementWithoutTransaction() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(42L);
+
+        when(storIOSQLite.lowLevel())
+                .thenReturn(internal);
+
+        when(internal.insertWithOnConflict(any(InsertQuery.class), any(ContentValues.class), eq(SQLiteDatabase.CONFLICT_REPLACE)))
+                .thenReturn(42L);
+
+        final PutResult putResult = newPutResolver()
+                .performPut(storIOSQLite, testItem, PutStrategy.INSERT_OR_REPLACE);
+
+        verify(internal, times(0)).beginTransaction();
+        verify(internal, times(0)).query(any(Query.class));
+        verify(internal, times(0)).update(any(UpdateQuery.class), any(ContentValues.class));
+        verify(internal, times(1)).insertWithOnConflict(
+                any(InsertQuery.class),
+                eq(TestItem.MAP_TO_CONTENT_VALUES.call(testItem)),
+                eq(SQLiteDatabase.CONFLICT_REPLACE)
+        );
+
+        assertThat(putResult.wasInserted()).isTrue();
+        assertThat(putResult.insertedId()).isEqualTo(42L);
+    }
+
+    @Test
+    public void shouldUseStrategyOfResolverByDefault() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(42L);
+
+        when(storIOSQLite.lowLevel())
+                .thenReturn(internal);
+
+        when(internal.update(any(UpdateQuery.class), any(ContentValues.class)))
+                .thenReturn(1);
+
+        final DefaultPutResolver<TestItem> putResolver = new TestItemPutResolver() {
+            @NonNull
+            @Override
+            protected PutStrategy putStrategy() {
+                return PutStrategy.UPDATE_THEN_INSERT;
+            }
+        };
+
+        final PutResult putResult = putResolver.performPut(storIOSQLite, testItem);
+
+        verify(internal, times(0)).query(any(Query.class));
+        assertThat(putResult.wasUpdated()).isTrue();
+    }
+
+    @Test
+    public void shouldNotBeginNestedTransactionIfAlreadyInTransaction() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(42L);
+
+        when(storIOSQLite.lowLevel())
+                .thenReturn(internal);
+
+        when(internal.inTransaction())
+                .thenReturn(true);
+
+        when(internal.update(any(UpdateQuery.class), any(ContentValues.class)))
+                .thenReturn(1);
+
+        newPutResolver().performPut(storIOSQLite, testItem, PutStrategy.UPDATE_THEN_INSERT);
+
+        verify(internal, times(0)).beginTransaction();
+        verify(internal, times(0)).setTransactionSuccessful();
+        verify(internal, times(0)).endTransaction();
+    }
+
+    @Test
+    public void shouldBindStatementIfLowLevelCanBindStatements() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(null);
+        final Cursor cursor = mock(Cursor.class);
+
+        when(storIOSQLite.lowLevel())
+                .thenReturn(internal);
+
+        when(internal.canBindStatements())
+                .thenReturn(true);
+
+        when(internal.query(any(Query.class)))
+                .thenReturn(cursor);
+
+        when(cursor.getCount())
+                .thenReturn(0);
+
+        //noinspection unchecked
+        final StatementBinder<TestItem> statementBinder = mock(StatementBinder.class);
+
+        when(internal.insert(any(InsertQuery.class), eq(statementBinder), eq(testItem), eq(SQLiteDatabase.CONFLICT_NONE)))
+                .thenReturn(24L);
+
+        final DefaultPutResolver<TestItem> putResolver = new BindingTestItemPutResolver(statementBinder);
+
+        final PutResult putResult = putResolver.performPut(storIOSQLite, testItem);
+
+        verify(internal, times(1)).insert(any(InsertQuery.class), eq(statementBinder), eq(testItem), eq(SQLiteDatabase.CONFLICT_NONE));
+        verify(internal, times(0)).insert(any(InsertQuery.class), any(ContentValues.class));
+
+        assertThat(putResult.wasInserted()).isTrue();
+        assertThat(putResult.insertedId()).isEqualTo(24L);
+    }
+
+    @Test
+    public void shouldBindUpdateStatementIfLowLevelCanBindStatements() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(42L);
+
+        when(storIOSQLite.lowLevel())
+                .thenReturn(internal);
+
+        when(internal.canBindStatements())
+                .thenReturn(true);
+
+        //noinspection unchecked
+        final StatementBinder<TestItem> statementBinder = mock(StatementBinder.class);
+
+        when(internal.update(any(UpdateQuery.class), eq(statementBinder), eq(testItem)))
+                .thenReturn(1);
+
+        final PutResult putResult = new BindingTestItemPutResolver(statementBinder)
+                .performPut(storIOSQLite, testItem, PutStrategy.UPDATE_THEN_INSERT);
+
+        verify(internal, times(1)).update(any(UpdateQuery.class), eq(statementBinder), eq(testItem));
+        verify(internal, times(0)).update(any(UpdateQuery.class), any(ContentValues.class));
+
+        assertThat(putResult.wasUpdated()).isTrue();
+        assertThat(putResult.numberOfRowsUpdated()).isEqualTo(1);
+    }
+
+    @Test
+    public void insertOrReplaceShouldBindStatementIfLowLevelCanBindStatements() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(42L);
+
+        when(storIOSQLite.lowLevel())
+                .thenReturn(internal);
+
+        when(internal.canBindStatements())
+                .thenReturn(true);
+
+        //noinspection unchecked
+        final StatementBinder<TestItem> statementBinder = mock(StatementBinder.class);
+
+        new BindingTestItemPutResolver(statementBinder)
+                .performPut(storIOSQLite, testItem, PutStrategy.INSERT_OR_REPLACE);
+
+        verify(internal, times(1)).insert(any(InsertQuery.class), eq(statementBinder), eq(testItem), eq(SQLiteDatabase.CONFLICT_REPLACE));
+        verify(internal, times(0)).insertWithOnConflict(any(InsertQuery.class), any(ContentValues.class), anyInt());
+    }
+
+    @Test
+    public void shouldUseContentValuesIfLowLevelCanNotBindStatements() {
+        final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+        final StorIOSQLite.Internal internal = mock(StorIOSQLite.Internal.class);
+        final TestItem testItem = new TestItem(42L);
+
+        when(storIOSQLite.lowLevel())
+                .thenReturn(internal);
+
+        when(internal.canBindStatements())
+                .thenReturn(false);
+
+        when(internal.update(any(UpdateQuery.class), any(ContentValues.class)))
+                .thenReturn(1);
+
+        //noinspection unchecked
+        final StatementBinder<TestItem> statementBinder = mock(StatementBinder.class);
+
+        new BindingTestItemPutResolver(statementBinder)
+                .performPut(storIOSQLite, testItem, PutStrategy.UPDATE_THEN_INSERT);
+
+        verify(internal, times(1)).update(any(UpdateQuery.class), eq(TestItem.MAP_TO_CONTENT_VALUES.call(testItem)));
+        verify(internal, times(0)).update(any(UpdateQuery.class), eq(statementBinder), eq(testItem));
+    }
+
+    @NonNull
+    private static DefaultPutResolver<TestItem> newPutResolver() {
+        return new TestItemPutResolver();
+    }
+
+    private static class TestItemPutResolver extends DefaultPutResolver<TestItem> {
+
+        @NonNull
+        @Override
+        protected InsertQuery mapToInsertQuery(@NonNull TestItem object) {
+            return InsertQuery.builder()
+                    .table(TestItem.TABLE)
+                    .build();
+        }
+
+        @NonNull
+        @Override
+        protected UpdateQuery mapToUpdateQuery(@NonNull TestItem object) {
+            return UpdateQuery.builder()
+                    .table(TestItem.TABLE)
+                    .where(TestItem.COLUMN_ID + " = ?")
+                    .whereArgs(object.getId())
+                    .build();
+        }
+
+        @NonNull
+        @Override
+        protected ContentValues mapToContentValues(@NonNull TestItem object) {
+            return TestItem.MAP_TO_CONTENT_VALUES.call(object);
+        }
+    }
+
+    private static class BindingTestItemPutResolver extends TestItemPutResolver {
+
+        @NonNull
+        private final StatementBinder<TestItem> statementBinder;
+
+        BindingTestItemPutResolver(@NonNull StatementBinder<TestItem> statementBinder) {
+            this.statementBinder = statementBinder;
+        }
+
+        @Nullable
+        @Override
+        protected StatementBinder<TestItem> statementBinder() {
+            return statementBinder;
+        }
+    }
+
     private static class TestItem {
 
         final static String TABLE = "someTable";
@@ -1,17 +1,25 @@
 package com.pushtorefresh.storio.sqlite.operations.put;
 
 import android.content.ContentValues;
+import android.database.Cursor;
+import android.support.annotation.NonNull;
 
 import com.pushtorefresh.storio.StorIOException;
+import com.pushtorefresh.storio.sqlite.Changes;
+import com.pushtorefresh.storio.sqlite.SQLiteTypeMapping;
 import com.pushtorefresh.storio.sqlite.StorIOSQLite;
 import com.pushtorefresh.storio.sqlite.operations.SchedulerChecker;
 import com.pushtorefresh.storio.sqlite.queries.InsertQuery;
+import com.pushtorefresh.storio.sqlite.queries.Query;
 import com.pushtorefresh.storio.sqlite.queries.UpdateQuery;
 
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import rx.Completable;
@@ -19,15 +27,21 @@ import rx.Observable;
 import rx.Single;
 import rx.observers.TestSubscriber;
 
+import static android.database.sqlite.SQLiteDatabase.CONFLICT_NONE;
+import static android.database.sqlite.SQLiteDatabase.CONFLICT_REPLACE;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
 import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -574,6 +588,188 @@ public class PreparedPutCollectionOfObjectsTest {
         }
     }
 
+    public static class MultiRowInserts {
+
+        @Test
+        public void shouldInsertOrReplaceObjectsOfDefaultPutResolverByMultiRowInsertsInTransaction() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+            when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+            when(lowLevel.insertRows(any(InsertQuery.class), anyListOf(ContentValues.class), eq(CONFLICT_REPLACE)))
+                    .thenAnswer(new Answer<Integer>() {
+                        @Override
+                        public Integer answer(InvocationOnMock invocation) throws Throwable {
+                            return ((List<?>) invocation.getArguments()[1]).size();
+                        }
+                    });
+
+            final List<TestItem> items = new ArrayList<TestItem>();
+
+            for (int i = 0; i < 1200; i++) {
+                items.add(TestItem.newInstance());
+            }
+
+            final PutResults<TestItem> putResults = new PreparedPutCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withPutResolver(new TestItemPutResolver())
+                    .withPutStrategy(PutStrategy.INSERT_OR_REPLACE)
+                    .useMultiRowInserts(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResults.results()).isEmpty();
+            assertThat(putResults.numberOfInserts()).isEqualTo(1200);
+            assertThat(putResults.numberOfUpdates()).isEqualTo(0);
+
+            // Rows are passed in batches of 500
+            verify(lowLevel, times(3)).insertRows(
+                    eq(InsertQuery.builder().table(TestItem.TABLE).build()),
+                    anyListOf(ContentValues.class),
+                    eq(CONFLICT_REPLACE)
+            );
+
+            verify(lowLevel).beginTransaction();
+            verify(lowLevel).setTransactionSuccessful();
+            verify(lowLevel).endTransaction();
+            verify(lowLevel).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+            verify(storIOSQLite).lowLevel();
+            verifyNoMoreInteractions(storIOSQLite, lowLevel);
+        }
+
+        @Test
+        public void shouldPutObjectsOfOtherPutResolversOneByOneWithResults() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+            when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+
+            //noinspection unchecked
+            final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+            final TestItem item = TestItem.newInstance();
+            final PutResult putResult = PutResult.newInsertResult(1, TestItem.TABLE);
+
+            when(putResolver.performPut(storIOSQLite, item))
+                    .thenReturn(putResult);
+
+            final PutResults<TestItem> putResults = new PreparedPutCollectionOfObjects.Builder<TestItem>(storIOSQLite, singletonList(item))
+                    .withPutResolver(putResolver)
+                    .useTransaction(false)
+                    .useMultiRowInserts(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResults.results()).containsEntry(item, putResult);
+            assertThat(putResults.numberOfInserts()).isEqualTo(1);
+
+            verify(putResolver).performPut(storIOSQLite, item);
+            verify(lowLevel, never()).insertRows(any(InsertQuery.class), anyListOf(ContentValues.class), anyInt());
+            verify(lowLevel).notifyAboutChanges(putResult.changes());
+        }
+
+        @Test
+        public void shouldUpdateExistingRowsAndInsertNewRowsByPlainMultiRowInsert() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+            final Cursor existingRow = mock(Cursor.class);
+            final Cursor noRows = mock(Cursor.class);
+
+            when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+            when(existingRow.getCount()).thenReturn(1);
+            when(lowLevel.query(any(Query.class))).thenReturn(existingRow, noRows, noRows);
+            when(lowLevel.update(any(UpdateQuery.class), any(ContentValues.class))).thenReturn(1);
+            when(lowLevel.insertRows(any(InsertQuery.class), anyListOf(ContentValues.class), eq(CONFLICT_NONE)))
+                    .thenReturn(2);
+
+            final TestItem existingItem = TestItem.newInstance();
+            final List<TestItem> items = asList(existingItem, TestItem.newInstance(), TestItem.newInstance());
+
+            final PutResults<TestItem> putResults = new PreparedPutCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withPutResolver(new TestItemPutResolver() {
+                        @NonNull
+                        @Override
+                        protected UpdateQuery mapToUpdateQuery(@NonNull TestItem object) {
+                            return UpdateQuery.builder().table(TestItem.TABLE).where("id = ?").whereArgs(object.hashCode()).build();
+                        }
+                    })
+                    .useMultiRowInserts(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResults.results()).containsOnlyKeys(existingItem);
+            assertThat(putResults.results().get(existingItem).wasUpdated()).isTrue();
+            assertThat(putResults.numberOfInserts()).isEqualTo(2);
+            assertThat(putResults.numberOfUpdates()).isEqualTo(1);
+
+            verify(lowLevel, times(3)).query(any(Query.class));
+            verify(lowLevel).update(any(UpdateQuery.class), any(ContentValues.class));
+            verify(lowLevel).insertRows(
+                    eq(InsertQuery.builder().table(TestItem.TABLE).build()),
+                    anyListOf(ContentValues.class),
+                    eq(CONFLICT_NONE)
+            );
+            verify(lowLevel, never()).insertRows(any(InsertQuery.class), anyListOf(ContentValues.class), eq(CONFLICT_REPLACE));
+            verify(existingRow).close();
+            verify(noRows, times(2)).close();
+        }
+
+        @Test
+        public void shouldBatchObjectsThatWereNotUpdatedWithUpdateThenInsertStrategy() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+            when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+            when(lowLevel.update(any(UpdateQuery.class), any(ContentValues.class))).thenReturn(1, 0);
+            when(lowLevel.insertRows(any(InsertQuery.class), anyListOf(ContentValues.class), eq(CONFLICT_NONE)))
+                    .thenReturn(1);
+
+            final TestItem existingItem = TestItem.newInstance();
+            final List<TestItem> items = asList(existingItem, TestItem.newInstance());
+
+            final PutResults<TestItem> putResults = new PreparedPutCollectionOfObjects.Builder<TestItem>(storIOSQLite, items)
+                    .withPutResolver(new TestItemPutResolver() {
+                        @NonNull
+                        @Override
+                        protected UpdateQuery mapToUpdateQuery(@NonNull TestItem object) {
+                            return UpdateQuery.builder().table(TestItem.TABLE).where("id = ?").whereArgs(object.hashCode()).build();
+                        }
+                    })
+                    .withPutStrategy(PutStrategy.UPDATE_THEN_INSERT)
+                    .useMultiRowInserts(true)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResults.results()).containsOnlyKeys(existingItem);
+            assertThat(putResults.numberOfInserts()).isEqualTo(1);
+            assertThat(putResults.numberOfUpdates()).isEqualTo(1);
+
+            verify(lowLevel, never()).query(any(Query.class));
+            verify(lowLevel, times(2)).update(any(UpdateQuery.class), any(ContentValues.class));
+            verify(lowLevel).insertRows(any(InsertQuery.class), anyListOf(ContentValues.class), eq(CONFLICT_NONE));
+            verify(lowLevel).notifyAboutChanges(Changes.newInstance(TestItem.TABLE));
+        }
+
+        private static class TestItemPutResolver extends DefaultPutResolver<TestItem> {
+
+            @NonNull
+            @Override
+            protected InsertQuery mapToInsertQuery(@NonNull TestItem object) {
+                return InsertQuery.builder().table(TestItem.TABLE).build();
+            }
+
+            @NonNull
+            @Override
+            protected UpdateQuery mapToUpdateQuery(@NonNull TestItem object) {
+                throw new AssertionError("Objects should not be updated");
+            }
+
+            @NonNull
+            @Override
+            protected ContentValues mapToContentValues(@NonNull TestItem object) {
+                return mock(ContentValues.class);
+            }
+        }
+    }
+
     public static class OtherTests {
 
         @Test
@@ -956,5 +1152,42 @@ public class PreparedPutCollectionOfObjectsTest {
 
             schedulerChecker.checkAsCompletable(operation);
         }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        public void shouldPutObjectsOfDifferentTypesWithTheirPutResolvers() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+
+            when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+
+            final SQLiteTypeMapping<TestItem> testItemTypeMapping = mock(SQLiteTypeMapping.class);
+            final PutResolver<TestItem> testItemPutResolver = mock(PutResolver.class);
+            final SQLiteTypeMapping<String> stringTypeMapping = mock(SQLiteTypeMapping.class);
+            final PutResolver<String> stringPutResolver = mock(PutResolver.class);
+
+            when(lowLevel.typeMapping(TestItem.class)).thenReturn(testItemTypeMapping);
+            when(testItemTypeMapping.putResolver()).thenReturn(testItemPutResolver);
+            when(lowLevel.typeMapping(String.class)).thenReturn(stringTypeMapping);
+            when(stringTypeMapping.putResolver()).thenReturn(stringPutResolver);
+
+            final TestItem testItem = TestItem.newInstance();
+            final PutResult testItemPutResult = PutResult.newInsertResult(1, TestItem.TABLE);
+            final PutResult stringPutResult = PutResult.newInsertResult(2, "strings");
+
+            when(testItemPutResolver.performPut(storIOSQLite, testItem)).thenReturn(testItemPutResult);
+            when(stringPutResolver.performPut(storIOSQLite, "string")).thenReturn(stringPutResult);
+
+            final PutResults<Object> putResults = new PreparedPutCollectionOfObjects.Builder<Object>(storIOSQLite, asList(testItem, "string"))
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResults.results()).hasSize(2);
+            assertThat(putResults.results()).containsEntry(testItem, testItemPutResult);
+            assertThat(putResults.results()).containsEntry("string", stringPutResult);
+
+            verify(testItemPutResolver).performPut(storIOSQLite, testItem);
+            verify(stringPutResolver).performPut(storIOSQLite, "string");
+        }
     }
 }
@@ -312,5 +312,48 @@ public class PreparedPutObjectTest {
 
             schedulerChecker.checkAsCompletable(operation);
         }
+
+        @SuppressWarnings("unchecked")
+        @Test
+        public void shouldPassExplicitPutStrategyToPutResolver() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            final StorIOSQLite.LowLevel lowLevel = mock(StorIOSQLite.LowLevel.class);
+            final PutResolver<TestItem> putResolver = mock(PutResolver.class);
+            final TestItem testItem = TestItem.newInstance();
+
+            when(storIOSQLite.put()).thenReturn(new PreparedPut.Builder(storIOSQLite));
+            when(storIOSQLite.lowLevel()).thenReturn(lowLevel);
+            when(putResolver.performPut(storIOSQLite, testItem, PutStrategy.UPDATE_THEN_INSERT))
+                    .thenReturn(PutResult.newUpdateResult(1, TestItem.TABLE));
+
+            final PutResult putResult = storIOSQLite
+                    .put()
+                    .object(testItem)
+                    .withPutResolver(putResolver)
+                    .withPutStrategy(PutStrategy.UPDATE_THEN_INSERT)
+                    .prepare()
+                    .executeAsBlocking();
+
+            assertThat(putResult.wasUpdated()).isTrue();
+            verify(putResolver).performPut(storIOSQLite, testItem, PutStrategy.UPDATE_THEN_INSERT);
+            verifyNoMoreInteractions(putResolver);
+        }
+
+        @Test
+        public void shouldNotAllowNullPutStrategy() {
+            final StorIOSQLite storIOSQLite = mock(StorIOSQLite.class);
+            when(storIOSQLite.put()).thenReturn(new PreparedPut.Builder(storIOSQLite));
+
+            try {
+                //noinspection ConstantConditions
+                storIOSQLite
+                        .put()
+                        .object(TestItem.newInstance())
+                        .withPutStrategy(null);
+                failBecauseExceptionWasNotThrown(NullPointerException.class);
+            } catch (NullPointerException expected) {
+                assertThat(expected).hasMessage("Please specify put strategy");
+            }
+        }
     }
 }
\ No newline at end of file
@@ -152,11 +152,11 @@ class PutObjectsStub {
         verifyTransactionBehavior();
 
         if (withTypeMapping) {
-            // should be called for each item
-            verify(internal, times(items.size())).typeMapping(TestItem.class);
+            // should be called once for collection of objects of one type
+            verify(internal).typeMapping(TestItem.class);
 
-            // should be called for each item
-            verify(typeMapping, times(items.size())).putResolver();
+            // should be called once for collection of objects of one type
+            verify(typeMapping).putResolver();
         }
 
         verifyNoMoreInteractions(storIOSQLite, internal, typeMapping, putResolver);
@@ -138,4 +138,17 @@ public class ToStringCheckerTest {
         // We can not check equality of Uri instance here…
         assertThat(sample).isInstanceOf(Uri.class);
     }
+
+    @Test
+    public void shouldCreateSampleValueOfEnum() {
+        Object sample = new ToStringChecker<Object>(Object.class)
+                .createSampleValueOfType(SampleEnum.class);
+
+        assertThat(sample).isEqualTo(SampleEnum.FIRST);
+    }
+
+    enum SampleEnum {
+        FIRST,
+        SECOND
+    }
 }